@@ -21,10 +21,13 @@ import com.google.common.collect.Sets;
 import org.janusgraph.JanusGraphBaseStoreFeaturesTest;
 import org.janusgraph.TestCategory;
 import org.janusgraph.diskstorage.configuration.Configuration;
+import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.configuration.backend.CommonsConfiguration;
 import org.janusgraph.diskstorage.keycolumnvalue.KCVSUtil;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyIterator;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyRange;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyRangeQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
@@ -40,6 +43,7 @@ import org.janusgraph.diskstorage.util.ReadArrayBuffer;
 import org.janusgraph.diskstorage.util.RecordIterator;
 import org.janusgraph.diskstorage.util.StaticArrayBuffer;
 import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
 import org.janusgraph.testutil.FeatureFlag;
 import org.janusgraph.testutil.JanusGraphFeature;
 import org.janusgraph.testutil.RandomGenerator;
@@ -54,6 +58,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -64,11 +69,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -461,6 +469,32 @@ public abstract class KeyColumnValueStoreTest extends AbstractKCVSTest implement
         verifyIterator(iterator2, numKeys);
     }
 
+    /**
+     * Verify that the partitions returned by
+     * {@link KeyColumnValueStore#getScanPartitions(int, StoreTransaction)} together
+     * return every key exactly once. Stores that cannot split scans return no partitions.
+     */
+    @Test
+    @FeatureFlag(feature = JanusGraphFeature.UnorderedScan)
+    public void scanTestWithPartitions() throws BackendException {
+        String[][] values = generateValues();
+        loadValues(values);
+        clopen();
+        List<KeyRange> partitions = store.getScanPartitions(4, tx);
+        if (partitions.isEmpty()) return;
+        assertTrue(partitions.size() >= 4);
+
+        SliceQuery query = new SliceQuery(BufferUtil.zeroBuffer(1), BufferUtil.oneBuffer(4)).setLimit(1);
+        Set<StaticBuffer> keys = new HashSet<>();
+        for (KeyRange partition : partitions) {
+            KeyIterator iterator = store.getKeys(query, partition, tx);
+            while (iterator.hasNext()) {
+                assertTrue(keys.add(iterator.next()));
+            }
+        }
+        assertEquals(numKeys, keys.size());
+    }
+
     private void verifyIterator(KeyIterator iterator, int expectedKeys) {
         int keys = 0;
         while (iterator.hasNext()) {
@@ -1213,6 +1247,108 @@ public abstract class KeyColumnValueStoreTest extends AbstractKCVSTest implement
         return jobBuilder.execute().get();
     }
 
+    @Test
+    public void scanTestResumeFromCheckpoint() throws Exception {
+        int keys = 1000, columns = 10;
+        loadValues(KeyValueStoreUtil.generateData(keys, columns));
+        clopen();
+
+        StandardScanner scanner = new StandardScanner(manager);
+        CommonsConfiguration checkpoints = new CommonsConfiguration();
+        Set<StaticBuffer> processed = ConcurrentHashMap.newKeySet();
+        String jobId = "resumable-job";
+
+        CountDownLatch reachedLimit = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        StandardScanner.Builder jobBuilder = buildCheckpointedJob(scanner, checkpoints,
+            new InterruptibleScanJob(processed, keys / 4, reachedLimit, cancelled)).setJobId(jobId);
+        Future<ScanMetrics> future = jobBuilder.execute();
+        assertTrue(reachedLimit.await(30, TimeUnit.SECONDS));
+        future.cancel(true);
+        cancelled.countDown();
+
+        long timeout = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (!checkpoints.getKeys("").iterator().hasNext()) {
+            assertTrue(System.currentTimeMillis() < timeout, "No checkpoint has been written");
+            Thread.sleep(10);
+        }
+        int processedBeforeResume = processed.size();
+        assertTrue(processedBeforeResume < keys);
+
+        AtomicInteger resumedRows = new AtomicInteger();
+        ScanMetrics metrics = buildCheckpointedJob(scanner, checkpoints,
+            new InterruptibleScanJob(processed, Integer.MAX_VALUE, reachedLimit, cancelled, resumedRows))
+            .resume(jobId).execute().get();
+        assertEquals(0, metrics.get(ScanMetrics.Metric.FAILURE));
+        assertEquals(keys, processed.size());
+        if (manager.getFeatures().hasOrderedScan() || !store.getScanPartitions(2, tx).isEmpty()) {
+            assertTrue(resumedRows.get() < keys, "Resumed job scanned the whole store");
+        }
+        assertFalse(checkpoints.getKeys("").iterator().hasNext(), "Checkpoint was not removed after completion");
+    }
+
+    private StandardScanner.Builder buildCheckpointedJob(StandardScanner scanner, CommonsConfiguration checkpoints, ScanJob job) {
+        StandardScanner.Builder jobBuilder = scanner.build();
+        jobBuilder.setStoreName(store.getName());
+        jobBuilder.setNumProcessingThreads(2);
+        jobBuilder.setWorkBlockSize(100);
+        jobBuilder.setTimestampProvider(times);
+        jobBuilder.setCheckpointConfiguration(checkpoints);
+        ModifiableConfiguration graphConfiguration = GraphDatabaseConfiguration.buildGraphConfiguration();
+        graphConfiguration.set(GraphDatabaseConfiguration.SCAN_CHECKPOINT_INTERVAL, Duration.ofMinutes(1));
+        // partitioned scans resume at partition granularity, ordered scans after the last processed key
+        graphConfiguration.set(GraphDatabaseConfiguration.SCAN_PARALLELISM, 2);
+        jobBuilder.setGraphConfiguration(graphConfiguration);
+        jobBuilder.setJob(job);
+        return jobBuilder;
+    }
+
+    private static class InterruptibleScanJob implements ScanJob {
+
+        private final Set<StaticBuffer> processed;
+        private final int limit;
+        private final CountDownLatch reachedLimit;
+        private final CountDownLatch cancelled;
+        private final AtomicInteger numRows;
+
+        private InterruptibleScanJob(Set<StaticBuffer> processed, int limit, CountDownLatch reachedLimit,
+                                     CountDownLatch cancelled) {
+            this(processed, limit, reachedLimit, cancelled, new AtomicInteger());
+        }
+
+        private InterruptibleScanJob(Set<StaticBuffer> processed, int limit, CountDownLatch reachedLimit,
+                                     CountDownLatch cancelled, AtomicInteger numRows) {
+            this.processed = processed;
+            this.limit = limit;
+            this.reachedLimit = reachedLimit;
+            this.cancelled = cancelled;
+            this.numRows = numRows;
+        }
+
+        @Override
+        public void process(StaticBuffer key, Map<SliceQuery, EntryList> entries, ScanMetrics metrics) {
+            processed.add(key);
+            if (numRows.incrementAndGet() == limit) {
+                reachedLimit.countDown();
+                try {
+                    cancelled.await();
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+            }
+        }
+
+        @Override
+        public List<SliceQuery> getQueries() {
+            return Collections.singletonList(new SliceQuery(BufferUtil.zeroBuffer(1), BufferUtil.oneBuffer(4)));
+        }
+
+        @Override
+        public InterruptibleScanJob clone() {
+            return new InterruptibleScanJob(processed, limit, reachedLimit, cancelled, numRows);
+        }
+    }
+
     @Test
     public void testClearStorage() throws Exception {
         final String[][] values = generateValues();
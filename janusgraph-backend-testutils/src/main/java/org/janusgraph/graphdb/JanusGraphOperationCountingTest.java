@@ -46,6 +46,7 @@ import org.janusgraph.graphdb.internal.InternalRelationType;
 import org.janusgraph.graphdb.internal.InternalVertexLabel;
 import org.janusgraph.graphdb.types.CompositeIndexType;
 import org.janusgraph.graphdb.types.IndexType;
+import org.janusgraph.graphdb.util.SubqueryIterator;
 import org.janusgraph.util.stats.MetricManager;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -68,6 +69,7 @@ import static org.janusgraph.diskstorage.util.MetricInstrumentedStore.M_GET_SLIC
 import static org.janusgraph.diskstorage.util.MetricInstrumentedStore.M_MUTATE;
 import static org.janusgraph.diskstorage.util.MetricInstrumentedStore.OPERATION_NAMES;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.BASIC_METRICS;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.BATCH_PROPERTY_PREFETCHING;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.DB_CACHE;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.DB_CACHE_CLEAN_WAIT;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.DB_CACHE_TIME;
@@ -75,6 +77,7 @@ import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.ID
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.METRICS_MERGE_STORES;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.PROPERTY_PREFETCHING;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.SCHEMA_CONSTRAINTS;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.USE_MULTIQUERY;
 import static org.janusgraph.graphdb.database.cache.MetricInstrumentedSchemaCache.METRICS_NAME;
 import static org.janusgraph.graphdb.database.cache.MetricInstrumentedSchemaCache.METRICS_RELATIONS;
 import static org.janusgraph.graphdb.database.cache.MetricInstrumentedSchemaCache.METRICS_TYPENAME;
@@ -380,6 +383,52 @@ public abstract class JanusGraphOperationCountingTest extends JanusGraphBaseTest
     }
 
 
+    @Test
+    public void testIndexQueryVerticesAreHydratedInBlocks() {
+        metricsPrefix = "testIndexQueryVerticesAreHydratedInBlocks";
+        makeVertexIndexedKey("category", Integer.class);
+        makeKey("name", String.class);
+        finishSchema();
+
+        final int numV = 20;
+        for (int i = 0; i < numV; i++) {
+            graph.addVertex("category", 1, "name", "v" + i);
+        }
+        graph.tx().commit();
+        clopen(option(USE_MULTIQUERY), true, option(BATCH_PROPERTY_PREFETCHING), true);
+        resetMetrics();
+
+        JanusGraphTransaction tx = graph.buildTransaction().groupName(metricsPrefix).checkInternalVertexExistence(true).start();
+        assertEquals(numV, tx.traversal().V().has("category", 1).valueMap("name").toList().size());
+        tx.commit();
+        if (features.hasMultiQuery()) {
+            //One call per block checks the existence and one call loads the properties of its vertices
+            long numBlocks = 0;
+            for (int remaining = numV, size = SubqueryIterator.INITIAL_BLOCK_SIZE; remaining > 0; remaining -= size, size *= 2) {
+                numBlocks++;
+            }
+            verifyStoreMetrics(EDGESTORE_NAME, ImmutableMap.of(M_GET_SLICE, 2 * numBlocks));
+        }
+        assertEquals(2 * numV, getEdgeStoreRowsRead());
+
+        //Only the vertices needed by the traversal are hydrated
+        resetMetrics();
+        tx = graph.buildTransaction().groupName(metricsPrefix).checkInternalVertexExistence(true).start();
+        assertEquals(1, tx.traversal().V().has("category", 1).limit(1).valueMap("name").toList().size());
+        tx.commit();
+        assertEquals(2, getEdgeStoreRowsRead());
+
+        resetMetrics();
+        tx = graph.buildTransaction().groupName(metricsPrefix).checkInternalVertexExistence(true).start();
+        assertTrue(tx.query().has("category", 1).vertices().iterator().hasNext());
+        tx.commit();
+        assertEquals(2 * SubqueryIterator.INITIAL_BLOCK_SIZE, getEdgeStoreRowsRead());
+    }
+
+    private long getEdgeStoreRowsRead() {
+        return metric.getHistogram(metricsPrefix, EDGESTORE_NAME, M_GET_SLICE, MetricInstrumentedStore.M_ENTRIES_HISTO).getCount();
+    }
+
     @Test
     public void checkFastPropertyTrue() {
         checkFastProperty(true);
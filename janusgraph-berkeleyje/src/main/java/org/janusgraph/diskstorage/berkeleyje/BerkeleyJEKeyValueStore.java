@@ -44,6 +44,10 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -215,9 +219,51 @@ public class BerkeleyJEKeyValueStore implements OrderedKeyValueStore {
         };
     }
 
+    /**
+     * Reads the slices of all queries on a single cursor. The queries are answered in the order of their start keys,
+     * so that a slice which starts behind the end of the previous one continues from the current cursor position
+     * instead of searching the B-tree again whenever the cursor already moved past its start.
+     */
     @Override
     public Map<KVQuery,RecordIterator<KeyValueEntry>> getSlices(List<KVQuery> queries, StoreTransaction txh) throws BackendException {
-        throw new UnsupportedOperationException();
+        log.trace("beginning db={}, op=getSlices, tx={}", name, txh);
+        final List<KVQuery> sortedQueries = new ArrayList<>(queries);
+        sortedQueries.sort(Comparator.comparing(KVQuery::getStart));
+        final Map<KVQuery,RecordIterator<KeyValueEntry>> results = new HashMap<>(queries.size());
+        final ReadOptions readOptions = getReadOptions(txh);
+        final DatabaseEntry foundKey = new DatabaseEntry();
+        final DatabaseEntry foundData = new DatabaseEntry();
+        final Cursor cursor = openCursor(txh);
+        try {
+            // The entry at the cursor position, which is null once the cursor moved past the last key
+            KeyValueEntry current = null;
+            // The end of the previous slice if the cursor moved past it, otherwise null
+            StaticBuffer scannedEnd = null;
+            for (KVQuery query : sortedQueries) {
+                final StaticBuffer keyStart = query.getStart();
+                final StaticBuffer keyEnd = query.getEnd();
+                final KeySelector selector = query.getKeySelector();
+                if (scannedEnd == null || keyStart.compareTo(scannedEnd) < 0
+                        || (current != null && current.getKey().compareTo(keyStart) < 0)) {
+                    foundKey.setData(keyStart.as(StaticBuffer.ARRAY_FACTORY));
+                    current = getEntry(cursor.get(foundKey, foundData, Get.SEARCH_GTE, readOptions), foundKey, foundData);
+                }
+                final List<KeyValueEntry> entries = new ArrayList<>();
+                while (current != null && current.getKey().compareTo(keyEnd) < 0 && !selector.reachedLimit()) {
+                    if (selector.include(current.getKey())) {
+                        entries.add(current);
+                    }
+                    current = getEntry(cursor.get(foundKey, foundData, Get.NEXT, readOptions), foundKey, foundData);
+                }
+                scannedEnd = current == null || current.getKey().compareTo(keyEnd) >= 0 ? keyEnd : null;
+                results.put(query, new KeyValueEntryIterator(entries));
+            }
+        } catch (DatabaseException e) {
+            throw new PermanentBackendException(e);
+        } finally {
+            closeCursor(txh, cursor);
+        }
+        return results;
     }
 
     @Override
@@ -270,6 +316,10 @@ public class BerkeleyJEKeyValueStore implements OrderedKeyValueStore {
         return new StaticArrayBuffer(entry.getData(),entry.getOffset(),entry.getOffset()+entry.getSize());
     }
 
+    private static KeyValueEntry getEntry(OperationResult result, DatabaseEntry key, DatabaseEntry data) {
+        return result == null ? null : new KeyValueEntry(getBuffer(key), getBuffer(data));
+    }
+
     private WriteOptions getWriteOptions(final StoreTransaction txh) {
         return new WriteOptions().setCacheMode(((BerkeleyJETx) txh).getCacheMode());
     }
@@ -278,4 +328,32 @@ public class BerkeleyJEKeyValueStore implements OrderedKeyValueStore {
         return new ReadOptions().setCacheMode(((BerkeleyJETx) txh).getCacheMode())
                                 .setLockMode(((BerkeleyJETx) txh).getLockMode());
     }
+
+    private static class KeyValueEntryIterator implements RecordIterator<KeyValueEntry> {
+
+        private final Iterator<KeyValueEntry> entries;
+
+        private KeyValueEntryIterator(List<KeyValueEntry> entries) {
+            this.entries = entries.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return entries.hasNext();
+        }
+
+        @Override
+        public KeyValueEntry next() {
+            return entries.next();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
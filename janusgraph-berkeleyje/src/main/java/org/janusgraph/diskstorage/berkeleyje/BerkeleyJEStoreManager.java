@@ -104,6 +104,7 @@ public class BerkeleyJEStoreManager extends LocalStoreManager implements Ordered
 
         features = new StandardStoreFeatures.Builder()
                     .orderedScan(true)
+                    .multiQuery(true)
                     .transactional(transactional)
                     .keyConsistent(GraphDatabaseConfiguration.buildGraphConfiguration())
                     .locking(true)
@@ -17,7 +17,21 @@ package org.janusgraph.diskstorage.berkeleyje;
 import org.janusgraph.BerkeleyStorageSetup;
 import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.KeyValueStoreTest;
+import org.janusgraph.diskstorage.KeyValueStoreUtil;
+import org.janusgraph.diskstorage.keycolumnvalue.keyvalue.KVQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.keyvalue.KVUtil;
+import org.janusgraph.diskstorage.keycolumnvalue.keyvalue.KeyValueEntry;
 import org.janusgraph.diskstorage.keycolumnvalue.keyvalue.OrderedKeyValueStoreManager;
+import org.janusgraph.diskstorage.util.RecordIterator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 public class BerkeleyKeyValueTest extends KeyValueStoreTest {
@@ -27,5 +41,29 @@ public class BerkeleyKeyValueTest extends KeyValueStoreTest {
         return new BerkeleyJEStoreManager(BerkeleyStorageSetup.getBerkeleyJEConfiguration());
     }
 
+    @Test
+    public void testGetSlicesMatchesGetSlice() throws BackendException {
+        assertTrue(manager.getFeatures().hasMultiQuery());
+        final int numKeys = 500;
+        final String[] values = KeyValueStoreUtil.generateData(numKeys);
+        for (int i = 0; i < numKeys; i += 2) {
+            store.insert(KeyValueStoreUtil.getBuffer(i), KeyValueStoreUtil.getBuffer(values[i]), tx, null);
+        }
 
+        // Overlapping, duplicate, empty and limited slices in random order
+        final Random random = new Random(42);
+        final List<KVQuery> queries = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            final int start = random.nextInt(numKeys + 10);
+            final int end = start + random.nextInt(20);
+            final int limit = random.nextBoolean() ? KVQuery.NO_LIMIT : 1 + random.nextInt(5);
+            queries.add(new KVQuery(KeyValueStoreUtil.getBuffer(start), KeyValueStoreUtil.getBuffer(end), limit));
+        }
+        queries.add(new KVQuery(queries.get(0).getStart(), queries.get(0).getEnd(), queries.get(0).getLimit()));
+
+        final Map<KVQuery, RecordIterator<KeyValueEntry>> results = store.getSlices(queries, tx);
+        for (KVQuery query : queries) {
+            assertEquals(KVUtil.convert(store.getSlice(query, tx)), KVUtil.convert(results.get(query)));
+        }
+    }
 }
@@ -66,6 +66,15 @@ public interface TransactionBuilder {
      */
     TransactionBuilder vertexCacheSize(int size);
 
+    /**
+     * Configures the implementation of the cache of recently-used vertices in the transaction.
+     * Either {@code guava} or {@code clock}.
+     *
+     * @param type The name of the vertex cache implementation
+     * @return Object containing the internal cache properties
+     */
+    TransactionBuilder vertexCacheType(String type);
+
     /**
      * Configures the initial size of the map of modified vertices held by this
      * transaction. This is a performance hint, not a hard upper bound. The map
@@ -15,6 +15,7 @@
 package org.janusgraph.diskstorage;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
 import org.apache.commons.lang3.StringUtils;
 import org.janusgraph.core.JanusGraphConfigurationException;
 import org.janusgraph.core.JanusGraphException;
@@ -37,6 +38,7 @@ import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreFeatures;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreManager;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.keycolumnvalue.cache.CacheInvalidationLogger;
 import org.janusgraph.diskstorage.keycolumnvalue.cache.CacheTransaction;
 import org.janusgraph.diskstorage.keycolumnvalue.cache.ExpirationKCVSCache;
 import org.janusgraph.diskstorage.keycolumnvalue.cache.KCVSCache;
@@ -50,9 +52,13 @@ import org.janusgraph.diskstorage.locking.consistentkey.ConsistentKeyLocker;
 import org.janusgraph.diskstorage.locking.consistentkey.ExpectedValueCheckingStoreManager;
 import org.janusgraph.diskstorage.log.Log;
 import org.janusgraph.diskstorage.log.LogManager;
+import org.janusgraph.diskstorage.log.ReadMarker;
 import org.janusgraph.diskstorage.log.kcvs.KCVSLog;
 import org.janusgraph.diskstorage.log.kcvs.KCVSLogManager;
+import org.janusgraph.diskstorage.util.BackendCompression;
 import org.janusgraph.diskstorage.util.BackendOperation;
+import org.janusgraph.diskstorage.util.CompressingStoreManager;
+import org.janusgraph.diskstorage.util.DeflateBackendCompression;
 import org.janusgraph.diskstorage.util.MetricInstrumentedIndexProvider;
 import org.janusgraph.diskstorage.util.MetricInstrumentedStoreManager;
 import org.janusgraph.diskstorage.util.StandardBaseTransactionConfig;
@@ -77,9 +83,13 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.BASIC_METRICS;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.BATCH_LOADING_PARALLEL_FLUSHES;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.BUFFER_SIZE;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.DB_CACHE;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.CACHE_INVALIDATION_LOG;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.DB_CACHE_CLEAN_WAIT;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.DB_CACHE_INVALIDATION_LOG;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.DB_CACHE_OFF_HEAP_SIZE;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.DB_CACHE_SIZE;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.DB_CACHE_TIME;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.IDS_STORE_NAME;
@@ -91,10 +101,15 @@ import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.LO
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.LOG_BACKEND;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.MANAGEMENT_LOG;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.METRICS_MERGE_STORES;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.METRICS_PREFIX;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.PAGE_SIZE;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.PARALLEL_BACKEND_OPS;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.SCAN_CHECKPOINT_IDENTIFIER;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.STORAGE_BACKEND;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.STORAGE_BATCH;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.STORAGE_COMPRESSION_ALGORITHM;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.STORAGE_COMPRESSION_MIN_SIZE;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.STORAGE_COMPRESSION_STORES;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.STORAGE_DIRECTORY;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.STORAGE_HOSTS;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.STORAGE_READ_WAITTIME;
@@ -102,6 +117,7 @@ import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.ST
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.SYSTEM_PROPERTIES_STORE_NAME;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.TIMESTAMP_PROVIDER;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.TRANSACTION_LOG;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.UNIQUE_INSTANCE_ID;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.USER_CONFIGURATION_IDENTIFIER;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.USER_LOG;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.USER_LOG_PREFIX;
@@ -140,6 +156,7 @@ public class Backend implements LockerProvider, AutoCloseable {
 
     public static final String SYSTEM_TX_LOG_NAME = "txlog";
     public static final String SYSTEM_MGMT_LOG_NAME = "systemlog";
+    public static final String SYSTEM_CACHE_LOG_NAME = "systemcache";
 
     public static final double EDGESTORE_CACHE_PERCENT = 0.8;
     public static final double INDEXSTORE_CACHE_PERCENT = 0.2;
@@ -161,6 +178,12 @@ public class Backend implements LockerProvider, AutoCloseable {
         put("default","org.janusgraph.diskstorage.log.kcvs.KCVSLogManager");
     }};
 
+    public static final String NO_COMPRESSION = "none";
+
+    public static final Map<String,String> REGISTERED_COMPRESSIONS = new HashMap<String, String>() {{
+        put("deflate", DeflateBackendCompression.class.getName());
+    }};
+
     private static final Function<String, Locker> TEST_LOCKER_CREATOR = lockerName -> openManagedLocker("org.janusgraph.diskstorage.util.TestLockerManager",lockerName);
 
     private final Function<String, Locker> CONSISTENT_KEY_LOCKER_CREATOR = new Function<String, Locker>() {
@@ -184,6 +207,7 @@ public class Backend implements LockerProvider, AutoCloseable {
 
     private final KeyColumnValueStoreManager storeManager;
     private final KeyColumnValueStoreManager storeManagerLocking;
+    private final CompressingStoreManager compressingStoreManager;
     private final StoreFeatures storeFeatures;
 
     private KCVSCache edgeStore;
@@ -192,6 +216,7 @@ public class Backend implements LockerProvider, AutoCloseable {
     private IDAuthority idAuthority;
     private KCVSConfiguration systemConfig;
     private KCVSConfiguration userConfig;
+    private KCVSConfiguration scanCheckpoints;
     private boolean hasAttemptedClose;
 
     private final StandardScanner scanner;
@@ -199,6 +224,8 @@ public class Backend implements LockerProvider, AutoCloseable {
     private final KCVSLogManager managementLogManager;
     private final KCVSLogManager txLogManager;
     private final LogManager userLogManager;
+    private final LogManager cacheLogManager;
+    private CacheInvalidationLogger cacheInvalidationLogger;
 
 
     private final Map<String, IndexProvider> indexes;
@@ -208,6 +235,7 @@ public class Backend implements LockerProvider, AutoCloseable {
     private final Duration maxReadTime;
     private final boolean cacheEnabled;
     private final ExecutorService threadPool;
+    private final int batchLoadingParallelFlushes;
 
     private final Function<String, Locker> lockerCreator;
     private final ConcurrentHashMap<String, Locker> lockers = new ConcurrentHashMap<>();
@@ -218,6 +246,17 @@ public class Backend implements LockerProvider, AutoCloseable {
         this.configuration = configuration;
 
         KeyColumnValueStoreManager manager = getStorageManager(configuration);
+        final String compressionAlgorithm = configuration.get(STORAGE_COMPRESSION_ALGORITHM);
+        if (!NO_COMPRESSION.equalsIgnoreCase(compressionAlgorithm)) {
+            BackendCompression compression = getImplementationClass(configuration, compressionAlgorithm, REGISTERED_COMPRESSIONS);
+            Set<String> compressedStores = ImmutableSet.copyOf(configuration.get(STORAGE_COMPRESSION_STORES));
+            compressingStoreManager = new CompressingStoreManager(manager, compression, compressedStores,
+                configuration.get(STORAGE_COMPRESSION_MIN_SIZE), configuration.get(BASIC_METRICS));
+            manager = compressingStoreManager;
+            log.info("Compressing the values of stores {} with {}", compressedStores, compressionAlgorithm);
+        } else {
+            compressingStoreManager = null;
+        }
         if (configuration.get(BASIC_METRICS)) {
             storeManager = new MetricInstrumentedStoreManager(manager,METRICS_STOREMANAGER_NAME,configuration.get(METRICS_MERGE_STORES),METRICS_MERGED_STORE);
         } else {
@@ -232,6 +271,7 @@ public class Backend implements LockerProvider, AutoCloseable {
 
 
         cacheEnabled = !configuration.get(STORAGE_BATCH) && configuration.get(DB_CACHE);
+        cacheLogManager = cacheEnabled && configuration.get(DB_CACHE_INVALIDATION_LOG) ? getLogManager(CACHE_INVALIDATION_LOG) : null;
 
         int bufferSizeTmp = configuration.get(BUFFER_SIZE);
         Preconditions.checkArgument(bufferSizeTmp > 0, "Buffer size must be positive");
@@ -240,6 +280,7 @@ public class Backend implements LockerProvider, AutoCloseable {
         } else bufferSize = bufferSizeTmp;
 
         maxWriteTime = configuration.get(STORAGE_WRITE_WAITTIME);
+        batchLoadingParallelFlushes = configuration.get(BATCH_LOADING_PARALLEL_FLUSHES);
         maxReadTime = configuration.get(STORAGE_READ_WAITTIME);
 
         if (!storeFeatures.hasLocking()) {
@@ -335,9 +376,24 @@ public class Backend implements LockerProvider, AutoCloseable {
                 Preconditions.checkArgument(EDGESTORE_CACHE_PERCENT + INDEXSTORE_CACHE_PERCENT == 1.0,"Cache percentages don't add up!");
                 long edgeStoreCacheSize = Math.round(cacheSizeBytes * EDGESTORE_CACHE_PERCENT);
                 long indexStoreCacheSize = Math.round(cacheSizeBytes * INDEXSTORE_CACHE_PERCENT);
-
-                edgeStore = new ExpirationKCVSCache(edgeStoreRaw,getMetricsCacheName(EDGESTORE_NAME),expirationTime,cleanWaitTime,edgeStoreCacheSize);
-                indexStore = new ExpirationKCVSCache(indexStoreRaw,getMetricsCacheName(INDEXSTORE_NAME),expirationTime,cleanWaitTime,indexStoreCacheSize);
+                long offHeapCacheSize = configuration.get(DB_CACHE_OFF_HEAP_SIZE);
+                Preconditions.checkArgument(offHeapCacheSize>=0,"Invalid off-heap cache size: %s",offHeapCacheSize);
+                if (offHeapCacheSize>0) log.info("Configuring total off-heap store cache size: {}",offHeapCacheSize);
+                long edgeStoreOffHeapCacheSize = Math.round(offHeapCacheSize * EDGESTORE_CACHE_PERCENT);
+                long indexStoreOffHeapCacheSize = Math.round(offHeapCacheSize * INDEXSTORE_CACHE_PERCENT);
+                String metricsPrefix = configuration.get(BASIC_METRICS) ? configuration.get(METRICS_PREFIX) : null;
+
+                edgeStore = new ExpirationKCVSCache(edgeStoreRaw,getMetricsCacheName(EDGESTORE_NAME),expirationTime,cleanWaitTime,edgeStoreCacheSize,
+                        edgeStoreOffHeapCacheSize,metricsPrefix);
+                indexStore = new ExpirationKCVSCache(indexStoreRaw,getMetricsCacheName(INDEXSTORE_NAME),expirationTime,cleanWaitTime,indexStoreCacheSize,
+                        indexStoreOffHeapCacheSize,metricsPrefix);
+
+                if (cacheLogManager != null) {
+                    Log cacheLog = cacheLogManager.openLog(SYSTEM_CACHE_LOG_NAME);
+                    cacheInvalidationLogger = new CacheInvalidationLogger(cacheLog, configuration.get(UNIQUE_INSTANCE_ID), edgeStore, indexStore);
+                    cacheLog.registerReader(ReadMarker.fromNow(), cacheInvalidationLogger);
+                    log.info("Publishing database cache invalidations over log {}", SYSTEM_CACHE_LOG_NAME);
+                }
             } else {
                 edgeStore = new NoKCVSCache(edgeStoreRaw);
                 indexStore = new NoKCVSCache(indexStoreRaw);
@@ -376,6 +432,17 @@ public class Backend implements LockerProvider, AutoCloseable {
                     //Do nothing, storeManager is closed explicitly by Backend
                 }
             },systemConfigStore,USER_CONFIGURATION_IDENTIFIER,configuration);
+            scanCheckpoints = kcvsConfigurationBuilder.buildConfiguration(new BackendOperation.TransactionalProvider() {
+                @Override
+                public StoreTransaction openTx() throws BackendException {
+                    return storeManagerLocking.beginTransaction(StandardBaseTransactionConfig.of(configuration.get(TIMESTAMP_PROVIDER)));
+                }
+
+                @Override
+                public void close() throws BackendException {
+                    //Do nothing, storeManager is closed explicitly by Backend
+                }
+            },systemConfigStore,SCAN_CHECKPOINT_IDENTIFIER,configuration);
 
         } catch (BackendException e) {
             throw new JanusGraphException("Could not initialize backend", e);
@@ -424,6 +491,7 @@ public class Backend implements LockerProvider, AutoCloseable {
                 .setTimestampProvider(provider)
                 .setJobConfiguration(jobConfig)
                 .setGraphConfiguration(configuration)
+                .setCheckpointConfiguration(scanCheckpoints)
                 .setNumProcessingThreads(1)
                 .setWorkBlockSize(this.configuration.get(PAGE_SIZE));
     }
@@ -544,6 +612,15 @@ public class Backend implements LockerProvider, AutoCloseable {
         return storeManager;
     }
 
+    /**
+     * Returns the given entry of the named store as it is read through this backend, i.e. with its value decompressed
+     * if value compression is enabled for the store. Needed by readers which access the raw store data directly,
+     * such as the Hadoop input formats.
+     */
+    public Entry decompress(String storeName, Entry entry) {
+        return compressingStoreManager == null ? entry : compressingStoreManager.decompress(storeName, entry);
+    }
+
     /**
      * Returns the {@link IndexFeatures} of all configured index backends
      */
@@ -562,7 +639,8 @@ public class Backend implements LockerProvider, AutoCloseable {
         StoreTransaction tx = storeManagerLocking.beginTransaction(configuration);
 
         // Cache
-        CacheTransaction cacheTx = new CacheTransaction(tx, storeManagerLocking, bufferSize, maxWriteTime, configuration.hasEnabledBatchLoading());
+        CacheTransaction cacheTx = new CacheTransaction(tx, storeManagerLocking, bufferSize, maxWriteTime,
+            configuration.hasEnabledBatchLoading(), 2, threadPool, batchLoadingParallelFlushes, cacheInvalidationLogger);
 
         // Index transactions
         final Map<String, IndexTransaction> indexTx = new HashMap<>(indexes.size());
@@ -581,6 +659,7 @@ public class Backend implements LockerProvider, AutoCloseable {
             managementLogManager.close();
             txLogManager.close();
             userLogManager.close();
+            if (cacheLogManager != null) cacheLogManager.close();
 
             scanner.close();
             if (edgeStore != null) edgeStore.close();
@@ -588,6 +667,7 @@ public class Backend implements LockerProvider, AutoCloseable {
             if (idAuthority != null) idAuthority.close();
             if (systemConfig != null) systemConfig.close();
             if (userConfig != null) userConfig.close();
+            if (scanCheckpoints != null) scanCheckpoints.close();
             storeManager.close();
             if(threadPool != null) {
             	threadPool.shutdown();
@@ -619,6 +699,7 @@ public class Backend implements LockerProvider, AutoCloseable {
             idAuthority.close();
             systemConfig.close();
             userConfig.close();
+            scanCheckpoints.close();
             storeManager.clearStorage();
             storeManager.close();
             //Indexes
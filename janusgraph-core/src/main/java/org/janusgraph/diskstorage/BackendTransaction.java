@@ -15,6 +15,7 @@
 package org.janusgraph.diskstorage;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
 import org.janusgraph.core.JanusGraphException;
@@ -32,15 +33,20 @@ import org.janusgraph.diskstorage.keycolumnvalue.cache.KCVSCache;
 import org.janusgraph.diskstorage.log.kcvs.ExternalCachePersistor;
 import org.janusgraph.diskstorage.util.BackendOperation;
 import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.EntryArrayList;
 import org.janusgraph.graphdb.database.serialize.DataOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -131,13 +137,37 @@ public class BackendTransaction implements LoggableTransaction {
         storeTx.commit();
     }
 
+    /**
+     * Commits all index transactions, concurrently if a backend thread pool is configured.
+     * A failure to commit one index transaction does not prevent the others from being committed.
+     *
+     * @return the failures of the index transactions which could not be committed, by index name
+     */
     public Map<String,Throwable> commitIndexes() {
-        final Map<String,Throwable> exceptions = new HashMap<>(indexTx.size());
-        for (Map.Entry<String,IndexTransaction> indexTransactionEntry : indexTx.entrySet()) {
+        final Map<String,Throwable> exceptions = new ConcurrentHashMap<>(indexTx.size());
+        if (threadPool == null || indexTx.size() < MIN_TASKS_TO_PARALLELIZE) {
+            for (Map.Entry<String,IndexTransaction> indexTransactionEntry : indexTx.entrySet()) {
+                try {
+                    indexTransactionEntry.getValue().commit();
+                } catch (Throwable e) {
+                    exceptions.put(indexTransactionEntry.getKey(),e);
+                }
+            }
+        } else {
+            final CountDownLatch doneSignal = new CountDownLatch(indexTx.size());
+            final Set<String> finished = ConcurrentHashMap.newKeySet();
+            for (Map.Entry<String,IndexTransaction> indexTransactionEntry : indexTx.entrySet()) {
+                threadPool.execute(new IndexCommitRunner(indexTransactionEntry.getKey(), indexTransactionEntry.getValue(),
+                        doneSignal, finished, exceptions));
+            }
             try {
-                indexTransactionEntry.getValue().commit();
-            } catch (Throwable e) {
-                exceptions.put(indexTransactionEntry.getKey(),e);
+                doneSignal.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                //Index transactions which are still being committed can no longer be reported on
+                for (String index : indexTx.keySet()) {
+                    if (!finished.contains(index)) exceptions.putIfAbsent(index, e);
+                }
             }
         }
         return exceptions;
@@ -146,7 +176,12 @@ public class BackendTransaction implements LoggableTransaction {
     @Override
     public void commit() throws BackendException {
         storeTx.commit();
-        for (IndexTransaction itx : indexTx.values()) itx.commit();
+        Map<String,Throwable> exceptions = commitIndexes();
+        if (!exceptions.isEmpty()) {
+            Throwable exception = exceptions.values().iterator().next();
+            if (exception instanceof BackendException) throw (BackendException)exception;
+            else throw new PermanentBackendException("Could not commit index transaction",exception);
+        }
     }
 
     /**
@@ -322,6 +357,36 @@ public class BackendTransaction implements LoggableTransaction {
         }
     }
 
+    private static class IndexCommitRunner implements Runnable {
+
+        final String index;
+        final IndexTransaction itx;
+        final CountDownLatch doneSignal;
+        final Set<String> finished;
+        final Map<String,Throwable> exceptions;
+
+        private IndexCommitRunner(String index, IndexTransaction itx, CountDownLatch doneSignal,
+                                  Set<String> finished, Map<String,Throwable> exceptions) {
+            this.index = index;
+            this.itx = itx;
+            this.doneSignal = doneSignal;
+            this.finished = finished;
+            this.exceptions = exceptions;
+        }
+
+        @Override
+        public void run() {
+            try {
+                itx.commit();
+            } catch (Throwable e) {
+                exceptions.put(index, e);
+            } finally {
+                finished.add(index);
+                doneSignal.countDown();
+            }
+        }
+    }
+
     private class SliceQueryRunner implements Runnable {
 
         final KeySliceQuery kq;
@@ -405,6 +470,162 @@ public class BackendTransaction implements LoggableTransaction {
 
     }
 
+    /**
+     * Executes the given index queries and returns their results in the order of the queries. Just like executing
+     * the queries one after another, the results of the leading queries add up to at most the given limit and the
+     * queries following the one that reaches the limit are omitted.
+     * <p>
+     * If the storage backend supports multi-key queries and all queries ask for the same slice, they are combined
+     * into a single multi-key read. Otherwise the queries are executed concurrently on the backend thread pool,
+     * and queries which have not started yet are skipped once the limit is reached.
+     *
+     * @param queries the index queries to execute
+     * @param limit the maximum number of entries to return over all queries
+     * @return the results of the queries, in the order of the queries
+     */
+    public List<EntryList> indexQuery(final List<KeySliceQuery> queries, final int limit) {
+        if (queries.size() >= MIN_TASKS_TO_PARALLELIZE) {
+            if (storeFeatures.hasMultiQuery() && haveSameSlice(queries)) {
+                return multiKeyIndexQuery(queries, limit);
+            } else if (threadPool != null) {
+                return concurrentIndexQuery(queries, limit);
+            }
+        }
+        final List<EntryList> results = new ArrayList<>(Math.min(limit, queries.size()));
+        int total = 0;
+        for (KeySliceQuery ksq : queries) {
+            EntryList next = indexQuery(ksq.updateLimit(limit - total));
+            results.add(next);
+            total += next.size();
+            if (total >= limit) break;
+        }
+        return results;
+    }
+
+    private static boolean haveSameSlice(final List<KeySliceQuery> queries) {
+        final KeySliceQuery first = queries.get(0);
+        for (KeySliceQuery ksq : queries) {
+            if (!first.getSliceStart().equals(ksq.getSliceStart()) || !first.getSliceEnd().equals(ksq.getSliceEnd())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<EntryList> multiKeyIndexQuery(final List<KeySliceQuery> queries, final int limit) {
+        final List<StaticBuffer> keys = new ArrayList<>(new LinkedHashSet<>(Lists.transform(queries, KeySliceQuery::getKey)));
+        final KeySliceQuery first = queries.get(0);
+        final SliceQuery slice = new SliceQuery(first.getSliceStart(), first.getSliceEnd()).setLimit(limit);
+        final Map<StaticBuffer, EntryList> results = executeRead(new Callable<Map<StaticBuffer, EntryList>>() {
+            @Override
+            public Map<StaticBuffer, EntryList> call() throws Exception {
+                return cacheEnabled ? indexStore.getSlice(keys, slice, storeTx) :
+                                      indexStore.getSliceNoCache(keys, slice, storeTx);
+            }
+
+            @Override
+            public String toString() {
+                return "MultiVertexIndexQuery";
+            }
+        });
+        final EntryList[] resultArray = new EntryList[queries.size()];
+        for (int i = 0; i < queries.size(); i++) {
+            // stores may omit keys without any entries
+            resultArray[i] = results.getOrDefault(queries.get(i).getKey(), EntryList.EMPTY_LIST);
+        }
+        return limitIndexResults(resultArray, limit);
+    }
+
+    private List<EntryList> concurrentIndexQuery(final List<KeySliceQuery> queries, final int limit) {
+        final IndexQueryResults results = new IndexQueryResults(queries.size(), limit);
+        for (int i = 0; i < queries.size(); i++) {
+            threadPool.execute(new IndexQueryRunner(queries.get(i).updateLimit(limit), results, i));
+        }
+        try {
+            results.doneSignal.await();
+        } catch (InterruptedException e) {
+            throw new JanusGraphException("Interrupted while waiting for multi-key index query to complete", e);
+        }
+        if (results.failureCount.get() > 0) {
+            throw new JanusGraphException("Could not successfully complete multi-key index query. " + results.failureCount.get() + " individual queries failed.");
+        }
+        return limitIndexResults(results.resultArray, limit);
+    }
+
+    /**
+     * Truncates the results the same way executing the queries one after another would
+     */
+    private static List<EntryList> limitIndexResults(final EntryList[] resultArray, final int limit) {
+        final List<EntryList> results = new ArrayList<>(Math.min(limit, resultArray.length));
+        int total = 0;
+        for (EntryList result : resultArray) {
+            Preconditions.checkState(result != null, "Missing result of index query before reaching the limit");
+            if (result.size() > limit - total) {
+                result = EntryArrayList.of(result.subList(0, limit - total));
+            }
+            results.add(result);
+            total += result.size();
+            if (total >= limit) break;
+        }
+        return results;
+    }
+
+    /**
+     * Collects the results of concurrently executed index queries and keeps track of whether the queries that
+     * completed in order already reached the limit.
+     */
+    private static class IndexQueryResults {
+
+        final EntryList[] resultArray;
+        final int limit;
+        final CountDownLatch doneSignal;
+        final AtomicInteger failureCount = new AtomicInteger(0);
+        private int completedPrefix = 0;
+        private int prefixTotal = 0;
+        private volatile boolean limitReached = false;
+
+        private IndexQueryResults(int numQueries, int limit) {
+            this.resultArray = new EntryList[numQueries];
+            this.limit = limit;
+            this.doneSignal = new CountDownLatch(numQueries);
+        }
+
+        synchronized void add(int position, EntryList result) {
+            resultArray[position] = result;
+            while (!limitReached && completedPrefix < resultArray.length && resultArray[completedPrefix] != null) {
+                prefixTotal += resultArray[completedPrefix++].size();
+                if (prefixTotal >= limit) limitReached = true;
+            }
+        }
+    }
+
+    private class IndexQueryRunner implements Runnable {
+
+        final KeySliceQuery kq;
+        final IndexQueryResults results;
+        final int resultPosition;
+
+        private IndexQueryRunner(KeySliceQuery kq, IndexQueryResults results, int resultPosition) {
+            this.kq = kq;
+            this.results = results;
+            this.resultPosition = resultPosition;
+        }
+
+        @Override
+        public void run() {
+            try {
+                // the queries preceding this one already provide enough results
+                if (!results.limitReached) {
+                    results.add(resultPosition, indexQuery(kq));
+                }
+            } catch (Exception e) {
+                results.failureCount.incrementAndGet();
+                log.warn("Individual query in multi-key index query failed: ", e);
+            } finally {
+                results.doneSignal.countDown();
+            }
+        }
+    }
 
     public Stream<String> indexQuery(final String index, final IndexQuery query) {
         final IndexTransaction indexTx = getIndexTransaction(index);
@@ -67,6 +67,16 @@ public class KCVSProxy implements KeyColumnValueStore {
         return store.getKeys(queries, txh);
     }
 
+    @Override
+    public List<KeyRange> getScanPartitions(int numPartitions, StoreTransaction txh) throws BackendException {
+        return store.getScanPartitions(numPartitions, unwrapTx(txh));
+    }
+
+    @Override
+    public KeyIterator getKeys(SliceQuery columnQuery, KeyRange partition, StoreTransaction txh) throws BackendException {
+        return store.getKeys(columnQuery, partition, unwrapTx(txh));
+    }
+
     @Override
     public String getName() {
         return store.getName();
@@ -186,6 +186,36 @@ public interface KeyColumnValueStore {
      */
     KeySlicesIterator getKeys(MultiSlicesQuery queries, StoreTransaction txh) throws BackendException;
 
+    /**
+     * Splits a full scan of this store into disjoint partitions that can be read concurrently through
+     * {@link #getKeys(SliceQuery, KeyRange, StoreTransaction)}. Together, the returned partitions cover all keys of the store.
+     * The boundaries of the returned {@link KeyRange}s are store specific and must not be interpreted by the caller.
+     * <p>
+     * Stores which cannot split full scans return an empty list, which is the default.
+     *
+     * @param numPartitions hint for the minimum number of partitions to return
+     * @param txh
+     * @return the scan partitions of this store, or an empty list if full scans cannot be split
+     * @throws org.janusgraph.diskstorage.BackendException
+     */
+    default List<KeyRange> getScanPartitions(int numPartitions, StoreTransaction txh) throws BackendException {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Like {@link #getKeys(SliceQuery, StoreTransaction)} but only returns the keys which belong to the given scan partition.
+     * Keys are returned in the same order for all queries against the same partition.
+     *
+     * @param query
+     * @param partition a partition as returned by {@link #getScanPartitions(int, StoreTransaction)}
+     * @param txh
+     * @return
+     * @throws org.janusgraph.diskstorage.BackendException
+     */
+    default KeyIterator getKeys(SliceQuery query, KeyRange partition, StoreTransaction txh) throws BackendException {
+        throw new UnsupportedOperationException("Store does not support partitioned scans: " + getName());
+    }
+
     /**
      * Returns the name of this store. Each store has a unique name which is used to open it.
      *
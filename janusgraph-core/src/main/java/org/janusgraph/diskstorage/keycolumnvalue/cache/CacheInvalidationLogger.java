@@ -0,0 +1,115 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.cache;
+
+import com.google.common.base.Preconditions;
+import org.janusgraph.diskstorage.ReadBuffer;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.WriteBuffer;
+import org.janusgraph.diskstorage.log.Log;
+import org.janusgraph.diskstorage.log.Message;
+import org.janusgraph.diskstorage.log.MessageReader;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
+import org.janusgraph.diskstorage.util.WriteByteBuffer;
+import org.janusgraph.graphdb.database.idhandling.VariableLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Broadcasts the row keys mutated by a transaction over a {@link Log} so that other instances can invalidate
+ * them in their database-level cache, similar to how the management log broadcasts schema evictions.
+ * <p>
+ * Each message holds the name of a store followed by up to {@link #MAX_KEYS_PER_MESSAGE} keys of that store.
+ * Messages sent by this instance are ignored since its own cache is invalidated when the mutations are persisted.
+ */
+public class CacheInvalidationLogger implements MessageReader {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationLogger.class);
+
+    static final int MAX_KEYS_PER_MESSAGE = 1000;
+
+    private final Log invalidationLog;
+    private final String senderId;
+    private final Map<String, KCVSCache> caches;
+
+    public CacheInvalidationLogger(Log invalidationLog, String senderId, KCVSCache... caches) {
+        Preconditions.checkArgument(invalidationLog != null && senderId != null);
+        this.invalidationLog = invalidationLog;
+        this.senderId = senderId;
+        this.caches = new HashMap<>(caches.length);
+        for (KCVSCache cache : caches) this.caches.put(cache.getName(), cache);
+    }
+
+    /**
+     * Publishes the given mutated keys. Keys of stores which are not registered with this logger are skipped.
+     */
+    public void sendInvalidations(Map<KCVSCache, ? extends Collection<StaticBuffer>> keys) {
+        for (Map.Entry<KCVSCache, ? extends Collection<StaticBuffer>> storeKeys : keys.entrySet()) {
+            final String storeName = storeKeys.getKey().getName();
+            if (caches.get(storeName) != storeKeys.getKey() || storeKeys.getValue().isEmpty()) continue;
+            final Iterator<StaticBuffer> iterator = storeKeys.getValue().iterator();
+            int remaining = storeKeys.getValue().size();
+            while (remaining > 0) {
+                final int numKeys = Math.min(MAX_KEYS_PER_MESSAGE, remaining);
+                invalidationLog.add(writeMessage(storeName, iterator, numKeys));
+                remaining -= numKeys;
+            }
+        }
+    }
+
+    private static StaticBuffer writeMessage(String storeName, Iterator<StaticBuffer> keys, int numKeys) {
+        final byte[] name = storeName.getBytes(StandardCharsets.UTF_8);
+        final WriteBuffer out = new WriteByteBuffer(16 + name.length + numKeys * 12);
+        VariableLong.writePositive(out, name.length);
+        out.putBytes(name);
+        VariableLong.writePositive(out, numKeys);
+        for (int i = 0; i < numKeys; i++) {
+            final StaticBuffer key = keys.next();
+            VariableLong.writePositive(out, key.length());
+            out.putBytes(key);
+        }
+        return out.getStaticBuffer();
+    }
+
+    @Override
+    public void read(Message message) {
+        if (senderId.equals(message.getSenderId())) return;
+        final ReadBuffer in = message.getContent().asReadBuffer();
+        final String storeName = new String(in.getBytes((int) VariableLong.readPositive(in)), StandardCharsets.UTF_8);
+        final KCVSCache cache = caches.get(storeName);
+        if (cache == null) {
+            log.debug("Ignoring cache invalidation for unknown store [{}] from {}", storeName, message.getSenderId());
+            return;
+        }
+        final long numKeys = VariableLong.readPositive(in);
+        for (long i = 0; i < numKeys; i++) {
+            final StaticBuffer key = StaticArrayBuffer.of(in.getBytes((int) VariableLong.readPositive(in)));
+            cache.invalidate(key, Collections.emptyList());
+        }
+    }
+
+    @Override
+    public void updateState() {
+        //Nothing to update
+    }
+
+}
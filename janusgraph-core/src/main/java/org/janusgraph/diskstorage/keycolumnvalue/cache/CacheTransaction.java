@@ -19,6 +19,7 @@ import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.BaseTransactionConfig;
 import org.janusgraph.diskstorage.Entry;
 import org.janusgraph.diskstorage.LoggableTransaction;
+import org.janusgraph.diskstorage.PermanentBackendException;
 import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.keycolumnvalue.KCVMutation;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
@@ -33,11 +34,27 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
+ * Buffers the mutations of a transaction and persists them in chunks of {@code persistChunkSize} mutations.
+ * <p>
+ * When batch loading with more than one parallel flush and an executor, full chunks are persisted in the
+ * background while the transaction continues to accumulate mutations. At most {@code maxParallelFlushes}
+ * chunks are in flight at any time, further flushes block until one of them completes. {@link #commit()} waits
+ * for all outstanding flushes and rethrows the first failure.
+ * <p>
+ * If a {@link CacheInvalidationLogger} is given, the keys invalidated by persisted mutations are collected and
+ * published to other instances once the transaction is closed.
+ *
  * @author Matthias Broecheler (me@matthiasb.com)
  */
 public class CacheTransaction implements StoreTransaction, LoggableTransaction {
@@ -47,6 +64,12 @@ public class CacheTransaction implements StoreTransaction, LoggableTransaction {
     private final boolean batchLoading;
     private final int persistChunkSize;
     private final Duration maxWriteTime;
+    private final ExecutorService flushExecutor;
+    private final int maxParallelFlushes;
+    private final Semaphore flushPermits;
+    private final AtomicReference<Throwable> flushFailure = new AtomicReference<>();
+    private final CacheInvalidationLogger invalidationLogger;
+    private final Map<KCVSCache, Set<StaticBuffer>> invalidatedKeys;
 
     private int numMutations;
     private final Map<KCVSCache, Map<StaticBuffer, KCVEntryMutation>> mutations;
@@ -58,7 +81,21 @@ public class CacheTransaction implements StoreTransaction, LoggableTransaction {
 
     public CacheTransaction(StoreTransaction tx, KeyColumnValueStoreManager manager, int persistChunkSize,
                             Duration maxWriteTime, boolean batchLoading, int expectedNumStores) {
-        Preconditions.checkArgument(tx != null && manager != null && persistChunkSize > 0);
+        this(tx, manager, persistChunkSize, maxWriteTime, batchLoading, expectedNumStores, null, 1);
+    }
+
+    public CacheTransaction(StoreTransaction tx, KeyColumnValueStoreManager manager, int persistChunkSize,
+                            Duration maxWriteTime, boolean batchLoading, int expectedNumStores,
+                            ExecutorService flushExecutor, int maxParallelFlushes) {
+        this(tx, manager, persistChunkSize, maxWriteTime, batchLoading, expectedNumStores, flushExecutor,
+            maxParallelFlushes, null);
+    }
+
+    public CacheTransaction(StoreTransaction tx, KeyColumnValueStoreManager manager, int persistChunkSize,
+                            Duration maxWriteTime, boolean batchLoading, int expectedNumStores,
+                            ExecutorService flushExecutor, int maxParallelFlushes,
+                            CacheInvalidationLogger invalidationLogger) {
+        Preconditions.checkArgument(tx != null && manager != null && persistChunkSize > 0 && maxParallelFlushes > 0);
         this.tx = tx;
         this.manager = manager;
         this.batchLoading = batchLoading;
@@ -66,6 +103,17 @@ public class CacheTransaction implements StoreTransaction, LoggableTransaction {
         this.persistChunkSize = persistChunkSize;
         this.maxWriteTime = maxWriteTime;
         this.mutations = new HashMap<>(expectedNumStores);
+        this.invalidationLogger = invalidationLogger;
+        this.invalidatedKeys = invalidationLogger != null ? new HashMap<>(expectedNumStores) : null;
+        if (batchLoading && flushExecutor != null && maxParallelFlushes > 1) {
+            this.flushExecutor = flushExecutor;
+            this.maxParallelFlushes = maxParallelFlushes;
+            this.flushPermits = new Semaphore(maxParallelFlushes);
+        } else {
+            this.flushExecutor = null;
+            this.maxParallelFlushes = 1;
+            this.flushPermits = null;
+        }
     }
 
     public StoreTransaction getWrappedTransaction() {
@@ -92,21 +140,96 @@ public class CacheTransaction implements StoreTransaction, LoggableTransaction {
         }
     }
 
-    private int persist(final Map<String, Map<StaticBuffer, KCVMutation>> subMutations) {
-        BackendOperation.execute(new Callable<Boolean>() {
-            @Override
-            public Boolean call() throws Exception {
-                manager.mutateMany(subMutations, tx);
-                return true;
+    private void persist(final Map<KCVSCache, Map<StaticBuffer, KCVEntryMutation>> chunk) throws BackendException {
+        if (flushExecutor == null) {
+            write(chunk);
+            return;
+        }
+        if (hasDeletions(chunk)) {
+            //Deletions may target entries of chunks which are still in flight, those must be persisted first
+            awaitFlushes();
+        } else {
+            checkFlushFailure();
+        }
+        try {
+            flushPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PermanentBackendException("Interrupted while waiting for a mutation flush", e);
+        }
+        try {
+            flushExecutor.execute(() -> {
+                try {
+                    write(chunk);
+                } catch (Throwable t) {
+                    flushFailure.compareAndSet(null, t);
+                } finally {
+                    flushPermits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            flushPermits.release();
+            throw new PermanentBackendException("Could not schedule mutation flush", e);
+        }
+    }
+
+    private void write(final Map<KCVSCache, Map<StaticBuffer, KCVEntryMutation>> chunk) {
+        final Map<String, Map<StaticBuffer, KCVMutation>> subMutations = new HashMap<>(chunk.size());
+        for (Map.Entry<KCVSCache, Map<StaticBuffer, KCVEntryMutation>> storeMutations : chunk.entrySet()) {
+            final Map<StaticBuffer, KCVMutation> sub = new HashMap<>(storeMutations.getValue().size());
+            for (Map.Entry<StaticBuffer, KCVEntryMutation> mutationsForKey : storeMutations.getValue().entrySet()) {
+                if (mutationsForKey.getValue().isEmpty()) continue;
+                sub.put(mutationsForKey.getKey(), convert(mutationsForKey.getValue()));
             }
+            if (!sub.isEmpty()) subMutations.put(storeMutations.getKey().getName(), sub);
+        }
+        if (!subMutations.isEmpty()) {
+            BackendOperation.execute(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                    manager.mutateMany(subMutations, tx);
+                    return true;
+                }
 
-            @Override
-            public String toString() {
-                return "CacheMutation";
+                @Override
+                public String toString() {
+                    return "CacheMutation";
+                }
+            }, maxWriteTime);
+        }
+        invalidate(chunk);
+    }
+
+    private static boolean hasDeletions(final Map<KCVSCache, Map<StaticBuffer, KCVEntryMutation>> chunk) {
+        for (Map<StaticBuffer, KCVEntryMutation> storeMutations : chunk.values()) {
+            for (KCVEntryMutation mutation : storeMutations.values()) {
+                if (mutation.hasDeletions()) return true;
             }
-        }, maxWriteTime);
-        subMutations.clear();
-        return 0;
+        }
+        return false;
+    }
+
+    /**
+     * Waits until all background flushes have completed and rethrows the first failure, if any.
+     */
+    private void awaitFlushes() throws BackendException {
+        if (flushExecutor == null) return;
+        try {
+            flushPermits.acquire(maxParallelFlushes);
+            flushPermits.release(maxParallelFlushes);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PermanentBackendException("Interrupted while waiting for mutation flushes", e);
+        }
+        checkFlushFailure();
+    }
+
+    private void checkFlushFailure() throws BackendException {
+        final Throwable failure = flushFailure.get();
+        if (failure == null) return;
+        if (failure instanceof RuntimeException) throw (RuntimeException) failure;
+        if (failure instanceof Error) throw (Error) failure;
+        throw new PermanentBackendException("Could not persist mutations", failure);
     }
 
     private KCVMutation convert(KCVEntryMutation mutation) {
@@ -133,47 +256,53 @@ public class CacheTransaction implements StoreTransaction, LoggableTransaction {
                 for (KCVEntryMutation mut : store.values()) mut.consolidate();
             }
 
-            //Chunk up mutations
-            final Map<String, Map<StaticBuffer, KCVMutation>> subMutations = new HashMap<>(mutations.size());
+            //Chunk up mutations. Each chunk gets its own maps since it may be persisted in the background.
+            Map<KCVSCache, Map<StaticBuffer, KCVEntryMutation>> chunk = new HashMap<>(mutations.size());
             int numSubMutations = 0;
             for (Map.Entry<KCVSCache,Map<StaticBuffer, KCVEntryMutation>> storeMutations : mutations.entrySet()) {
-                final Map<StaticBuffer, KCVMutation> sub = new HashMap<>();
-                subMutations.put(storeMutations.getKey().getName(),sub);
                 for (Map.Entry<StaticBuffer,KCVEntryMutation> mutationsForKey : storeMutations.getValue().entrySet()) {
-                    if (mutationsForKey.getValue().isEmpty()) continue;
-                    sub.put(mutationsForKey.getKey(), convert(mutationsForKey.getValue()));
+                    chunk.computeIfAbsent(storeMutations.getKey(), k -> new HashMap<>())
+                        .put(mutationsForKey.getKey(), mutationsForKey.getValue());
                     numSubMutations+=mutationsForKey.getValue().getTotalMutations();
                     if (numSubMutations>= persistChunkSize) {
-                        numSubMutations = persist(subMutations);
-                        sub.clear();
-                        subMutations.put(storeMutations.getKey().getName(),sub);
+                        persist(chunk);
+                        chunk = new HashMap<>(mutations.size());
+                        numSubMutations = 0;
                     }
                 }
             }
-            if (numSubMutations>0) persist(subMutations);
+            if (!chunk.isEmpty()) persist(chunk);
 
+            clear();
+        }
+    }
 
-            for (Map.Entry<KCVSCache,Map<StaticBuffer, KCVEntryMutation>> storeMutations : mutations.entrySet()) {
-                final KCVSCache cache = storeMutations.getKey();
-                for (Map.Entry<StaticBuffer,KCVEntryMutation> mutationsForKey : storeMutations.getValue().entrySet()) {
-                    if (cache.hasValidateKeysOnly()) {
-                        cache.invalidate(mutationsForKey.getKey(), Collections.EMPTY_LIST);
-                    } else {
-                        final KCVEntryMutation m = mutationsForKey.getValue();
-                        final List<CachableStaticBuffer> entries = new ArrayList<>(m.getTotalMutations());
-                        for (final Entry e : m.getAdditions()) {
-                            assert e instanceof CachableStaticBuffer;
-                            entries.add((CachableStaticBuffer)e);
-                        }
-                        for (final StaticBuffer e : m.getDeletions()) {
-                            assert e instanceof CachableStaticBuffer;
-                            entries.add((CachableStaticBuffer)e);
-                        }
-                        cache.invalidate(mutationsForKey.getKey(),entries);
+    private void invalidate(final Map<KCVSCache, Map<StaticBuffer, KCVEntryMutation>> chunk) {
+        for (Map.Entry<KCVSCache,Map<StaticBuffer, KCVEntryMutation>> storeMutations : chunk.entrySet()) {
+            final KCVSCache cache = storeMutations.getKey();
+            if (invalidatedKeys != null) {
+                //Chunks may be persisted in the background
+                synchronized (invalidatedKeys) {
+                    invalidatedKeys.computeIfAbsent(cache, k -> new HashSet<>()).addAll(storeMutations.getValue().keySet());
+                }
+            }
+            for (Map.Entry<StaticBuffer,KCVEntryMutation> mutationsForKey : storeMutations.getValue().entrySet()) {
+                if (cache.hasValidateKeysOnly()) {
+                    cache.invalidate(mutationsForKey.getKey(), Collections.EMPTY_LIST);
+                } else {
+                    final KCVEntryMutation m = mutationsForKey.getValue();
+                    final List<CachableStaticBuffer> entries = new ArrayList<>(m.getTotalMutations());
+                    for (final Entry e : m.getAdditions()) {
+                        assert e instanceof CachableStaticBuffer;
+                        entries.add((CachableStaticBuffer)e);
                     }
+                    for (final StaticBuffer e : m.getDeletions()) {
+                        assert e instanceof CachableStaticBuffer;
+                        entries.add((CachableStaticBuffer)e);
+                    }
+                    cache.invalidate(mutationsForKey.getKey(),entries);
                 }
             }
-            clear();
         }
     }
 
@@ -208,13 +337,28 @@ public class CacheTransaction implements StoreTransaction, LoggableTransaction {
     @Override
     public void commit() throws BackendException {
         flushInternal();
+        awaitFlushes();
         tx.commit();
+        sendInvalidations();
     }
 
     @Override
     public void rollback() throws BackendException {
         clear();
+        if (flushExecutor != null) {
+            //Background flushes still use the transaction, their failures are irrelevant once it is rolled back
+            flushPermits.acquireUninterruptibly(maxParallelFlushes);
+            flushPermits.release(maxParallelFlushes);
+        }
         tx.rollback();
+        //Chunks that were persisted before the rollback may already be visible to other instances
+        sendInvalidations();
+    }
+
+    private void sendInvalidations() {
+        if (invalidatedKeys == null || invalidatedKeys.isEmpty()) return;
+        invalidationLogger.sendInvalidations(invalidatedKeys);
+        invalidatedKeys.clear();
     }
 
     @Override
@@ -15,8 +15,6 @@
 package org.janusgraph.diskstorage.keycolumnvalue.cache;
 
 import com.google.common.base.Preconditions;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import org.janusgraph.core.JanusGraphException;
 import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.EntryList;
@@ -33,7 +31,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
 
 import static org.janusgraph.util.datastructures.ByteSize.GUAVA_CACHE_ENTRY_SIZE;
 import static org.janusgraph.util.datastructures.ByteSize.OBJECT_HEADER;
@@ -54,7 +51,7 @@ public class ExpirationKCVSCache extends KCVSCache {
 
     private volatile CountDownLatch penaltyCountdown;
 
-    private final Cache<KeySliceQuery,EntryList> cache;
+    private final KeySliceQueryCache cache;
     private final ConcurrentHashMap<StaticBuffer,Long> expiredKeys;
 
     private final long cacheTimeMS;
@@ -63,6 +60,15 @@ public class ExpirationKCVSCache extends KCVSCache {
 
 
     public ExpirationKCVSCache(final KeyColumnValueStore store, String metricsName, final long cacheTimeMS, final long invalidationGracePeriodMS, final long maximumByteSize) {
+        this(store, metricsName, cacheTimeMS, invalidationGracePeriodMS, maximumByteSize, 0, null);
+    }
+
+    /**
+     * @param offHeapMaximumByteSize size of the off-heap cache which holds the results evicted from the heap, 0 to disable it
+     * @param metricsPrefix prefix of the off-heap cache metrics, null to disable them
+     */
+    public ExpirationKCVSCache(final KeyColumnValueStore store, String metricsName, final long cacheTimeMS, final long invalidationGracePeriodMS, final long maximumByteSize,
+                               final long offHeapMaximumByteSize, String metricsPrefix) {
         super(store, metricsName);
         Preconditions.checkArgument(cacheTimeMS > 0, "Cache expiration must be positive: %s", cacheTimeMS);
         Preconditions.checkArgument(System.currentTimeMillis()+1000L*3600*24*365*100+cacheTimeMS>0,"Cache expiration time too large, overflow may occur: %s",cacheTimeMS);
@@ -70,14 +76,11 @@ public class ExpirationKCVSCache extends KCVSCache {
         final int concurrencyLevel = Runtime.getRuntime().availableProcessors();
         Preconditions.checkArgument(invalidationGracePeriodMS >=0,"Invalid expiration grace period: %s", invalidationGracePeriodMS);
         this.invalidationGracePeriodMS = invalidationGracePeriodMS;
-        CacheBuilder<KeySliceQuery,EntryList> cachebuilder = CacheBuilder.newBuilder()
-                .maximumWeight(maximumByteSize)
-                .concurrencyLevel(concurrencyLevel)
-                .initialCapacity(1000)
-                .expireAfterWrite(cacheTimeMS, TimeUnit.MILLISECONDS)
-                .weigher((keySliceQuery, entries) -> GUAVA_CACHE_ENTRY_SIZE + KEY_QUERY_SIZE + entries.getByteSize());
-
-        cache = cachebuilder.build();
+        Preconditions.checkArgument(offHeapMaximumByteSize >= 0, "Invalid off-heap cache size: %s", offHeapMaximumByteSize);
+        final OffHeapEntryListCache offHeapCache = offHeapMaximumByteSize > 0
+                ? new OffHeapEntryListCache(offHeapMaximumByteSize, metricsPrefix, metricsName) : null;
+        cache = new KeySliceQueryCache(maximumByteSize, cacheTimeMS, concurrencyLevel,
+                (keySliceQuery, entries) -> GUAVA_CACHE_ENTRY_SIZE + KEY_QUERY_SIZE + entries.getByteSize(), offHeapCache);
         expiredKeys = new ConcurrentHashMap<>(50, 0.75f, concurrencyLevel);
         penaltyCountdown = new CountDownLatch(PENALTY_THRESHOLD);
 
@@ -154,6 +157,7 @@ public class ExpirationKCVSCache extends KCVSCache {
     @Override
     public void close() throws BackendException {
         cleanupThread.stopThread();
+        cache.close();
         super.close();
     }
 
@@ -211,8 +215,8 @@ public class ExpirationKCVSCache extends KCVSCache {
                     else if (getAge(expKey.getValue())>= invalidationGracePeriodMS)
                         expiredKeysCopy.put(expKey.getKey(),expKey.getValue());
                 }
-                for (KeySliceQuery ksq : cache.asMap().keySet()) {
-                    if (expiredKeysCopy.containsKey(ksq.getKey())) cache.invalidate(ksq);
+                for (StaticBuffer key : expiredKeysCopy.keySet()) {
+                    cache.invalidateKey(key);
                 }
                 penaltyCountdown = new CountDownLatch(PENALTY_THRESHOLD);
                 for (Map.Entry<StaticBuffer,Long> expKey : expiredKeysCopy.entrySet()) {
@@ -0,0 +1,89 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.cache;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Count-min sketch estimating how often objects have been accessed recently, as used by the TinyLFU admission policy.
+ * Each object is counted in four small saturating counters and its frequency is the minimum among them. Once the
+ * number of increments reaches ten times the width of the sketch, all counters are halved so that the sketch
+ * favours recent accesses.
+ * <p>
+ * Concurrent updates are not synchronized, hence increments may get lost under contention. This only makes the
+ * estimates slightly less accurate.
+ */
+class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int MAX_WIDTH = 1 << 22;
+    private static final int[] SEEDS = {0x97cb3127, 0xc3a5c85d, 0x9ae16a3b, 0x5bd1e995};
+
+    private final byte[] counters;
+    private final int width;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+
+    FrequencySketch(long expectedSize) {
+        Preconditions.checkArgument(expectedSize > 0, "Invalid expected size: %s", expectedSize);
+        int w = 16;
+        while (w < expectedSize && w < MAX_WIDTH) w <<= 1;
+        width = w;
+        counters = new byte[DEPTH * width];
+        sampleSize = 10 * width;
+    }
+
+    int frequency(Object o) {
+        final int hash = spread(o.hashCode());
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < DEPTH; i++) {
+            frequency = Math.min(frequency, counters[indexOf(hash, i)]);
+        }
+        return frequency;
+    }
+
+    void increment(Object o) {
+        final int hash = spread(o.hashCode());
+        for (int i = 0; i < DEPTH; i++) {
+            final int index = indexOf(hash, i);
+            if (counters[index] < MAX_COUNT) counters[index]++;
+        }
+        if (additions.incrementAndGet() >= sampleSize) reset();
+    }
+
+    private synchronized void reset() {
+        if (additions.get() < sampleSize) return;
+        for (int i = 0; i < counters.length; i++) counters[i] >>>= 1;
+        additions.set(0);
+    }
+
+    private int indexOf(int hash, int row) {
+        return row * width + (spread(hash + SEEDS[row]) & (width - 1));
+    }
+
+    /**
+     * Murmur3 finalizer, since hash codes of similar buffers tend to differ in few bits only
+     */
+    private static int spread(int hash) {
+        int h = hash ^ (hash >>> 16);
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+}
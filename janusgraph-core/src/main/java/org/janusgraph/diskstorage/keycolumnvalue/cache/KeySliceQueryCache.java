@@ -0,0 +1,253 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.cache;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size bounded cache of slice query results used by {@link ExpirationKCVSCache}.
+ * <p>
+ * Following the W-TinyLFU design, newly loaded results enter a small admission window. Results evicted from the
+ * window are only admitted to the main cache while it has room or if they have been requested repeatedly according
+ * to a {@link FrequencySketch}, so that scans of rarely read rows do not flush frequently read rows from the cache.
+ * <p>
+ * Results evicted from the heap may be moved to an optional {@link OffHeapEntryListCache} from where they return to
+ * the admission window once they are requested again.
+ * <p>
+ * The cached queries are indexed by their key so that all results of a key can be invalidated without iterating
+ * over the whole cache. The index is maintained on a best effort basis: a result whose index entry got lost in a
+ * race with a concurrent removal is still evicted once it expires.
+ */
+class KeySliceQueryCache {
+
+    private static final int WINDOW_PERCENTAGE = 1;
+    private static final double MAIN_ADMISSION_FILL_RATIO = 0.9;
+    private static final int ADMISSION_FREQUENCY = 2;
+    // Sizes the sketch for four times as many counters as cached results of about 1 KB to keep collisions rare
+    private static final int SKETCH_BYTES_PER_COUNTER = 256;
+
+    private final Weigher<KeySliceQuery, EntryList> weigher;
+    private final long expirationNS;
+    private final long mainMaximumWeight;
+    private final AtomicLong mainWeight = new AtomicLong();
+
+    private final Cache<KeySliceQuery, CachedSlice> window;
+    private final Cache<KeySliceQuery, CachedSlice> main;
+    private final FrequencySketch sketch;
+    private final OffHeapEntryListCache offHeapCache;
+    private final ConcurrentHashMap<StaticBuffer, Set<KeySliceQuery>> queriesByKey;
+
+    KeySliceQueryCache(long maximumWeight, long expirationMS, int concurrencyLevel,
+                       Weigher<KeySliceQuery, EntryList> weigher) {
+        this(maximumWeight, expirationMS, concurrencyLevel, weigher, null);
+    }
+
+    KeySliceQueryCache(long maximumWeight, long expirationMS, int concurrencyLevel,
+                       Weigher<KeySliceQuery, EntryList> weigher, OffHeapEntryListCache offHeapCache) {
+        Preconditions.checkArgument(maximumWeight > 0, "Invalid maximum weight: %s", maximumWeight);
+        this.weigher = weigher;
+        this.offHeapCache = offHeapCache;
+        this.expirationNS = TimeUnit.MILLISECONDS.toNanos(expirationMS);
+        final long windowMaximumWeight = Math.max(maximumWeight * WINDOW_PERCENTAGE / 100, 1);
+        this.mainMaximumWeight = Math.max(maximumWeight - windowMaximumWeight, 1);
+
+        window = CacheBuilder.newBuilder()
+            .maximumWeight(windowMaximumWeight)
+            .concurrencyLevel(concurrencyLevel)
+            .expireAfterWrite(expirationMS, TimeUnit.MILLISECONDS)
+            .weigher(this::weigh)
+            .removalListener(this::onWindowRemoval)
+            .build();
+        main = CacheBuilder.newBuilder()
+            .maximumWeight(mainMaximumWeight)
+            .concurrencyLevel(concurrencyLevel)
+            .initialCapacity(1000)
+            .expireAfterWrite(expirationMS, TimeUnit.MILLISECONDS)
+            .weigher(this::weigh)
+            .removalListener(this::onMainRemoval)
+            .build();
+        sketch = new FrequencySketch(Math.max(maximumWeight / SKETCH_BYTES_PER_COUNTER, 1));
+        queriesByKey = new ConcurrentHashMap<>(1000, 0.75f, concurrencyLevel);
+    }
+
+    /**
+     * Returns the cached result of the given query or loads it with the given loader if it is not cached.
+     */
+    EntryList get(KeySliceQuery query, Callable<EntryList> loader) throws ExecutionException {
+        final EntryList cached = getIfPresent(query);
+        if (cached != null) return cached;
+        return window.get(query, () -> {
+            final EntryList entries = loader.call();
+            index(query);
+            return new CachedSlice(entries, System.nanoTime() + expirationNS);
+        }).entries;
+    }
+
+    /**
+     * Returns the cached result of the given query or null if it is not cached.
+     */
+    EntryList getIfPresent(KeySliceQuery query) {
+        sketch.increment(query);
+        CachedSlice slice = window.getIfPresent(query);
+        if (slice == null) {
+            slice = main.getIfPresent(query);
+            if (slice != null && slice.isExpired()) {
+                // The result was admitted to the main cache after it had been loaded and would outlive the expiration
+                main.invalidate(query);
+                return null;
+            }
+        }
+        if (slice == null && offHeapCache != null) {
+            slice = offHeapCache.remove(query);
+            if (slice != null) {
+                index(query);
+                window.put(query, slice);
+            }
+        }
+        return slice == null ? null : slice.entries;
+    }
+
+    void put(KeySliceQuery query, EntryList entries) {
+        index(query);
+        window.put(query, new CachedSlice(entries, System.nanoTime() + expirationNS));
+    }
+
+    /**
+     * Removes the results of all cached queries for the given key.
+     */
+    void invalidateKey(StaticBuffer key) {
+        final Set<KeySliceQuery> queries = queriesByKey.remove(key);
+        // Results which are moved off heap after this point are dropped again by moveOffHeap
+        if (offHeapCache != null) offHeapCache.invalidateKey(key);
+        if (queries == null) return;
+        for (KeySliceQuery query : queries) {
+            window.invalidate(query);
+            main.invalidate(query);
+        }
+    }
+
+    void invalidateAll() {
+        window.invalidateAll();
+        main.invalidateAll();
+        queriesByKey.clear();
+        if (offHeapCache != null) offHeapCache.invalidateAll();
+    }
+
+    void close() {
+        invalidateAll();
+        if (offHeapCache != null) offHeapCache.close();
+    }
+
+    long size() {
+        return window.size() + main.size();
+    }
+
+    private int weigh(KeySliceQuery query, CachedSlice slice) {
+        return weigher.weigh(query, slice.entries);
+    }
+
+    private void onWindowRemoval(RemovalNotification<KeySliceQuery, CachedSlice> notification) {
+        if (notification.getCause() == RemovalCause.REPLACED) return;
+        final KeySliceQuery query = notification.getKey();
+        final CachedSlice slice = notification.getValue();
+        if (notification.getCause() == RemovalCause.SIZE && !slice.isExpired() && admit(query, slice)) {
+            mainWeight.addAndGet(weigh(query, slice));
+            main.put(query, slice);
+            // invalidateKey does not find a result while it is moved from the window to the main cache
+            if (!isIndexed(query)) main.asMap().remove(query, slice);
+        } else {
+            if (notification.getCause() == RemovalCause.SIZE) moveOffHeap(query, slice);
+            unindex(query);
+        }
+    }
+
+    private void onMainRemoval(RemovalNotification<KeySliceQuery, CachedSlice> notification) {
+        mainWeight.addAndGet(-weigh(notification.getKey(), notification.getValue()));
+        if (notification.getCause() == RemovalCause.REPLACED) return;
+        if (notification.getCause() == RemovalCause.SIZE) moveOffHeap(notification.getKey(), notification.getValue());
+        unindex(notification.getKey());
+    }
+
+    /**
+     * Moves an evicted result off heap. The query must still be indexed so that a concurrent {@link #invalidateKey}
+     * can be detected.
+     */
+    private void moveOffHeap(KeySliceQuery query, CachedSlice slice) {
+        if (offHeapCache == null || slice.isExpired()) return;
+        offHeapCache.put(query, slice);
+        // invalidateKey removes the index entry before the off-heap results, so the result is either found there or here
+        if (!isIndexed(query)) offHeapCache.invalidate(query);
+    }
+
+    private boolean admit(KeySliceQuery query, CachedSlice slice) {
+        return mainWeight.get() + weigh(query, slice) <= mainMaximumWeight * MAIN_ADMISSION_FILL_RATIO
+            || sketch.frequency(query) >= ADMISSION_FREQUENCY;
+    }
+
+    private void index(KeySliceQuery query) {
+        queriesByKey.compute(query.getKey(), (key, queries) -> {
+            if (queries == null) queries = new HashSet<>(4);
+            queries.add(query);
+            return queries;
+        });
+    }
+
+    private boolean isIndexed(KeySliceQuery query) {
+        final boolean[] indexed = new boolean[1];
+        queriesByKey.computeIfPresent(query.getKey(), (key, queries) -> {
+            indexed[0] = queries.contains(query);
+            return queries;
+        });
+        return indexed[0];
+    }
+
+    private void unindex(KeySliceQuery query) {
+        queriesByKey.computeIfPresent(query.getKey(), (key, queries) -> {
+            if (!window.asMap().containsKey(query) && !main.asMap().containsKey(query)) queries.remove(query);
+            return queries.isEmpty() ? null : queries;
+        });
+    }
+
+    static class CachedSlice {
+
+        final EntryList entries;
+        final long expirationTime;
+
+        CachedSlice(EntryList entries, long expirationTime) {
+            this.entries = entries;
+            this.expirationTime = expirationTime;
+        }
+
+        boolean isExpired() {
+            return System.nanoTime() - expirationTime > 0;
+        }
+    }
+}
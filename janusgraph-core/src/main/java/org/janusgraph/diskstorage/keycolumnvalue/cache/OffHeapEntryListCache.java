@@ -0,0 +1,256 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.cache;
+
+import com.codahale.metrics.Counter;
+import com.google.common.base.Preconditions;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.util.StaticArrayEntryList;
+import org.janusgraph.util.stats.MetricManager;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Second level of {@link KeySliceQueryCache} which holds the serialized results evicted from the heap in direct
+ * memory, so that large caches do not add to garbage collection pauses.
+ * <p>
+ * Results are appended to fixed size slabs of direct memory. Once all slabs are full, the slab which was filled
+ * first is cleared and reused. Results which are requested again move back to the heap cache and are appended to
+ * the current slab once they get evicted again, so that eviction approximates LRU order.
+ */
+class OffHeapEntryListCache {
+
+    static final String M_OFF_HEAP = "offheap";
+    static final String M_HITS = "hits";
+    static final String M_MISSES = "misses";
+    static final String M_EVICTIONS = "evictions";
+
+    private static final int MAX_SLAB_SIZE = 16 * 1024 * 1024;
+    private static final int MIN_SLABS = 8;
+
+    private final int slabSize;
+    private final Slab[] slabs;
+    private final ConcurrentHashMap<StaticBuffer, Map<KeySliceQuery, Slot>> slotsByKey = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    // Guarded by this
+    private int allocatedSlabs = 0;
+    private int currentSlab = -1;
+
+    OffHeapEntryListCache(long maximumByteSize, String metricsPrefix, String metricsName) {
+        Preconditions.checkArgument(maximumByteSize > 0, "Invalid maximum size: %s", maximumByteSize);
+        slabSize = (int) Math.max(Math.min(maximumByteSize / MIN_SLABS, MAX_SLAB_SIZE), 1);
+        slabs = new Slab[Math.toIntExact(maximumByteSize / slabSize)];
+        if (metricsPrefix != null && metricsName != null) {
+            hits = MetricManager.INSTANCE.getCounter(metricsPrefix, metricsName, M_OFF_HEAP, M_HITS);
+            misses = MetricManager.INSTANCE.getCounter(metricsPrefix, metricsName, M_OFF_HEAP, M_MISSES);
+            evictions = MetricManager.INSTANCE.getCounter(metricsPrefix, metricsName, M_OFF_HEAP, M_EVICTIONS);
+        } else {
+            hits = misses = evictions = null;
+        }
+    }
+
+    /**
+     * Removes the result of the given query from this cache and returns it, or returns null if it is not cached.
+     */
+    KeySliceQueryCache.CachedSlice remove(KeySliceQuery query) {
+        final Map<KeySliceQuery, Slot> slots = slotsByKey.get(query.getKey());
+        final Slot slot = slots == null ? null : slots.get(query);
+        EntryList entries = null;
+        if (slot != null) {
+            if (!slot.isExpired()) entries = slot.read();
+            removeSlot(query, slot);
+        }
+        if (entries == null) {
+            inc(misses);
+            return null;
+        }
+        inc(hits);
+        return new KeySliceQueryCache.CachedSlice(entries, slot.expirationTime);
+    }
+
+    /**
+     * Adds the given result to this cache unless it is too large.
+     */
+    void put(KeySliceQuery query, KeySliceQueryCache.CachedSlice slice) {
+        final StaticArrayEntryList entries;
+        if (slice.entries.isEmpty()) entries = null;
+        else if (slice.entries instanceof StaticArrayEntryList) entries = (StaticArrayEntryList) slice.entries;
+        else entries = (StaticArrayEntryList) StaticArrayEntryList.of(slice.entries);
+        final int length = entries == null ? 0 : entries.getSerializedSize();
+        if (length > slabSize) return;
+
+        final Slot slot;
+        synchronized (this) {
+            final Slab slab = slabWithSpace(length);
+            slot = new Slot(slab, slab.generation, slab.position, length, slice.expirationTime);
+            if (entries != null) {
+                final ByteBuffer buffer = slab.buffer.duplicate();
+                buffer.position(slab.position);
+                entries.writeTo(buffer);
+            }
+            slab.position += length;
+            slab.queries.add(query);
+        }
+        slotsByKey.compute(query.getKey(), (key, slots) -> {
+            if (slots == null) slots = new ConcurrentHashMap<>(4);
+            slots.put(query, slot);
+            return slots;
+        });
+    }
+
+    void invalidate(KeySliceQuery query) {
+        slotsByKey.computeIfPresent(query.getKey(), (key, slots) -> {
+            slots.remove(query);
+            return slots.isEmpty() ? null : slots;
+        });
+    }
+
+    void invalidateKey(StaticBuffer key) {
+        slotsByKey.remove(key);
+    }
+
+    void invalidateAll() {
+        slotsByKey.clear();
+    }
+
+    /**
+     * Releases the direct memory of this cache.
+     */
+    synchronized void close() {
+        slotsByKey.clear();
+        for (int i = 0; i < allocatedSlabs; i++) {
+            final Slab slab = slabs[i];
+            final long stamp = slab.lock.writeLock();
+            slab.generation++;
+            slab.lock.unlockWrite(stamp);
+            slabs[i] = null;
+        }
+        allocatedSlabs = 0;
+        currentSlab = -1;
+    }
+
+    long size() {
+        return slotsByKey.values().stream().mapToLong(Map::size).sum();
+    }
+
+    private Slab slabWithSpace(int length) {
+        if (currentSlab >= 0 && slabs[currentSlab].position + length <= slabSize) return slabs[currentSlab];
+        currentSlab = (currentSlab + 1) % slabs.length;
+        if (currentSlab == allocatedSlabs) {
+            slabs[allocatedSlabs++] = new Slab(ByteBuffer.allocateDirect(slabSize));
+        } else {
+            evict(slabs[currentSlab]);
+        }
+        return slabs[currentSlab];
+    }
+
+    private void evict(Slab slab) {
+        final long stamp = slab.lock.writeLock();
+        try {
+            slab.generation++;
+        } finally {
+            slab.lock.unlockWrite(stamp);
+        }
+        long evicted = 0;
+        for (KeySliceQuery query : slab.queries) {
+            final Map<KeySliceQuery, Slot> slots = slotsByKey.get(query.getKey());
+            final Slot slot = slots == null ? null : slots.get(query);
+            if (slot != null && slot.slab == slab && removeSlot(query, slot)) evicted++;
+        }
+        if (evictions != null) evictions.inc(evicted);
+        slab.queries.clear();
+        slab.position = 0;
+    }
+
+    private boolean removeSlot(KeySliceQuery query, Slot slot) {
+        final boolean[] removed = new boolean[1];
+        slotsByKey.computeIfPresent(query.getKey(), (key, slots) -> {
+            removed[0] = slots.remove(query, slot);
+            return slots.isEmpty() ? null : slots;
+        });
+        return removed[0];
+    }
+
+    private static void inc(Counter counter) {
+        if (counter != null) counter.inc();
+    }
+
+    private static class Slab {
+
+        private final ByteBuffer buffer;
+        private final StampedLock lock = new StampedLock();
+        private final List<KeySliceQuery> queries = new ArrayList<>();
+        // Incremented whenever the slab is cleared, guarded by lock
+        private int generation = 0;
+        // Guarded by the enclosing cache
+        private int position = 0;
+
+        private Slab(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+
+    private static class Slot {
+
+        private final Slab slab;
+        private final int generation;
+        private final int offset;
+        private final int length;
+        private final long expirationTime;
+
+        private Slot(Slab slab, int generation, int offset, int length, long expirationTime) {
+            this.slab = slab;
+            this.generation = generation;
+            this.offset = offset;
+            this.length = length;
+            this.expirationTime = expirationTime;
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - expirationTime > 0;
+        }
+
+        /**
+         * Deserializes the result held by this slot or returns null if the slab has been cleared since.
+         */
+        private EntryList read() {
+            if (length == 0) return EntryList.EMPTY_LIST;
+            final long stamp = slab.lock.tryOptimisticRead();
+            if (slab.generation != generation) return null;
+            final EntryList entries;
+            try {
+                final ByteBuffer buffer = slab.buffer.duplicate();
+                buffer.limit(offset + length).position(offset);
+                entries = StaticArrayEntryList.readFrom(buffer);
+            } catch (RuntimeException e) {
+                // A concurrent eviction may have overwritten the data
+                if (slab.lock.validate(stamp)) throw e;
+                return null;
+            }
+            return slab.lock.validate(stamp) ? entries : null;
+        }
+    }
+}
@@ -23,9 +23,11 @@ import org.janusgraph.diskstorage.configuration.Configuration;
 import org.janusgraph.diskstorage.keycolumnvalue.KCVSUtil;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyIterator;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyRangeQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreFeatures;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.util.BufferUtil;
 import org.janusgraph.diskstorage.util.EntryArrayList;
 import org.janusgraph.diskstorage.util.RecordIterator;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
@@ -60,17 +62,19 @@ class MultiThreadsRowsCollector extends RowsCollector {
     private final StoreFeatures storeFeatures;
     private final StoreTransaction storeTx;
     private final List<SliceQuery> queries;
+    private final ScanProgress progress;
     private final Predicate<StaticBuffer> keyFilter;
     private final Configuration graphConfiguration;
     private final DataPuller[] pullThreads;
     private final BlockingQueue<SliceResult>[] dataQueues;
-    private boolean interrupted = false;
+    private volatile boolean interrupted = false;
 
     MultiThreadsRowsCollector(
         KeyColumnValueStore store,
         StoreFeatures storeFeatures,
         StoreTransaction storeTx,
         List<SliceQuery> queries,
+        ScanProgress progress,
         Predicate<StaticBuffer> keyFilter,
         BlockingQueue<Row> rowQueue,
         Configuration graphConfiguration) throws BackendException {
@@ -79,6 +83,7 @@ class MultiThreadsRowsCollector extends RowsCollector {
         this.storeFeatures = storeFeatures;
         this.storeTx = storeTx;
         this.queries = queries;
+        this.progress = progress;
         this.keyFilter = keyFilter;
         this.graphConfiguration = graphConfiguration;
 
@@ -104,7 +109,10 @@ class MultiThreadsRowsCollector extends RowsCollector {
             collectDataFromPullers(currentResults, numQueries);
 
             SliceResult conditionQuery = currentResults[0];
-            if (conditionQuery==null) break; //Termination condition - primary query has no more data
+            if (conditionQuery==null) { //Termination condition - primary query has no more data
+                if (!pullThreads[0].hasFailed()) progress.pullingFinished();
+                break;
+            }
             final StaticBuffer key = conditionQuery.key;
 
             Row e = buildRow(numQueries, currentResults, key);
@@ -144,7 +152,7 @@ class MultiThreadsRowsCollector extends RowsCollector {
             }
             queryResults.put(query,entries);
         }
-        return new Row(key, queryResults);
+        return progress.newRow(key, queryResults);
     }
 
     @Override
@@ -191,8 +199,15 @@ class MultiThreadsRowsCollector extends RowsCollector {
             this.graphConfiguration.get(GraphDatabaseConfiguration.PAGE_SIZE));
         dataQueues[pos] = queue;
 
-        DataPuller dp = new DataPuller(sq, queue,
-            KCVSUtil.getKeys(store,sq,storeFeatures, MAX_KEY_LENGTH,stx), keyFilter);
+        final KeyIterator keyIterator;
+        if (progress.getPartition() != null) {
+            keyIterator = store.getKeys(sq, progress.getPartition(), stx);
+        } else if (progress.getStartKey() != null) {
+            keyIterator = store.getKeys(new KeyRangeQuery(progress.getStartKey(), BufferUtil.oneBuffer(MAX_KEY_LENGTH), sq), stx);
+        } else {
+            keyIterator = KCVSUtil.getKeys(store,sq,storeFeatures, MAX_KEY_LENGTH,stx);
+        }
+        DataPuller dp = new DataPuller(sq, queue, keyIterator, keyFilter);
         pullThreads[pos] = dp;
         dp.setName("data-puller-" + pos); // setting the name for thread dumps!
         dp.start();
@@ -205,6 +220,7 @@ class MultiThreadsRowsCollector extends RowsCollector {
         private final SliceQuery query;
         private final Predicate<StaticBuffer> keyFilter;
         private volatile boolean finished;
+        private volatile boolean failed;
 
         private DataPuller(SliceQuery query, BlockingQueue<SliceResult> queue,
                            KeyIterator keyIterator, Predicate<StaticBuffer> keyFilter) {
@@ -227,8 +243,10 @@ class MultiThreadsRowsCollector extends RowsCollector {
                 }
             } catch (InterruptedException e) {
                 log.error("Data-pulling thread interrupted while waiting on queue or data", e);
+                failed = true;
             } catch (Throwable e) {
                 log.error("Could not load data from storage", e);
+                failed = true;
             } finally {
                 try {
                     keyIterator.close();
@@ -242,6 +260,10 @@ class MultiThreadsRowsCollector extends RowsCollector {
         public boolean isFinished() {
             return finished;
         }
+
+        public boolean hasFailed() {
+            return failed;
+        }
     }
 
     private static class SliceResult {
@@ -0,0 +1,156 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.scan;
+
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.PermanentBackendException;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.TemporaryBackendException;
+import org.janusgraph.diskstorage.configuration.Configuration;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreFeatures;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
+
+import static org.janusgraph.diskstorage.keycolumnvalue.scan.StandardScannerExecutor.Row;
+
+/**
+ * Scans the partitions returned by {@link KeyColumnValueStore#getScanPartitions(int, StoreTransaction)}
+ * (f.e. the token ranges of a Cassandra cluster) and pulls several partitions concurrently. Each partition is collected
+ * by a {@link MultiThreadsRowsCollector} restricted to that partition, so the key order only needs to be consistent
+ * among the queries of a single partition.
+ */
+class PartitionedRowsCollector extends RowsCollector {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionedRowsCollector.class);
+
+    private final StoreFeatures storeFeatures;
+    private final StoreTransaction storeTx;
+    private final List<SliceQuery> queries;
+    private final Predicate<StaticBuffer> keyFilter;
+    private final Configuration graphConfiguration;
+    private final ScanMetrics metrics;
+    private final Queue<ScanProgress> pendingPartitions;
+    private final PartitionPuller[] pullThreads;
+
+    private volatile boolean interrupted = false;
+    private volatile Throwable failure = null;
+
+    PartitionedRowsCollector(
+        KeyColumnValueStore store,
+        StoreFeatures storeFeatures,
+        StoreTransaction storeTx,
+        List<SliceQuery> queries,
+        List<ScanProgress> partitions,
+        int parallelism,
+        Predicate<StaticBuffer> keyFilter,
+        BlockingQueue<Row> rowQueue,
+        Configuration graphConfiguration,
+        ScanMetrics metrics) {
+
+        super(store, rowQueue);
+        this.storeFeatures = storeFeatures;
+        this.storeTx = storeTx;
+        this.queries = queries;
+        this.keyFilter = keyFilter;
+        this.graphConfiguration = graphConfiguration;
+        this.metrics = metrics;
+        this.pendingPartitions = new ConcurrentLinkedQueue<>(partitions);
+        this.pullThreads = new PartitionPuller[Math.min(parallelism, partitions.size())];
+    }
+
+    @Override
+    void run() throws InterruptedException, BackendException {
+        for (int i = 0; i < pullThreads.length; i++) {
+            pullThreads[i] = new PartitionPuller();
+            pullThreads[i].setName("partition-puller-" + i); // setting the name for thread dumps!
+            pullThreads[i].start();
+        }
+        for (PartitionPuller pullThread : pullThreads) {
+            pullThread.join();
+        }
+        if (failure != null) {
+            if (failure instanceof TemporaryBackendException) throw (TemporaryBackendException) failure;
+            throw new PermanentBackendException("Could not scan all partitions", failure);
+        }
+    }
+
+    @Override
+    void join() throws InterruptedException {
+        for (PartitionPuller pullThread : pullThreads) {
+            if (pullThread != null) pullThread.join();
+        }
+    }
+
+    @Override
+    void interrupt() {
+        interrupted = true;
+        for (PartitionPuller pullThread : pullThreads) {
+            if (pullThread != null) pullThread.interruptPartition();
+        }
+    }
+
+    @Override
+    void cleanup() throws PermanentBackendException {
+        interrupt();
+    }
+
+    private class PartitionPuller extends Thread {
+
+        private volatile MultiThreadsRowsCollector collector;
+
+        @Override
+        public void run() {
+            ScanProgress partition;
+            try {
+                while (!interrupted && (partition = pendingPartitions.poll()) != null) {
+                    collector = new MultiThreadsRowsCollector(store, storeFeatures, storeTx, queries, partition,
+                        keyFilter, rowQueue, graphConfiguration);
+                    try {
+                        collector.run();
+                        collector.join();
+                    } finally {
+                        collector.cleanup();
+                    }
+                    if (!interrupted) metrics.incrementCustom(ScanMetrics.PARTITIONS_COMPLETED);
+                }
+            } catch (InterruptedException e) {
+                log.error("Partition-pulling thread interrupted while waiting on queue or data", e);
+                failure = e;
+                PartitionedRowsCollector.this.interrupt();
+            } catch (Throwable e) {
+                log.error("Could not load partition from storage", e);
+                failure = e;
+                PartitionedRowsCollector.this.interrupt();
+            } finally {
+                collector = null;
+            }
+        }
+
+        private void interruptPartition() {
+            MultiThreadsRowsCollector current = collector;
+            if (current != null) current.interrupt();
+        }
+    }
+
+}
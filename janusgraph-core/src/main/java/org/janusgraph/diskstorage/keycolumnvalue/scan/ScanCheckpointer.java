@@ -0,0 +1,164 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.scan;
+
+import com.google.common.base.Preconditions;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.configuration.WriteConfiguration;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyRange;
+import org.janusgraph.diskstorage.util.Hex;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Periodically persists the progress of a scan job so that a failed job can be resumed through
+ * {@link StandardScanner.Builder#resume(Object)}. A checkpoint consists of the scan partitions which have been
+ * processed completely and, for scans over the whole store, the last key up to which all rows have been processed.
+ * <p>
+ * Writing a checkpoint is best-effort: failures are logged but never fail the scan job.
+ */
+class ScanCheckpointer {
+
+    private static final Logger log = LoggerFactory.getLogger(ScanCheckpointer.class);
+
+    private static final String PARTITIONS_SUFFIX = ".completed-partitions";
+    private static final String LAST_KEY_SUFFIX = ".last-key";
+    private static final String PARTITION_SEPARATOR = ":";
+
+    private final WriteConfiguration checkpoints;
+    private final String partitionsKey;
+    private final String lastKeyKey;
+    private final long intervalMs;
+
+    private final Set<String> completedPartitions = ConcurrentHashMap.newKeySet();
+    private final Queue<ScanProgress> progresses = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+    private volatile StaticBuffer lastKey = null;
+    private volatile long lastCheckpoint;
+
+    ScanCheckpointer(WriteConfiguration checkpoints, Object jobId, Duration interval) {
+        Preconditions.checkArgument(!interval.isZero() && !interval.isNegative(), "Invalid checkpoint interval: %s", interval);
+        this.checkpoints = Preconditions.checkNotNull(checkpoints);
+        this.partitionsKey = jobId + PARTITIONS_SUFFIX;
+        this.lastKeyKey = jobId + LAST_KEY_SUFFIX;
+        this.intervalMs = interval.toMillis();
+        this.lastCheckpoint = System.currentTimeMillis();
+    }
+
+    /**
+     * Loads the last checkpoint written for the job.
+     */
+    void load() {
+        String[] partitions = checkpoints.get(partitionsKey, String[].class);
+        if (partitions != null) completedPartitions.addAll(Arrays.asList(partitions));
+        String key = checkpoints.get(lastKeyKey, String.class);
+        if (key != null) lastKey = StaticArrayBuffer.of(Hex.hexToBytes(key));
+        log.info("Resuming scan from checkpoint [{}] with {} completed partitions and last key {}",
+            partitionsKey, completedPartitions.size(), lastKey);
+    }
+
+    /**
+     * Removes the checkpoint of the job, f.e. when the job completed successfully.
+     */
+    void clear() {
+        try {
+            checkpoints.remove(partitionsKey);
+            checkpoints.remove(lastKeyKey);
+        } catch (Throwable e) {
+            log.warn("Could not remove scan checkpoint [{}]", partitionsKey, e);
+        }
+    }
+
+    boolean isCompleted(KeyRange partition) {
+        return completedPartitions.contains(encode(partition));
+    }
+
+    /**
+     * @return the first key to scan when resuming an ordered scan over the whole store, or null to scan from the beginning
+     */
+    StaticBuffer getResumeKey() {
+        StaticBuffer key = lastKey;
+        if (key == null) return null;
+        // Appending a zero byte yields the smallest key which is strictly greater than the last processed key
+        byte[] next = Arrays.copyOf(key.as(StaticBuffer.ARRAY_FACTORY), key.length() + 1);
+        return StaticArrayBuffer.of(next);
+    }
+
+    void register(ScanProgress progress) {
+        progresses.add(progress);
+    }
+
+    /**
+     * Writes a checkpoint if the checkpoint interval has passed and no other thread is currently writing one.
+     */
+    void maybeCheckpoint() {
+        if (System.currentTimeMillis() - lastCheckpoint < intervalMs || !checkpointLock.tryLock()) return;
+        try {
+            if (System.currentTimeMillis() - lastCheckpoint >= intervalMs) writeCheckpoint();
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    void checkpoint() {
+        checkpointLock.lock();
+        try {
+            writeCheckpoint();
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    private void writeCheckpoint() {
+        for (ScanProgress progress : progresses) {
+            if (progress.getPartition() != null) {
+                if (progress.isComplete()) {
+                    completedPartitions.add(encode(progress.getPartition()));
+                    progresses.remove(progress);
+                }
+            } else {
+                StaticBuffer key = progress.getWatermarkKey();
+                if (key != null) lastKey = key;
+            }
+        }
+        try {
+            if (!completedPartitions.isEmpty()) {
+                checkpoints.set(partitionsKey, completedPartitions.toArray(new String[0]));
+            }
+            StaticBuffer key = lastKey;
+            if (key != null) {
+                checkpoints.set(lastKeyKey, Hex.bytesToHex(key.as(StaticBuffer.ARRAY_FACTORY)));
+            }
+        } catch (Throwable e) {
+            log.warn("Could not write scan checkpoint [{}]", partitionsKey, e);
+        }
+        lastCheckpoint = System.currentTimeMillis();
+    }
+
+    private static String encode(KeyRange partition) {
+        return Hex.bytesToHex(partition.getStart().as(StaticBuffer.ARRAY_FACTORY)) + PARTITION_SEPARATOR
+            + Hex.bytesToHex(partition.getEnd().as(StaticBuffer.ARRAY_FACTORY));
+    }
+
+}
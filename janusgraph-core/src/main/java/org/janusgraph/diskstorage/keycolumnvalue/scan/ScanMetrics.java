@@ -35,6 +35,18 @@ public interface ScanMetrics {
      */
     enum Metric { FAILURE, SUCCESS }
 
+    /**
+     * Name of the custom counter holding the number of partitions a scan has been split into.
+     * Only maintained when the store is scanned partition by partition.
+     */
+    String PARTITIONS_TOTAL = "partitions-total";
+
+    /**
+     * Name of the custom counter holding the number of partitions which have been scanned completely.
+     * Only maintained when the store is scanned partition by partition.
+     */
+    String PARTITIONS_COMPLETED = "partitions-completed";
+
     /**
      * Get the value of a custom counter.  Only the effects of prior calls to
      * {@link #incrementCustom(String)} and {@link #incrementCustom(String, long)}
@@ -0,0 +1,96 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.scan;
+
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyRange;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.janusgraph.diskstorage.keycolumnvalue.scan.StandardScannerExecutor.Row;
+
+/**
+ * Tracks which rows of a single stream of rows, i.e. the whole store or a single scan partition, have been
+ * processed by the {@link ScanJob}. Rows are numbered in the order in which they are read from the store, so that
+ * the watermark is the last key up to which all rows have been processed.
+ */
+class ScanProgress {
+
+    private final KeyRange partition;
+    private final StaticBuffer startKey;
+
+    private final AtomicLong numRows = new AtomicLong(0);
+    private final Map<Long, StaticBuffer> processedRows = new HashMap<>();
+    private long watermark = -1;
+    private StaticBuffer watermarkKey = null;
+    private volatile boolean pulled = false;
+
+    /**
+     * @param partition the scan partition this stream is restricted to, or null for the whole store
+     * @param startKey the first key to read for stores supporting ordered scans, or null to start at the beginning
+     */
+    ScanProgress(KeyRange partition, StaticBuffer startKey) {
+        this.partition = partition;
+        this.startKey = startKey;
+    }
+
+    KeyRange getPartition() {
+        return partition;
+    }
+
+    StaticBuffer getStartKey() {
+        return startKey;
+    }
+
+    /**
+     * Must be called in the order in which the rows are read from the store.
+     */
+    Row newRow(StaticBuffer key, Map<SliceQuery, EntryList> entries) {
+        return new Row(key, entries, this, numRows.getAndIncrement());
+    }
+
+    /**
+     * Marks that all rows of this stream have been read.
+     */
+    void pullingFinished() {
+        pulled = true;
+    }
+
+    synchronized void processed(Row row) {
+        assert row.progress == this;
+        processedRows.put(row.sequence, row.key);
+        StaticBuffer key;
+        while ((key = processedRows.remove(watermark + 1)) != null) {
+            watermark++;
+            watermarkKey = key;
+        }
+    }
+
+    /**
+     * @return the last key up to which all rows have been processed, or null if no row has been processed yet
+     */
+    synchronized StaticBuffer getWatermarkKey() {
+        return watermarkKey;
+    }
+
+    synchronized boolean isComplete() {
+        return pulled && watermark + 1 == numRows.get();
+    }
+
+}
@@ -50,6 +50,7 @@ class SingleThreadRowsCollector extends RowsCollector {
 
     private final StoreTransaction storeTx;
     private final Predicate<StaticBuffer> keyFilter;
+    private final ScanProgress progress;
     private KeySlicesIterator keyIterator;
 
     private boolean interrupted = false;
@@ -59,11 +60,13 @@ class SingleThreadRowsCollector extends RowsCollector {
         StoreTransaction storeTx,
         List<SliceQuery> queries,
         Predicate<StaticBuffer> keyFilter,
-        BlockingQueue<Row> rowQueue) throws BackendException {
+        BlockingQueue<Row> rowQueue,
+        ScanProgress progress) throws BackendException {
 
         super(store, rowQueue);
         this.storeTx = storeTx;
         this.keyFilter = keyFilter;
+        this.progress = progress;
 
         setUp(queries);
     }
@@ -80,8 +83,9 @@ class SingleThreadRowsCollector extends RowsCollector {
                 if (!keyFilter.test(key)) continue;
                 Map<SliceQuery, EntryList> rowEntries = new HashMap<>(sliceToEntriesMap.size());
                 sliceToEntriesMap.forEach((sliceQuery, entryList) -> rowEntries.put(sliceQuery, EntryArrayList.of(entryList)));
-                rowQueue.put(new Row(key, rowEntries));
+                rowQueue.put(progress.newRow(key, rowEntries));
             }
+            if (!interrupted) progress.pullingFinished();
         } catch (InterruptedException e) {
             log.error("Data-pulling thread interrupted while waiting on queue or data", e);
         } catch (Throwable e) {
@@ -20,12 +20,15 @@ import org.janusgraph.core.schema.JanusGraphManagement;
 import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.configuration.Configuration;
 import org.janusgraph.diskstorage.configuration.MergedConfiguration;
+import org.janusgraph.diskstorage.configuration.WriteConfiguration;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
 import org.janusgraph.diskstorage.util.StandardBaseTransactionConfig;
 import org.janusgraph.diskstorage.util.time.TimestampProvider;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
 
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -94,6 +97,9 @@ public class StandardScanner  {
         private String dbName;
         private Consumer<ScanMetrics> finishJob;
         private Object jobId;
+        private boolean hasCustomJobId;
+        private boolean resume;
+        private WriteConfiguration checkpointConfiguration;
 
         private Builder() {
             numProcessingThreads = 1;
@@ -104,6 +110,9 @@ public class StandardScanner  {
             jobConfiguration = Configuration.EMPTY;
             dbName = null;
             jobId = jobCounter.incrementAndGet();
+            hasCustomJobId = false;
+            resume = false;
+            checkpointConfiguration = null;
             finishJob = m -> {} ;
         }
 
@@ -137,6 +146,35 @@ public class StandardScanner  {
 
         public Builder setJobId(Object id) {
             this.jobId = Preconditions.checkNotNull(id, "Need to provide a valid id: %s",id);
+            this.hasCustomJobId = true;
+            return this;
+        }
+
+        /**
+         * Resumes the job with the given id from its last checkpoint instead of scanning the whole store.
+         * Scan partitions which have been processed completely are skipped and scans over stores which support
+         * ordered scans continue after the last processed key. Requires a checkpoint configuration; if no checkpoint
+         * has been written for the job, the whole store is scanned.
+         *
+         * @param id the id of the job to resume
+         * @return this builder
+         * @see #setCheckpointConfiguration(WriteConfiguration)
+         */
+        public Builder resume(Object id) {
+            setJobId(id);
+            this.resume = true;
+            return this;
+        }
+
+        /**
+         * Sets the configuration into which the progress of jobs with a custom job id is written periodically,
+         * according to {@link GraphDatabaseConfiguration#SCAN_CHECKPOINT_INTERVAL}.
+         *
+         * @param checkpoints the configuration to write checkpoints to, or null to disable checkpoints
+         * @return this builder
+         */
+        public Builder setCheckpointConfiguration(WriteConfiguration checkpoints) {
+            this.checkpointConfiguration = checkpoints;
             return this;
         }
 
@@ -181,13 +219,22 @@ public class StandardScanner  {
                 txBuilder.customOptions(scanConfig);
             }
 
+            ScanCheckpointer checkpointer = null;
+            Duration checkpointInterval = graphConfiguration.get(GraphDatabaseConfiguration.SCAN_CHECKPOINT_INTERVAL);
+            if (checkpointConfiguration != null && hasCustomJobId && !checkpointInterval.isZero()) {
+                checkpointer = new ScanCheckpointer(checkpointConfiguration, jobId, checkpointInterval);
+            } else {
+                Preconditions.checkArgument(!resume, "Cannot resume job [%s] without checkpoints", jobId);
+            }
+
             StoreTransaction storeTx = manager.beginTransaction(txBuilder.build());
             KeyColumnValueStore kcvs = manager.openDatabase(dbName);
 
             openStores.add(kcvs);
             try {
                 StandardScannerExecutor executor = new StandardScannerExecutor(job, finishJob, kcvs, storeTx,
-                        manager.getFeatures(), numProcessingThreads, workBlockSize, jobConfiguration, graphConfiguration);
+                        manager.getFeatures(), numProcessingThreads, workBlockSize, jobConfiguration, graphConfiguration,
+                        checkpointer, resume);
                 addJob(jobId,executor);
                 new Thread(executor).start();
                 return executor;
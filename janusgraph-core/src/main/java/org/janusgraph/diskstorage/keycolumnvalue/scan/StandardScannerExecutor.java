@@ -22,6 +22,7 @@ import org.janusgraph.diskstorage.EntryList;
 import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.configuration.Configuration;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyRange;
 import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreFeatures;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
@@ -31,6 +32,7 @@ import org.janusgraph.util.system.Threads;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
@@ -58,6 +60,8 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
     private final int workBlockSize;
     private final Configuration jobConfiguration;
     private final Configuration graphConfiguration;
+    private final ScanCheckpointer checkpointer;
+    private final boolean resume;
     private final ScanMetrics metrics;
 
     private boolean hasCompleted = false;
@@ -70,7 +74,8 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
                             final StoreFeatures storeFeatures,
                             final int numProcessors, final int workBlockSize,
                             final Configuration jobConfiguration,
-                            final Configuration graphConfiguration) {
+                            final Configuration graphConfiguration,
+                            final ScanCheckpointer checkpointer, final boolean resume) {
         this.job = job;
         this.finishJob = finishJob;
         this.store = store;
@@ -80,6 +85,8 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
         this.workBlockSize = workBlockSize;
         this.jobConfiguration = jobConfiguration;
         this.graphConfiguration = graphConfiguration;
+        this.checkpointer = checkpointer;
+        this.resume = resume;
 
         metrics = new StandardScanMetrics();
     }
@@ -112,6 +119,11 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
                         "Expected end of first query to be all 1s: %s",end);
             }
 
+            if (checkpointer != null) {
+                if (resume) checkpointer.load();
+                else checkpointer.clear();
+            }
+
             rowsCollector = buildScanner(processorQueue, queries);
 
         }  catch (Throwable e) {
@@ -147,14 +159,17 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
             }
 
             if (interrupted) {
+                if (checkpointer != null) checkpointer.checkpoint();
                 setException(new InterruptedException("Scanner got interrupted"));
             } else {
+                if (checkpointer != null) checkpointer.clear();
                 finishJob.accept(metrics);
                 set(metrics);
             }
         } catch (Throwable e) {
             log.error("Exception occurred during job execution:", e);
             job.workerIterationEnd(metrics);
+            if (checkpointer != null) checkpointer.checkpoint();
             setException(e);
         } finally {
             Threads.terminate(processors);
@@ -165,11 +180,32 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
     private RowsCollector buildScanner(BlockingQueue<Row> processorQueue, List<SliceQuery> queries) throws BackendException {
         if(!storeFeatures.hasConsistentScan()) {
             return new SingleThreadRowsCollector(store, storeTx, queries,
-                job.getKeyFilter(), processorQueue);
-        } else {
-            return new MultiThreadsRowsCollector(store, storeFeatures, storeTx, queries,
-                job.getKeyFilter(), processorQueue, graphConfiguration);
+                job.getKeyFilter(), processorQueue, newProgress(null, null));
+        }
+        int parallelism = graphConfiguration.get(GraphDatabaseConfiguration.SCAN_PARALLELISM);
+        if (parallelism > 1) {
+            List<KeyRange> partitions = store.getScanPartitions(parallelism, storeTx);
+            if (!partitions.isEmpty()) {
+                List<ScanProgress> pending = new ArrayList<>(partitions.size());
+                for (KeyRange partition : partitions) {
+                    if (checkpointer != null && checkpointer.isCompleted(partition)) continue;
+                    pending.add(newProgress(partition, null));
+                }
+                metrics.incrementCustom(ScanMetrics.PARTITIONS_TOTAL, partitions.size());
+                metrics.incrementCustom(ScanMetrics.PARTITIONS_COMPLETED, partitions.size() - pending.size());
+                return new PartitionedRowsCollector(store, storeFeatures, storeTx, queries, pending, parallelism,
+                    job.getKeyFilter(), processorQueue, graphConfiguration, metrics);
+            }
         }
+        StaticBuffer startKey = checkpointer != null && storeFeatures.hasOrderedScan() ? checkpointer.getResumeKey() : null;
+        return new MultiThreadsRowsCollector(store, storeFeatures, storeTx, queries, newProgress(null, startKey),
+            job.getKeyFilter(), processorQueue, graphConfiguration);
+    }
+
+    private ScanProgress newProgress(KeyRange partition, StaticBuffer startKey) {
+        ScanProgress progress = new ScanProgress(partition, startKey);
+        if (checkpointer != null) checkpointer.register(progress);
+        return progress;
     }
 
     @Override
@@ -205,10 +241,14 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
 
         final StaticBuffer key;
         final Map<SliceQuery,EntryList> entries;
+        final ScanProgress progress;
+        final long sequence;
 
-        Row(StaticBuffer key, Map<SliceQuery, EntryList> entries) {
+        Row(StaticBuffer key, Map<SliceQuery, EntryList> entries, ScanProgress progress, long sequence) {
             this.key = key;
             this.entries = entries;
+            this.progress = progress;
+            this.sequence = sequence;
         }
     }
 
@@ -218,6 +258,7 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
 
         private ScanJob job;
         private final BlockingQueue<Row> processorQueue;
+        private final List<Row> processedRows;
 
         private volatile boolean finished;
         private int numProcessed;
@@ -227,6 +268,7 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
             this.job = job;
             this.processorQueue = processorQueue;
 
+            this.processedRows = new ArrayList<>();
             this.finished = false;
             this.numProcessed = 0;
         }
@@ -241,6 +283,7 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
                         if (numProcessed>=workBlockSize) {
                             //Setup new chunk of work
                             job.workerIterationEnd(metrics);
+                            finishWorkBlock();
                             job = job.clone();
                             job.workerIterationStart(jobConfiguration, graphConfiguration, metrics);
                             numProcessed=0;
@@ -252,6 +295,7 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
                             log.error("Exception processing row ["+row.key+"]: ",ex);
                             metrics.increment(ScanMetrics.Metric.FAILURE);
                         }
+                        processedRows.add(row);
                         numProcessed++;
                     }
                 }
@@ -261,7 +305,20 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
                 log.error("Unexpected error processing data",e);
             } finally {
                 job.workerIterationEnd(metrics);
+                finishWorkBlock();
+            }
+        }
+
+        /**
+         * Marks the rows of the current work block as processed, since their effects have been
+         * persisted by {@link ScanJob#workerIterationEnd(ScanMetrics)}.
+         */
+        private void finishWorkBlock() {
+            for (Row row : processedRows) {
+                row.progress.processed(row);
             }
+            processedRows.clear();
+            if (checkpointer != null) checkpointer.maybeCheckpoint();
         }
 
         public void finish() {
@@ -267,6 +267,23 @@ public abstract class AbstractLocker<S extends LockStatus> implements Locker {
      */
     protected abstract void checkSingleLock(KeyColumn lockID, S lockStatus, StoreTransaction tx) throws Throwable;
 
+    /**
+     * Verify all locks held by {@code tx}. The default implementation calls
+     * {@link #checkSingleLock(KeyColumn, LockStatus, StoreTransaction)} for each
+     * lock in turn. Implementations which can check several locks with fewer
+     * round-trips to the storage backend may override this method.
+     *
+     * @param locks the locks held by {@code tx} and their statuses
+     * @param tx    identifies the process claiming the locks
+     * @throws Throwable if any lock fails the check or if the attempted check
+     *                   encountered an error
+     */
+    protected void checkAllLocks(Map<KeyColumn, S> locks, StoreTransaction tx) throws Throwable {
+        for (final Map.Entry<KeyColumn, S> entry : locks.entrySet()) {
+            checkSingleLock(entry.getKey(), entry.getValue(), tx);
+        }
+    }
+
     /**
      * Try to unlock/release/delete the lock identified by {@code lockID} and
      * both held by and verified for {@code tx}. This method is only called with
@@ -344,9 +361,7 @@ public abstract class AbstractLocker<S extends LockStatus> implements Locker {
         // interrupt
         boolean ok = false;
         try {
-            for (final Map.Entry<KeyColumn, S> entry : m.entrySet()) {
-                checkSingleLock(entry.getKey(), entry.getValue(), tx);
-            }
+            checkAllLocks(m, tx);
             ok = true;
         } catch (TemporaryLockingException | PermanentLockingException | AssertionError tle) {
             throw tle;
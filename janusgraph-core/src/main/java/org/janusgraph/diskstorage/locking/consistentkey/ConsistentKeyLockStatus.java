@@ -26,8 +26,8 @@ import java.time.Instant;
  */
 public class ConsistentKeyLockStatus implements LockStatus {
 
-    private final Instant write;
-    private final Instant expire;
+    private Instant write;
+    private Instant expire;
     private boolean checked;
 
     public ConsistentKeyLockStatus(Instant written, Instant expire) {
@@ -36,6 +36,15 @@ public class ConsistentKeyLockStatus implements LockStatus {
         this.checked = false;
     }
 
+    /**
+     * Creates the status of a lock whose claim has not been written to the store yet.
+     *
+     * @param expire the time at which the local lock expires
+     */
+    public ConsistentKeyLockStatus(Instant expire) {
+        this(null, expire);
+    }
+
     @Override
     public Instant getExpirationTimestamp() {
         return expire;
@@ -46,6 +55,15 @@ public class ConsistentKeyLockStatus implements LockStatus {
         return write;
     }
 
+    public boolean isWritten() {
+        return write != null;
+    }
+
+    void setWritten(Instant written, Instant expire) {
+        this.write = written;
+        this.expire = expire;
+    }
+
     public boolean isChecked() {
         return checked;
     }
@@ -19,13 +19,17 @@ import com.google.common.collect.Iterables;
 import org.janusgraph.core.JanusGraphConfigurationException;
 import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
 import org.janusgraph.diskstorage.PermanentBackendException;
 import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.TemporaryBackendException;
 import org.janusgraph.diskstorage.configuration.ConfigElement;
 import org.janusgraph.diskstorage.configuration.Configuration;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVMutation;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
 import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreManager;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
 import org.janusgraph.diskstorage.locking.AbstractLocker;
@@ -50,7 +54,10 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.janusgraph.util.encoding.StringEncoding.UTF8_CHARSET;
 
@@ -127,6 +134,15 @@ import static org.janusgraph.util.encoding.StringEncoding.UTF8_CHARSET;
  * {@code rid} is only unique at the process level.  Without a mediator, distinct
  * threads could write lock columns with the same {@code rid} and be unable to
  * tell their lock claims apart.
+ * <p>
+ * <h4>Batched locking</h4>
+ * <p>
+ * If batched locking is enabled, the first step is deferred until the locks of
+ * a transaction are checked. The lock columns of all locks taken by the
+ * transaction are then written with a single batch mutation sharing one
+ * timestamp, followed by a single wait of {@code lockWait} and a single
+ * multi-key read of all lock columns. The commit latency of transactions taking
+ * many locks is thus independent of the number of locks.
  */
 public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus> implements Locker {
 
@@ -144,6 +160,11 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
 
     private final int lockRetryCount;
 
+    /**
+     * Whether lock claims are written and checked in batches when the locks are checked.
+     */
+    private final boolean batchLocks;
+
     /**
      * Expired lock cleaner in charge of {@link #store}.
      */
@@ -191,6 +212,7 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
         // Optional (has default)
         private Duration lockWait;
         private int lockRetryCount;
+        private boolean batchLocks;
 
         private enum CleanerConfig {
             NONE,
@@ -206,6 +228,7 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
             this.manager = manager;
             this.lockWait = GraphDatabaseConfiguration.LOCK_WAIT.getDefaultValue();
             this.lockRetryCount = GraphDatabaseConfiguration.LOCK_RETRY.getDefaultValue();
+            this.batchLocks = GraphDatabaseConfiguration.LOCK_BATCH.getDefaultValue();
         }
 
         public Builder lockWait(Duration d) {
@@ -218,6 +241,11 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
             return self();
         }
 
+        public Builder batchLocks(boolean batch) {
+            this.batchLocks = batch;
+            return self();
+        }
+
         public Builder standardCleaner() {
             this.cleanerConfig = CleanerConfig.STANDARD;
             this.customCleanerService = null;
@@ -247,6 +275,8 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
 
             lockExpire(config.get(GraphDatabaseConfiguration.LOCK_EXPIRE));
 
+            batchLocks(config.get(GraphDatabaseConfiguration.LOCK_BATCH));
+
             if (config.get(GraphDatabaseConfiguration.LOCK_CLEAN_EXPIRED)) {
                 standardCleaner();
             }
@@ -276,6 +306,7 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
                     serializer, llm,
                     lockWait,
                     lockRetryCount,
+                    batchLocks,
                     lockExpire,
                     lockState, cleaner);
         }
@@ -298,7 +329,7 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
     private ConsistentKeyLocker(KeyColumnValueStore store, StoreManager manager, StaticBuffer rid,
                                 TimestampProvider times, ConsistentKeyLockerSerializer serializer,
                                 LocalLockMediator<StoreTransaction> llm, Duration lockWait,
-                                int lockRetryCount, Duration lockExpire,
+                                int lockRetryCount, boolean batchLocks, Duration lockExpire,
                                 LockerState<ConsistentKeyLockStatus> lockState,
                                 LockCleanerService cleanerService) {
         super(rid, times, serializer, llm, lockState, lockExpire, log);
@@ -306,6 +337,7 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
         this.manager = manager;
         this.lockWait = lockWait;
         this.lockRetryCount = lockRetryCount;
+        this.batchLocks = batchLocks;
         this.cleanerService = cleanerService;
     }
 
@@ -330,20 +362,67 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
     @Override
     protected ConsistentKeyLockStatus writeSingleLock(KeyColumn lockID, StoreTransaction txh) throws Throwable {
 
-        final StaticBuffer lockKey = serializer.toLockKey(lockID.getKey(), lockID.getColumn());
+        if (batchLocks) {
+            // The lock column is written along with all other lock columns of the transaction in checkAllLocks
+            return new ConsistentKeyLockStatus(times.getTime().plus(lockExpire));
+        }
+
+        final List<StaticBuffer> lockKeys = Collections.singletonList(serializer.toLockKey(lockID.getKey(), lockID.getColumn()));
+        final Instant writeInstant = writeLocks(lockID, lockKeys, txh);
+        return new ConsistentKeyLockStatus(writeInstant, writeInstant.plus(lockExpire));
+    }
+
+    /**
+     * Write the lock columns of all locks of the transaction whose claims have not been written yet
+     * with a single batch mutation.
+     *
+     * @param locks the locks held by the transaction
+     * @param txh   transaction
+     * @throws TemporaryLockingException if the lock retry count is exceeded without successfully
+     *                                   writing the locks in less than the wait limit
+     * @throws Throwable                 if the storage layer throws anything else
+     */
+    private void writePendingLocks(Map<KeyColumn, ConsistentKeyLockStatus> locks, StoreTransaction txh) throws Throwable {
+        final List<KeyColumn> lockIDs = new ArrayList<>();
+        final List<StaticBuffer> lockKeys = new ArrayList<>();
+        for (Map.Entry<KeyColumn, ConsistentKeyLockStatus> entry : locks.entrySet()) {
+            if (entry.getValue().isWritten()) continue;
+            final KeyColumn lockID = entry.getKey();
+            lockIDs.add(lockID);
+            lockKeys.add(serializer.toLockKey(lockID.getKey(), lockID.getColumn()));
+        }
+        if (lockIDs.isEmpty()) return;
+
+        final Instant writeInstant = writeLocks(lockIDs, lockKeys, txh);
+        final Instant expireInstant = writeInstant.plus(lockExpire);
+        for (KeyColumn lockID : lockIDs) {
+            locks.get(lockID).setWritten(writeInstant, expireInstant);
+            llm.lock(lockID, txh, expireInstant); // update local lock expiration time
+        }
+    }
+
+    /**
+     * Write a lock column with the same timestamp under each of the given lock keys, retrying up to the configured
+     * number of times.
+     *
+     * @param lockIDs  the locks to write, only used for logging
+     * @param lockKeys the keys of the locks in the lock store
+     * @param txh      transaction
+     * @return the timestamp of the lock columns that we successfully wrote to the store
+     * @throws Throwable see {@link #writeSingleLock(KeyColumn, StoreTransaction)}
+     */
+    private Instant writeLocks(Object lockIDs, List<StaticBuffer> lockKeys, StoreTransaction txh) throws Throwable {
         StaticBuffer oldLockCol = null;
 
         for (int i = 0; i < lockRetryCount; i++) {
-            WriteResult wr = tryWriteLockOnce(lockKey, oldLockCol, txh);
+            WriteResult wr = tryWriteLockOnce(lockKeys, oldLockCol, txh);
             if (wr.isSuccessful() && wr.getDuration().compareTo(lockWait) <= 0) {
-                final Instant writeInstant = wr.getWriteTimestamp();
-                final Instant expireInstant = writeInstant.plus(lockExpire);
-                return new ConsistentKeyLockStatus(writeInstant, expireInstant);
+                return wr.getWriteTimestamp();
             }
             oldLockCol = wr.getLockCol();
-            handleMutationFailure(lockID, lockKey, wr, txh);
+            handleMutationFailure(lockIDs, lockKeys, wr, txh);
         }
-        tryDeleteLockOnce(lockKey, oldLockCol, txh);
+        tryDeleteLockOnce(lockKeys, oldLockCol, txh);
         // TODO log exception or successful too-slow write here
         throw new TemporaryBackendException("Lock write retry count exceeded");
     }
@@ -354,16 +433,16 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
      * but took longer to complete than configured lock wait time, or that
      * the call to mutate threw something.
      *
-     * @param lockID  coordinates identifying the lock we tried but failed to
+     * @param lockID  coordinates identifying the lock(s) we tried but failed to
      *                acquire
-     * @param lockKey the byte value of the key that we mutated or attempted to
+     * @param lockKeys the byte values of the keys that we mutated or attempted to
      *                mutate in the lock store
      * @param wr      result of the mutation
      * @param txh     transaction attempting the lock
      * @throws Throwable if {@link WriteResult#getThrowable()} is not an instance of
      *                   {@link org.janusgraph.diskstorage.TemporaryBackendException}
      */
-    private void handleMutationFailure(KeyColumn lockID, StaticBuffer lockKey, WriteResult wr,
+    private void handleMutationFailure(Object lockID, List<StaticBuffer> lockKeys, WriteResult wr,
                                        StoreTransaction txh) throws Throwable {
         Throwable error = wr.getThrowable();
         if (null != error) {
@@ -377,7 +456,7 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
                  * we have retries left.
                  */
                 log.error("Fatal exception encountered during attempted lock write", error);
-                WriteResult dwr = tryDeleteLockOnce(lockKey, wr.getLockCol(), txh);
+                WriteResult dwr = tryDeleteLockOnce(lockKeys, wr.getLockCol(), txh);
                 if (!dwr.isSuccessful()) {
                     log.warn("Failed to delete lock write: abandoning potentially-unreleased lock on {}",
                         lockID, dwr.getThrowable());
@@ -390,7 +469,7 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
         }
     }
 
-    private WriteResult tryWriteLockOnce(StaticBuffer key, StaticBuffer del, StoreTransaction txh) {
+    private WriteResult tryWriteLockOnce(List<StaticBuffer> keys, StaticBuffer del, StoreTransaction txh) {
         Throwable t = null;
         final Timer writeTimer = times.getTimer().start();
         StaticBuffer newLockCol = serializer.toLockCol(writeTimer.getStartTime(), rid, times);
@@ -399,7 +478,7 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
         try {
             newTx = overrideTimestamp(txh, writeTimer.getStartTime());
 
-            store.mutate(key, Collections.singletonList(newLockEntry),
+            mutateLocks(keys, Collections.singletonList(newLockEntry),
                 null == del ? KeyColumnValueStore.NO_DELETIONS : Collections.singletonList(del), newTx);
 
             newTx.commit();
@@ -415,14 +494,14 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
         return new WriteResult(writeTimer.elapsed(), writeTimer.getStartTime(), newLockCol, t);
     }
 
-    private WriteResult tryDeleteLockOnce(StaticBuffer key, StaticBuffer col, StoreTransaction txh) {
+    private WriteResult tryDeleteLockOnce(List<StaticBuffer> keys, StaticBuffer col, StoreTransaction txh) {
         Throwable t = null;
         final Timer delTimer = times.getTimer().start();
         StoreTransaction newTx = null;
         try {
             newTx = overrideTimestamp(txh, delTimer.getStartTime());
 
-            store.mutate(key, Collections.emptyList(), Collections.singletonList(col), newTx);
+            mutateLocks(keys, Collections.emptyList(), Collections.singletonList(col), newTx);
 
             newTx.commit();
             newTx = null;
@@ -436,6 +515,24 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
         return new WriteResult(delTimer.elapsed(), delTimer.getStartTime(), null, t);
     }
 
+    /**
+     * Apply the same mutation to all given lock keys, using a single batch mutation if there is more than one key.
+     */
+    private void mutateLocks(List<StaticBuffer> keys, List<Entry> additions, List<StaticBuffer> deletions,
+                             StoreTransaction tx) throws BackendException {
+        if (keys.size() > 1 && manager instanceof KeyColumnValueStoreManager) {
+            final Map<StaticBuffer, KCVMutation> mutations = new HashMap<>(keys.size());
+            for (StaticBuffer key : keys) {
+                mutations.put(key, new KCVMutation(new ArrayList<>(additions), new ArrayList<>(deletions)));
+            }
+            ((KeyColumnValueStoreManager) manager).mutateMany(Collections.singletonMap(store.getName(), mutations), tx);
+        } else {
+            for (StaticBuffer key : keys) {
+                store.mutate(key, additions, deletions, tx);
+            }
+        }
+    }
+
     @Override
     protected void checkSingleLock(final KeyColumn kc, final ConsistentKeyLockStatus ls,
                                    final StoreTransaction tx) throws BackendException, InterruptedException {
@@ -452,6 +549,45 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
             LOCK_COL_END);
         List<Entry> claimEntries = getSliceWithRetries(ksq, tx);
 
+        checkClaims(kc, ls, claimEntries, now, tx);
+    }
+
+    @Override
+    protected void checkAllLocks(Map<KeyColumn, ConsistentKeyLockStatus> locks, StoreTransaction tx) throws Throwable {
+        if (!batchLocks) {
+            super.checkAllLocks(locks, tx);
+            return;
+        }
+
+        writePendingLocks(locks, tx);
+
+        final Map<StaticBuffer, KeyColumn> uncheckedLocks = new LinkedHashMap<>();
+        Instant lastWrite = null;
+        for (Map.Entry<KeyColumn, ConsistentKeyLockStatus> entry : locks.entrySet()) {
+            final ConsistentKeyLockStatus ls = entry.getValue();
+            if (ls.isChecked()) continue;
+            final KeyColumn kc = entry.getKey();
+            uncheckedLocks.put(serializer.toLockKey(kc.getKey(), kc.getColumn()), kc);
+            if (null == lastWrite || ls.getWriteTimestamp().isAfter(lastWrite)) lastWrite = ls.getWriteTimestamp();
+        }
+        if (uncheckedLocks.isEmpty()) return;
+
+        // A single wait covers all locks, since none of them has been written after the latest one
+        final Instant now = times.sleepPast(lastWrite.plus(lockWait));
+
+        final Map<StaticBuffer, EntryList> claims = getSlicesWithRetries(new ArrayList<>(uncheckedLocks.keySet()), tx);
+        for (Map.Entry<StaticBuffer, KeyColumn> entry : uncheckedLocks.entrySet()) {
+            final KeyColumn kc = entry.getValue();
+            final List<Entry> claimEntries = claims.get(entry.getKey());
+            checkClaims(kc, locks.get(kc), null == claimEntries ? Collections.emptyList() : claimEntries, now, tx);
+        }
+    }
+
+    /**
+     * Check whether the given claims, read after the lock wait time has passed, grant us the lock.
+     */
+    private void checkClaims(KeyColumn kc, ConsistentKeyLockStatus ls, List<Entry> claimEntries, Instant now,
+                             StoreTransaction tx) throws BackendException {
         // Extract timestamp and rid from the column in each returned Entry...
         final Iterable<TimestampRid> iterable = Iterables.transform(claimEntries,
             e -> serializer.fromLockColumn(e.getColumnAs(StaticBuffer.STATIC_FACTORY), times));
@@ -500,6 +636,30 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
         throw new TemporaryBackendException("Maximum retries (" + lockRetryCount + ") exceeded while checking locks");
     }
 
+    private Map<StaticBuffer, EntryList> getSlicesWithRetries(List<StaticBuffer> keys, StoreTransaction tx) throws BackendException {
+        final SliceQuery query = new SliceQuery(LOCK_COL_START, LOCK_COL_END);
+
+        for (int i = 0; i < lockRetryCount; i++) {
+            try {
+                if (manager.getFeatures().hasMultiQuery()) {
+                    return store.getSlice(keys, query, tx);
+                }
+                final Map<StaticBuffer, EntryList> result = new HashMap<>(keys.size());
+                for (StaticBuffer key : keys) {
+                    result.put(key, store.getSlice(new KeySliceQuery(key, query), tx));
+                }
+                return result;
+            } catch (PermanentBackendException e) {
+                log.error("Failed to check locks", e);
+                throw new PermanentLockingException(e);
+            } catch (TemporaryBackendException e) {
+                log.warn("Temporary storage failure while checking locks", e);
+            }
+        }
+
+        throw new TemporaryBackendException("Maximum retries (" + lockRetryCount + ") exceeded while checking locks");
+    }
+
     private void checkSeniority(KeyColumn target, ConsistentKeyLockStatus ls,
                                 Iterable<TimestampRid> claimTRs) throws BackendException {
 
@@ -558,6 +718,9 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
 
     @Override
     protected void deleteSingleLock(KeyColumn kc, ConsistentKeyLockStatus ls, StoreTransaction tx) {
+        if (!ls.isWritten()) {
+            return; // batched lock whose column has never been written
+        }
         List<StaticBuffer> deletions = Collections.singletonList(serializer.toLockCol(ls.getWriteTimestamp(), rid, times));
         for (int i = 0; i < lockRetryCount; i++) {
             StoreTransaction newTx = null;
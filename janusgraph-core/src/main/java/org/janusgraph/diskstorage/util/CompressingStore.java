@@ -0,0 +1,188 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util;
+
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVSProxy;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyIterator;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyRange;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyRangeQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySlicesIterator;
+import org.janusgraph.diskstorage.keycolumnvalue.MultiSlicesQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Store wrapper of {@link CompressingStoreManager} which compresses the values written through
+ * {@link #mutate(StaticBuffer, List, List, StoreTransaction)} and decompresses all values it returns.
+ */
+class CompressingStore extends KCVSProxy {
+
+    private final CompressingStoreManager manager;
+
+    CompressingStore(KeyColumnValueStore store, CompressingStoreManager manager) {
+        super(store);
+        this.manager = manager;
+    }
+
+    /**
+     * Only reached for stores with native locking, since {@link org.janusgraph.diskstorage.locking.consistentkey.ExpectedValueCheckingStore}
+     * wraps this store and compares the decompressed values. The stored bytes of a value depend on how it was written,
+     * f.e. with a different minimum size or uncompressed because it did not shrink, so the expected value is replaced by the
+     * stored bytes if they decompress to it.
+     */
+    @Override
+    public void acquireLock(StaticBuffer key, StaticBuffer column, StaticBuffer expectedValue, StoreTransaction txh) throws BackendException {
+        store.acquireLock(key, column, getStoredValue(key, column, expectedValue, txh), txh);
+    }
+
+    private StaticBuffer getStoredValue(StaticBuffer key, StaticBuffer column, StaticBuffer expectedValue, StoreTransaction txh) throws BackendException {
+        if (expectedValue == null) return null;
+        final EntryList stored = store.getSlice(new KeySliceQuery(key, column, BufferUtil.nextBiggerBuffer(column)), txh);
+        if (!stored.isEmpty() && expectedValue.equals(manager.decompress(stored.get(0)).getValue())) {
+            return stored.get(0).getValue();
+        }
+        return manager.compress(expectedValue);
+    }
+
+    @Override
+    public void mutate(StaticBuffer key, List<Entry> additions, List<StaticBuffer> deletions, StoreTransaction txh) throws BackendException {
+        store.mutate(key, manager.compress(additions, getName(), txh), deletions, txh);
+    }
+
+    @Override
+    public EntryList getSlice(KeySliceQuery query, StoreTransaction txh) throws BackendException {
+        return manager.decompress(store.getSlice(query, txh));
+    }
+
+    @Override
+    public Map<StaticBuffer, EntryList> getSlice(List<StaticBuffer> keys, SliceQuery query, StoreTransaction txh) throws BackendException {
+        final Map<StaticBuffer, EntryList> results = store.getSlice(keys, query, txh);
+        final Map<StaticBuffer, EntryList> decompressed = new HashMap<>(results.size());
+        for (Map.Entry<StaticBuffer, EntryList> result : results.entrySet()) {
+            decompressed.put(result.getKey(), manager.decompress(result.getValue()));
+        }
+        return decompressed;
+    }
+
+    @Override
+    public KeyIterator getKeys(KeyRangeQuery keyQuery, StoreTransaction txh) throws BackendException {
+        return new DecompressingKeyIterator(store.getKeys(keyQuery, txh));
+    }
+
+    @Override
+    public KeyIterator getKeys(SliceQuery columnQuery, StoreTransaction txh) throws BackendException {
+        return new DecompressingKeyIterator(store.getKeys(columnQuery, txh));
+    }
+
+    @Override
+    public KeyIterator getKeys(SliceQuery columnQuery, KeyRange partition, StoreTransaction txh) throws BackendException {
+        return new DecompressingKeyIterator(store.getKeys(columnQuery, partition, txh));
+    }
+
+    @Override
+    public KeySlicesIterator getKeys(MultiSlicesQuery queries, StoreTransaction txh) throws BackendException {
+        final KeySlicesIterator iterator = store.getKeys(queries, txh);
+        return new KeySlicesIterator() {
+            @Override
+            public Map<SliceQuery, RecordIterator<Entry>> getEntries() {
+                final Map<SliceQuery, RecordIterator<Entry>> entries = iterator.getEntries();
+                final Map<SliceQuery, RecordIterator<Entry>> decompressed = new HashMap<>(entries.size());
+                for (Map.Entry<SliceQuery, RecordIterator<Entry>> slice : entries.entrySet()) {
+                    decompressed.put(slice.getKey(), new DecompressingEntryIterator(slice.getValue()));
+                }
+                return decompressed;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public StaticBuffer next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void close() throws IOException {
+                iterator.close();
+            }
+        };
+    }
+
+    private class DecompressingKeyIterator implements KeyIterator {
+
+        private final KeyIterator iterator;
+
+        private DecompressingKeyIterator(KeyIterator iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public RecordIterator<Entry> getEntries() {
+            return new DecompressingEntryIterator(iterator.getEntries());
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public StaticBuffer next() {
+            return iterator.next();
+        }
+
+        @Override
+        public void close() throws IOException {
+            iterator.close();
+        }
+    }
+
+    private class DecompressingEntryIterator implements RecordIterator<Entry> {
+
+        private final RecordIterator<Entry> iterator;
+
+        private DecompressingEntryIterator(RecordIterator<Entry> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public Entry next() {
+            return manager.decompress(iterator.next());
+        }
+
+        @Override
+        public void close() throws IOException {
+            iterator.close();
+        }
+    }
+}
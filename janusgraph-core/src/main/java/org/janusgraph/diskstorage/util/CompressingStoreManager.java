@@ -0,0 +1,264 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.BaseTransactionConfig;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.EntryMetaData;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.StoreMetaData;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVMutation;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyRange;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreFeatures;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.util.stats.MetricManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compresses the values of the entries written to the configured stores with a {@link BackendCompression} and
+ * decompresses them on retrieval, so that all layers above this store manager, such as the caches and the
+ * scanner, only ever see uncompressed entries. Columns and keys are never compressed.
+ * <p>
+ * Compressed values start with a {@link #FORMAT_PREFIX} followed by the {@link #FORMAT_COMPRESSED} format byte.
+ * Values which are too small or do not shrink when compressed are stored as they are, unless they start with the
+ * prefix themselves, in which case they are escaped with the {@link #FORMAT_RAW} format byte.
+ * <p>
+ * Values of the compressed stores must only ever be written through this store manager, since values without a
+ * format header cannot be told apart from other values. Therefore the compression options are fixed when the graph
+ * is created, see {@link org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration#STORAGE_COMPRESSION_ALGORITHM}.
+ */
+public class CompressingStoreManager implements KeyColumnValueStoreManager {
+
+    public static final String M_COMPRESSION = "compression";
+    public static final String M_BYTES_WRITTEN = "bytesWritten";
+    public static final String M_BYTES_SAVED = "bytesSaved";
+
+    private static final byte[] FORMAT_PREFIX = {(byte) 0xC7, (byte) 0x5A};
+    private static final byte FORMAT_RAW = 0;
+    private static final byte FORMAT_COMPRESSED = 1;
+    private static final int HEADER_LENGTH = FORMAT_PREFIX.length + 1;
+
+    private final KeyColumnValueStoreManager backend;
+    private final BackendCompression compression;
+    private final Set<String> compressedStores;
+    private final int minSize;
+    private final boolean metricsEnabled;
+
+    /**
+     * @param backend the store manager to wrap
+     * @param compression the compression to apply to values
+     * @param compressedStores the names of the stores whose values are compressed
+     * @param minSize the minimum length of the values to compress
+     * @param metricsEnabled whether to count the bytes saved by compression
+     */
+    public CompressingStoreManager(KeyColumnValueStoreManager backend, BackendCompression compression,
+                                   Set<String> compressedStores, int minSize, boolean metricsEnabled) {
+        Preconditions.checkArgument(minSize >= 0, "Invalid minimum size: %s", minSize);
+        this.backend = Preconditions.checkNotNull(backend);
+        this.compression = Preconditions.checkNotNull(compression);
+        this.compressedStores = ImmutableSet.copyOf(compressedStores);
+        this.minSize = minSize;
+        this.metricsEnabled = metricsEnabled;
+    }
+
+    @Override
+    public KeyColumnValueStore openDatabase(String name, StoreMetaData.Container metaData) throws BackendException {
+        KeyColumnValueStore store = backend.openDatabase(name, metaData);
+        return compressedStores.contains(name) ? new CompressingStore(store, this) : store;
+    }
+
+    @Override
+    public void mutateMany(Map<String, Map<StaticBuffer, KCVMutation>> mutations, StoreTransaction txh) throws BackendException {
+        final Map<String, Map<StaticBuffer, KCVMutation>> compressed = new HashMap<>(mutations.size());
+        for (Map.Entry<String, Map<StaticBuffer, KCVMutation>> storeMutations : mutations.entrySet()) {
+            final String storeName = storeMutations.getKey();
+            if (!compressedStores.contains(storeName)) {
+                compressed.put(storeName, storeMutations.getValue());
+                continue;
+            }
+            final Map<StaticBuffer, KCVMutation> compressedMutations = new HashMap<>(storeMutations.getValue().size());
+            for (Map.Entry<StaticBuffer, KCVMutation> mutation : storeMutations.getValue().entrySet()) {
+                final KCVMutation m = mutation.getValue();
+                compressedMutations.put(mutation.getKey(),
+                    new KCVMutation(compress(m.getAdditions(), storeName, txh), m.getDeletions()));
+            }
+            compressed.put(storeName, compressedMutations);
+        }
+        backend.mutateMany(compressed, txh);
+    }
+
+    List<Entry> compress(List<Entry> additions, String storeName, StoreTransaction txh) {
+        if (additions.isEmpty()) return additions;
+        final List<Entry> compressed = new ArrayList<>(additions.size());
+        long bytesWritten = 0;
+        long bytesSaved = 0;
+        for (Entry entry : additions) {
+            Entry compressedEntry = entry;
+            if (entry.hasValue()) {
+                final StaticBuffer value = entry.getValue();
+                final StaticBuffer compressedValue = compress(value);
+                if (compressedValue != value) compressedEntry = withValue(entry, compressedValue);
+                bytesWritten += value.length();
+                bytesSaved += value.length() - compressedValue.length();
+            }
+            compressed.add(compressedEntry);
+        }
+        if (metricsEnabled && txh.getConfiguration().hasGroupName()) {
+            final String prefix = txh.getConfiguration().getGroupName();
+            MetricManager.INSTANCE.getCounter(prefix, M_COMPRESSION, storeName, M_BYTES_WRITTEN).inc(bytesWritten);
+            MetricManager.INSTANCE.getCounter(prefix, M_COMPRESSION, storeName, M_BYTES_SAVED).inc(bytesSaved);
+        }
+        return compressed;
+    }
+
+    /**
+     * @return the compressed value prefixed with the format header, or the given value if it does not benefit from
+     * compression and cannot be mistaken for a compressed value
+     */
+    StaticBuffer compress(StaticBuffer value) {
+        if (value == null) return null;
+        if (value.length() >= minSize) {
+            final StaticBuffer compressed = compression.compress(value);
+            if (compressed.length() + HEADER_LENGTH < value.length()) return withHeader(FORMAT_COMPRESSED, compressed);
+        }
+        return hasFormatPrefix(value, 0) ? withHeader(FORMAT_RAW, value) : value;
+    }
+
+    private static StaticBuffer withHeader(byte format, StaticBuffer value) {
+        final byte[] result = new byte[HEADER_LENGTH + value.length()];
+        System.arraycopy(FORMAT_PREFIX, 0, result, 0, FORMAT_PREFIX.length);
+        result[FORMAT_PREFIX.length] = format;
+        System.arraycopy(value.as(StaticBuffer.ARRAY_FACTORY), 0, result, HEADER_LENGTH, value.length());
+        return StaticArrayBuffer.of(result);
+    }
+
+    EntryList decompress(EntryList entries) {
+        boolean hasCompressedValues = false;
+        for (Entry entry : entries) {
+            if (hasFormatHeader(entry)) {
+                hasCompressedValues = true;
+                break;
+            }
+        }
+        if (!hasCompressedValues) return entries;
+        final List<Entry> decompressed = new ArrayList<>(entries.size());
+        for (Entry entry : entries) decompressed.add(decompress(entry));
+        return StaticArrayEntryList.of(decompressed);
+    }
+
+    /**
+     * @return the given entry of the named store with its value decompressed, for readers which bypass this store manager
+     */
+    public Entry decompress(String storeName, Entry entry) {
+        return compressedStores.contains(storeName) ? decompress(entry) : entry;
+    }
+
+    Entry decompress(Entry entry) {
+        if (!hasFormatHeader(entry)) return entry;
+        final StaticBuffer value = entry.getValue();
+        final StaticBuffer payload = value.subrange(HEADER_LENGTH, value.length() - HEADER_LENGTH);
+        return withValue(entry, value.getByte(FORMAT_PREFIX.length) == FORMAT_COMPRESSED ? compression.decompress(payload) : payload);
+    }
+
+    private static boolean hasFormatHeader(Entry entry) {
+        final int position = entry.getValuePosition();
+        if (entry.length() - position < HEADER_LENGTH || !hasFormatPrefix(entry, position)) return false;
+        final byte format = entry.getByte(position + FORMAT_PREFIX.length);
+        return format == FORMAT_RAW || format == FORMAT_COMPRESSED;
+    }
+
+    private static boolean hasFormatPrefix(StaticBuffer buffer, int position) {
+        if (buffer.length() - position < FORMAT_PREFIX.length) return false;
+        for (int i = 0; i < FORMAT_PREFIX.length; i++) {
+            if (buffer.getByte(position + i) != FORMAT_PREFIX[i]) return false;
+        }
+        return true;
+    }
+
+    private static Entry withValue(Entry entry, StaticBuffer value) {
+        return StaticArrayEntry.ofStaticBuffer(entry, new StaticArrayEntry.GetColVal<Entry, StaticBuffer>() {
+            @Override
+            public StaticBuffer getColumn(Entry element) {
+                return element.getColumn();
+            }
+
+            @Override
+            public StaticBuffer getValue(Entry element) {
+                return value;
+            }
+
+            @Override
+            public EntryMetaData[] getMetaSchema(Entry element) {
+                return StaticArrayEntry.ENTRY_GETTER.getMetaSchema(element);
+            }
+
+            @Override
+            public Object getMetaData(Entry element, EntryMetaData meta) {
+                return StaticArrayEntry.ENTRY_GETTER.getMetaData(element, meta);
+            }
+        });
+    }
+
+    @Override
+    public StoreTransaction beginTransaction(BaseTransactionConfig config) throws BackendException {
+        return backend.beginTransaction(config);
+    }
+
+    @Override
+    public void close() throws BackendException {
+        backend.close();
+    }
+
+    @Override
+    public void clearStorage() throws BackendException {
+        backend.clearStorage();
+    }
+
+    @Override
+    public boolean exists() throws BackendException {
+        return backend.exists();
+    }
+
+    @Override
+    public StoreFeatures getFeatures() {
+        return backend.getFeatures();
+    }
+
+    @Override
+    public String getName() {
+        return backend.getName();
+    }
+
+    @Override
+    public List<KeyRange> getLocalKeyPartition() throws BackendException {
+        return backend.getLocalKeyPartition();
+    }
+
+    @Override
+    public Object getHadoopManager() throws BackendException {
+        return backend.getHadoopManager();
+    }
+}
@@ -0,0 +1,100 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util;
+
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.configuration.Configuration;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * {@link BackendCompression} based on the zlib format of {@link Deflater}. The compressed value is prefixed with the
+ * length of the uncompressed value and protected by the zlib checksum, so that {@link #decompress(StaticBuffer)}
+ * rejects any input which has not been produced by {@link #compress(StaticBuffer)} with an
+ * {@link IllegalArgumentException}.
+ */
+public class DeflateBackendCompression implements BackendCompression {
+
+    private static final int LENGTH_BYTES = 4;
+    // Deflate cannot compress data by more than this factor
+    private static final int MAX_COMPRESSION_RATIO = 1032;
+
+    private final ThreadLocal<Deflater> deflaters;
+    private final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(Inflater::new);
+
+    public DeflateBackendCompression(Configuration config) {
+        this(Deflater.BEST_SPEED);
+    }
+
+    public DeflateBackendCompression(int level) {
+        this.deflaters = ThreadLocal.withInitial(() -> new Deflater(level));
+    }
+
+    @Override
+    public StaticBuffer compress(StaticBuffer value) {
+        final byte[] input = value.as(StaticBuffer.ARRAY_FACTORY);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(LENGTH_BYTES + input.length / 2 + 16);
+        out.write(input.length >>> 24);
+        out.write(input.length >>> 16);
+        out.write(input.length >>> 8);
+        out.write(input.length);
+        final Deflater deflater = deflaters.get();
+        deflater.reset();
+        deflater.setInput(input);
+        deflater.finish();
+        final byte[] chunk = new byte[Math.max(64, Math.min(input.length, 8192))];
+        while (!deflater.finished()) {
+            int written = deflater.deflate(chunk);
+            out.write(chunk, 0, written);
+        }
+        return StaticArrayBuffer.of(out.toByteArray());
+    }
+
+    @Override
+    public StaticBuffer decompress(StaticBuffer value) {
+        final byte[] input = value.as(StaticBuffer.ARRAY_FACTORY);
+        if (input.length <= LENGTH_BYTES) throw new IllegalArgumentException("Not a compressed value");
+        final int length = ((input[0] & 0xFF) << 24) | ((input[1] & 0xFF) << 16) | ((input[2] & 0xFF) << 8) | (input[3] & 0xFF);
+        if (length < 0 || (long) length > (long) (input.length - LENGTH_BYTES) * MAX_COMPRESSION_RATIO) {
+            throw new IllegalArgumentException("Invalid length of compressed value: " + length);
+        }
+        final Inflater inflater = inflaters.get();
+        inflater.reset();
+        inflater.setInput(input, LENGTH_BYTES, input.length - LENGTH_BYTES);
+        final byte[] output = new byte[length];
+        int position = 0;
+        try {
+            while (position < length) {
+                int read = inflater.inflate(output, position, length - position);
+                if (read == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) break;
+                position += read;
+            }
+            // make sure the stream ends here and passes the checksum
+            if (position == length && !inflater.finished() && inflater.inflate(new byte[1]) > 0) {
+                throw new IllegalArgumentException("Compressed value exceeds its length");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Invalid compressed value", e);
+        }
+        if (position != length || !inflater.finished() || inflater.getRemaining() > 0) {
+            throw new IllegalArgumentException("Invalid compressed value");
+        }
+        return StaticArrayBuffer.of(output);
+    }
+
+}
@@ -278,6 +278,49 @@ public class StaticArrayEntryList extends AbstractList<Entry> implements EntryLi
     }
 
 
+    //############# SERIALIZATION #######################
+
+    /**
+     * Returns the number of bytes {@link #writeTo(ByteBuffer)} writes for this list.
+     */
+    public int getSerializedSize() {
+        return 4 + 1 + metaDataSchema.length + limitAndValuePos.length * 8 + getDataLength();
+    }
+
+    /**
+     * Writes the entries of this list to the given buffer so that they can be restored with {@link #readFrom(ByteBuffer)}.
+     * Relation caches are not written.
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putInt(limitAndValuePos.length);
+        buffer.put((byte) metaDataSchema.length);
+        for (EntryMetaData meta : metaDataSchema) buffer.put((byte) meta.ordinal());
+        for (long l : limitAndValuePos) buffer.putLong(l);
+        buffer.put(data, 0, getDataLength());
+    }
+
+    /**
+     * Reads a list written by {@link #writeTo(ByteBuffer)} from the given buffer. The entries of the list are copied
+     * into a single array which backs all of them.
+     */
+    public static EntryList readFrom(ByteBuffer buffer) {
+        final int size = buffer.getInt();
+        Preconditions.checkArgument(size > 0 && size <= buffer.remaining() / 8, "Invalid number of entries: %s", size);
+        final EntryMetaData[] metaDataSchema = new EntryMetaData[buffer.get()];
+        for (int i = 0; i < metaDataSchema.length; i++) metaDataSchema[i] = EntryMetaData.values()[buffer.get()];
+        final long[] limitAndValuePos = new long[size];
+        for (int i = 0; i < size; i++) limitAndValuePos[i] = buffer.getLong();
+        final int dataLength = getLimit(limitAndValuePos[size - 1]);
+        Preconditions.checkArgument(dataLength > 0 && dataLength <= buffer.remaining(), "Invalid data length: %s", dataLength);
+        final byte[] data = new byte[dataLength];
+        buffer.get(data);
+        return new StaticArrayEntryList(data, limitAndValuePos, metaDataSchema);
+    }
+
+    private int getDataLength() {
+        return getLimit(limitAndValuePos[limitAndValuePos.length - 1]);
+    }
+
     //############# CONSTRUCTORS #######################
 
     public static EntryList of(Entry... entries) {
@@ -52,6 +52,9 @@ import org.janusgraph.graphdb.query.index.BruteForceIndexSelectionStrategy;
 import org.janusgraph.graphdb.query.index.IndexSelectionStrategy;
 import org.janusgraph.graphdb.query.index.ThresholdBasedIndexSelectionStrategy;
 import org.janusgraph.graphdb.transaction.StandardTransactionBuilder;
+import org.janusgraph.graphdb.transaction.vertexcache.ClockVertexCache;
+import org.janusgraph.graphdb.transaction.vertexcache.VertexCache;
+import org.janusgraph.graphdb.transaction.vertexcache.VertexCacheType;
 import org.janusgraph.graphdb.types.system.ImplicitKey;
 import org.janusgraph.util.StringUtils;
 import org.janusgraph.util.stats.MetricManager;
@@ -194,6 +197,26 @@ public class GraphDatabaseConfiguration {
             "How the graph computer should return the computed results. 'persist' for writing them into the graph, " +
                     "'localtx' for writing them into the local transaction, or 'none' (default)", ConfigOption.Type.MASKABLE, "none");
 
+    public static final ConfigOption<Boolean> COMPUTER_OFF_HEAP_VERTEX_MEMORY = new ConfigOption<>(COMPUTER_NS,"off-heap-vertex-memory",
+            "Whether the graph computer should keep the compute keys and messages of the vertices in columns of off-heap " +
+                    "memory indexed by vertex id. Numeric values are stored as primitives and combined in place, " +
+                    "values of other types remain on the heap.", ConfigOption.Type.MASKABLE, false);
+
+    public static final ConfigOption<Boolean> COMPUTER_ADJACENCY_CACHE = new ConfigOption<>(COMPUTER_NS,"adjacency-cache",
+            "Whether the graph computer should keep the rows read by the first iteration of a vertex program in a compact " +
+                    "off-heap structure and process later iterations from it in parallel, instead of scanning the storage " +
+                    "backend in every iteration. Later iterations do not see modifications made after the first one.",
+            ConfigOption.Type.MASKABLE, false);
+
+    public static final ConfigOption<Long> COMPUTER_VERTEX_MEMORY_SPILL_THRESHOLD = new ConfigOption<>(COMPUTER_NS,"vertex-memory-spill-threshold",
+            "Number of bytes of direct memory each of the off-heap vertex memory and the adjacency cache allocates. Beyond this " +
+                    "threshold, further pages are memory-mapped from files in the spill directory. Set to 0 to never spill.",
+            ConfigOption.Type.MASKABLE, 0L);
+
+    public static final ConfigOption<String> COMPUTER_VERTEX_MEMORY_SPILL_DIRECTORY = new ConfigOption<>(COMPUTER_NS,"vertex-memory-spill-directory",
+            "Directory holding the memory-mapped files of the off-heap vertex memory and the adjacency cache once they exceed the spill threshold. " +
+                    "Defaults to the temporary directory of the JVM.", ConfigOption.Type.MASKABLE, String.class);
+
 
     // ################ Transaction #######################
     // ################################################
@@ -262,6 +285,12 @@ public class GraphDatabaseConfiguration {
                     "performance improvement if there is a non-trivial latency to the backend.",
             ConfigOption.Type.MASKABLE, false);
 
+    public static final ConfigOption<Integer> MULTIQUERY_BATCH_SIZE = new ConfigOption<>(QUERY_NS,"batch-size",
+            "Maximum number of traversers which are pulled into a single batched backend query when `query.batch` is enabled. " +
+                    "Starts are processed in windows of this size so that large traversals need bounded memory and emit their " +
+                    "first results early. Use Integer.MAX_VALUE to batch all starts of a step into a single query.",
+            ConfigOption.Type.MASKABLE, 5000, ConfigOption.positiveInt());
+
     public static final ConfigOption<String> INDEX_SELECT_STRATEGY = new ConfigOption<>(QUERY_NS, "index-select-strategy",
             String.format("Name of the index selection strategy or full class name. Following shorthands can be used: <br>" +
                     "- `%s` (Try all combinations of index candidates and pick up optimal one)<br>" +
@@ -279,7 +308,8 @@ public class GraphDatabaseConfiguration {
     public static final ConfigOption<Boolean> BATCH_PROPERTY_PREFETCHING = new ConfigOption<>(QUERY_NS,"batch-property-prefetch",
             "Whether to do a batched pre-fetch of all properties on adjacent vertices against the storage backend prior to evaluating a has condition against those vertices. " +
                     "Because these vertex properties will be loaded into the transaction-level cache of recently-used vertices when the condition is evaluated this can " +
-                    "lead to significant performance improvement if there are many edges to adjacent vertices and there is a non-trivial latency to the backend.",
+                    "lead to significant performance improvement if there are many edges to adjacent vertices and there is a non-trivial latency to the backend. " +
+                    "When `query.batch` is enabled, the properties of vertices returned by index queries are pre-fetched in batches as well.",
             ConfigOption.Type.MASKABLE, false);
 
     // ################ SCHEMA #######################
@@ -381,6 +411,28 @@ public class GraphDatabaseConfiguration {
             "triggers eviction when set to 0).",
             ConfigOption.Type.GLOBAL_OFFLINE, 10000L);
 
+    /**
+     * The size of the off-heap tier of the database level cache. Results evicted from the heap are kept serialized in
+     * direct memory up to this size, which allows for large caches without increasing garbage collection pauses.
+     * The JVM's maximum direct memory size (-XX:MaxDirectMemorySize) must leave room for this tier.
+     */
+    public static final ConfigOption<Long> DB_CACHE_OFF_HEAP_SIZE = new ConfigOption<>(CACHE_NS,"db-cache-off-heap-size",
+            "Size in bytes of the off-heap tier of JanusGraph's database level cache, which holds serialized entries " +
+            "evicted from the heap cache in direct memory. Set to 0 to disable the off-heap tier.",
+            ConfigOption.Type.MASKABLE, 0L);
+
+    /**
+     * Whether commits publish their mutated row keys over the cache invalidation log so that other instances
+     * invalidate them in their database level cache. The log is configured under the {@link #CACHE_INVALIDATION_LOG}
+     * identifier, e.g. its read interval bounds how long other instances may serve stale data.
+     */
+    public static final ConfigOption<Boolean> DB_CACHE_INVALIDATION_LOG = new ConfigOption<>(CACHE_NS,"db-cache-invalidation-log",
+            "Whether to publish the keys mutated by each transaction over a log so that other JanusGraph instances " +
+            "invalidate them in their database-level cache, which allows longer cache expiration times in a cluster. " +
+            "Instances only receive invalidations if they enable this option as well. The log is configured " +
+            "under log.cache.",
+            ConfigOption.Type.MASKABLE, false);
+
     /**
      * Configures the maximum number of recently-used vertices cached by a transaction. The smaller the cache size, the
      * less memory a transaction can consume at maximum. For many concurrent, long running transactions in memory constraint
@@ -395,6 +447,16 @@ public class GraphDatabaseConfiguration {
             "Maximum size of the transaction-level cache of recently-used vertices.",
             ConfigOption.Type.MASKABLE, 20000);
 
+    /**
+     * Configures the {@link VertexCache} implementation which holds the recently-used vertices of a transaction.
+     * The {@link ClockVertexCache} keys the vertices by their primitive ids and approximates LRU eviction with the
+     * CLOCK policy, which avoids boxing the vertex ids and reordering an access list on every lookup.
+     */
+    public static final ConfigOption<String> TX_CACHE_TYPE = new ConfigOption<>(CACHE_NS,"tx-cache-type",
+            "Implementation of the transaction-level cache of recently-used vertices. Either `guava` for a cache " +
+            "with LRU eviction or `clock` for a cache keyed by primitive vertex ids with CLOCK eviction.",
+            ConfigOption.Type.MASKABLE, VertexCacheType.GUAVA.getConfigName(), VertexCacheType::isValid);
+
     /**
      * Configures the initial size of the dirty (modified) vertex map used by a transaction.  All vertices created or
      * updated by a transaction are held in that transaction's dirty vertex map until the transaction commits.
@@ -500,6 +562,13 @@ public class GraphDatabaseConfiguration {
             "Size of the batch in which mutations are persisted",
             ConfigOption.Type.MASKABLE, 1024, ConfigOption.positiveInt());
 
+    public static final ConfigOption<Integer> BATCH_LOADING_PARALLEL_FLUSHES = new ConfigOption<>(STORAGE_NS,"batch-loading-parallel-flushes",
+            "Maximum number of mutation batches (see storage.buffer-size) of a batch loading transaction which are persisted " +
+            "concurrently. With a value larger than 1, full batches are persisted in the background on the backend thread pool " +
+            "(see storage.parallel-backend-ops) while the transaction continues to collect mutations. Only use this with storage " +
+            "backends whose transactions can be used by multiple threads.",
+            ConfigOption.Type.MASKABLE, 1, ConfigOption.positiveInt());
+
     public static final ConfigOption<Duration> STORAGE_WRITE_WAITTIME = new ConfigOption<>(STORAGE_NS,"write-time",
             "Maximum time (in ms) to wait for a backend write operation to complete successfully. If a backend write operation" +
             "fails temporarily, JanusGraph will backoff exponentially and retry the operation until the wait time has been exhausted. ",
@@ -574,12 +643,53 @@ public class GraphDatabaseConfiguration {
             "up to this many elements.",
             ConfigOption.Type.MASKABLE, 100);
 
+    /**
+     * Number of scan partitions which are pulled concurrently by {@link org.janusgraph.diskstorage.keycolumnvalue.scan.StandardScanner}
+     * jobs. Only applicable to storage backends that can split full scans into partitions, such as token ranges.
+     */
+    public static final ConfigOption<Integer> SCAN_PARALLELISM = new ConfigOption<>(STORAGE_NS,"scan-parallelism",
+            "Number of partitions (e.g. token ranges) of the storage backend which are scanned concurrently by scan jobs " +
+            "such as index repair or OLAP supersteps. Only applicable to storage backends that can split full scans, " +
+            "a value of 1 scans the whole store through a single stream per query.",
+            ConfigOption.Type.MASKABLE, 1, ConfigOption.positiveInt());
+
+    /**
+     * Interval in which scan jobs with a custom job id persist their progress, so that they can be resumed
+     * through {@link org.janusgraph.diskstorage.keycolumnvalue.scan.StandardScanner.Builder#resume(Object)}.
+     */
+    public static final ConfigOption<Duration> SCAN_CHECKPOINT_INTERVAL = new ConfigOption<>(STORAGE_NS,"scan-checkpoint-interval",
+            "Interval in which scan jobs with a job id, such as reindex and index removal jobs, write their progress into " +
+            "the system store so that a failed job can be resumed from its last checkpoint. Checkpoints are disabled by default " +
+            "(a value of 0).",
+            ConfigOption.Type.MASKABLE, Duration.ZERO);
+
     public static final ConfigOption<Boolean> DROP_ON_CLEAR = new ConfigOption<>(STORAGE_NS, "drop-on-clear",
             "Whether to drop the graph database (true) or delete rows (false) when clearing storage. " +
             "Note that some backends always drop the graph database when clearing storage. Also note that indices are " +
             "always dropped when clearing storage.",
             ConfigOption.Type.MASKABLE, true);
 
+    // ################ STORAGE - COMPRESSION #######################
+
+    public static final ConfigNamespace STORAGE_COMPRESSION_NS = new ConfigNamespace(STORAGE_NS,"compression",
+            "Options for compressing the values written to the storage backend");
+
+    public static final ConfigOption<String> STORAGE_COMPRESSION_ALGORITHM = new ConfigOption<>(STORAGE_COMPRESSION_NS,"algorithm",
+            "Algorithm used to compress the values of the stores listed in storage.compression.stores. Either `none` to disable " +
+            "compression, `deflate` or the full class name of a BackendCompression implementation. Can only be set when the " +
+            "graph is created, since values written with and without compression cannot be told apart.",
+            ConfigOption.Type.FIXED, "none");
+
+    public static final ConfigOption<String[]> STORAGE_COMPRESSION_STORES = new ConfigOption<>(STORAGE_COMPRESSION_NS,"stores",
+            "Names of the stores whose values are compressed when a compression algorithm is configured. Can only be set " +
+            "when the graph is created.",
+            ConfigOption.Type.FIXED, new String[]{Backend.EDGESTORE_NAME});
+
+    public static final ConfigOption<Integer> STORAGE_COMPRESSION_MIN_SIZE = new ConfigOption<>(STORAGE_COMPRESSION_NS,"min-size",
+            "Minimum size in bytes of the values which are compressed. Smaller values are stored uncompressed since they " +
+            "hardly benefit from compression.",
+            ConfigOption.Type.MASKABLE, 64, ConfigOption.nonnegativeInt());
+
     public static final ConfigNamespace LOCK_NS =
             new ConfigNamespace(STORAGE_NS, "lock", "Options for locking on eventually-consistent stores");
 
@@ -614,6 +724,18 @@ public class GraphDatabaseConfiguration {
             "that no correctly held applications are expired pre-maturely and as small as possible to avoid dead lock.",
             ConfigOption.Type.GLOBAL_OFFLINE, Duration.ofMillis(300 * 1000L));
 
+    /**
+     * Whether the lock applications of a transaction are written with a single batch mutation and verified with a
+     * single multi-key read when the transaction commits, instead of writing each application when the lock is
+     * acquired and verifying the applications one at a time.
+     */
+    public static final ConfigOption<Boolean> LOCK_BATCH = new ConfigOption<>(LOCK_NS, "batch",
+            "Whether to write all lock applications of a transaction with a single batch mutation and verify them with " +
+            "a single multi-key read after one wait period when the transaction commits. This makes the commit latency " +
+            "of transactions holding many locks independent of the number of locks. When disabled, each lock " +
+            "application is written when the lock is acquired and the applications are verified one at a time.",
+            ConfigOption.Type.MASKABLE, false);
+
     /**
      * Whether to attempt to delete expired locks from the storage backend. True
      * will attempt to delete expired locks in a background daemon thread. False
@@ -716,6 +838,16 @@ public class GraphDatabaseConfiguration {
             "IDs are assigned only when the transaction commits.",
             ConfigOption.Type.MASKABLE, true);
 
+    /**
+     * Number of ids each thread leases from the current id block at once. Leased ids are handed out without
+     * synchronization, which reduces contention when many transactions assign ids concurrently.
+     */
+    public static final ConfigOption<Integer> IDS_THREAD_LEASE_SIZE = new ConfigOption<>(IDS_NS,"thread-lease-size",
+            "Number of IDs each thread reserves at once from the most-recently-reserved ID block of a partition. " +
+            "Values larger than 1 reduce contention when many transactions assign IDs concurrently, e.g. during " +
+            "bulk loading, but IDs reserved by a thread and not used before the graph instance shuts down are wasted.",
+            ConfigOption.Type.MASKABLE, 1, ConfigOption.positiveInt());
+
     /**
      * The number of milliseconds that the JanusGraph id pool manager will wait before giving up on allocating a new block
      * of ids. Note, that failure to allocate a new id block will cause the entire database to fail, hence this value
@@ -871,9 +1003,11 @@ public class GraphDatabaseConfiguration {
     public static final String MANAGEMENT_LOG = "janusgraph";
     public static final String TRANSACTION_LOG = "tx";
     public static final String USER_LOG = "user";
+    public static final String CACHE_INVALIDATION_LOG = "cache";
     public static final String USER_LOG_PREFIX = "ulog_";
 
     public static final Duration TRANSACTION_LOG_DEFAULT_TTL = Duration.ofDays(7);
+    public static final Duration CACHE_INVALIDATION_LOG_DEFAULT_TTL = Duration.ofMinutes(10);
 
     public static final ConfigOption<String> LOG_BACKEND = new ConfigOption<>(LOG_NS,"backend",
             "Define the log backed to use",
@@ -1117,6 +1251,7 @@ public class GraphDatabaseConfiguration {
     public static final String SYSTEM_PROPERTIES_STORE_NAME = "system_properties";
     public static final String SYSTEM_CONFIGURATION_IDENTIFIER = "configuration";
     public static final String USER_CONFIGURATION_IDENTIFIER = "userconfig";
+    public static final String SCAN_CHECKPOINT_IDENTIFIER = "scancheckpoints";
 
     private static final Map<String, String> REGISTERED_INDEX_SELECTION_STRATEGIES = new HashMap() {{
         put(ThresholdBasedIndexSelectionStrategy.NAME, ThresholdBasedIndexSelectionStrategy.class.getName());
@@ -1135,12 +1270,14 @@ public class GraphDatabaseConfiguration {
     private boolean batchLoading;
     private int txVertexCacheSize;
     private int txDirtyVertexSize;
+    private VertexCacheType txVertexCacheType;
     private DefaultSchemaMaker defaultSchemaMaker;
     private boolean hasDisabledSchemaConstraints;
     private Boolean propertyPrefetching;
     private boolean adjustQueryLimit;
     private int hardMaxLimit;
     private Boolean useMultiQuery;
+    private int multiQueryBatchSize;
     private boolean optimizerBackendAccess;
     private IndexSelectionStrategy indexSelectionStrategy;
     private Boolean batchPropertyPrefetching;
@@ -1186,6 +1323,10 @@ public class GraphDatabaseConfiguration {
         return txDirtyVertexSize;
     }
 
+    public VertexCacheType getTxVertexCacheType() {
+        return txVertexCacheType;
+    }
+
     public boolean isBatchLoading() {
         return batchLoading;
     }
@@ -1230,6 +1371,10 @@ public class GraphDatabaseConfiguration {
         return useMultiQuery;
     }
 
+    public int getMultiQueryBatchSize() {
+        return multiQueryBatchSize;
+    }
+
     public boolean optimizerBackendAccess() {
         return optimizerBackendAccess;
     }
@@ -1347,6 +1492,7 @@ public class GraphDatabaseConfiguration {
         hasDisabledSchemaConstraints = !configuration.get(SCHEMA_CONSTRAINTS);
 
         txVertexCacheSize = configuration.get(TX_CACHE_SIZE);
+        txVertexCacheType = VertexCacheType.parse(configuration.get(TX_CACHE_TYPE));
         //Check for explicit dirty vertex cache size first, then fall back on batch-loading-dependent default
         if (configuration.has(TX_DIRTY_SIZE)) {
             txDirtyVertexSize = configuration.get(TX_DIRTY_SIZE);
@@ -1358,6 +1504,7 @@ public class GraphDatabaseConfiguration {
 
         propertyPrefetching = configuration.get(PROPERTY_PREFETCHING);
         useMultiQuery = configuration.get(USE_MULTIQUERY);
+        multiQueryBatchSize = configuration.get(MULTIQUERY_BATCH_SIZE);
         indexSelectionStrategy = Backend.getImplementationClass(configuration, configuration.get(INDEX_SELECT_STRATEGY),
             REGISTERED_INDEX_SELECTION_STRATEGIES);
         optimizerBackendAccess = configuration.get(OPTIMIZER_BACKEND_ACCESS);
@@ -40,6 +40,8 @@ import org.janusgraph.graphdb.idmanagement.UniqueInstanceIdRetriever;
 import java.time.Duration;
 import java.util.Map;
 
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.CACHE_INVALIDATION_LOG;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.CACHE_INVALIDATION_LOG_DEFAULT_TTL;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.LOG_BACKEND;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.LOG_SEND_DELAY;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.LOG_STORE_TTL;
@@ -79,6 +81,7 @@ public class GraphDatabaseConfigurationBuilder {
         overwrite.set(UNIQUE_INSTANCE_ID, uniqueGraphId);
 
         checkAndOverwriteTransactionLogConfiguration(combinedConfig, overwrite, storeFeatures);
+        overwriteCacheInvalidationLogConfiguration(combinedConfig, overwrite, storeFeatures);
         checkAndOverwriteSystemManagementLogConfiguration(combinedConfig, overwrite);
 
         MergedConfiguration configuration = new MergedConfiguration(overwrite,combinedConfig);
@@ -107,6 +110,14 @@ public class GraphDatabaseConfigurationBuilder {
         }
     }
 
+    private void overwriteCacheInvalidationLogConfiguration(Configuration combinedConfig, ModifiableConfiguration overwrite, StoreFeatures storeFeatures){
+
+        //CACHE INVALIDATION LOG: messages are only useful until the cache entries they invalidate expire, so use a short ttl
+        if (!combinedConfig.has(LOG_STORE_TTL,CACHE_INVALIDATION_LOG) && TTLKCVSManager.supportsAnyTTL(storeFeatures)) {
+            overwrite.set(LOG_STORE_TTL,CACHE_INVALIDATION_LOG_DEFAULT_TTL,CACHE_INVALIDATION_LOG);
+        }
+    }
+
     private void checkAndOverwriteSystemManagementLogConfiguration(Configuration combinedConfig, ModifiableConfiguration overwrite){
 
         //SYSTEM MANAGEMENT LOG: backend=default and send_delay=0 and key_consistent=true and fixed-partitions=true
@@ -42,6 +42,7 @@ import org.janusgraph.graphdb.internal.InternalRelationType;
 import org.janusgraph.graphdb.internal.Order;
 import org.janusgraph.graphdb.internal.RelationCategory;
 import org.janusgraph.graphdb.relations.EdgeDirection;
+import org.janusgraph.graphdb.relations.LazyRelationCache;
 import org.janusgraph.graphdb.relations.RelationCache;
 import org.janusgraph.graphdb.types.TypeInspector;
 import org.janusgraph.graphdb.types.system.ImplicitKey;
@@ -76,6 +77,9 @@ public class EdgeSerializer implements RelationReader {
 
     public RelationCache readRelation(Entry data, boolean parseHeaderOnly, TypeInspector tx) {
         RelationCache map = data.getCache();
+        if (!parseHeaderOnly && map instanceof LazyRelationCache) {
+            return ((LazyRelationCache) map).complete(tx);
+        }
         if (map == null || !(parseHeaderOnly || map.hasProperties())) {
             map = parseRelation(data, parseHeaderOnly, tx);
             data.setCache(map);
@@ -91,6 +95,25 @@ public class EdgeSerializer implements RelationReader {
 
     @Override
     public RelationCache parseRelation(Entry data, boolean excludeProperties, TypeInspector tx) {
+        return parseRelation(data, excludeProperties, false, tx);
+    }
+
+    /**
+     * Returns the relation of the given entry with properties which are decoded on demand by the given transaction.
+     * The decoding progress is kept on the entry through a {@link LazyRelationCache}, so properties decoded once are
+     * reused by later reads of the same entry. The returned cache must not outlive the transaction.
+     */
+    public RelationCache readRelationLazily(Entry data, TypeInspector tx) {
+        RelationCache map = data.getCache();
+        if (map != null && map.hasProperties()) return map;
+        if (!(map instanceof LazyRelationCache)) {
+            map = parseRelation(data, false, true, tx);
+            data.setCache(map);
+        }
+        return ((LazyRelationCache) map).forTransaction(tx);
+    }
+
+    private RelationCache parseRelation(Entry data, boolean excludeProperties, boolean lazyProperties, TypeInspector tx) {
         ReadBuffer in = data.asReadBuffer();
 
         RelationTypeParse typeAndDir = IDHandler.readRelationType(in);
@@ -146,55 +169,90 @@ public class EdgeSerializer implements RelationReader {
         }
 
         if (!excludeProperties) {
-
-            LongObjectHashMap<Object> properties = new LongObjectHashMap<>(4);
-
+            ReadBuffer inKey = null;
             if (!multiplicity.isConstrained() && keySignature.length > 0) {
                 int currentPos = in.getPosition();
                 //Read sort key which only exists if type is not unique in this direction
                 assert endKeyPos > startKeyPos;
                 int keyLength = endKeyPos - startKeyPos; //after reading the ids, we are on the last byte of the key
                 in.movePositionTo(startKeyPos);
-                ReadBuffer inKey = in;
-                if (def.getSortOrder() == Order.DESC) inKey = in.subrange(keyLength, true);
-                readInlineTypes(keySignature, properties, inKey, tx, InlineType.KEY);
+                inKey = in.subrange(keyLength, def.getSortOrder() == Order.DESC);
                 in.movePositionTo(currentPos);
             }
+            InlinePropertyReader reader = new InlinePropertyReader(data, inKey, keySignature, in, def.getSignature());
 
-            //read value signature
-            readInlineTypes(def.getSignature(), properties, in, tx, InlineType.SIGNATURE);
+            if (lazyProperties) {
+                return new LazyRelationCache(dir, typeId, relationId, other, reader, data);
+            }
+            LongObjectHashMap<Object> properties = new LongObjectHashMap<>(4);
+            while (reader.readNext(properties, tx));
+            return new RelationCache(dir, typeId, relationId, other, properties);
+        } else {
+            return new RelationCache(dir, typeId, relationId, other);
+        }
+    }
 
-            //Third: read rest
-            while (in.hasRemaining()) {
+    /**
+     * Reads the properties of a relation in the order in which they are serialized: first the sort key,
+     * then the signature, then all remaining properties and finally the meta data of the entry.
+     */
+    private class InlinePropertyReader implements LazyRelationCache.PropertyReader {
+
+        private final Entry data;
+        private final ReadBuffer inKey;
+        private final long[] keySignature;
+        private final ReadBuffer in;
+        private final long[] signature;
+
+        private int keyPos = 0;
+        private int signaturePos = 0;
+        private boolean metaDataRead = false;
+
+        private InlinePropertyReader(Entry data, ReadBuffer inKey, long[] keySignature, ReadBuffer in,
+                                     long[] signature) {
+            this.data = data;
+            this.inKey = inKey;
+            this.keySignature = keySignature;
+            this.in = in;
+            this.signature = signature;
+        }
+
+        @Override
+        public boolean readNext(LongObjectHashMap<Object> properties, TypeInspector tx) {
+            if (inKey != null && keyPos < keySignature.length) {
+                readInlineType(keySignature[keyPos++], properties, inKey, tx, InlineType.KEY);
+            } else if (signaturePos < signature.length) {
+                //read value signature
+                readInlineType(signature[signaturePos++], properties, in, tx, InlineType.SIGNATURE);
+            } else if (in.hasRemaining()) {
+                //Third: read rest
                 PropertyKey type = tx.getExistingPropertyKey(IDHandler.readInlineRelationType(in));
                 Object propertyValue = readInline(in, type, InlineType.NORMAL);
                 assert propertyValue != null;
                 properties.put(type.longId(), propertyValue);
-            }
-
-            if (data.hasMetaData()) {
-                for (Map.Entry<EntryMetaData,Object> metas : data.getMetaData().entrySet()) {
-                    ImplicitKey key = ImplicitKey.MetaData2ImplicitKey.get(metas.getKey());
-                    if (key != null) {
-                        assert metas.getValue() != null;
-                        properties.put(key.longId(),metas.getValue());
+            } else if (!metaDataRead) {
+                metaDataRead = true;
+                if (data.hasMetaData()) {
+                    for (Map.Entry<EntryMetaData,Object> metas : data.getMetaData().entrySet()) {
+                        ImplicitKey key = ImplicitKey.MetaData2ImplicitKey.get(metas.getKey());
+                        if (key != null) {
+                            assert metas.getValue() != null;
+                            properties.put(key.longId(),metas.getValue());
+                        }
                     }
                 }
+            } else {
+                return false;
             }
-
-            return new RelationCache(dir, typeId, relationId, other, properties);
-        } else {
-            return new RelationCache(dir, typeId, relationId, other);
+            return true;
         }
     }
 
-    private void readInlineTypes(long[] keyIds, LongObjectHashMap<Object> properties, ReadBuffer in, TypeInspector tx,
-                                 InlineType inlineType) {
-        for (long keyId : keyIds) {
-            PropertyKey keyType = tx.getExistingPropertyKey(keyId);
-            Object value = readInline(in, keyType, inlineType);
-            if (value != null) properties.put(keyId, value);
-        }
+    private void readInlineType(long keyId, LongObjectHashMap<Object> properties, ReadBuffer in, TypeInspector tx,
+                                InlineType inlineType) {
+        PropertyKey keyType = tx.getExistingPropertyKey(keyId);
+        Object value = readInline(in, keyType, inlineType);
+        if (value != null) properties.put(keyId, value);
     }
 
     private Object readInline(ReadBuffer read, PropertyKey key, InlineType inlineType) {
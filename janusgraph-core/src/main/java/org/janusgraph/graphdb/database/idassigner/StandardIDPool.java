@@ -37,6 +37,12 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 /**
+ * Hands out the ids of the {@link IDBlock}s acquired from the {@link IDAuthority} and renews blocks in the background.
+ * <p>
+ * If the lease size is larger than 1, each thread leases a range of up to that many ids from the current block and
+ * hands them out without any synchronization. Ids leased by a thread which are not used by the time the pool is
+ * closed are lost, so larger lease sizes trade gaps in the id space for less contention among concurrent threads.
+ *
  * @author Matthias Broecheler (me@matthiasb.com)
  */
 
@@ -79,6 +85,8 @@ public class StandardIDPool implements IDPool {
 
     private final Duration renewTimeout;
     private final double renewBufferPercentage;
+    private final int leaseSize;
+    private final ThreadLocal<IDLease> leases;
 
     private IDBlock currentBlock;
     private long currentIndex;
@@ -94,6 +102,10 @@ public class StandardIDPool implements IDPool {
     private final Queue<Future<?>> closeBlockers;
 
     public StandardIDPool(IDAuthority idAuthority, int partition, int idNamespace, long idUpperBound, Duration renewTimeout, double renewBufferPercentage) {
+        this(idAuthority, partition, idNamespace, idUpperBound, renewTimeout, renewBufferPercentage, 1);
+    }
+
+    public StandardIDPool(IDAuthority idAuthority, int partition, int idNamespace, long idUpperBound, Duration renewTimeout, double renewBufferPercentage, int leaseSize) {
         Preconditions.checkArgument(idUpperBound > 0);
         this.idAuthority = idAuthority;
         Preconditions.checkArgument(partition>=0);
@@ -105,6 +117,9 @@ public class StandardIDPool implements IDPool {
         this.renewTimeout = renewTimeout;
         Preconditions.checkArgument(renewBufferPercentage>0.0 && renewBufferPercentage<=1.0,"Renew-buffer percentage must be in (0.0,1.0]");
         this.renewBufferPercentage = renewBufferPercentage;
+        Preconditions.checkArgument(leaseSize>0,"Lease size must be positive: %s",leaseSize);
+        this.leaseSize = leaseSize;
+        this.leases = leaseSize > 1 ? new ThreadLocal<>() : null;
 
         currentBlock = UNINITIALIZED_BLOCK;
         currentIndex = 0;
@@ -193,7 +208,30 @@ public class StandardIDPool implements IDPool {
     }
 
     @Override
-    public synchronized long nextID() {
+    public long nextID() {
+        long returnId;
+        if (leases == null) {
+            returnId = leaseIDs(1).next();
+        } else {
+            IDLease lease = leases.get();
+            if (lease == null || !lease.hasNext()) {
+                lease = leaseIDs(leaseSize);
+                leases.set(lease);
+            }
+            returnId = lease.next();
+        }
+        if (returnId >= idUpperBound) throw new IDPoolExhaustedException("Reached id upper bound of " + idUpperBound);
+        log.trace("partition({})-namespace({}) Returned id: {}", partition, idNamespace, returnId);
+        return returnId;
+    }
+
+    /**
+     * Reserves the next ids of the current block, acquiring a new block if the current one has been used up.
+     *
+     * @param count the maximum number of ids to reserve
+     * @return a lease on at least one and at most {@code count} ids
+     */
+    private synchronized IDLease leaseIDs(long count) {
         assert currentIndex <= currentBlock.numIds();
 
         if (currentIndex == currentBlock.numIds()) {
@@ -204,15 +242,12 @@ public class StandardIDPool implements IDPool {
             }
         }
 
-        if (currentIndex == renewBlockIndex) {
+        long start = currentIndex;
+        currentIndex = Math.min(currentBlock.numIds(), start + count);
+        if (start <= renewBlockIndex && renewBlockIndex < currentIndex) {
             startIDBlockGetter();
         }
-
-        long returnId = currentBlock.getId(currentIndex);
-        currentIndex++;
-        if (returnId >= idUpperBound) throw new IDPoolExhaustedException("Reached id upper bound of " + idUpperBound);
-        log.trace("partition({})-namespace({}) Returned id: {}", partition, idNamespace, returnId);
-        return returnId;
+        return new IDLease(currentBlock, start, currentIndex);
     }
 
     @Override
@@ -245,6 +280,30 @@ public class StandardIDPool implements IDPool {
         idBlockFuture = exec.submit(idBlockGetter);
     }
 
+    /**
+     * A range of ids of a block which is used by a single thread only.
+     */
+    private static class IDLease {
+
+        private final IDBlock block;
+        private final long end;
+        private long index;
+
+        private IDLease(IDBlock block, long start, long end) {
+            this.block = block;
+            this.index = start;
+            this.end = end;
+        }
+
+        private boolean hasNext() {
+            return index < end;
+        }
+
+        private long next() {
+            return block.getId(index++);
+        }
+    }
+
     private static class IDBlockGetter implements Callable<IDBlock> {
 
         private final Stopwatch alive;
@@ -0,0 +1,245 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.olap.computer;
+
+import com.google.common.base.Preconditions;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.configuration.Configuration;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanJob;
+import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanMetrics;
+import org.janusgraph.diskstorage.keycolumnvalue.scan.StandardScanMetrics;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.StaticArrayEntryList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Compressed sparse row structure holding the rows of the edge store which are read by the first iteration of a
+ * vertex program, so that later iterations are served from memory instead of scanning the storage backend again.
+ * <p>
+ * Row {@code i} consists of the vertex key {@code keys[i]} and the serialized {@link StaticArrayEntryList} of all
+ * its columns, which takes up the bytes from {@code offsets[i]} to {@code offsets[i+1]} of the data array. All arrays
+ * are held in off-heap pages, see {@link OffHeapPageAllocator}. The slice queries of later iterations are answered
+ * by slicing the cached rows, so those iterations see the graph as it was during the first iteration.
+ */
+class FulgoraAdjacencyCache implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(FulgoraAdjacencyCache.class);
+
+    /**
+     * Query for all columns of a row, which is added to the queries of the scan which populates this cache
+     */
+    static final SliceQuery ROW_QUERY = new SliceQuery(BufferUtil.zeroBuffer(1), BufferUtil.oneBuffer(128));
+
+    private final OffHeapPageAllocator allocator;
+    private final OffHeapPagedArray keys;
+    private final OffHeapPagedArray offsets;
+    private final OffHeapPagedArray data;
+    private long numRows;
+    private long dataLength;
+    private volatile boolean complete;
+
+    /**
+     * @param spillThreshold number of bytes of direct memory to allocate before spilling, or 0 to never spill
+     * @param spillDirectory directory to create the spill files in
+     */
+    FulgoraAdjacencyCache(long spillThreshold, Path spillDirectory) {
+        allocator = new OffHeapPageAllocator(spillThreshold, spillDirectory);
+        keys = new OffHeapPagedArray(allocator, 3);
+        offsets = new OffHeapPagedArray(allocator, 3);
+        data = new OffHeapPagedArray(allocator, 0);
+    }
+
+    /**
+     * Returns whether a scan populated this cache with all rows of the edge store.
+     */
+    boolean isComplete() {
+        return complete;
+    }
+
+    synchronized long getNumRows() {
+        return numRows;
+    }
+
+    /**
+     * Wraps the given job so that the rows it processes are added to this cache. Once the scan of the wrapped job
+     * has completed successfully, {@link #complete()} must be called.
+     */
+    ScanJob record(ScanJob job) {
+        Preconditions.checkState(!complete, "Adjacency cache has already been populated");
+        return new RecordingJob(job);
+    }
+
+    void complete() {
+        complete = true;
+        log.debug("Cached {} rows in {} bytes", numRows, dataLength);
+    }
+
+    private void add(StaticBuffer key, EntryList columns) {
+        Preconditions.checkArgument(key.length() == BufferUtil.longSize, "Unexpected vertex key: %s", key);
+        if (columns == null || columns.isEmpty()) return;
+        final StaticArrayEntryList list = (StaticArrayEntryList) (columns instanceof StaticArrayEntryList
+            ? columns : StaticArrayEntryList.of(columns));
+        final ByteBuffer buffer = ByteBuffer.allocate(list.getSerializedSize());
+        list.writeTo(buffer);
+
+        final long row;
+        final long start;
+        synchronized (this) {
+            row = numRows++;
+            start = dataLength;
+            dataLength += buffer.capacity();
+        }
+        keys.putLong(row, key.getLong(0));
+        offsets.putLong(row, start);
+        offsets.putLong(row + 1, start + buffer.capacity());
+        data.putBytes(start, buffer.array());
+    }
+
+    private EntryList getColumns(long row) {
+        final long start = offsets.getLong(row);
+        final byte[] bytes = new byte[(int) (offsets.getLong(row + 1) - start)];
+        data.getBytes(start, bytes);
+        return StaticArrayEntryList.readFrom(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Processes all cached rows with the given job, in the same way as a scan of the edge store with the given
+     * number of processing threads would. The threads claim the rows in blocks of the given size, and each thread
+     * processes all of its blocks with one clone of the job.
+     */
+    ScanMetrics replay(ScanJob job, int numThreads, int workBlockSize) throws InterruptedException {
+        Preconditions.checkState(complete, "Adjacency cache has not been populated");
+        final ScanMetrics metrics = new StandardScanMetrics();
+        job.workerIterationStart(Configuration.EMPTY, Configuration.EMPTY, metrics);
+        try {
+            final List<SliceQuery> queries = job.getQueries();
+            final Predicate<StaticBuffer> keyFilter = job.getKeyFilter();
+            final AtomicLong nextRow = new AtomicLong();
+            final Thread[] processors = new Thread[numThreads];
+            for (int i = 0; i < processors.length; i++) {
+                processors[i] = new Thread(() -> {
+                    try {
+                        processBlocks(job, queries, keyFilter, nextRow, workBlockSize, metrics);
+                    } catch (Throwable e) {
+                        log.error("Unexpected error processing cached rows", e);
+                        metrics.increment(ScanMetrics.Metric.FAILURE);
+                    }
+                });
+                processors[i].start();
+            }
+            for (Thread processor : processors) {
+                processor.join();
+            }
+        } finally {
+            job.workerIterationEnd(metrics);
+        }
+        return metrics;
+    }
+
+    private void processBlocks(ScanJob job, List<SliceQuery> queries, Predicate<StaticBuffer> keyFilter,
+                               AtomicLong nextRow, int workBlockSize, ScanMetrics metrics) {
+        final long numRows = getNumRows();
+        final ScanJob worker = job.clone();
+        worker.workerIterationStart(Configuration.EMPTY, Configuration.EMPTY, metrics);
+        try {
+            for (long start = nextRow.getAndAdd(workBlockSize); start < numRows; start = nextRow.getAndAdd(workBlockSize)) {
+                for (long row = start; row < Math.min(start + workBlockSize, numRows); row++) {
+                    final StaticBuffer key = BufferUtil.getLongBuffer(keys.getLong(row));
+                    if (!keyFilter.test(key)) continue;
+                    final EntryList columns = getColumns(row);
+                    final Map<SliceQuery, EntryList> entries = new HashMap<>(queries.size());
+                    for (SliceQuery query : queries) {
+                        entries.put(query, query.getSubset(ROW_QUERY, columns));
+                    }
+                    //Like a scan, skip rows without results for the grounding query
+                    if (entries.get(queries.get(0)).isEmpty()) continue;
+                    try {
+                        worker.process(key, entries, metrics);
+                        metrics.increment(ScanMetrics.Metric.SUCCESS);
+                    } catch (Throwable ex) {
+                        log.error("Exception processing row [" + key + "]: ", ex);
+                        metrics.increment(ScanMetrics.Metric.FAILURE);
+                    }
+                }
+            }
+        } finally {
+            worker.workerIterationEnd(metrics);
+        }
+    }
+
+    @Override
+    public void close() {
+        keys.release();
+        offsets.release();
+        data.release();
+        allocator.close();
+    }
+
+    private class RecordingJob implements ScanJob {
+
+        private final ScanJob job;
+
+        private RecordingJob(ScanJob job) {
+            this.job = job;
+        }
+
+        @Override
+        public void workerIterationStart(Configuration jobConfiguration, Configuration graphConfiguration, ScanMetrics metrics) {
+            job.workerIterationStart(jobConfiguration, graphConfiguration, metrics);
+        }
+
+        @Override
+        public void workerIterationEnd(ScanMetrics metrics) {
+            job.workerIterationEnd(metrics);
+        }
+
+        @Override
+        public void process(StaticBuffer key, Map<SliceQuery, EntryList> entries, ScanMetrics metrics) {
+            add(key, entries.get(ROW_QUERY));
+            final Map<SliceQuery, EntryList> jobEntries = new HashMap<>(entries);
+            jobEntries.remove(ROW_QUERY);
+            job.process(key, jobEntries, metrics);
+        }
+
+        @Override
+        public List<SliceQuery> getQueries() {
+            final List<SliceQuery> queries = new ArrayList<>(job.getQueries());
+            queries.add(ROW_QUERY);
+            return queries;
+        }
+
+        @Override
+        public Predicate<StaticBuffer> getKeyFilter() {
+            return job.getKeyFilter();
+        }
+
+        @Override
+        public RecordingJob clone() {
+            return new RecordingJob(job.clone());
+        }
+    }
+}
@@ -46,6 +46,7 @@ import org.janusgraph.core.JanusGraphTransaction;
 import org.janusgraph.core.schema.JanusGraphManagement;
 import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.configuration.Configuration;
+import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanJob;
 import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanMetrics;
 import org.janusgraph.diskstorage.keycolumnvalue.scan.StandardScanner;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
@@ -54,6 +55,8 @@ import org.janusgraph.graphdb.util.WorkerPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -86,6 +89,11 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
     private int numThreads = 1;//Math.max(1,Runtime.getRuntime().availableProcessors());
     private final int readBatchSize;
     private final int writeBatchSize;
+    private final boolean offHeapVertexMemory;
+    private final long vertexMemorySpillThreshold;
+    private final Path vertexMemorySpillDirectory;
+    private final boolean adjacencyCacheEnabled;
+    private FulgoraAdjacencyCache adjacencyCache;
 
     private ResultGraph resultGraphMode = null;
     private Persist persistMode = null;
@@ -100,6 +108,12 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
         this.graph = graph;
         this.writeBatchSize = configuration.get(GraphDatabaseConfiguration.BUFFER_SIZE);
         this.readBatchSize = this.writeBatchSize * 10;
+        this.offHeapVertexMemory = configuration.get(GraphDatabaseConfiguration.COMPUTER_OFF_HEAP_VERTEX_MEMORY);
+        this.vertexMemorySpillThreshold = configuration.get(GraphDatabaseConfiguration.COMPUTER_VERTEX_MEMORY_SPILL_THRESHOLD);
+        this.vertexMemorySpillDirectory = Paths.get(configuration.has(GraphDatabaseConfiguration.COMPUTER_VERTEX_MEMORY_SPILL_DIRECTORY)
+            ? configuration.get(GraphDatabaseConfiguration.COMPUTER_VERTEX_MEMORY_SPILL_DIRECTORY)
+            : System.getProperty("java.io.tmpdir"));
+        this.adjacencyCacheEnabled = configuration.get(GraphDatabaseConfiguration.COMPUTER_ADJACENCY_CACHE);
         this.name = "compute" + computerCounter.incrementAndGet();
     }
 
@@ -193,12 +207,17 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
 
     private ComputerResult submitAsync() {
         final long time = System.currentTimeMillis();
-        executeVertexProgram();
+        Graph resultgraph;
+        try {
+            executeVertexProgram();
 
-        Map<MapReduce, FulgoraMapEmitter> mapJobs = collectMapJobs();
-        executeMapJobs(mapJobs);
+            Map<MapReduce, FulgoraMapEmitter> mapJobs = collectMapJobs();
+            executeMapJobs(mapJobs);
 
-        Graph resultgraph = writeMutatedPropertiesBackIntoGraph();
+            resultgraph = writeMutatedPropertiesBackIntoGraph();
+        } finally {
+            if (vertexMemory != null) vertexMemory.close();
+        }
         // update runtime and return the newly computed graph
         this.memory.setRuntime(System.currentTimeMillis() - time);
         this.memory.complete();
@@ -208,8 +227,14 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
     private void executeVertexProgram() {
         if (null == vertexProgram) return;
 
-        vertexMemory = new FulgoraVertexMemory(expectedNumVertices, graph.getIDManager(), vertexProgram);
+        vertexMemory = offHeapVertexMemory
+            ? new OffHeapVertexMemory(expectedNumVertices, graph.getIDManager(), vertexProgram,
+                vertexMemorySpillThreshold, vertexMemorySpillDirectory)
+            : new FulgoraVertexMemory(expectedNumVertices, graph.getIDManager(), vertexProgram);
         vertexProgram.setup(memory);
+        if (adjacencyCacheEnabled) {
+            adjacencyCache = new FulgoraAdjacencyCache(vertexMemorySpillThreshold, vertexMemorySpillDirectory);
+        }
 
         try (VertexProgramScanJob.Executor job = VertexProgramScanJob.getVertexProgramScanJob(graph, memory, vertexMemory, vertexProgram)) {
             for (int iteration = 1; ; iteration++) {
@@ -224,16 +249,20 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
                     memory.incrIteration();
                 }
             }
+        } finally {
+            if (adjacencyCache != null) {
+                adjacencyCache.close();
+                adjacencyCache = null;
+            }
         }
     }
 
     private void executeIterationOfJob(VertexProgramScanJob.Executor job, int iteration) {
         initializeVertexMemoryForIteration();
-        StandardScanner.Builder scanBuilder = createScanBuilderForJob(job, iteration);
         PartitionedVertexProgramExecutor programExecutor = new PartitionedVertexProgramExecutor(graph, memory, vertexMemory, vertexProgram);
         try {
             //Iterates over all vertices and computes the vertex program on all non-partitioned vertices. For partitioned ones, the data is aggregated
-            ScanMetrics jobResult = executeOnNonPartitionedVertices(iteration, scanBuilder);
+            ScanMetrics jobResult = executeOnNonPartitionedVertices(iteration, job);
 
             executeOnPartitionedVertices(iteration, programExecutor, jobResult);
         } catch (Exception e) {
@@ -254,18 +283,28 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
         }
     }
 
-    private StandardScanner.Builder createScanBuilderForJob(VertexProgramScanJob.Executor job, int iteration) {
+    private StandardScanner.Builder createScanBuilderForJob(ScanJob job, int iteration) {
         jobId = name + "#" + iteration;
         StandardScanner.Builder scanBuilder = graph.getBackend().buildEdgeScanJob();
         scanBuilder.setJobId(jobId);
+        // supersteps cannot be resumed, so their progress is not checkpointed
+        scanBuilder.setCheckpointConfiguration(null);
         scanBuilder.setNumProcessingThreads(numThreads);
         scanBuilder.setWorkBlockSize(readBatchSize);
         scanBuilder.setJob(job);
         return scanBuilder;
     }
 
-    private ScanMetrics executeOnNonPartitionedVertices(int iteration, StandardScanner.Builder scanBuilder) throws InterruptedException, ExecutionException, BackendException {
-        ScanMetrics jobResult = scanBuilder.execute().get();
+    private ScanMetrics executeOnNonPartitionedVertices(int iteration, VertexProgramScanJob.Executor job) throws InterruptedException, ExecutionException, BackendException {
+        ScanMetrics jobResult;
+        if (adjacencyCache != null && adjacencyCache.isComplete()) {
+            //Later iterations process the rows cached by the first one instead of scanning the storage backend
+            jobResult = adjacencyCache.replay(job, numThreads, readBatchSize);
+        } else {
+            StandardScanner.Builder scanBuilder = createScanBuilderForJob(adjacencyCache != null ? adjacencyCache.record(job) : job, iteration);
+            jobResult = scanBuilder.execute().get();
+            if (adjacencyCache != null) adjacencyCache.complete();
+        }
         long failures = jobResult.get(ScanMetrics.Metric.FAILURE);
         if (failures > 0) {
             throw new JanusGraphException("Failed to process [" + failures + "] vertices in vertex program iteration " +
@@ -306,6 +345,8 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
     private void executeMapJob(VertexMapJob.Executor job) {
         StandardScanner.Builder scanBuilder = graph.getBackend().buildEdgeScanJob();
         scanBuilder.setJobId(jobId);
+        // supersteps cannot be resumed, so their progress is not checkpointed
+        scanBuilder.setCheckpointConfiguration(null);
         scanBuilder.setNumProcessingThreads(numThreads);
         scanBuilder.setWorkBlockSize(readBatchSize);
         scanBuilder.setJob(job);
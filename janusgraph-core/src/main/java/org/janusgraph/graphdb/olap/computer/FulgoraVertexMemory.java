@@ -45,10 +45,10 @@ public class FulgoraVertexMemory<M> {
     private final NonBlockingHashMapLong<VertexState<M>> vertexStates;
     private final IDManager idManager;
     private final Set<VertexComputeKey> computeKeys;
-    private final Map<String,Integer> elementKeyMap;
-    private final MessageCombiner<M> combiner;
-    private Map<MessageScope,Integer> previousScopes;
-    private Map<MessageScope,Integer> currentScopes;
+    protected final Map<String,Integer> elementKeyMap;
+    protected final MessageCombiner<M> combiner;
+    protected Map<MessageScope,Integer> previousScopes;
+    protected Map<MessageScope,Integer> currentScopes;
     private boolean inExecute;
 
     private final NonBlockingHashMapLong<PartitionVertexAggregate<M>> partitionVertices;
@@ -126,11 +126,19 @@ public class FulgoraVertexMemory<M> {
         });
     }
 
+    /**
+     * Releases the vertex states once the computed properties are no longer needed.
+     */
+    void close() {
+        vertexStates.clear();
+        partitionVertices.clear();
+    }
+
     public Set<String> getMemoryKeys() {
         return computeKeys.stream().filter(key -> inExecute || !key.isTransient()).map(VertexComputeKey::getKey).collect(Collectors.toSet());
     }
 
-    private static MessageScope normalizeScope(MessageScope scope) {
+    protected static MessageScope normalizeScope(MessageScope scope) {
         if (scope instanceof MessageScope.Global) return GLOBAL_SCOPE;
         else return scope;
     }
@@ -0,0 +1,110 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.olap.computer;
+
+import com.google.common.base.Preconditions;
+import org.janusgraph.core.JanusGraphException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Allocates the fixed-size pages of {@link OffHeapVertexMemory} and {@link FulgoraAdjacencyCache}. Pages are
+ * allocated in direct memory until the spill threshold is reached, after which they are carved out of memory-mapped
+ * files in the spill directory.
+ */
+class OffHeapPageAllocator implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(OffHeapPageAllocator.class);
+
+    static final int PAGE_SIZE = 1 << 20;
+    private static final int PAGES_PER_SPILL_FILE = 64;
+
+    private final long spillThreshold;
+    private final Path spillDirectory;
+    private final List<Path> spillFiles = new ArrayList<>();
+
+    private long directBytes;
+    private MappedByteBuffer spillSegment;
+
+    /**
+     * @param spillThreshold number of bytes to allocate in direct memory before spilling, or 0 to never spill
+     * @param spillDirectory directory to create the spill files in
+     */
+    OffHeapPageAllocator(long spillThreshold, Path spillDirectory) {
+        Preconditions.checkArgument(spillThreshold >= 0, "Invalid spill threshold: %s", spillThreshold);
+        Preconditions.checkArgument(spillThreshold == 0 || spillDirectory != null, "Spilling requires a directory");
+        this.spillThreshold = spillThreshold;
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * Returns a zeroed page of {@link #PAGE_SIZE} bytes.
+     */
+    synchronized ByteBuffer allocate() {
+        if (spillThreshold == 0 || directBytes + PAGE_SIZE <= spillThreshold) {
+            directBytes += PAGE_SIZE;
+            return ByteBuffer.allocateDirect(PAGE_SIZE);
+        }
+        if (spillSegment == null || !spillSegment.hasRemaining()) {
+            spillSegment = mapSpillFile();
+        }
+        final int position = spillSegment.position();
+        spillSegment.limit(position + PAGE_SIZE);
+        final ByteBuffer page = spillSegment.slice();
+        spillSegment.limit(spillSegment.capacity()).position(position + PAGE_SIZE);
+        return page;
+    }
+
+    private MappedByteBuffer mapSpillFile() {
+        try {
+            final Path file = Files.createTempFile(spillDirectory, "vertex-memory", ".pages");
+            spillFiles.add(file);
+            log.debug("Spilling vertex memory to {}", file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // The mapping remains valid after the channel is closed
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) PAGE_SIZE * PAGES_PER_SPILL_FILE);
+            }
+        } catch (IOException e) {
+            throw new JanusGraphException("Could not spill vertex memory to " + spillDirectory, e);
+        }
+    }
+
+    /**
+     * Deletes the spill files. Pages must not be accessed afterwards.
+     */
+    @Override
+    public synchronized void close() {
+        spillSegment = null;
+        for (Path file : spillFiles) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete spill file {}", file, e);
+            }
+        }
+        spillFiles.clear();
+        directBytes = 0;
+    }
+}
@@ -0,0 +1,139 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.olap.computer;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Array of fixed-width elements in pages of {@link OffHeapPageAllocator#PAGE_SIZE} bytes, which are allocated as
+ * elements are written. Unallocated elements read as zero.
+ * <p>
+ * Elements at different indexes can be written concurrently. Writes are visible to other threads once they
+ * synchronize with the writing thread.
+ */
+class OffHeapPagedArray {
+
+    private final OffHeapPageAllocator allocator;
+    private final int widthBits;
+    private final int pageShift;
+    private volatile ByteBuffer[] pages = new ByteBuffer[0];
+
+    /**
+     * @param widthBits binary logarithm of the element width in bytes
+     */
+    OffHeapPagedArray(OffHeapPageAllocator allocator, int widthBits) {
+        this.allocator = allocator;
+        this.widthBits = widthBits;
+        this.pageShift = Integer.numberOfTrailingZeros(OffHeapPageAllocator.PAGE_SIZE) - widthBits;
+    }
+
+    private int offset(long index) {
+        return (int) (index & ((1 << pageShift) - 1)) << widthBits;
+    }
+
+    private ByteBuffer getPage(long index) {
+        final ByteBuffer[] current = pages;
+        final long page = index >>> pageShift;
+        return page < current.length ? current[(int) page] : null;
+    }
+
+    private ByteBuffer getOrAllocatePage(long index) {
+        final ByteBuffer page = getPage(index);
+        return page != null ? page : allocatePages((int) (index >>> pageShift));
+    }
+
+    private synchronized ByteBuffer allocatePages(int page) {
+        ByteBuffer[] current = pages;
+        if (page >= current.length) {
+            final int length = current.length;
+            current = Arrays.copyOf(current, page + 1);
+            for (int i = length; i < current.length; i++) current[i] = allocator.allocate();
+            pages = current;
+        }
+        return current[page];
+    }
+
+    long getLong(long index) {
+        final ByteBuffer page = getPage(index);
+        return page == null ? 0L : page.getLong(offset(index));
+    }
+
+    void putLong(long index, long value) {
+        getOrAllocatePage(index).putLong(offset(index), value);
+    }
+
+    int getInt(long index) {
+        final ByteBuffer page = getPage(index);
+        return page == null ? 0 : page.getInt(offset(index));
+    }
+
+    void putInt(long index, int value) {
+        getOrAllocatePage(index).putInt(offset(index), value);
+    }
+
+    byte getByte(long index) {
+        final ByteBuffer page = getPage(index);
+        return page == null ? 0 : page.get(offset(index));
+    }
+
+    void putByte(long index, byte value) {
+        getOrAllocatePage(index).put(offset(index), value);
+    }
+
+    /**
+     * Copies the given bytes into this array of bytes, starting at the given index.
+     */
+    void putBytes(long index, byte[] bytes) {
+        assert widthBits == 0;
+        for (int copied = 0; copied < bytes.length; ) {
+            final ByteBuffer page = getOrAllocatePage(index + copied).duplicate();
+            page.position(offset(index + copied));
+            final int length = Math.min(page.remaining(), bytes.length - copied);
+            page.put(bytes, copied, length);
+            copied += length;
+        }
+    }
+
+    /**
+     * Copies bytes of this array of bytes, starting at the given index, into the given array.
+     */
+    void getBytes(long index, byte[] bytes) {
+        assert widthBits == 0;
+        for (int copied = 0; copied < bytes.length; ) {
+            final ByteBuffer page = getPage(index + copied);
+            final int offset = offset(index + copied);
+            final int length = Math.min(OffHeapPageAllocator.PAGE_SIZE - offset, bytes.length - copied);
+            if (page == null) {
+                Arrays.fill(bytes, copied, copied + length, (byte) 0);
+            } else {
+                final ByteBuffer source = page.duplicate();
+                source.position(offset);
+                source.get(bytes, copied, length);
+            }
+            copied += length;
+        }
+    }
+
+    void clear() {
+        for (ByteBuffer page : pages) {
+            for (int i = 0; i < page.capacity(); i += Long.BYTES) page.putLong(i, 0L);
+        }
+    }
+
+    synchronized void release() {
+        pages = new ByteBuffer[0];
+    }
+}
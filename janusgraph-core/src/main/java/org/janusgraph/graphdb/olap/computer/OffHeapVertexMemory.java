@@ -0,0 +1,327 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.olap.computer;
+
+import com.google.common.base.Preconditions;
+import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
+import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
+import org.cliffc.high_scale_lib.NonBlockingHashMapLong;
+import org.janusgraph.graphdb.idmanagement.IDManager;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * {@link FulgoraVertexMemory} which keeps the compute keys and messages of the vertices in columns of off-heap pages.
+ * <p>
+ * Every vertex which is assigned a property or message is given a slot, which indexes the columns. Each compute key
+ * and each message scope has its own column, which holds a type tag and the primitive bits of numeric values in
+ * off-heap memory. Values of other types are kept on the heap, keyed by slot. Messages sent to the global scope are
+ * combined in place. The pages are allocated in direct memory up to the spill threshold and memory-mapped from files
+ * beyond it, see {@link OffHeapPageAllocator}.
+ */
+public class OffHeapVertexMemory<M> extends FulgoraVertexMemory<M> {
+
+    private static final int STRIPE_BITS = 6;
+    private static final int LOCK_STRIPES = 1024;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private static final byte ABSENT = 0;
+    private static final byte OBJECT = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte INTEGER = 4;
+    private static final byte FLOAT = 5;
+
+    private final OffHeapPageAllocator allocator;
+    private final OffHeapPagedArray ids;
+    private final AtomicInteger numSlots = new AtomicInteger();
+    private final SlotTable[] slotTables;
+    private final Object[] locks;
+
+    private final Column[] properties;
+    private Column[] previousMessages = new Column[0];
+    private Column[] currentMessages = new Column[0];
+    private final Deque<Column> freeColumns = new ArrayDeque<>();
+
+    /**
+     * @param spillThreshold number of bytes of direct memory to allocate before spilling, or 0 to never spill
+     * @param spillDirectory directory to create the spill files in
+     */
+    public OffHeapVertexMemory(int numVertices, IDManager idManager, VertexProgram<M> vertexProgram,
+                               long spillThreshold, Path spillDirectory) {
+        super(numVertices, idManager, vertexProgram);
+        allocator = new OffHeapPageAllocator(spillThreshold, spillDirectory);
+        ids = new OffHeapPagedArray(allocator, 3);
+        slotTables = new SlotTable[1 << STRIPE_BITS];
+        for (int i = 0; i < slotTables.length; i++) {
+            slotTables[i] = new SlotTable(numVertices >> STRIPE_BITS, ids, numSlots);
+        }
+        locks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        properties = new Column[elementKeyMap.size()];
+        for (int i = 0; i < properties.length; i++) {
+            properties[i] = new Column(allocator);
+        }
+    }
+
+    private int getSlot(long vertexId, boolean create) {
+        assert vertexId == getCanonicalId(vertexId);
+        final long hash = vertexId * HASH_MULTIPLIER;
+        final SlotTable table = slotTables[(int) (hash >>> (Long.SIZE - STRIPE_BITS))];
+        return create ? table.getOrCreate(vertexId, hash << STRIPE_BITS) : table.get(vertexId, hash << STRIPE_BITS);
+    }
+
+    @Override
+    public <V> void setProperty(long vertexId, String key, V value) {
+        assert elementKeyMap.containsKey(key);
+        properties[elementKeyMap.get(key)].set(getSlot(vertexId, true), value);
+    }
+
+    @Override
+    public <V> V getProperty(long vertexId, String key) {
+        assert elementKeyMap.containsKey(key);
+        final int slot = getSlot(vertexId, false);
+        return slot < 0 ? null : (V) properties[elementKeyMap.get(key)].get(slot);
+    }
+
+    @Override
+    void sendMessage(long vertexId, M message, MessageScope scope) {
+        assert message != null && scope != null;
+        final MessageScope normalizedScope = normalizeScope(scope);
+        final Integer pos = currentScopes.get(normalizedScope);
+        Preconditions.checkArgument(pos != null, "Provided scope was not declared in the VertexProgram: %s", scope);
+        final Column messages = currentMessages[pos];
+        final int slot = getSlot(vertexId, true);
+        synchronized (locks[slot & (LOCK_STRIPES - 1)]) {
+            final Object previous = scope instanceof MessageScope.Global ? messages.get(slot) : null;
+            messages.set(slot, previous == null ? message : VertexState.combineMessages(combiner, message, previous));
+        }
+    }
+
+    @Override
+    Stream<M> getMessage(long vertexId, MessageScope scope) {
+        final Integer pos = previousScopes.get(normalizeScope(scope));
+        final int slot = getSlot(vertexId, false);
+        if (pos == null || slot < 0) return Stream.empty();
+        return VertexState.messageStream(previousMessages[pos].get(slot));
+    }
+
+    @Override
+    void nextIteration(Set<MessageScope> scopes) {
+        super.nextIteration(scopes);
+        currentMessages = new Column[currentScopes.size()];
+        for (int i = 0; i < currentMessages.length; i++) {
+            currentMessages[i] = freeColumns.isEmpty() ? new Column(allocator) : freeColumns.pop();
+        }
+    }
+
+    @Override
+    void completeIteration() {
+        super.completeIteration();
+        for (Column messages : previousMessages) {
+            messages.clear();
+            freeColumns.push(messages);
+        }
+        previousMessages = currentMessages;
+        currentMessages = new Column[0];
+    }
+
+    @Override
+    public Map<Long, Map<String, Object>> getMutableVertexProperties() {
+        return new AbstractMap<Long, Map<String, Object>>() {
+            @Override
+            public Set<Entry<Long, Map<String, Object>>> entrySet() {
+                return new AbstractSet<Entry<Long, Map<String, Object>>>() {
+                    @Override
+                    public Iterator<Entry<Long, Map<String, Object>>> iterator() {
+                        return IntStream.range(0, numSlots.get()).<Entry<Long, Map<String, Object>>>mapToObj(slot ->
+                            new SimpleImmutableEntry<>(ids.getLong(slot), getProperties(slot))).iterator();
+                    }
+
+                    @Override
+                    public int size() {
+                        return numSlots.get();
+                    }
+                };
+            }
+        };
+    }
+
+    private Map<String, Object> getProperties(int slot) {
+        final Map<String, Object> map = new HashMap<>(elementKeyMap.size());
+        for (Map.Entry<String, Integer> key : elementKeyMap.entrySet()) {
+            final Object value = properties[key.getValue()].get(slot);
+            if (value != null) map.put(key.getKey(), value);
+        }
+        return map;
+    }
+
+    @Override
+    void close() {
+        super.close();
+        ids.release();
+        for (SlotTable table : slotTables) table.release();
+        for (Column column : properties) column.release();
+        for (Column column : previousMessages) column.release();
+        for (Column column : currentMessages) column.release();
+        freeColumns.clear();
+        allocator.close();
+    }
+
+    /**
+     * Open addressing table with linear probing, which maps the vertex ids of one stripe to their slots.
+     * Buckets hold the slot plus one, so that zero marks an empty bucket.
+     */
+    private static final class SlotTable {
+
+        private final OffHeapPagedArray ids;
+        private final AtomicInteger numSlots;
+        private ByteBuffer buckets;
+        private int bits;
+        private int size;
+
+        SlotTable(int expectedSize, OffHeapPagedArray ids, AtomicInteger numSlots) {
+            this.ids = ids;
+            this.numSlots = numSlots;
+            allocate(Math.max(4, Integer.SIZE - Integer.numberOfLeadingZeros(expectedSize) + 1));
+        }
+
+        private void allocate(int bucketBits) {
+            bits = bucketBits;
+            buckets = ByteBuffer.allocateDirect(Integer.BYTES << bucketBits);
+        }
+
+        private int bucket(long hash) {
+            return (int) (hash >>> (Long.SIZE - bits));
+        }
+
+        synchronized int get(long vertexId, long hash) {
+            final int mask = (1 << bits) - 1;
+            for (int b = bucket(hash); ; b = (b + 1) & mask) {
+                final int slot = buckets.getInt(b * Integer.BYTES) - 1;
+                if (slot < 0 || ids.getLong(slot) == vertexId) return slot;
+            }
+        }
+
+        synchronized int getOrCreate(long vertexId, long hash) {
+            final int mask = (1 << bits) - 1;
+            int b = bucket(hash);
+            for (; ; b = (b + 1) & mask) {
+                final int slot = buckets.getInt(b * Integer.BYTES) - 1;
+                if (slot < 0) break;
+                if (ids.getLong(slot) == vertexId) return slot;
+            }
+            final int slot = numSlots.getAndIncrement();
+            Preconditions.checkState(slot >= 0, "Vertex memory cannot hold more than %s vertices", Integer.MAX_VALUE);
+            ids.putLong(slot, vertexId);
+            buckets.putInt(b * Integer.BYTES, slot + 1);
+            if (++size > mask >> 1) resize();
+            return slot;
+        }
+
+        private void resize() {
+            final ByteBuffer old = buckets;
+            allocate(bits + 1);
+            final int mask = (1 << bits) - 1;
+            for (int i = 0; i < old.capacity(); i += Integer.BYTES) {
+                final int slot = old.getInt(i) - 1;
+                if (slot < 0) continue;
+                int b = bucket((ids.getLong(slot) * HASH_MULTIPLIER) << STRIPE_BITS);
+                while (buckets.getInt(b * Integer.BYTES) != 0) b = (b + 1) & mask;
+                buckets.putInt(b * Integer.BYTES, slot + 1);
+            }
+        }
+
+        synchronized void release() {
+            allocate(1);
+            size = 0;
+        }
+    }
+
+    /**
+     * Column of the compute key or message scope of all slots.
+     */
+    private static final class Column {
+
+        private final OffHeapPagedArray types;
+        private final OffHeapPagedArray values;
+        private final NonBlockingHashMapLong<Object> objects = new NonBlockingHashMapLong<>();
+
+        Column(OffHeapPageAllocator allocator) {
+            types = new OffHeapPagedArray(allocator, 0);
+            values = new OffHeapPagedArray(allocator, 3);
+        }
+
+        Object get(int slot) {
+            switch (types.getByte(slot)) {
+                case ABSENT: return null;
+                case LONG: return values.getLong(slot);
+                case DOUBLE: return Double.longBitsToDouble(values.getLong(slot));
+                case INTEGER: return (int) values.getLong(slot);
+                case FLOAT: return Float.intBitsToFloat((int) values.getLong(slot));
+                default: return objects.get(slot);
+            }
+        }
+
+        void set(int slot, Object value) {
+            final byte type;
+            if (value == null) {
+                type = ABSENT;
+            } else if (value.getClass() == Long.class) {
+                type = LONG;
+                values.putLong(slot, (Long) value);
+            } else if (value.getClass() == Double.class) {
+                type = DOUBLE;
+                values.putLong(slot, Double.doubleToRawLongBits((Double) value));
+            } else if (value.getClass() == Integer.class) {
+                type = INTEGER;
+                values.putLong(slot, (Integer) value);
+            } else if (value.getClass() == Float.class) {
+                type = FLOAT;
+                values.putLong(slot, Float.floatToRawIntBits((Float) value));
+            } else {
+                type = OBJECT;
+                objects.put(slot, value);
+            }
+            if (type != OBJECT && types.getByte(slot) == OBJECT) objects.remove(slot);
+            types.putByte(slot, type);
+        }
+
+        void clear() {
+            types.clear();
+            objects.clear();
+        }
+
+        void release() {
+            types.release();
+            values.release();
+            objects.clear();
+        }
+    }
+}
@@ -95,7 +95,7 @@ public class VertexState<M> {
         }
     }
 
-    private Object combineMessages(MessageCombiner<M> combiner, M messageA, Object messageB) {
+    static <M> Object combineMessages(MessageCombiner<M> combiner, M messageA, Object messageB) {
         Object combinedMessage;
         if (combiner != null) {
             combinedMessage = combiner.combine(messageA, (M) messageB);
@@ -122,6 +122,14 @@ public class VertexState<M> {
         } else {
             message = null;
         }
+        return messageStream(message);
+    }
+
+    /**
+     * Returns the messages held by a message slot, which contains either nothing, a single message or
+     * the {@link ObjectArrayList} of messages collected when no {@link MessageCombiner} is available.
+     */
+    static <M> Stream<M> messageStream(Object message) {
         if (message instanceof ObjectArrayList) {
             Iterator<M> transform = Iterators.transform(((ObjectArrayList<M>) message).iterator(), e -> e.value);
             return StreamSupport.stream(
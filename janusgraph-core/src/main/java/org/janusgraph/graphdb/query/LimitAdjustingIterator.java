@@ -26,10 +26,11 @@ import java.util.NoSuchElementException;
  * As such, we don't want to retrieve all of it but "just enough". However, if more data is requested, then we want
  * the wrapped iterator to be updated (i.e. additional data be retrieved).
  * <p>
- * The limit for the wrapped iterator is updated by a factor of 2. When the iterator is updated, the iterator must be
- * iterated through to the point of the last returned element. While this may seem expensive, it is less expensive than
- * retrieving more than needed elements in the first place. However, this still means the initial currentLimit in the
- * constructor should be chosen wisely.
+ * The limit for the wrapped iterator is updated by a factor of 2. If the subclass can resume the query after the last
+ * returned element (see {@link #getContinuationIterator(Object, int)}), only the remaining elements are retrieved.
+ * Otherwise the query is executed again and the new iterator must be iterated through to the point of the last
+ * returned element. While this may seem expensive, it is less expensive than retrieving more than needed elements in
+ * the first place. However, this still means the initial currentLimit in the constructor should be chosen wisely.
  *
  * @author Matthias Broecheler (me@matthiasb.com)
  */
@@ -40,6 +41,9 @@ public abstract class LimitAdjustingIterator<R> implements CloseableIterator<R>
     private int count;
 
     private Iterator<R> iterator;
+    private int iteratorLimit;
+    private int iteratorCount;
+    private R lastElement;
 
     /**
      * Initializes this iterator with the current limit and the maximum number of elements that may be retrieved from the
@@ -64,10 +68,26 @@ public abstract class LimitAdjustingIterator<R> implements CloseableIterator<R>
      */
     public abstract Iterator<R> getNewIterator(int newLimit);
 
+    /**
+     * This returns an iterator over up to the specified number of elements following the given element, i.e. it
+     * continues the wrapped iterator without retrieving the elements returned so far again. Returns null if the
+     * query cannot be continued, in which case {@link #getNewIterator(int)} is used.
+     *
+     * @param lastElement the last element returned by this iterator
+     * @param limit
+     * @return
+     */
+    public Iterator<R> getContinuationIterator(R lastElement, int limit) {
+        return null;
+    }
+
     @Override
     public boolean hasNext() {
-        if (iterator ==null) iterator = getNewIterator(currentLimit);
-        if (count < currentLimit)
+        if (iterator ==null) {
+            iterator = getNewIterator(currentLimit);
+            iteratorLimit = currentLimit;
+        }
+        if (iteratorCount < iteratorLimit)
             return iterator.hasNext();
         if (currentLimit>=maxLimit) return false;
 
@@ -75,14 +95,23 @@ public abstract class LimitAdjustingIterator<R> implements CloseableIterator<R>
         CloseableIterator.closeIterator(iterator);
         //Get an iterator with an updated limit
         currentLimit = (int) Math.min(maxLimit, Math.round(currentLimit * 2.0));
-        iterator = getNewIterator(currentLimit);
-
-        /*
-        We need to iterate out the iterator to the point where we last left of. This is pretty expensive and hence
-        it should be ensured that the initial limit is a good guesstimate.
-         */
-        for (int i = 0; i < count; i++)
-            iterator.next();
+        Iterator<R> continuation = getContinuationIterator(lastElement, currentLimit - count);
+        if (continuation != null) {
+            iterator = continuation;
+            iteratorLimit = currentLimit - count;
+            iteratorCount = 0;
+        } else {
+            iterator = getNewIterator(currentLimit);
+            iteratorLimit = currentLimit;
+
+            /*
+            We need to iterate out the iterator to the point where we last left of. This is pretty expensive and hence
+            it should be ensured that the initial limit is a good guesstimate.
+             */
+            for (int i = 0; i < count; i++)
+                iterator.next();
+            iteratorCount = count;
+        }
 
         assert count < currentLimit : count + " vs " + currentLimit + " | " + maxLimit;
         return hasNext();
@@ -94,7 +123,9 @@ public abstract class LimitAdjustingIterator<R> implements CloseableIterator<R>
             throw new NoSuchElementException();
 
         count++;
-        return iterator.next();
+        iteratorCount++;
+        lastElement = iterator.next();
+        return lastElement;
     }
 
     @Override
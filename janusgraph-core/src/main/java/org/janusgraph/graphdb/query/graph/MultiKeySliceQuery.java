@@ -21,7 +21,6 @@ import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
 import org.janusgraph.graphdb.query.BackendQuery;
 import org.janusgraph.graphdb.query.BaseQuery;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -45,15 +44,7 @@ public class MultiKeySliceQuery extends BaseQuery implements BackendQuery<MultiK
     }
 
     public List<EntryList> execute(final BackendTransaction tx) {
-        int total = 0;
-        final List<EntryList> result = new ArrayList<>(Math.min(getLimit(), queries.size()));
-        for (KeySliceQuery ksq : queries) {
-            EntryList next =tx.indexQuery(ksq.updateLimit(getLimit()-total));
-            result.add(next);
-            total+=next.size();
-            if (total>=getLimit()) break;
-        }
-        return result;
+        return tx.indexQuery(queries, getLimit());
     }
 
     @Override
@@ -22,7 +22,9 @@ import org.janusgraph.core.JanusGraphRelation;
 import org.janusgraph.core.VertexList;
 import org.janusgraph.diskstorage.Entry;
 import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
 import org.janusgraph.graphdb.database.EdgeSerializer;
 import org.janusgraph.graphdb.internal.InternalVertex;
 import org.janusgraph.graphdb.query.BackendQueryHolder;
@@ -30,6 +32,8 @@ import org.janusgraph.graphdb.query.profile.QueryProfiler;
 import org.janusgraph.graphdb.transaction.RelationConstructor;
 import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import javax.annotation.Nullable;
 
@@ -118,7 +122,11 @@ public class SimpleVertexQueryProcessor implements Iterable<Entry> {
      * @return
      */
     private Iterator<Entry> getBasicIterator() {
-        final EntryList result = vertex.loadRelations(sliceQuery, query -> QueryProfiler.profile(profiler, query, q -> tx.getGraph().edgeQuery(vertex.longId(), q, tx.getTxHandle())));
+        return execute(sliceQuery);
+    }
+
+    private Iterator<Entry> execute(SliceQuery slice) {
+        final EntryList result = vertex.loadRelations(slice, query -> QueryProfiler.profile(profiler, query, q -> tx.getGraph().edgeQuery(vertex.longId(), q, tx.getTxHandle())));
         return result.iterator();
     }
 
@@ -135,6 +143,19 @@ public class SimpleVertexQueryProcessor implements Iterable<Entry> {
                 sliceQuery = sliceQuery.updateLimit(newLimit);
             return getBasicIterator();
         }
+
+        /**
+         * Entries are sorted by column, hence the query can be continued by a slice which starts right after the
+         * column of the last returned entry. Appending a zero byte gives the smallest column that is bigger.
+         */
+        @Override
+        public Iterator<Entry> getContinuationIterator(Entry lastEntry, int limit) {
+            StaticBuffer column = lastEntry.getColumn();
+            StaticBuffer start = StaticArrayBuffer.of(Arrays.copyOf(column.as(StaticBuffer.ARRAY_FACTORY), column.length() + 1));
+            if (start.compareTo(sliceQuery.getSliceEnd()) >= 0)
+                return Collections.emptyIterator();
+            return execute(new SliceQuery(start, sliceQuery.getSliceEnd()).setLimit(limit));
+        }
     }
 
 
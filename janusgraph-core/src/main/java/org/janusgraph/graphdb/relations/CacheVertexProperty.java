@@ -81,7 +81,8 @@ public class CacheVertexProperty extends AbstractVertexProperty {
     private RelationCache getPropertyMap() {
         RelationCache map = data.getCache();
         if (map == null || !map.hasProperties()) {
-            map = RelationConstructor.readRelationCache(data, tx());
+            //Properties are decoded on demand, the decoding progress is kept on the entry
+            map = RelationConstructor.readRelationCacheLazily(data, tx());
         }
         return map;
     }
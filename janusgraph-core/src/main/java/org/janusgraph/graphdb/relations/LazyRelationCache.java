@@ -0,0 +1,152 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.relations;
+
+import com.carrotsearch.hppc.LongObjectHashMap;
+import com.carrotsearch.hppc.cursors.LongObjectCursor;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.graphdb.types.TypeInspector;
+
+import java.util.Iterator;
+
+/**
+ * {@link RelationCache} which decodes the properties of a relation only when they are requested.
+ * Properties are decoded in the order in which they are serialized until the requested one is found, so
+ * reading a single property does not decode the ones stored after it.
+ * <p>
+ * Instances are set on the entry they decode, so that the decoding progress is shared by all reads of the entry,
+ * f.e. when it is served from the database or vertex cache. Decoding resolves property keys through a transaction,
+ * hence the properties can only be read through a view returned by {@link #forTransaction(TypeInspector)}.
+ * Once all properties are decoded, a regular {@link RelationCache} replaces this cache on the entry.
+ */
+public class LazyRelationCache extends RelationCache {
+
+    /**
+     * Decodes the serialized properties of a relation one at a time.
+     */
+    public interface PropertyReader {
+
+        /**
+         * Decodes the next property and adds it to the given map if it has a value.
+         *
+         * @return false if all properties had already been decoded
+         */
+        boolean readNext(LongObjectHashMap<Object> properties, TypeInspector tx);
+
+    }
+
+    private final Entry data;
+    private final LongObjectHashMap<Object> decoded = new LongObjectHashMap<>(4);
+    private PropertyReader reader;
+    private RelationCache completed;
+
+    public LazyRelationCache(final Direction direction, final long typeId, final long relationId,
+                             final Object other, final PropertyReader reader, final Entry data) {
+        super(direction, typeId, relationId, other);
+        this.reader = reader;
+        this.data = data;
+    }
+
+    /**
+     * @return a view on this cache which decodes the requested properties with the given transaction
+     */
+    public RelationCache forTransaction(TypeInspector tx) {
+        return new TransactionView(tx);
+    }
+
+    /**
+     * Decodes all remaining properties.
+     *
+     * @return the complete cache which has been set on the entry
+     */
+    public synchronized RelationCache complete(TypeInspector tx) {
+        readAll(tx);
+        return completed;
+    }
+
+    @Override
+    public <O> O get(long key) {
+        throw new UnsupportedOperationException("Properties must be read through a transaction view");
+    }
+
+    @Override
+    public int numProperties() {
+        throw new UnsupportedOperationException("Properties must be read through a transaction view");
+    }
+
+    @Override
+    public Iterator<LongObjectCursor<Object>> propertyIterator() {
+        throw new UnsupportedOperationException("Properties must be read through a transaction view");
+    }
+
+    private void readAll(TypeInspector tx) {
+        while (readNext(tx));
+    }
+
+    private boolean readNext(TypeInspector tx) {
+        if (reader == null) return false;
+        if (reader.readNext(decoded, tx)) return true;
+        reader = null;
+        completed = new RelationCache(direction, typeId, relationId, getValue(), decoded);
+        data.setCache(completed);
+        return false;
+    }
+
+    private class TransactionView extends RelationCache {
+
+        private final TypeInspector tx;
+
+        private TransactionView(TypeInspector tx) {
+            super(LazyRelationCache.this.direction, LazyRelationCache.this.typeId, LazyRelationCache.this.relationId,
+                LazyRelationCache.this.getValue());
+            this.tx = tx;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <O> O get(long key) {
+            synchronized (LazyRelationCache.this) {
+                while (!decoded.containsKey(key) && readNext(tx));
+                return (O) decoded.get(key);
+            }
+        }
+
+        @Override
+        public boolean hasProperties() {
+            synchronized (LazyRelationCache.this) {
+                while (decoded.isEmpty() && readNext(tx));
+                return !decoded.isEmpty();
+            }
+        }
+
+        @Override
+        public int numProperties() {
+            synchronized (LazyRelationCache.this) {
+                readAll(tx);
+                return decoded.size();
+            }
+        }
+
+        @Override
+        public Iterator<LongObjectCursor<Object>> propertyIterator() {
+            synchronized (LazyRelationCache.this) {
+                readAll(tx);
+                return decoded.iterator();
+            }
+        }
+    }
+
+}
@@ -33,16 +33,25 @@ import java.util.Set;
  * child traversal. If the initial step of that child supports multiQuery then its faster
  * if initialised with all the starts than just one at a time, so this step allows it to
  * request the full set of starts from this step when initialising itself.
+ * <p>
+ * Starts are cached in windows of at most batchSize traversers so that the memory needed by
+ * large traversals stays bounded and the child traversal can emit results early.
  */
 public final class JanusGraphMultiQueryStep extends AbstractStep<Vertex, Vertex> {
 
     private final Set<Traverser.Admin<Vertex>> cachedStarts = new HashSet<>();
     private final String forStep;
+    private final int batchSize;
     private boolean cachedStartsAccessed = false;
 
     public JanusGraphMultiQueryStep(Step<Vertex,?> originalStep) {
+        this(originalStep, Integer.MAX_VALUE);
+    }
+
+    public JanusGraphMultiQueryStep(Step<Vertex,?> originalStep, int batchSize) {
         super(originalStep.getTraversal());
         this.forStep = originalStep.getClass().getSimpleName();
+        this.batchSize = batchSize;
     }
 
     @Override
@@ -50,17 +59,20 @@ public final class JanusGraphMultiQueryStep extends AbstractStep<Vertex, Vertex>
         Admin<Vertex> start = this.starts.next();
         if (!cachedStarts.contains(start))
         {
-            if (cachedStartsAccessed) {
+            if (cachedStartsAccessed || cachedStarts.size() >= batchSize) {
                 cachedStarts.clear();
                 cachedStartsAccessed = false;
             }
+            cachedStarts.add(start);
             final List<Traverser.Admin<Vertex>> newStarters = new ArrayList<>();
-            starts.forEachRemaining(s -> {
+            int windowSize = 1;
+            while (windowSize < batchSize && starts.hasNext()) {
+                final Admin<Vertex> s = starts.next();
                 newStarters.add(s);
                 cachedStarts.add(s);
-            });
+                windowSize++;
+            }
             starts.add(newStarters.iterator());
-            cachedStarts.add(start);
         }
         return start;
     }
@@ -43,7 +43,6 @@ import org.janusgraph.graphdb.tinkerpop.optimize.JanusGraphTraversalUtil;
 import org.janusgraph.graphdb.tinkerpop.profile.TP3ProfileWrapper;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -56,6 +55,7 @@ public class JanusGraphPropertiesStep<E> extends PropertiesStep<E> implements Ha
 
     private boolean initialized = false;
     private boolean useMultiQuery = false;
+    private int batchSize = Integer.MAX_VALUE;
     private Map<JanusGraphVertex, Iterable<? extends JanusGraphProperty>> multiQueryResults = null;
     private QueryProfiler queryProfiler = QueryProfiler.NO_OP;
 
@@ -71,6 +71,11 @@ public class JanusGraphPropertiesStep<E> extends PropertiesStep<E> implements Ha
         this.useMultiQuery = useMultiQuery;
     }
 
+    @Override
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
     private <Q extends BaseVertexQuery> Q makeQuery(Q query) {
         final String[] keys = getPropertyKeys();
         query.keys(keys);
@@ -98,8 +103,7 @@ public class JanusGraphPropertiesStep<E> extends PropertiesStep<E> implements Ha
 
         if (!starts.hasNext()) throw FastNoSuchElementException.instance();
         final List<Traverser.Admin<Element>> elements = new ArrayList<>();
-        starts.forEachRemaining(elements::add);
-        starts.add(elements.iterator());
+        fillBatch(elements);
         assert elements.size() > 0;
 
         useMultiQuery = useMultiQuery && elements.stream().allMatch(e -> e.get() instanceof Vertex);
@@ -109,6 +113,21 @@ public class JanusGraphPropertiesStep<E> extends PropertiesStep<E> implements Ha
         }
     }
 
+    /**
+     * Pulls further starts until the batch holds batchSize traversers. The pulled starts are put back
+     * so that they are still processed in their original order.
+     * @param batch The batch to fill
+     */
+    private void fillBatch(final List<Traverser.Admin<Element>> batch) {
+        final List<Traverser.Admin<Element>> pulled = new ArrayList<>();
+        while (batch.size() < batchSize && starts.hasNext()) {
+            final Traverser.Admin<Element> start = starts.next();
+            batch.add(start);
+            pulled.add(start);
+        }
+        starts.add(pulled.iterator());
+    }
+
     /**
      * This initialisation method is called the first time this instance is used and also when
      * an attempt to retrieve a vertex from the cached multiQuery results doesn't find an entry.
@@ -117,11 +136,13 @@ public class JanusGraphPropertiesStep<E> extends PropertiesStep<E> implements Ha
     private void initializeMultiQuery(final List<Traverser.Admin<Element>> vertices) {
         assert vertices.size() > 0;
         final JanusGraphMultiVertexQuery multiQuery = JanusGraphTraversalUtil.getTx(traversal).multiQuery();
-        vertices.forEach(v -> multiQuery.addVertex((Vertex)v.get()));
+        // later windows are not guaranteed to consist of vertices only
+        vertices.stream().filter(v -> v.get() instanceof Vertex).forEach(v -> multiQuery.addVertex((Vertex) v.get()));
         makeQuery(multiQuery);
 
         Map<JanusGraphVertex, Iterable<? extends JanusGraphProperty>> results = multiQuery.properties();
-        if (multiQueryResults == null) {
+        if (multiQueryResults == null || multiQueryResults.size() >= batchSize) {
+            // the traversers of previous windows have been processed, so their results can be dropped
             multiQueryResults = results;
         } else {
             multiQueryResults.putAll(results);
@@ -137,9 +158,12 @@ public class JanusGraphPropertiesStep<E> extends PropertiesStep<E> implements Ha
 
     @Override
     protected Iterator<E> flatMap(final Traverser.Admin<Element> traverser) {
-        if (useMultiQuery) { //it is guaranteed that all elements are vertices
+        if (useMultiQuery && traverser.get() instanceof Vertex) {
             if (multiQueryResults == null || !multiQueryResults.containsKey(traverser.get())) {
-                initializeMultiQuery(Collections.singletonList(traverser));
+                final List<Traverser.Admin<Element>> elements = new ArrayList<>();
+                elements.add(traverser);
+                fillBatch(elements);
+                initializeMultiQuery(elements);
             }
             return convertIterator(multiQueryResults.get(traverser.get()));
         } else if (traverser.get() instanceof JanusGraphVertex || traverser.get() instanceof WrappedVertex) {
@@ -47,7 +47,6 @@ import org.janusgraph.graphdb.tinkerpop.optimize.JanusGraphTraversalUtil;
 import org.janusgraph.graphdb.tinkerpop.profile.TP3ProfileWrapper;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -61,6 +60,7 @@ public class JanusGraphVertexStep<E extends Element> extends VertexStep<E> imple
 
     private boolean initialized = false;
     private boolean useMultiQuery = false;
+    private int batchSize = Integer.MAX_VALUE;
     private boolean batchPropertyPrefetching = false;
     private Map<JanusGraphVertex, Iterable<? extends JanusGraphElement>> multiQueryResults = null;
     private QueryProfiler queryProfiler = QueryProfiler.NO_OP;
@@ -79,6 +79,11 @@ public class JanusGraphVertexStep<E extends Element> extends VertexStep<E> imple
         this.useMultiQuery = useMultiQuery;
     }
 
+    @Override
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
     public void setBatchPropertyPrefetching(boolean batchPropertyPrefetching) {
         this.batchPropertyPrefetching = batchPropertyPrefetching;
     }
@@ -109,12 +114,26 @@ public class JanusGraphVertexStep<E extends Element> extends VertexStep<E> imple
                 throw FastNoSuchElementException.instance();
             }
             final List<Traverser.Admin<Vertex>> vertices = new ArrayList<>();
-            starts.forEachRemaining(vertices::add);
-            starts.add(vertices.iterator());
+            fillBatch(vertices);
             initializeMultiQuery(vertices);
         }
     }
 
+    /**
+     * Pulls further starts until the batch holds batchSize traversers. The pulled starts are put back
+     * so that they are still processed in their original order.
+     * @param batch The batch to fill
+     */
+    private void fillBatch(final List<Traverser.Admin<Vertex>> batch) {
+        final List<Traverser.Admin<Vertex>> pulled = new ArrayList<>();
+        while (batch.size() < batchSize && starts.hasNext()) {
+            final Traverser.Admin<Vertex> start = starts.next();
+            batch.add(start);
+            pulled.add(start);
+        }
+        starts.add(pulled.iterator());
+    }
+
     /**
      * This initialisation method is called the first time this instance is used and also when
      * an attempt to retrieve a vertex from the cached multiQuery results doesn't find an entry.
@@ -134,7 +153,8 @@ public class JanusGraphVertexStep<E extends Element> extends VertexStep<E> imple
         makeQuery(multiQuery);
 
         Map<JanusGraphVertex, Iterable<? extends JanusGraphElement>> results = (Vertex.class.isAssignableFrom(getReturnClass())) ? multiQuery.vertices() : multiQuery.edges();
-        if (multiQueryResults == null) {
+        if (multiQueryResults == null || multiQueryResults.size() >= batchSize) {
+            // the traversers of previous windows have been processed, so their results can be dropped
             multiQueryResults = results;
         } else {
             multiQueryResults.putAll(results);
@@ -186,7 +206,10 @@ public class JanusGraphVertexStep<E extends Element> extends VertexStep<E> imple
 
         if (useMultiQuery) {
             if (multiQueryResults == null || !multiQueryResults.containsKey(traverser.get())) {
-                initializeMultiQuery(Collections.singletonList(traverser));
+                final List<Traverser.Admin<Vertex>> vertices = new ArrayList<>();
+                vertices.add(traverser);
+                fillBatch(vertices);
+                initializeMultiQuery(vertices);
             }
             result = multiQueryResults.get(traverser.get());
         } else {
@@ -23,4 +23,9 @@ public interface MultiQueriable<S,E> extends Step<S,E> {
 
     void setUseMultiQuery(boolean useMultiQuery);
 
+    /**
+     * @param batchSize the maximum number of starts which are combined into a single multiQuery
+     */
+    void setBatchSize(int batchSize);
+
 }
@@ -64,6 +64,7 @@ public class JanusGraphLocalQueryOptimizerStrategy extends AbstractTraversalStra
 
         //If this is a compute graph then we can't apply local traversal optimisation at this stage.
         final boolean useMultiQuery = !TraversalHelper.onGraphComputer(traversal) && janusGraph.getConfiguration().useMultiQuery();
+        final int multiQueryBatchSize = janusGraph.getConfiguration().getMultiQueryBatchSize();
 
         /*
                 ====== MULTIQUERY COMPATIBLE STEPS ======
@@ -71,7 +72,7 @@ public class JanusGraphLocalQueryOptimizerStrategy extends AbstractTraversalStra
 
         if (useMultiQuery) {
             JanusGraphTraversalUtil.getMultiQueryCompatibleSteps(traversal).forEach(originalStep -> {
-                JanusGraphMultiQueryStep multiQueryStep = new JanusGraphMultiQueryStep(originalStep);
+                JanusGraphMultiQueryStep multiQueryStep = new JanusGraphMultiQueryStep(originalStep, multiQueryBatchSize);
                 TraversalHelper.insertBeforeStep(multiQueryStep, originalStep, originalStep.getTraversal());
             });
         }
@@ -99,6 +100,7 @@ public class JanusGraphLocalQueryOptimizerStrategy extends AbstractTraversalStra
 
             if (useMultiQuery) {
                 vertexStep.setUseMultiQuery(true);
+                vertexStep.setBatchSize(multiQueryBatchSize);
             }
 
             if (janusGraph.getConfiguration().batchPropertyPrefetching()) {
@@ -124,6 +126,7 @@ public class JanusGraphLocalQueryOptimizerStrategy extends AbstractTraversalStra
 
             if (useMultiQuery) {
                 propertiesStep.setUseMultiQuery(true);
+                propertiesStep.setBatchSize(multiQueryBatchSize);
             }
         });
 
@@ -146,7 +149,7 @@ public class JanusGraphLocalQueryOptimizerStrategy extends AbstractTraversalStra
                 HasStepFolder.foldInRange(vertexStep, JanusGraphTraversalUtil.getNextNonIdentityStep(vertexStep), localTraversal, null);
 
 
-                unfoldLocalTraversal(traversal,localStep,localTraversal,vertexStep,useMultiQuery);
+                unfoldLocalTraversal(traversal,localStep,localTraversal,vertexStep,useMultiQuery,multiQueryBatchSize);
             }
 
             if (localStart instanceof PropertiesStep) {
@@ -160,7 +163,7 @@ public class JanusGraphLocalQueryOptimizerStrategy extends AbstractTraversalStra
                 HasStepFolder.foldInRange(propertiesStep, JanusGraphTraversalUtil.getNextNonIdentityStep(propertiesStep), localTraversal, null);
 
 
-                unfoldLocalTraversal(traversal,localStep,localTraversal,propertiesStep,useMultiQuery);
+                unfoldLocalTraversal(traversal,localStep,localTraversal,propertiesStep,useMultiQuery,multiQueryBatchSize);
             }
 
         });
@@ -195,7 +198,8 @@ public class JanusGraphLocalQueryOptimizerStrategy extends AbstractTraversalStra
 
     private static void unfoldLocalTraversal(final Traversal.Admin<?, ?> traversal,
                                              LocalStep<?,?> localStep, Traversal.Admin localTraversal,
-                                             MultiQueriable vertexStep, boolean useMultiQuery) {
+                                             MultiQueriable vertexStep, boolean useMultiQuery,
+                                             int multiQueryBatchSize) {
         assert localTraversal.asAdmin().getSteps().size() > 0;
         if (localTraversal.asAdmin().getSteps().size() == 1) {
             //Can replace the entire localStep by the vertex step in the outer traversal
@@ -205,6 +209,7 @@ public class JanusGraphLocalQueryOptimizerStrategy extends AbstractTraversalStra
 
             if (useMultiQuery) {
                 vertexStep.setUseMultiQuery(true);
+                vertexStep.setBatchSize(multiQueryBatchSize);
             }
         }
     }
@@ -41,6 +41,10 @@ public class RelationConstructor {
         return tx.getEdgeSerializer().readRelation(data, false, tx);
     }
 
+    public static RelationCache readRelationCacheLazily(Entry data, StandardJanusGraphTx tx) {
+        return tx.getEdgeSerializer().readRelationLazily(data, tx);
+    }
+
     public static Iterable<JanusGraphRelation> readRelation(final InternalVertex vertex, final Iterable<Entry> data, final StandardJanusGraphTx tx) {
         return () -> new Iterator<JanusGraphRelation>() {
 
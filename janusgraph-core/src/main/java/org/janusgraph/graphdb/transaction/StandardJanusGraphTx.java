@@ -15,6 +15,7 @@
 package org.janusgraph.graphdb.transaction;
 
 import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.LongHashSet;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
@@ -104,7 +105,6 @@ import org.janusgraph.graphdb.transaction.lock.ReentrantTransactionLock;
 import org.janusgraph.graphdb.transaction.lock.TransactionLock;
 import org.janusgraph.graphdb.transaction.subquerycache.GuavaSubqueryCache;
 import org.janusgraph.graphdb.transaction.subquerycache.SubqueryCache;
-import org.janusgraph.graphdb.transaction.vertexcache.GuavaVertexCache;
 import org.janusgraph.graphdb.transaction.vertexcache.VertexCache;
 import org.janusgraph.graphdb.types.CompositeIndexType;
 import org.janusgraph.graphdb.types.StandardEdgeLabelMaker;
@@ -305,11 +305,11 @@ public class StandardJanusGraphTx extends JanusGraphBlueprintsTransaction implem
         long effectiveVertexCacheSize = config.getVertexCacheSize();
         if (!config.isReadOnly()) {
             effectiveVertexCacheSize = Math.max(MIN_VERTEX_CACHE_SIZE, effectiveVertexCacheSize);
-            log.debug("Guava vertex cache size: requested={} effective={} (min={})",
+            log.debug("Vertex cache size: requested={} effective={} (min={})",
                     config.getVertexCacheSize(), effectiveVertexCacheSize, MIN_VERTEX_CACHE_SIZE);
         }
 
-        vertexCache = new GuavaVertexCache(effectiveVertexCacheSize,concurrencyLevel,config.getDirtyVertexSize());
+        vertexCache = config.getVertexCacheType().create(effectiveVertexCacheSize,concurrencyLevel,config.getDirtyVertexSize());
 
         indexCache = new GuavaSubqueryCache(concurrencyLevel, config.getIndexCacheWeight());
 
@@ -533,7 +533,10 @@ public class StandardJanusGraphTx extends JanusGraphBlueprintsTransaction implem
                 //Take lifecycle from canonical representative
                 lifecycle = getExistingVertex(canonicalVertexId).getLifeCycle();
             }
+            return construct(vertexId, lifecycle);
+        }
 
+        private InternalVertex construct(long vertexId, byte lifecycle) {
             final InternalVertex vertex;
             if (idInspector.isRelationTypeId(vertexId)) {
                 if (idInspector.isPropertyKeyId(vertexId)) {
@@ -1422,8 +1425,14 @@ public class StandardJanusGraphTx extends JanusGraphBlueprintsTransaction implem
                 }
                 // Constructs an iterator which lazily streams results from 1st index, and filters by looking up in the intersection of results from all other indices (if any)
                 // NOTE NO_LIMIT is passed to processIntersectingRetrievals to prevent incomplete intersections, which could lead to missed results
-                iterator = new SubqueryIterator(indexQuery.getQuery(0), indexSerializer, txHandle, indexCache, indexQuery.getLimit(), getConversionFunction(query.getResultType()),
-                        retrievals.isEmpty() ? null: QueryUtil.processIntersectingRetrievals(retrievals, Query.NO_LIMIT));
+                final List<Object> otherResults = retrievals.isEmpty() ? null: QueryUtil.processIntersectingRetrievals(retrievals, Query.NO_LIMIT);
+                if (query.getResultType() == ElementCategory.VERTEX && hasVertexHydrationBlocks()) {
+                    iterator = new SubqueryIterator(indexQuery.getQuery(0), indexSerializer, txHandle, indexCache, indexQuery.getLimit(),
+                        graph.getConfiguration().getMultiQueryBatchSize(), StandardJanusGraphTx.this::convertVertexBlock, otherResults);
+                } else {
+                    iterator = new SubqueryIterator(indexQuery.getQuery(0), indexSerializer, txHandle, indexCache, indexQuery.getLimit(),
+                        getConversionFunction(query.getResultType()), otherResults);
+                }
             } else {
                 if (config.hasForceIndexUsage()) throw new JanusGraphException("Could not find a suitable index to answer graph query and graph scans are disabled: " + query);
                 log.warn("Query requires iterating over all vertices [{}]. For better performance, use indexes", query.getCondition());
@@ -1474,6 +1483,52 @@ public class StandardJanusGraphTx extends JanusGraphBlueprintsTransaction implem
         return getInternalVertex((Long) id);
     };
 
+    /**
+     * Whether vertices returned by index queries are converted in blocks, see {@link #convertVertexBlock(List)}.
+     */
+    private boolean hasVertexHydrationBlocks() {
+        return graph.getConfiguration().useMultiQuery()
+            && (internalVertexRetriever.hasVerifyExistence() || graph.getConfiguration().batchPropertyPrefetching());
+    }
+
+    /**
+     * Converts a block of vertex ids into vertices like {@link #vertexIDConversionFct}, but checks the existence of
+     * all vertices which are not yet in the vertex cache and pre-fetches the properties of all vertices (if
+     * batch property pre-fetching is enabled) with a single multi-query each, like {@link #getVertices(long...)}.
+     */
+    private List<JanusGraphElement> convertVertexBlock(List<Object> ids) {
+        if (internalVertexRetriever.hasVerifyExistence()) {
+            final LongHashSet uncachedIds = new LongHashSet(ids.size());
+            for (Object id : ids) {
+                Preconditions.checkNotNull(id);
+                Preconditions.checkArgument(id instanceof Long);
+                final long vertexId = (Long) id;
+                if (isValidVertexId(vertexId) && !idInspector.isPartitionedVertex(vertexId) && !vertexCache.contains(vertexId)) {
+                    uncachedIds.add(vertexId);
+                }
+            }
+            if (!uncachedIds.isEmpty()) {
+                final LongArrayList vertexIds = LongArrayList.from(uncachedIds.toArray());
+                final List<EntryList> existence = graph.edgeMultiQuery(vertexIds, graph.vertexExistenceQuery, txHandle);
+                for (int i = 0; i < vertexIds.size(); i++) {
+                    final byte lifecycle = existence.get(i).isEmpty() ? ElementLifeCycle.Removed : ElementLifeCycle.Loaded;
+                    vertexCache.get(vertexIds.get(i), vertexId -> existingVertexRetriever.construct(vertexId, lifecycle));
+                }
+            }
+        }
+        final List<JanusGraphElement> vertices = new ArrayList<>(ids.size());
+        final List<JanusGraphVertex> prefetch = graph.getConfiguration().batchPropertyPrefetching() ? new ArrayList<>(ids.size()) : null;
+        for (Object id : ids) {
+            final InternalVertex vertex = (InternalVertex) vertexIDConversionFct.apply(id);
+            vertices.add(vertex);
+            if (prefetch != null && !vertex.isNew() && !vertex.isRemoved()) prefetch.add(vertex);
+        }
+        if (prefetch != null && !prefetch.isEmpty()) {
+            multiQuery(prefetch).properties();
+        }
+        return vertices;
+    }
+
     private final Function<Object, JanusGraphEdge> edgeIDConversionFct = id -> {
         Preconditions.checkNotNull(id);
         Preconditions.checkArgument(id instanceof RelationIdentifier);
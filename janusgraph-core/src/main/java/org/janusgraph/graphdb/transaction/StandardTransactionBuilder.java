@@ -28,6 +28,7 @@ import org.janusgraph.diskstorage.util.StandardBaseTransactionConfig;
 import org.janusgraph.diskstorage.util.time.TimestampProvider;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
 import org.janusgraph.graphdb.database.StandardJanusGraph;
+import org.janusgraph.graphdb.transaction.vertexcache.VertexCacheType;
 
 import java.time.Instant;
 
@@ -69,6 +70,8 @@ public class StandardTransactionBuilder implements TransactionConfiguration, Tra
 
     private int vertexCacheSize;
 
+    private VertexCacheType vertexCacheType;
+
     private int dirtyVertexSize;
 
     private long indexCacheWeight;
@@ -108,6 +111,7 @@ public class StandardTransactionBuilder implements TransactionConfiguration, Tra
         this.writableCustomOptions = GraphDatabaseConfiguration.buildGraphConfiguration();
         this.customOptions = new MergedConfiguration(writableCustomOptions, graphConfig.getConfiguration());
         vertexCacheSize(graphConfig.getTxVertexCacheSize());
+        this.vertexCacheType = graphConfig.getTxVertexCacheType();
         dirtyVertexSize(graphConfig.getTxDirtyVertexSize());
     }
 
@@ -127,6 +131,7 @@ public class StandardTransactionBuilder implements TransactionConfiguration, Tra
         this.writableCustomOptions = null;
         this.customOptions = customOptions;
         vertexCacheSize(graphConfig.getTxVertexCacheSize());
+        this.vertexCacheType = graphConfig.getTxVertexCacheType();
         dirtyVertexSize(graphConfig.getTxDirtyVertexSize());
     }
 
@@ -176,6 +181,12 @@ public class StandardTransactionBuilder implements TransactionConfiguration, Tra
         return this;
     }
 
+    @Override
+    public StandardTransactionBuilder vertexCacheType(String type) {
+        this.vertexCacheType = VertexCacheType.parse(type);
+        return this;
+    }
+
     @Override
     public TransactionBuilder dirtyVertexSize(int size) {
         this.dirtyVertexSize = size;
@@ -251,7 +262,7 @@ public class StandardTransactionBuilder implements TransactionConfiguration, Tra
                 assignIDsImmediately, preloadedData, forceIndexUsage, verifyExternalVertexExistence,
                 verifyInternalVertexExistence, acquireLocks, verifyUniqueness,
                 propertyPrefetching, singleThreaded, threadBound, getTimestampProvider(), userCommitTime,
-                indexCacheWeight, getVertexCacheSize(), getDirtyVertexSize(),
+                indexCacheWeight, getVertexCacheSize(), getVertexCacheType(), getDirtyVertexSize(),
                 logIdentifier, restrictedPartitions, groupName,
                 defaultSchemaMaker, hasDisabledSchemaConstraints, customOptions);
         return graph.newTransaction(immutable);
@@ -334,6 +345,11 @@ public class StandardTransactionBuilder implements TransactionConfiguration, Tra
         return vertexCacheSize;
     }
 
+    @Override
+    public final VertexCacheType getVertexCacheType() {
+        return vertexCacheType;
+    }
+
     @Override
     public final int getDirtyVertexSize() {
         return dirtyVertexSize;
@@ -410,6 +426,7 @@ public class StandardTransactionBuilder implements TransactionConfiguration, Tra
         private final boolean isThreadBound;
         private final long indexCacheWeight;
         private final int vertexCacheSize;
+        private final VertexCacheType vertexCacheType;
         private final int dirtyVertexSize;
         private final String logIdentifier;
         private final int[] restrictedPartitions;
@@ -428,7 +445,8 @@ public class StandardTransactionBuilder implements TransactionConfiguration, Tra
                 boolean hasAcquireLocks, boolean hasVerifyUniqueness,
                 boolean hasPropertyPrefetching, boolean isSingleThreaded,
                 boolean isThreadBound, TimestampProvider times, Instant commitTime,
-                long indexCacheWeight, int vertexCacheSize, int dirtyVertexSize, String logIdentifier,
+                long indexCacheWeight, int vertexCacheSize, VertexCacheType vertexCacheType,
+                int dirtyVertexSize, String logIdentifier,
                 int[] restrictedPartitions,
                 String groupName,
                 DefaultSchemaMaker defaultSchemaMaker,
@@ -448,6 +466,7 @@ public class StandardTransactionBuilder implements TransactionConfiguration, Tra
             this.isThreadBound = isThreadBound;
             this.indexCacheWeight = indexCacheWeight;
             this.vertexCacheSize = vertexCacheSize;
+            this.vertexCacheType = vertexCacheType;
             this.dirtyVertexSize = dirtyVertexSize;
             this.logIdentifier = logIdentifier;
             this.restrictedPartitions=restrictedPartitions;
@@ -535,6 +554,11 @@ public class StandardTransactionBuilder implements TransactionConfiguration, Tra
             return vertexCacheSize;
         }
 
+        @Override
+        public VertexCacheType getVertexCacheType() {
+            return vertexCacheType;
+        }
+
         @Override
         public int getDirtyVertexSize() {
             return dirtyVertexSize;
@@ -16,6 +16,7 @@ package org.janusgraph.graphdb.transaction;
 
 import org.janusgraph.core.schema.DefaultSchemaMaker;
 import org.janusgraph.diskstorage.BaseTransactionConfig;
+import org.janusgraph.graphdb.transaction.vertexcache.VertexCacheType;
 
 /**
  * Provides configuration options for {@link org.janusgraph.core.JanusGraphTransaction}.
@@ -138,6 +139,13 @@ public interface TransactionConfiguration extends BaseTransactionConfig {
      */
     int getVertexCacheSize();
 
+    /**
+     * The implementation of the cache of recently-used vertices in this transaction.
+     *
+     * @return
+     */
+    VertexCacheType getVertexCacheType();
+
     /**
      * The initial size of the dirty (modified) vertex map used by a transaction.
      *
@@ -0,0 +1,259 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.transaction.vertexcache;
+
+import com.google.common.base.Preconditions;
+import org.cliffc.high_scale_lib.NonBlockingHashMapLong;
+import org.janusgraph.graphdb.internal.InternalVertex;
+import org.janusgraph.graphdb.vertices.AbstractVertex;
+import org.janusgraph.util.datastructures.Retriever;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link VertexCache} which keys the cached vertices by their primitive ids and evicts them with the CLOCK policy.
+ * <p>
+ * The cached vertices are held in parallel arrays of ids, vertices and reference bits, which grow up to the maximum
+ * cache size. An open addressing table with linear probing maps the vertex ids to their positions in these arrays.
+ * Once the cache is full, the clock hand sweeps over the positions, clearing the reference bits of vertices which
+ * were accessed since the last sweep and evicting the first vertex which was not.
+ * <p>
+ * Like {@link GuavaVertexCache}, modified vertices which get evicted while the transaction is open are retained in
+ * the map of volatile vertices.
+ */
+public class ClockVertexCache implements VertexCache {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(ClockVertexCache.class);
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 29;
+
+    private final NonBlockingHashMapLong<InternalVertex> volatileVertices;
+    private final int maxSize;
+
+    private long[] ids;
+    private InternalVertex[] vertices;
+    private boolean[] referenced;
+    private int size;
+    private int hand;
+
+    /**
+     * Positions of the cached vertices plus one, indexed by the hash of their id. Zero marks an empty bucket.
+     */
+    private int[] buckets;
+    private int shift;
+
+    public ClockVertexCache(final long maxCacheSize, final int initialDirtySize) {
+        Preconditions.checkArgument(maxCacheSize >= 0, "Invalid cache size: %s", maxCacheSize);
+        volatileVertices = new NonBlockingHashMapLong<>(initialDirtySize);
+        log.debug("Created dirty vertex map with initial size {}", initialDirtySize);
+
+        maxSize = (int) Math.min(maxCacheSize, MAX_CAPACITY);
+        allocate(Math.min(INITIAL_CAPACITY, maxSize));
+        log.debug("Created vertex cache with max size {}", maxSize);
+    }
+
+    @Override
+    public boolean contains(long id) {
+        synchronized (this) {
+            if (find(id) >= 0) return true;
+        }
+        return volatileVertices.containsKey(id);
+    }
+
+    @Override
+    public InternalVertex get(final long id, final Retriever<Long, InternalVertex> retriever) {
+        synchronized (this) {
+            final int pos = find(id);
+            if (pos >= 0) {
+                referenced[pos] = true;
+                return vertices[pos];
+            }
+        }
+
+        InternalVertex newVertex = volatileVertices.get(id);
+        if (newVertex == null) {
+            newVertex = retriever.get(id);
+        }
+        assert newVertex != null;
+
+        synchronized (this) {
+            // Another thread may have cached the vertex while it was retrieved
+            final int pos = find(id);
+            if (pos >= 0) {
+                referenced[pos] = true;
+                return vertices[pos];
+            }
+            insert(id, newVertex);
+        }
+        return newVertex;
+    }
+
+    @Override
+    public void add(InternalVertex vertex, long id) {
+        Preconditions.checkNotNull(vertex);
+        Preconditions.checkArgument(id != 0);
+
+        synchronized (this) {
+            final int pos = find(id);
+            if (pos >= 0) {
+                final InternalVertex replaced = vertices[pos];
+                vertices[pos] = vertex;
+                referenced[pos] = true;
+                retainIfModified(id, replaced);
+            } else {
+                insert(id, vertex);
+            }
+        }
+        if (vertex.isNew() || vertex.hasAddedRelations())
+            volatileVertices.put(id, vertex);
+    }
+
+    @Override
+    public List<InternalVertex> getAllNew() {
+        final List<InternalVertex> vertices = new ArrayList<>(10);
+        for (InternalVertex v : volatileVertices.values()) {
+            if (v.isNew()) vertices.add(v);
+        }
+        return vertices;
+    }
+
+    @Override
+    public synchronized void close() {
+        volatileVertices.clear();
+        allocate(0);
+    }
+
+    /**
+     * Returns the number of vertices held in the cache, not counting the volatile vertices which were evicted.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private void retainIfModified(long id, InternalVertex vertex) {
+        if (((AbstractVertex) vertex).isTxOpen() && (vertex.isModified() || vertex.isRemoved())) {
+            volatileVertices.putIfAbsent(id, vertex);
+        }
+    }
+
+    private void allocate(int capacity) {
+        ids = new long[capacity];
+        vertices = new InternalVertex[capacity];
+        referenced = new boolean[capacity];
+        size = 0;
+        hand = 0;
+        buckets = new int[bucketsFor(capacity)];
+        shift = Long.SIZE - Integer.numberOfTrailingZeros(buckets.length);
+    }
+
+    private static int bucketsFor(int capacity) {
+        // Keep the load factor of the buckets at or below 1/2
+        return Math.max(2, Integer.highestOneBit(Math.max(1, capacity) - 1) << 2);
+    }
+
+    private int bucket(long id) {
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    private int find(long id) {
+        final int mask = buckets.length - 1;
+        for (int b = bucket(id); ; b = (b + 1) & mask) {
+            final int pos = buckets[b] - 1;
+            if (pos < 0 || ids[pos] == id) return pos;
+        }
+    }
+
+    private void insert(long id, InternalVertex vertex) {
+        if (maxSize == 0) return;
+        final int pos;
+        if (size < ids.length) {
+            pos = size++;
+        } else if (size < maxSize) {
+            grow();
+            pos = size++;
+        } else {
+            pos = evict();
+        }
+        ids[pos] = id;
+        vertices[pos] = vertex;
+        referenced[pos] = false;
+        link(id, pos);
+    }
+
+    private void link(long id, int pos) {
+        final int mask = buckets.length - 1;
+        int b = bucket(id);
+        while (buckets[b] != 0) b = (b + 1) & mask;
+        buckets[b] = pos + 1;
+    }
+
+    /**
+     * Advances the clock hand to the first vertex which was not referenced since the last sweep, removes that vertex
+     * from the cache and returns its position.
+     */
+    private int evict() {
+        while (true) {
+            final int pos = hand;
+            hand = pos + 1 == size ? 0 : pos + 1;
+            if (referenced[pos]) {
+                referenced[pos] = false;
+            } else {
+                unlink(ids[pos]);
+                final InternalVertex evicted = vertices[pos];
+                vertices[pos] = null;
+                retainIfModified(ids[pos], evicted);
+                return pos;
+            }
+        }
+    }
+
+    /**
+     * Removes the given id from the buckets, shifting back the following ids of the probe sequence so that
+     * no empty bucket separates them from their home bucket.
+     */
+    private void unlink(long id) {
+        final int mask = buckets.length - 1;
+        int hole = bucket(id);
+        while (ids[buckets[hole] - 1] != id) hole = (hole + 1) & mask;
+        for (int b = (hole + 1) & mask; buckets[b] != 0; b = (b + 1) & mask) {
+            final int home = bucket(ids[buckets[b] - 1]);
+            final boolean reachable = hole <= b ? hole < home && home <= b : hole < home || home <= b;
+            if (!reachable) {
+                buckets[hole] = buckets[b];
+                hole = b;
+            }
+        }
+        buckets[hole] = 0;
+    }
+
+    private void grow() {
+        final int capacity = (int) Math.min(Math.max((long) ids.length * 2, INITIAL_CAPACITY), maxSize);
+        ids = Arrays.copyOf(ids, capacity);
+        vertices = Arrays.copyOf(vertices, capacity);
+        referenced = Arrays.copyOf(referenced, capacity);
+        final int bucketCount = bucketsFor(capacity);
+        if (bucketCount > buckets.length) {
+            buckets = new int[bucketCount];
+            shift = Long.SIZE - Integer.numberOfTrailingZeros(bucketCount);
+            for (int pos = 0; pos < size; pos++) link(ids[pos], pos);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.transaction.vertexcache;
+
+import java.util.Locale;
+
+/**
+ * The {@link VertexCache} implementations a transaction can use for its recently-used vertices.
+ */
+public enum VertexCacheType {
+
+    /**
+     * {@link GuavaVertexCache}, which evicts the least recently used vertices.
+     */
+    GUAVA {
+        @Override
+        public VertexCache create(long maxCacheSize, int concurrencyLevel, int initialDirtySize) {
+            return new GuavaVertexCache(maxCacheSize, concurrencyLevel, initialDirtySize);
+        }
+    },
+
+    /**
+     * {@link ClockVertexCache}, which keys the vertices by primitive ids and approximates LRU with the CLOCK policy.
+     */
+    CLOCK {
+        @Override
+        public VertexCache create(long maxCacheSize, int concurrencyLevel, int initialDirtySize) {
+            return new ClockVertexCache(maxCacheSize, initialDirtySize);
+        }
+    };
+
+    public abstract VertexCache create(long maxCacheSize, int concurrencyLevel, int initialDirtySize);
+
+    /**
+     * Returns the name of this type in configuration files.
+     */
+    public String getConfigName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static boolean isValid(String configName) {
+        for (VertexCacheType type : values()) {
+            if (type.getConfigName().equals(configName)) return true;
+        }
+        return false;
+    }
+
+    public static VertexCacheType parse(String configName) {
+        for (VertexCacheType type : values()) {
+            if (type.getConfigName().equals(configName)) return type;
+        }
+        throw new IllegalArgumentException("Unknown vertex cache type: " + configName);
+    }
+}
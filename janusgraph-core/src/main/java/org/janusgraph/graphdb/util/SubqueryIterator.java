@@ -17,6 +17,9 @@
 
 package org.janusgraph.graphdb.util;
 
+import com.google.common.base.Preconditions;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
 import org.janusgraph.core.JanusGraphElement;
 import org.janusgraph.core.JanusGraphException;
 import org.janusgraph.diskstorage.BackendTransaction;
@@ -36,11 +39,14 @@ import java.util.stream.Stream;
  */
 public class SubqueryIterator extends CloseableAbstractIterator<JanusGraphElement> {
 
+    public static final int INITIAL_BLOCK_SIZE = 10;
+    public static final int MAX_BLOCK_SIZE = 1000;
+
     private final JointIndexQuery.Subquery subQuery;
 
     private final SubqueryCache indexCache;
 
-    private Iterator<? extends JanusGraphElement> elementIterator;
+    private final Iterator<? extends JanusGraphElement> elementIterator;
 
     private List<Object> currentIds;
 
@@ -51,10 +57,46 @@ public class SubqueryIterator extends CloseableAbstractIterator<JanusGraphElemen
     public SubqueryIterator(JointIndexQuery.Subquery subQuery, IndexSerializer indexSerializer, BackendTransaction tx,
                             SubqueryCache indexCache, int limit,
                             Function<Object, ? extends JanusGraphElement> function, List<Object> otherResults) {
+        final Stream<Object> results = getResults(subQuery, indexSerializer, tx, indexCache, limit, otherResults);
         this.subQuery = subQuery;
         this.indexCache = indexCache;
+        elementIterator = results.map(function).map(r -> (JanusGraphElement) r).iterator();
+    }
+
+    /**
+     * Converts the results of the subquery in blocks so that the elements of a block can be retrieved from the
+     * storage backend together. The first block holds {@link #INITIAL_BLOCK_SIZE} results and every further block
+     * doubles in size up to {@code maxBlockSize} (at most {@link #MAX_BLOCK_SIZE}), so that consumers which only
+     * need the first few results do not pay for the retrieval of large blocks.
+     */
+    public SubqueryIterator(JointIndexQuery.Subquery subQuery, IndexSerializer indexSerializer, BackendTransaction tx,
+                            SubqueryCache indexCache, int limit, int maxBlockSize,
+                            Function<List<Object>, List<JanusGraphElement>> blockFunction, List<Object> otherResults) {
+        Preconditions.checkArgument(maxBlockSize > 0, "Invalid block size: %s", maxBlockSize);
+        final Stream<Object> results = getResults(subQuery, indexSerializer, tx, indexCache, limit, otherResults);
+        this.subQuery = subQuery;
+        this.indexCache = indexCache;
+        final Iterator<Object> ids = results.iterator();
+        final int blockSizeLimit = Math.min(maxBlockSize, MAX_BLOCK_SIZE);
+        elementIterator = Iterators.concat(new AbstractIterator<Iterator<JanusGraphElement>>() {
+
+            private int blockSize = Math.min(INITIAL_BLOCK_SIZE, blockSizeLimit);
+
+            @Override
+            protected Iterator<JanusGraphElement> computeNext() {
+                if (!ids.hasNext()) return endOfData();
+                final List<Object> block = new ArrayList<>(blockSize);
+                while (ids.hasNext() && block.size() < blockSize) block.add(ids.next());
+                blockSize = Math.min(blockSize * 2, blockSizeLimit);
+                return blockFunction.apply(block).iterator();
+            }
+        });
+    }
+
+    private Stream<Object> getResults(JointIndexQuery.Subquery subQuery, IndexSerializer indexSerializer, BackendTransaction tx,
+                                 SubqueryCache indexCache, int limit, List<Object> otherResults) {
         final List<Object> cacheResponse = indexCache.getIfPresent(subQuery);
-        final Stream<?> stream;
+        final Stream<Object> stream;
         if (cacheResponse != null) {
             stream = cacheResponse.stream();
         } else {
@@ -67,7 +109,7 @@ public class SubqueryIterator extends CloseableAbstractIterator<JanusGraphElemen
                 throw new JanusGraphException("Could not call index", e);
             }
         }
-        elementIterator = stream.filter(e -> otherResults == null || otherResults.contains(e)).limit(limit).map(function).map(r -> (JanusGraphElement) r).iterator();
+        return stream.filter(e -> otherResults == null || otherResults.contains(e)).limit(limit);
     }
 
     @Override
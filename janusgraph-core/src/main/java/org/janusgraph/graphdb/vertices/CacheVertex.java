@@ -19,7 +19,6 @@ import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
 import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
 import org.janusgraph.util.datastructures.Retriever;
 
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -27,34 +26,25 @@ import java.util.Map;
  */
 
 public class CacheVertex extends StandardVertex {
-    // We don't try to be smart and match with previous queries
-    // because that would waste more cycles on lookup than save actual memory
-    // We use a normal map with synchronization since the likelihood of contention
-    // is super low in a single transaction
-    protected final Map<SliceQuery, EntryList> queryCache;
+
+    protected final SliceQueryCache queryCache;
 
     public CacheVertex(StandardJanusGraphTx tx, long id, byte lifecycle) {
         super(tx, id, lifecycle);
-        queryCache = new HashMap<>(4);
+        queryCache = new SliceQueryCache();
     }
 
     public void refresh() {
-        synchronized (queryCache) {
-            queryCache.clear();
-        }
+        queryCache.clear();
     }
 
     protected void addToQueryCache(final SliceQuery query, final EntryList entries) {
-        synchronized (queryCache) {
-            //TODO: become smarter about what to cache and when (e.g. memory pressure)
-            queryCache.put(query, entries);
-        }
+        //TODO: become smarter about what to cache and when (e.g. memory pressure)
+        queryCache.put(query, entries);
     }
 
     protected int getQueryCacheSize() {
-        synchronized (queryCache) {
-            return queryCache.size();
-        }
+        return queryCache.size();
     }
 
     @Override
@@ -62,13 +52,10 @@ public class CacheVertex extends StandardVertex {
         if (isNew())
             return EntryList.EMPTY_LIST;
 
-        EntryList result;
-        synchronized (queryCache) {
-            result = queryCache.get(query);
-        }
+        EntryList result = queryCache.get(query);
         if (result == null) {
             //First check for super
-            Map.Entry<SliceQuery, EntryList> superset = getSuperResultSet(query);
+            Map.Entry<SliceQuery, EntryList> superset = queryCache.getSuperResultSet(query);
             if (superset == null || superset.getValue() == null) {
                 result = lookup.get(query);
             } else {
@@ -82,21 +69,7 @@ public class CacheVertex extends StandardVertex {
 
     @Override
     public boolean hasLoadedRelations(final SliceQuery query) {
-        synchronized (queryCache) {
-            return queryCache.get(query) != null || getSuperResultSet(query) != null;
-        }
-    }
-
-    private Map.Entry<SliceQuery, EntryList> getSuperResultSet(final SliceQuery query) {
-
-        synchronized (queryCache) {
-            if (queryCache.size() > 0) {
-                for (Map.Entry<SliceQuery, EntryList> entry : queryCache.entrySet()) {
-                    if (entry.getKey().subsumes(query)) return entry;
-                }
-            }
-        }
-        return null;
+        return queryCache.get(query) != null || queryCache.getSuperResultSet(query) != null;
     }
 
 }
@@ -0,0 +1,117 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.vertices;
+
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Results of the slice queries of a {@link CacheVertex}.
+ * <p>
+ * Besides looking up the result of a query, the cache finds the result of a cached query which subsumes a given query
+ * in logarithmic time. To that end, it indexes the cached queries which are not subsumed by another cached query:
+ * <ul>
+ *     <li>Queries without limit are indexed by their slice start. Since none of their slices contains another one,
+ *     their slice ends increase with their slice starts, so the query with the greatest slice start not after the
+ *     start of a given slice has the greatest slice end among all queries which could contain that slice.</li>
+ *     <li>Queries with limit only subsume queries with the same slice start. Hence, they are grouped by slice start
+ *     and indexed by slice end, so that their limits decrease with their slice ends.</li>
+ * </ul>
+ * Reads do not block. Writes are synchronized, but readers may not find a subsuming query while a write updates
+ * the index, in which case the query is answered by the storage backend.
+ */
+public class SliceQueryCache {
+
+    private final Map<SliceQuery, EntryList> results = new ConcurrentHashMap<>(4);
+
+    private volatile ConcurrentSkipListMap<StaticBuffer, SliceQuery> unlimitedQueries;
+    private volatile Map<StaticBuffer, ConcurrentSkipListMap<StaticBuffer, SliceQuery>> limitedQueries;
+
+    public EntryList get(SliceQuery query) {
+        return results.get(query);
+    }
+
+    /**
+     * Returns a cached query which subsumes the given one together with its result, or null if there is none.
+     */
+    public Map.Entry<SliceQuery, EntryList> getSuperResultSet(SliceQuery query) {
+        if (results.isEmpty()) return null;
+        SliceQuery superQuery = null;
+        final ConcurrentSkipListMap<StaticBuffer, SliceQuery> unlimited = unlimitedQueries;
+        if (unlimited != null) {
+            final Map.Entry<StaticBuffer, SliceQuery> floor = unlimited.floorEntry(query.getSliceStart());
+            if (floor != null && floor.getValue().subsumes(query)) superQuery = floor.getValue();
+        }
+        final Map<StaticBuffer, ConcurrentSkipListMap<StaticBuffer, SliceQuery>> limited = limitedQueries;
+        if (superQuery == null && limited != null && query.hasLimit()) {
+            final ConcurrentSkipListMap<StaticBuffer, SliceQuery> sameStart = limited.get(query.getSliceStart());
+            final Map.Entry<StaticBuffer, SliceQuery> ceiling = sameStart == null ? null : sameStart.ceilingEntry(query.getSliceEnd());
+            if (ceiling != null && ceiling.getValue().subsumes(query)) superQuery = ceiling.getValue();
+        }
+        if (superQuery == null) return null;
+        final EntryList result = results.get(superQuery);
+        return result == null ? null : new AbstractMap.SimpleImmutableEntry<>(superQuery, result);
+    }
+
+    public synchronized void put(SliceQuery query, EntryList result) {
+        if (result == null) return;
+        results.put(query, result);
+        if (query.hasLimit()) indexLimited(query);
+        else indexUnlimited(query);
+    }
+
+    public int size() {
+        return results.size();
+    }
+
+    public synchronized void clear() {
+        results.clear();
+        unlimitedQueries = null;
+        limitedQueries = null;
+    }
+
+    private void indexUnlimited(SliceQuery query) {
+        if (unlimitedQueries == null) unlimitedQueries = new ConcurrentSkipListMap<>();
+        final Map.Entry<StaticBuffer, SliceQuery> floor = unlimitedQueries.floorEntry(query.getSliceStart());
+        if (floor != null && floor.getValue().getSliceEnd().compareTo(query.getSliceEnd()) >= 0) return;
+        unlimitedQueries.put(query.getSliceStart(), query);
+        // Remove the queries whose slices are contained in the new one
+        final Iterator<SliceQuery> following = unlimitedQueries.tailMap(query.getSliceStart(), false).values().iterator();
+        while (following.hasNext() && following.next().getSliceEnd().compareTo(query.getSliceEnd()) <= 0) {
+            following.remove();
+        }
+    }
+
+    private void indexLimited(SliceQuery query) {
+        if (limitedQueries == null) limitedQueries = new ConcurrentHashMap<>(4);
+        final ConcurrentSkipListMap<StaticBuffer, SliceQuery> sameStart =
+            limitedQueries.computeIfAbsent(query.getSliceStart(), start -> new ConcurrentSkipListMap<>());
+        final Map.Entry<StaticBuffer, SliceQuery> ceiling = sameStart.ceilingEntry(query.getSliceEnd());
+        if (ceiling != null && ceiling.getValue().getLimit() >= query.getLimit()) return;
+        sameStart.put(query.getSliceEnd(), query);
+        // Remove the queries with a smaller slice and limit than the new one
+        final Iterator<SliceQuery> preceding = sameStart.headMap(query.getSliceEnd(), false).descendingMap().values().iterator();
+        while (preceding.hasNext() && preceding.next().getLimit() <= query.getLimit()) {
+            preceding.remove();
+        }
+    }
+}
@@ -186,6 +186,14 @@ public interface CQLConfigOptions {
             ConfigOption.Type.FIXED,
             1024);
 
+    ConfigOption<Integer> MULTI_QUERY_MAX_IN_FLIGHT = new ConfigOption<>(
+            CQL_NS,
+            "multi-query-max-in-flight",
+            "The maximum number of asynchronous slice queries this JanusGraph instance keeps in flight " +
+            "when executing multi-key queries. Further queries are issued as soon as earlier ones complete.",
+            ConfigOption.Type.MASKABLE,
+            256);
+
     ConfigOption<Long> HEARTBEAT_INTERVAL = new ConfigOption<>(
         CQL_NS,
         "heartbeat-interval",
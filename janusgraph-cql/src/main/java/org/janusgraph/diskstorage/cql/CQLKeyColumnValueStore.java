@@ -24,6 +24,8 @@ import com.datastax.oss.driver.api.core.cql.PreparedStatement;
 import com.datastax.oss.driver.api.core.cql.ResultSet;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.metadata.TokenMap;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
 import com.datastax.oss.driver.api.core.servererrors.QueryValidationException;
 import com.datastax.oss.driver.api.core.type.DataTypes;
 import com.datastax.oss.driver.api.querybuilder.relation.Relation;
@@ -32,6 +34,7 @@ import com.datastax.oss.driver.api.querybuilder.schema.compaction.CompactionStra
 import com.datastax.oss.driver.api.querybuilder.select.Select;
 import com.datastax.oss.driver.internal.core.cql.ResultSets;
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
+import com.google.common.base.Preconditions;
 import io.vavr.Tuple;
 import io.vavr.Tuple3;
 import io.vavr.collection.Array;
@@ -49,22 +52,31 @@ import org.janusgraph.diskstorage.configuration.Configuration;
 import org.janusgraph.diskstorage.keycolumnvalue.KCVMutation;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyIterator;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyRange;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyRangeQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.KeySlicesIterator;
 import org.janusgraph.diskstorage.keycolumnvalue.MultiSlicesQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.util.BufferUtil;
 import org.janusgraph.diskstorage.util.RecordIterator;
 import org.janusgraph.diskstorage.util.StaticArrayBuffer;
 import org.janusgraph.diskstorage.util.StaticArrayEntry.GetColVal;
 import org.janusgraph.diskstorage.util.StaticArrayEntryList;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.function.Function;
 
 import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.bindMarker;
@@ -129,6 +141,9 @@ public class CQLKeyColumnValueStore implements KeyColumnValueStore {
     private final PreparedStatement getSlice;
     private final PreparedStatement getKeysAll;
     private final PreparedStatement getKeysRanged;
+    private final PreparedStatement getKeysTokenRange;
+    private final PreparedStatement getKeysTokenRangeFrom;
+    private final PreparedStatement getKeysTokenRangeTo;
     private final PreparedStatement deleteColumn;
     private final PreparedStatement insertColumn;
     private final PreparedStatement insertColumnWithTTL;
@@ -178,6 +193,39 @@ public class CQLKeyColumnValueStore implements KeyColumnValueStore {
             .whereColumn(COLUMN_COLUMN_NAME).isLessThanOrEqualTo(bindMarker(SLICE_END_BINDING));
         this.getKeysRanged = this.session.prepare(addTTLFunction(addTimestampFunction(getKeysRangedSelect)).build());
 
+        final Select getKeysTokenRangeSelect = selectFrom(this.storeManager.getKeyspaceName(), this.tableName)
+            .column(KEY_COLUMN_NAME)
+            .column(COLUMN_COLUMN_NAME)
+            .column(VALUE_COLUMN_NAME)
+            .allowFiltering()
+            .where(
+                Relation.token(KEY_COLUMN_NAME).isGreaterThan(bindMarker(KEY_START_BINDING)),
+                Relation.token(KEY_COLUMN_NAME).isLessThanOrEqualTo(bindMarker(KEY_END_BINDING))
+            )
+            .whereColumn(COLUMN_COLUMN_NAME).isGreaterThanOrEqualTo(bindMarker(SLICE_START_BINDING))
+            .whereColumn(COLUMN_COLUMN_NAME).isLessThanOrEqualTo(bindMarker(SLICE_END_BINDING));
+        this.getKeysTokenRange = this.session.prepare(addTTLFunction(addTimestampFunction(getKeysTokenRangeSelect)).build());
+
+        final Select getKeysTokenRangeFromSelect = selectFrom(this.storeManager.getKeyspaceName(), this.tableName)
+            .column(KEY_COLUMN_NAME)
+            .column(COLUMN_COLUMN_NAME)
+            .column(VALUE_COLUMN_NAME)
+            .allowFiltering()
+            .where(Relation.token(KEY_COLUMN_NAME).isGreaterThan(bindMarker(KEY_START_BINDING)))
+            .whereColumn(COLUMN_COLUMN_NAME).isGreaterThanOrEqualTo(bindMarker(SLICE_START_BINDING))
+            .whereColumn(COLUMN_COLUMN_NAME).isLessThanOrEqualTo(bindMarker(SLICE_END_BINDING));
+        this.getKeysTokenRangeFrom = this.session.prepare(addTTLFunction(addTimestampFunction(getKeysTokenRangeFromSelect)).build());
+
+        final Select getKeysTokenRangeToSelect = selectFrom(this.storeManager.getKeyspaceName(), this.tableName)
+            .column(KEY_COLUMN_NAME)
+            .column(COLUMN_COLUMN_NAME)
+            .column(VALUE_COLUMN_NAME)
+            .allowFiltering()
+            .where(Relation.token(KEY_COLUMN_NAME).isLessThanOrEqualTo(bindMarker(KEY_END_BINDING)))
+            .whereColumn(COLUMN_COLUMN_NAME).isGreaterThanOrEqualTo(bindMarker(SLICE_START_BINDING))
+            .whereColumn(COLUMN_COLUMN_NAME).isLessThanOrEqualTo(bindMarker(SLICE_END_BINDING));
+        this.getKeysTokenRangeTo = this.session.prepare(addTTLFunction(addTimestampFunction(getKeysTokenRangeToSelect)).build());
+
         final Select getKeysAllSelect = selectFrom(this.storeManager.getKeyspaceName(), this.tableName)
             .column(KEY_COLUMN_NAME)
             .column(COLUMN_COLUMN_NAME)
@@ -316,21 +364,60 @@ public class CQLKeyColumnValueStore implements KeyColumnValueStore {
     public EntryList getSlice(final KeySliceQuery query, final StoreTransaction txh) throws BackendException {
         final Future<EntryList> result = Future.fromJavaFuture(
                 this.executorService,
-                this.session.executeAsync(this.getSlice.boundStatementBuilder()
-                        .setByteBuffer(KEY_BINDING, query.getKey().asByteBuffer())
-                        .setByteBuffer(SLICE_START_BINDING, query.getSliceStart().asByteBuffer())
-                        .setByteBuffer(SLICE_END_BINDING, query.getSliceEnd().asByteBuffer())
-                        .setInt(LIMIT_BINDING, query.getLimit())
-                        .setConsistencyLevel(getTransaction(txh).getReadConsistencyLevel()).build())
-                        .toCompletableFuture())
+                this.session.executeAsync(buildSliceStatement(query.getKey(), query, txh)).toCompletableFuture())
                 .map(resultSet -> fromResultSet(resultSet, this.getter));
         interruptibleWait(result);
         return result.getValue().get().getOrElseThrow(EXCEPTION_MAPPER);
     }
 
+    /**
+     * Executes the slice query for all given keys as asynchronous CQL requests. At most
+     * {@link CQLConfigOptions#MULTI_QUERY_MAX_IN_FLIGHT} requests are in flight at any time (shared by all stores of
+     * the {@link CQLStoreManager}), further requests are issued as soon as earlier ones complete. The results are
+     * assembled by the calling thread, so no executor thread is blocked per key.
+     */
     @Override
     public Map<StaticBuffer, EntryList> getSlice(final List<StaticBuffer> keys, final SliceQuery query, final StoreTransaction txh) throws BackendException {
-        throw new UnsupportedOperationException("The CQL backend does not support multi-key queries");
+        final Semaphore permits = this.storeManager.getMultiQueryPermits();
+        final List<CompletableFuture<AsyncResultSet>> futures = new ArrayList<>(keys.size());
+        try {
+            for (final StaticBuffer key : keys) {
+                permits.acquire();
+                final CompletableFuture<AsyncResultSet> future;
+                try {
+                    future = this.session.executeAsync(buildSliceStatement(key, query, txh)).toCompletableFuture();
+                } catch (RuntimeException e) {
+                    permits.release();
+                    throw e;
+                }
+                future.whenComplete((resultSet, throwable) -> permits.release());
+                futures.add(future);
+            }
+            final Map<StaticBuffer, EntryList> result = new HashMap<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                result.put(keys.get(i), fromResultSet(futures.get(i).get(), this.getter));
+            }
+            return result;
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new PermanentBackendException(e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw EXCEPTION_MAPPER.apply(e.getCause());
+        } catch (RuntimeException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw EXCEPTION_MAPPER.apply(e);
+        }
+    }
+
+    private BoundStatement buildSliceStatement(final StaticBuffer key, final SliceQuery query, final StoreTransaction txh) {
+        return this.getSlice.boundStatementBuilder()
+            .setByteBuffer(KEY_BINDING, key.asByteBuffer())
+            .setByteBuffer(SLICE_START_BINDING, query.getSliceStart().asByteBuffer())
+            .setByteBuffer(SLICE_END_BINDING, query.getSliceEnd().asByteBuffer())
+            .setInt(LIMIT_BINDING, query.getLimit())
+            .setConsistencyLevel(getTransaction(txh).getReadConsistencyLevel()).build();
     }
 
     /**
@@ -469,6 +556,82 @@ public class CQLKeyColumnValueStore implements KeyColumnValueStore {
                 .getOrElseThrow(EXCEPTION_MAPPER);
     }
 
+    /**
+     * Splits the token ring into the token ranges of the driver's token map. If the ring has fewer token ranges than
+     * requested, each token range is split evenly. Only supported for random partitioners, the token bounds of a range
+     * are encoded as the formatted token strings. An empty bound denotes the end of the ring.
+     */
+    @Override
+    public List<KeyRange> getScanPartitions(final int numPartitions, final StoreTransaction txh) {
+        if (this.storeManager.getFeatures().hasOrderedScan() || !this.session.getMetadata().getTokenMap().isPresent()) {
+            return Collections.emptyList();
+        }
+
+        final TokenMap tokenMap = this.session.getMetadata().getTokenMap().get();
+        final Set<TokenRange> ring = tokenMap.getTokenRanges();
+        final int splitsPerRange = Math.max(1, (numPartitions + ring.size() - 1) / ring.size());
+        final List<KeyRange> partitions = new ArrayList<>(ring.size() * splitsPerRange);
+        for (final TokenRange tokenRange : ring) {
+            final List<TokenRange> splits = splitsPerRange > 1 ? tokenRange.splitEvenly(splitsPerRange) : Collections.singletonList(tokenRange);
+            for (final TokenRange split : splits) {
+                for (final TokenRange range : split.unwrap()) {
+                    final int order = range.getStart().compareTo(range.getEnd());
+                    if (order < 0) {
+                        partitions.add(toKeyRange(tokenMap, range.getStart(), range.getEnd()));
+                    } else {
+                        // (start, minToken] after unwrapping, or the full ring (token, token] of a single token cluster
+                        partitions.add(toKeyRange(tokenMap, range.getStart(), null));
+                        if (order == 0) partitions.add(toKeyRange(tokenMap, null, range.getEnd()));
+                    }
+                }
+            }
+        }
+        return partitions;
+    }
+
+    private static KeyRange toKeyRange(final TokenMap tokenMap, final Token start, final Token end) {
+        return new KeyRange(toTokenBuffer(tokenMap, start), toTokenBuffer(tokenMap, end));
+    }
+
+    private static StaticBuffer toTokenBuffer(final TokenMap tokenMap, final Token token) {
+        return token == null
+            ? BufferUtil.emptyBuffer()
+            : StaticArrayBuffer.of(tokenMap.format(token).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Token toToken(final TokenMap tokenMap, final StaticBuffer tokenBuffer) {
+        return tokenMap.parse(new String(tokenBuffer.as(StaticBuffer.ARRAY_FACTORY), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public KeyIterator getKeys(final SliceQuery query, final KeyRange partition, final StoreTransaction txh) throws BackendException {
+        if (this.storeManager.getFeatures().hasOrderedScan()) {
+            throw new PermanentBackendException("This operation is only allowed when a random partitioner (md5 or murmur3) is used.");
+        }
+
+        final TokenMap tokenMap = this.session.getMetadata().getTokenMap()
+            .orElseThrow(() -> new PermanentBackendException("Token metadata is required for partitioned scans"));
+        final boolean hasStart = partition.getStart().length() > 0;
+        final boolean hasEnd = partition.getEnd().length() > 0;
+        Preconditions.checkArgument(hasStart || hasEnd, "Invalid scan partition: %s", partition);
+
+        BoundStatementBuilder builder = (hasStart && hasEnd ? getKeysTokenRange : hasStart ? getKeysTokenRangeFrom : getKeysTokenRangeTo)
+            .boundStatementBuilder();
+        if (hasStart) {
+            builder = builder.setToken(KEY_START_BINDING, toToken(tokenMap, partition.getStart()));
+        }
+        if (hasEnd) {
+            builder = builder.setToken(KEY_END_BINDING, toToken(tokenMap, partition.getEnd()));
+        }
+        final BoundStatement statement = builder
+            .setByteBuffer(SLICE_START_BINDING, query.getSliceStart().asByteBuffer())
+            .setByteBuffer(SLICE_END_BINDING, query.getSliceEnd().asByteBuffer())
+            .setPageSize(this.storeManager.getPageSize())
+            .setConsistencyLevel(getTransaction(txh).getReadConsistencyLevel()).build();
+        return Try.of(() -> new CQLResultSetKeyIterator(query, this.getter, new CQLPagingIterator(statement)))
+            .getOrElseThrow(EXCEPTION_MAPPER);
+    }
+
     @Override
     public KeySlicesIterator getKeys(MultiSlicesQuery queries, StoreTransaction txh) throws BackendException {
         throw new UnsupportedOperationException();
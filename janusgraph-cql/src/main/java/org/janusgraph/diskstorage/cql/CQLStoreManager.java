@@ -67,6 +67,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -98,6 +99,7 @@ import static org.janusgraph.diskstorage.cql.CQLConfigOptions.METRICS_SESSION_RE
 import static org.janusgraph.diskstorage.cql.CQLConfigOptions.METRICS_SESSION_THROTTLING_HIGHEST_LATENCY;
 import static org.janusgraph.diskstorage.cql.CQLConfigOptions.METRICS_SESSION_THROTTLING_REFRESH_INTERVAL;
 import static org.janusgraph.diskstorage.cql.CQLConfigOptions.METRICS_SESSION_THROTTLING_SIGNIFICANT_DIGITS;
+import static org.janusgraph.diskstorage.cql.CQLConfigOptions.MULTI_QUERY_MAX_IN_FLIGHT;
 import static org.janusgraph.diskstorage.cql.CQLConfigOptions.NETTY_ADMIN_SIZE;
 import static org.janusgraph.diskstorage.cql.CQLConfigOptions.NETTY_IO_SIZE;
 import static org.janusgraph.diskstorage.cql.CQLConfigOptions.NETTY_TIMER_TICKS_PER_WHEEL;
@@ -160,6 +162,7 @@ public class CQLStoreManager extends DistributedStoreManager implements KeyColum
     private final boolean atomicBatch;
 
     final ExecutorService executorService;
+    private final Semaphore multiQueryPermits;
 
     private CqlSession session;
     private final StoreFeatures storeFeatures;
@@ -186,6 +189,7 @@ public class CQLStoreManager extends DistributedStoreManager implements KeyColum
                         .setDaemon(true)
                         .setNameFormat("CQLStoreManager[%02d]")
                         .build());
+        this.multiQueryPermits = new Semaphore(configuration.get(MULTI_QUERY_MAX_IN_FLIGHT));
 
         this.session = initializeSession();
         initializeJmxMetrics();
@@ -212,7 +216,7 @@ public class CQLStoreManager extends DistributedStoreManager implements KeyColum
         fb.keyConsistent((onlyUseLocalConsistency ? local : global), local);
         fb.locking(useExternalLocking);
         fb.optimisticLocking(true);
-        fb.multiQuery(false);
+        fb.multiQuery(true);
 
         String partitioner = null;
         if (configuration.has(PARTITIONER_NAME)) {
@@ -381,6 +385,10 @@ public class CQLStoreManager extends DistributedStoreManager implements KeyColum
         return this.executorService;
     }
 
+    Semaphore getMultiQueryPermits() {
+        return this.multiQueryPermits;
+    }
+
     CqlSession getSession() {
         return this.session;
     }
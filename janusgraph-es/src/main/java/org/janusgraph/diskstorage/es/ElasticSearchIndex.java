@@ -282,6 +282,34 @@ public class ElasticSearchIndex implements IndexProvider {
         new ConfigOption<>(ELASTICSEARCH_NS, "retry_on_conflict",
             "Specify how many times should the operation be retried when a conflict occurs.", ConfigOption.Type.MASKABLE, 0);
 
+    public static final ConfigOption<Integer> BULK_MAX_BYTES =
+        new ConfigOption<>(ELASTICSEARCH_NS, "bulk-max-bytes",
+            "Maximum size in bytes of a single bulk request. Larger mutations are split into several bulk requests. " +
+                "The mutations of a single document are never split, so a bulk request exceeds this size if a single " +
+                "document does.", ConfigOption.Type.MASKABLE, 10 * 1024 * 1024, ConfigOption.positiveInt());
+
+    public static final ConfigOption<Integer> BULK_MAX_ACTIONS =
+        new ConfigOption<>(ELASTICSEARCH_NS, "bulk-max-actions",
+            "Maximum number of actions in a single bulk request. Larger mutations are split into several bulk requests.",
+            ConfigOption.Type.MASKABLE, 5000, ConfigOption.positiveInt());
+
+    public static final ConfigOption<Integer> BULK_CONCURRENT_REQUESTS =
+        new ConfigOption<>(ELASTICSEARCH_NS, "bulk-concurrent-requests",
+            "Maximum number of bulk requests of a single mutation which are sent to Elasticsearch concurrently.",
+            ConfigOption.Type.MASKABLE, 1, ConfigOption.positiveInt());
+
+    public static final ConfigOption<Integer> BULK_MAX_RETRIES =
+        new ConfigOption<>(ELASTICSEARCH_NS, "bulk-max-retries",
+            "Number of times the items of a bulk request which Elasticsearch rejected with status 429 (Too Many " +
+                "Requests) are retried. Only the rejected items are sent again.",
+            ConfigOption.Type.MASKABLE, 3, ConfigOption.nonnegativeInt());
+
+    public static final ConfigOption<Integer> BULK_RETRY_WAIT =
+        new ConfigOption<>(ELASTICSEARCH_NS, "bulk-retry-wait",
+            "Time (in milliseconds) to wait before retrying rejected bulk items for the first time. " +
+                "The time doubles with every further retry.",
+            ConfigOption.Type.MASKABLE, 100, ConfigOption.nonnegativeInt());
+
     public static final ConfigOption<Boolean> ENABLE_INDEX_STORE_NAMES_CACHE =
         new ConfigOption<>(ELASTICSEARCH_NS, "enable_index_names_cache",
             "Enables cache for generated index store names. " +
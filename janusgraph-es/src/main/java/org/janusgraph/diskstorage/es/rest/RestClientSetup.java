@@ -42,8 +42,10 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.BASIC_METRICS;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.INDEX_HOSTS;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.INDEX_PORT;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.METRICS_PREFIX;
 
 /**
  * Create an instance of Elasticsearch REST {@link org.elasticsearch.client.RestClient} from a JanusGraph
@@ -80,6 +82,12 @@ public class RestClientSetup {
 
         Integer retryOnConflict = config.has(ElasticSearchIndex.RETRY_ON_CONFLICT) ? config.get(ElasticSearchIndex.RETRY_ON_CONFLICT) : null;
         client.setRetryOnConflict(retryOnConflict);
+        client.setBulkChunkLimits(config.get(ElasticSearchIndex.BULK_MAX_BYTES), config.get(ElasticSearchIndex.BULK_MAX_ACTIONS));
+        client.setBulkConcurrentRequests(config.get(ElasticSearchIndex.BULK_CONCURRENT_REQUESTS));
+        client.setBulkRetries(config.get(ElasticSearchIndex.BULK_MAX_RETRIES), config.get(ElasticSearchIndex.BULK_RETRY_WAIT));
+        if (config.get(BASIC_METRICS)) {
+            client.setBulkMetricsPrefix(config.get(METRICS_PREFIX));
+        }
 
         return client;
     }
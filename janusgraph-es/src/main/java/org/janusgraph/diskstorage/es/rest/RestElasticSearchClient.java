@@ -14,6 +14,7 @@
 
 package org.janusgraph.diskstorage.es.rest;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import org.apache.http.HttpEntity;
@@ -31,6 +32,7 @@ import org.apache.tinkerpop.shaded.jackson.databind.module.SimpleModule;
 import org.elasticsearch.client.Request;
 import org.elasticsearch.client.Response;
 import org.elasticsearch.client.ResponseException;
+import org.elasticsearch.client.ResponseListener;
 import org.elasticsearch.client.RestClient;
 import org.janusgraph.core.attribute.Geoshape;
 import org.janusgraph.diskstorage.es.ElasticMajorVersion;
@@ -41,18 +43,24 @@ import org.janusgraph.diskstorage.es.mapping.TypedIndexMappings;
 import org.janusgraph.diskstorage.es.mapping.TypelessIndexMappings;
 import org.janusgraph.diskstorage.es.rest.RestBulkResponse.RestBulkItemResponse;
 import org.janusgraph.diskstorage.es.script.ESScriptResponse;
+import org.janusgraph.util.stats.MetricManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import static org.janusgraph.util.encoding.StringEncoding.UTF8_CHARSET;
 
@@ -71,6 +79,14 @@ public class RestElasticSearchClient implements ElasticSearchClient {
 
     public static final String INCLUDE_TYPE_NAME_PARAMETER = "include_type_name";
 
+    public static final String M_ELASTICSEARCH = "elasticsearch";
+    public static final String M_BULK = "bulk";
+    public static final String M_LATENCY = "latency";
+    public static final String M_BYTES = "bytes";
+    public static final String M_RETRIES = "retries";
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
     private static final byte[] NEW_LINE_BYTES = "\n".getBytes(UTF8_CHARSET);
 
     private static final Request INFO_REQUEST = new Request(REQUEST_TYPE_GET, REQUEST_SEPARATOR);
@@ -110,6 +126,18 @@ public class RestElasticSearchClient implements ElasticSearchClient {
     private Integer retryOnConflict;
 
     private final String retryOnConflictKey;
+
+    private long bulkMaxBytes = Long.MAX_VALUE;
+
+    private int bulkMaxActions = Integer.MAX_VALUE;
+
+    private int bulkConcurrentRequests = 1;
+
+    private int bulkMaxRetries = 0;
+
+    private long bulkRetryWait = 0;
+
+    private String bulkMetricsPrefix;
     
     public RestElasticSearchClient(RestClient delegate, int scrollKeepAlive, boolean useMappingTypesForES7) {
         this.delegate = delegate;
@@ -358,30 +386,9 @@ public class RestElasticSearchClient implements ElasticSearchClient {
 
     @Override
     public void bulkRequest(List<ElasticSearchMutation> requests, String ingestPipeline) throws IOException {
-        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        List<BulkItem> pending = new ArrayList<>(requests.size());
         for (final ElasticSearchMutation request : requests) {
-            Map<String, Object> requestData = new HashMap<>();
-            if (useMappingTypes) {
-                requestData.put("_index", request.getIndex());
-                requestData.put("_type", request.getType());
-                requestData.put("_id", request.getId());
-            } else {
-                requestData.put("_index", request.getIndex());
-                requestData.put("_id", request.getId());
-            }
-
-            if (retryOnConflict != null && request.getRequestType() == ElasticSearchMutation.RequestType.UPDATE) {
-                requestData.put(retryOnConflictKey, retryOnConflict);
-            }
-
-            outputStream.write(mapWriter.writeValueAsBytes(
-                ImmutableMap.of(request.getRequestType().name().toLowerCase(), requestData))
-            );
-            outputStream.write(NEW_LINE_BYTES);
-            if (request.getSource() != null) {
-                outputStream.write(mapWriter.writeValueAsBytes(request.getSource()));
-                outputStream.write(NEW_LINE_BYTES);
-            }
+            pending.add(new BulkItem(request, serializeBulkItem(request)));
         }
 
         final StringBuilder builder = new StringBuilder();
@@ -392,24 +399,199 @@ public class RestElasticSearchClient implements ElasticSearchClient {
             APPEND_OP.apply(builder).append("refresh=").append(bulkRefresh);
         }
         builder.insert(0, REQUEST_SEPARATOR + "_bulk");
+        final String path = builder.toString();
 
-        final Response response = performRequest(REQUEST_TYPE_POST, builder.toString(), outputStream.toByteArray());
-        try (final InputStream inputStream = response.getEntity().getContent()) {
-            final RestBulkResponse bulkResponse = mapper.readValue(inputStream, RestBulkResponse.class);
-            final List<Object> errors = bulkResponse.getItems().stream()
-                .flatMap(item -> item.values().stream())
-                .filter(item -> item.getError() != null && item.getStatus() != 404)
-                .map(RestBulkItemResponse::getError).collect(Collectors.toList());
-            if (!errors.isEmpty()) {
-                errors.forEach(error -> log.error("Failed to execute ES query: {}", error));
-                throw new IOException("Failure(s) in Elasticsearch bulk request: " + errors);
+        final List<Object> errors = new ArrayList<>();
+        for (int attempt = 0; !pending.isEmpty(); attempt++) {
+            if (attempt > 0) {
+                if (bulkMetricsPrefix != null) {
+                    MetricManager.INSTANCE.getCounter(bulkMetricsPrefix, M_ELASTICSEARCH, M_BULK, M_RETRIES).inc(pending.size());
+                }
+                log.debug("Retrying {} rejected bulk items (attempt {})", pending.size(), attempt);
+                try {
+                    Thread.sleep(bulkRetryWait << Math.min(attempt - 1, 16));
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting to retry bulk request");
+                }
+            }
+            final List<List<BulkItem>> chunks = splitIntoChunks(pending);
+            final List<CompletableFuture<Response>> responses = sendChunks(path, chunks);
+            pending = new ArrayList<>();
+            for (int i = 0; i < chunks.size(); i++) {
+                final List<BulkItem> chunk = chunks.get(i);
+                final Response response;
+                try {
+                    response = responses.get(i).get();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for bulk response");
+                } catch (final ExecutionException e) {
+                    if (e.getCause() instanceof ResponseException &&
+                        ((ResponseException) e.getCause()).getResponse().getStatusLine().getStatusCode() == TOO_MANY_REQUESTS) {
+                        // the whole chunk was rejected
+                        for (final BulkItem item : chunk) item.error = e.getCause().getMessage();
+                        pending.addAll(chunk);
+                        continue;
+                    }
+                    throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+                }
+                try (final InputStream inputStream = response.getEntity().getContent()) {
+                    final RestBulkResponse bulkResponse = mapper.readValue(inputStream, RestBulkResponse.class);
+                    final List<Map<String, RestBulkItemResponse>> items = bulkResponse.getItems();
+                    for (int j = 0; j < items.size(); j++) {
+                        for (final RestBulkItemResponse item : items.get(j).values()) {
+                            if (item.getError() == null || item.getStatus() == 404) continue;
+                            // Rejections happen per shard, so all items of a document are retried together and in order
+                            if (item.getStatus() == TOO_MANY_REQUESTS) {
+                                chunk.get(j).error = item.getError();
+                                pending.add(chunk.get(j));
+                            } else {
+                                errors.add(item.getError());
+                            }
+                        }
+                    }
+                }
+            }
+            if (attempt >= bulkMaxRetries) {
+                pending.forEach(item -> errors.add(item.error));
+                break;
+            }
+        }
+        if (!errors.isEmpty()) {
+            errors.forEach(error -> log.error("Failed to execute ES query: {}", error));
+            throw new IOException("Failure(s) in Elasticsearch bulk request: " + errors);
+        }
+    }
+
+    private byte[] serializeBulkItem(ElasticSearchMutation request) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Map<String, Object> requestData = new HashMap<>();
+        if (useMappingTypes) {
+            requestData.put("_index", request.getIndex());
+            requestData.put("_type", request.getType());
+            requestData.put("_id", request.getId());
+        } else {
+            requestData.put("_index", request.getIndex());
+            requestData.put("_id", request.getId());
+        }
+
+        if (retryOnConflict != null && request.getRequestType() == ElasticSearchMutation.RequestType.UPDATE) {
+            requestData.put(retryOnConflictKey, retryOnConflict);
+        }
+
+        outputStream.write(mapWriter.writeValueAsBytes(
+            ImmutableMap.of(request.getRequestType().name().toLowerCase(), requestData))
+        );
+        outputStream.write(NEW_LINE_BYTES);
+        if (request.getSource() != null) {
+            outputStream.write(mapWriter.writeValueAsBytes(request.getSource()));
+            outputStream.write(NEW_LINE_BYTES);
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Splits the items into chunks that respect the configured byte and action limits. The items of a document are
+     * never split across chunks, so that concurrently sent chunks cannot reorder the mutations of a document.
+     */
+    private List<List<BulkItem>> splitIntoChunks(List<BulkItem> items) {
+        final List<List<BulkItem>> chunks = new ArrayList<>();
+        List<BulkItem> chunk = new ArrayList<>();
+        long chunkBytes = 0;
+        BulkItem previous = null;
+        for (final BulkItem item : items) {
+            final boolean sameDocument = previous != null && previous.isSameDocument(item);
+            if (!chunk.isEmpty() && !sameDocument &&
+                (chunkBytes + item.data.length > bulkMaxBytes || chunk.size() >= bulkMaxActions)) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                chunkBytes = 0;
+            }
+            chunk.add(item);
+            chunkBytes += item.data.length;
+            previous = item;
+        }
+        if (!chunk.isEmpty()) chunks.add(chunk);
+        return chunks;
+    }
+
+    /**
+     * Sends the chunks asynchronously while keeping at most the configured number of bulk requests in flight.
+     */
+    private List<CompletableFuture<Response>> sendChunks(String path, List<List<BulkItem>> chunks) throws IOException {
+        final Semaphore inFlight = new Semaphore(bulkConcurrentRequests);
+        final List<CompletableFuture<Response>> responses = new ArrayList<>(chunks.size());
+        for (final List<BulkItem> chunk : chunks) {
+            int length = 0;
+            for (final BulkItem item : chunk) length += item.data.length;
+            final byte[] body = new byte[length];
+            int position = 0;
+            for (final BulkItem item : chunk) {
+                System.arraycopy(item.data, 0, body, position, item.data.length);
+                position += item.data.length;
+            }
+
+            try {
+                inFlight.acquire();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting to send bulk request");
             }
+            final CompletableFuture<Response> response = new CompletableFuture<>();
+            response.whenComplete((r, e) -> inFlight.release());
+            final Request request = new Request(REQUEST_TYPE_POST, path);
+            request.setEntity(new ByteArrayEntity(body, ContentType.APPLICATION_JSON));
+            final long start = System.nanoTime();
+            delegate.performRequestAsync(request, new ResponseListener() {
+                @Override
+                public void onSuccess(Response r) {
+                    if (bulkMetricsPrefix != null) {
+                        MetricManager.INSTANCE.getTimer(bulkMetricsPrefix, M_ELASTICSEARCH, M_BULK, M_LATENCY)
+                            .update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        MetricManager.INSTANCE.getHistogram(bulkMetricsPrefix, M_ELASTICSEARCH, M_BULK, M_BYTES)
+                            .update(body.length);
+                    }
+                    response.complete(r);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    response.completeExceptionally(e);
+                }
+            });
+            responses.add(response);
         }
+        return responses;
     }
 
     public void setRetryOnConflict(Integer retryOnConflict) {
             this.retryOnConflict = retryOnConflict;
     }
+
+    public void setBulkChunkLimits(long bulkMaxBytes, int bulkMaxActions) {
+        Preconditions.checkArgument(bulkMaxBytes > 0 && bulkMaxActions > 0, "Invalid bulk chunk limits");
+        this.bulkMaxBytes = bulkMaxBytes;
+        this.bulkMaxActions = bulkMaxActions;
+    }
+
+    public void setBulkConcurrentRequests(int bulkConcurrentRequests) {
+        Preconditions.checkArgument(bulkConcurrentRequests > 0, "Invalid number of concurrent bulk requests");
+        this.bulkConcurrentRequests = bulkConcurrentRequests;
+    }
+
+    public void setBulkRetries(int bulkMaxRetries, long bulkRetryWait) {
+        Preconditions.checkArgument(bulkMaxRetries >= 0 && bulkRetryWait >= 0, "Invalid bulk retry settings");
+        this.bulkMaxRetries = bulkMaxRetries;
+        this.bulkRetryWait = bulkRetryWait;
+    }
+
+    /**
+     * @param bulkMetricsPrefix the prefix of the metrics recorded for each bulk request, or null to not record any
+     */
+    public void setBulkMetricsPrefix(String bulkMetricsPrefix) {
+        this.bulkMetricsPrefix = bulkMetricsPrefix;
+    }
     @Override
     public long countTotal(String indexName, Map<String, Object> requestData) throws IOException {
 
@@ -487,6 +669,24 @@ public class RestElasticSearchClient implements ElasticSearchClient {
         return response;
     }
 
+    private static final class BulkItem {
+
+        private final ElasticSearchMutation mutation;
+        private final byte[] data;
+        // the error of the last attempt to execute this item
+        private Object error;
+
+        private BulkItem(ElasticSearchMutation mutation, byte[] data) {
+            this.mutation = mutation;
+            this.data = data;
+        }
+
+        private boolean isSameDocument(BulkItem other) {
+            return Objects.equals(mutation.getIndex(), other.mutation.getIndex()) &&
+                Objects.equals(mutation.getId(), other.mutation.getId());
+        }
+    }
+
     @JsonIgnoreProperties(ignoreUnknown=true)
     private static final class ClusterInfo {
 
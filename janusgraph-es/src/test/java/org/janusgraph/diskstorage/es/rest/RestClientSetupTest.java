@@ -208,6 +208,11 @@ public class RestClientSetupTest {
                 put("index." + INDEX_NAME + ".elasticsearch.scroll-keep-alive", String.valueOf(ES_SCROLL_KA)).
                 put("index." + INDEX_NAME + ".elasticsearch.bulk-refresh", ES_BULK_REFRESH).
                 put("index." + INDEX_NAME + ".elasticsearch.retry_on_conflict", String.valueOf(RETRY_ON_CONFLICT)).
+                put("index." + INDEX_NAME + ".elasticsearch.bulk-max-bytes", "1024").
+                put("index." + INDEX_NAME + ".elasticsearch.bulk-max-actions", "10").
+                put("index." + INDEX_NAME + ".elasticsearch.bulk-concurrent-requests", "4").
+                put("index." + INDEX_NAME + ".elasticsearch.bulk-max-retries", "5").
+                put("index." + INDEX_NAME + ".elasticsearch.bulk-retry-wait", "50").
                 build());
 
         assertNotNull(hostsConfigured);
@@ -224,6 +229,10 @@ public class RestClientSetupTest {
 
         verify(restElasticSearchClientMock).setBulkRefresh(eq(ES_BULK_REFRESH));
         verify(restElasticSearchClientMock).setRetryOnConflict(eq(RETRY_ON_CONFLICT));
+        verify(restElasticSearchClientMock).setBulkChunkLimits(1024L, 10);
+        verify(restElasticSearchClientMock).setBulkConcurrentRequests(4);
+        verify(restElasticSearchClientMock).setBulkRetries(5, 50L);
+        verify(restElasticSearchClientMock, never()).setBulkMetricsPrefix(anyString());
 
     }
 
@@ -0,0 +1,208 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.es.rest;
+
+import com.google.common.collect.ImmutableMap;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.util.EntityUtils;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseListener;
+import org.elasticsearch.client.RestClient;
+import org.janusgraph.diskstorage.es.ElasticSearchMutation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RestElasticSearchClientTest {
+
+    private static final Pattern DOCUMENT_ID = Pattern.compile("\"_id\":\"([^\"]+)\"");
+
+    private RestClient restClient;
+    private RestElasticSearchClient client;
+    private ExecutorService responder;
+
+    // the bodies of all bulk requests, in the order they were sent
+    private final List<String> bulkBodies = Collections.synchronizedList(new ArrayList<>());
+    // the statuses to respond with per document, consumed one per attempt; documents without statuses succeed
+    private final Map<String, List<Integer>> statuses = new HashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        restClient = mock(RestClient.class);
+        final Response infoResponse = response("{\"version\":{\"number\":\"7.10.2\"}}");
+        when(restClient.performRequest(any(Request.class))).thenReturn(infoResponse);
+        responder = Executors.newFixedThreadPool(4);
+        doAnswer(invocation -> {
+            final Request request = invocation.getArgument(0);
+            final ResponseListener listener = invocation.getArgument(1);
+            final String body = EntityUtils.toString(request.getEntity());
+            bulkBodies.add(body);
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            responder.submit(() -> {
+                try {
+                    Thread.sleep(20);
+                    final Response response = bulkResponse(body);
+                    inFlight.decrementAndGet();
+                    listener.onSuccess(response);
+                } catch (Exception e) {
+                    inFlight.decrementAndGet();
+                    listener.onFailure(e);
+                }
+            });
+            return null;
+        }).when(restClient).performRequestAsync(any(Request.class), any(ResponseListener.class));
+        client = new RestElasticSearchClient(restClient, 60, false);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        responder.shutdown();
+        responder.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testBulkRequestIsSplitIntoChunks() throws IOException {
+        client.setBulkChunkLimits(Long.MAX_VALUE, 3);
+        client.bulkRequest(Arrays.asList(delete("1"), delete("2"), delete("3"), delete("4"), delete("5"), delete("6"),
+            delete("7")), null);
+
+        assertEquals(Arrays.asList(Arrays.asList("1", "2", "3"), Arrays.asList("4", "5", "6"), Collections.singletonList("7")),
+            bulkDocuments());
+    }
+
+    @Test
+    public void testMutationsOfDocumentAreNotSplit() throws IOException {
+        client.setBulkChunkLimits(1, 1);
+        client.bulkRequest(Arrays.asList(delete("1"), update("2"), update("2"), delete("3")), null);
+
+        assertEquals(Arrays.asList(Collections.singletonList("1"), Arrays.asList("2", "2"), Collections.singletonList("3")),
+            bulkDocuments());
+    }
+
+    @Test
+    public void testConcurrentBulkRequestsAreBounded() throws IOException {
+        client.setBulkChunkLimits(Long.MAX_VALUE, 1);
+        client.setBulkConcurrentRequests(2);
+        final List<ElasticSearchMutation> requests = new ArrayList<>();
+        for (int i = 0; i < 10; i++) requests.add(delete(String.valueOf(i)));
+        client.bulkRequest(requests, null);
+
+        assertEquals(10, bulkBodies.size());
+        assertTrue(maxInFlight.get() <= 2, "Too many concurrent bulk requests: " + maxInFlight.get());
+    }
+
+    @Test
+    public void testOnlyRejectedItemsAreRetried() throws IOException {
+        client.setBulkRetries(2, 1);
+        statuses.put("2", new ArrayList<>(Arrays.asList(429, 429)));
+        client.bulkRequest(Arrays.asList(delete("1"), delete("2"), delete("3")), null);
+
+        assertEquals(Arrays.asList(Arrays.asList("1", "2", "3"), Collections.singletonList("2"), Collections.singletonList("2")),
+            bulkDocuments());
+    }
+
+    @Test
+    public void testRejectedItemsFailAfterRetries() {
+        client.setBulkRetries(1, 1);
+        statuses.put("2", new ArrayList<>(Arrays.asList(429, 429)));
+        assertThrows(IOException.class, () -> client.bulkRequest(Arrays.asList(delete("1"), delete("2")), null));
+        assertEquals(2, bulkBodies.size());
+    }
+
+    @Test
+    public void testFailedItemsAreNotRetried() {
+        client.setBulkRetries(3, 1);
+        statuses.put("2", new ArrayList<>(Collections.singletonList(400)));
+        assertThrows(IOException.class, () -> client.bulkRequest(Arrays.asList(delete("1"), delete("2")), null));
+        assertEquals(1, bulkBodies.size());
+    }
+
+    @Test
+    public void testMissingDocumentsAreIgnored() throws IOException {
+        statuses.put("1", new ArrayList<>(Collections.singletonList(404)));
+        client.bulkRequest(Collections.singletonList(delete("1")), null);
+        assertEquals(1, bulkBodies.size());
+    }
+
+    private static ElasticSearchMutation delete(String id) {
+        return ElasticSearchMutation.createDeleteRequest("janusgraph_vertex", "vertex", id);
+    }
+
+    private static ElasticSearchMutation update(String id) {
+        return ElasticSearchMutation.createUpdateRequest("janusgraph_vertex", "vertex", id,
+            ImmutableMap.of("doc", ImmutableMap.of("name", "value")));
+    }
+
+    private List<List<String>> bulkDocuments() {
+        final List<List<String>> documents = new ArrayList<>();
+        for (final String body : bulkBodies) documents.add(documentIds(body));
+        return documents;
+    }
+
+    private static List<String> documentIds(String body) {
+        final List<String> ids = new ArrayList<>();
+        final Matcher matcher = DOCUMENT_ID.matcher(body);
+        while (matcher.find()) ids.add(matcher.group(1));
+        return ids;
+    }
+
+    private Response bulkResponse(String body) {
+        final StringBuilder items = new StringBuilder();
+        for (final String id : documentIds(body)) {
+            final int status;
+            synchronized (statuses) {
+                final List<Integer> documentStatuses = statuses.get(id);
+                status = documentStatuses == null || documentStatuses.isEmpty() ? 200 : documentStatuses.remove(0);
+            }
+            if (items.length() > 0) items.append(',');
+            items.append("{\"delete\":{\"status\":").append(status);
+            if (status >= 400) items.append(",\"error\":{\"type\":\"error_").append(status).append("\"}");
+            items.append("}}");
+        }
+        return response("{\"errors\":false,\"items\":[" + items + "]}");
+    }
+
+    private static Response response(String content) {
+        final Response response = mock(Response.class);
+        when(response.getEntity()).thenReturn(new StringEntity(content, ContentType.APPLICATION_JSON));
+        return response;
+    }
+}
@@ -16,6 +16,8 @@ package org.janusgraph.hadoop.formats.util;
 
 import com.carrotsearch.hppc.cursors.LongObjectCursor;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.T;
@@ -76,7 +78,7 @@ public class JanusGraphVertexDeserializer implements AutoCloseable {
 
     // Read a single row from the edgestore and create a TinkerVertex corresponding to the row
     // The neighboring vertices are represented by DetachedVertex instances
-    public TinkerVertex readHadoopVertex(final StaticBuffer key, Iterable<Entry> entries) {
+    public TinkerVertex readHadoopVertex(final StaticBuffer key, Iterable<Entry> rawEntries) {
 
         // Convert key to a vertex ID
         final long vertexId = idManager.getKeyID(key);
@@ -90,6 +92,9 @@ public class JanusGraphVertexDeserializer implements AutoCloseable {
             return null;
         }
 
+        // The raw edgestore values bypass the backend, so decompress them once for both passes below
+        final Iterable<Entry> entries = Lists.newArrayList(Iterables.transform(rawEntries, setup::decompress));
+
         // Create TinkerVertex
         TinkerGraph tg = TinkerGraph.open();
 
@@ -14,6 +14,7 @@
 
 package org.janusgraph.hadoop.formats.util.input;
 
+import org.janusgraph.diskstorage.Entry;
 import org.janusgraph.graphdb.database.RelationReader;
 import org.janusgraph.graphdb.idmanagement.IDManager;
 import org.janusgraph.graphdb.types.TypeInspector;
@@ -35,4 +36,12 @@ public interface JanusGraphHadoopSetup {
 
     boolean getFilterPartitionedVertices();
 
+    /**
+     * Decompresses the value of a raw edgestore entry if value compression is enabled for the graph.
+     * Returns the entry unchanged by default.
+     */
+    default Entry decompress(Entry edgeStoreEntry) {
+        return edgeStoreEntry;
+    }
+
 }
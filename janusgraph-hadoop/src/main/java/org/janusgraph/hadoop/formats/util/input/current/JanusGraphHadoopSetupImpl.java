@@ -19,6 +19,8 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.janusgraph.core.JanusGraphFactory;
 import org.janusgraph.core.JanusGraphVertex;
+import org.janusgraph.diskstorage.Backend;
+import org.janusgraph.diskstorage.Entry;
 import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.configuration.BasicConfiguration;
 import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
@@ -128,4 +130,9 @@ public class JanusGraphHadoopSetupImpl implements JanusGraphHadoopSetup {
     public boolean getFilterPartitionedVertices() {
         return scanConf.get(JanusGraphHadoopConfiguration.FILTER_PARTITIONED_VERTICES, true);
     }
+
+    @Override
+    public Entry decompress(Entry edgeStoreEntry) {
+        return graph.getBackend().decompress(Backend.EDGESTORE_NAME, edgeStoreEntry);
+    }
 }
@@ -61,6 +61,27 @@ public final class BufferPageUtils {
             return new BufferPage(BufferPage.EMPTY_INDEX, BufferPage.EMPTY_DATA);
     }
 
+    /**
+     * Reads a page in the format of {@link #dumpTo(BufferPage, DataOutputStream)} from the given buffer,
+     * which allows to copy the offset index and the data of the page in bulk.
+     */
+    public static BufferPage readPage(ByteBuffer in) {
+        int numEntries = in.getInt();
+
+        if (numEntries > 0) {
+            int[] index = new int[numEntries];
+            in.asIntBuffer().get(index);
+            in.position(in.position() + numEntries * Integer.BYTES);
+
+            int dataLength = in.getInt();
+            byte[] data = new byte[dataLength];
+            in.get(data);
+
+            return new BufferPage(index, data);
+        } else
+            return new BufferPage(BufferPage.EMPTY_INDEX, BufferPage.EMPTY_DATA);
+    }
+
     public static void readWholeArray(DataInputStream in, byte[] data) throws IOException {
         int offset = 0;
         do {
@@ -94,6 +115,22 @@ public final class BufferPageUtils {
         }
     }
 
+    public static SharedEntryBuffer readFrom(ByteBuffer in) {
+        int numPages = in.getInt();
+
+        if (numPages == 1) {
+            BufferPage p = readPage(in);
+
+            return new SinglePageEntryBuffer(p.getOffsetIndex(), p.getRawData());
+        } else {
+            List<BufferPage> pages = new ArrayList<>(numPages);
+            for (int i = 0; i < numPages; i++) {
+                pages.add(readPage(in));
+            }
+            return new MultiPageEntryBuffer(pages);
+        }
+    }
+
     static int computeValPosSize(int valuePosition)
     {
         //this assumes that the key size will almost never be > 127 bytes,
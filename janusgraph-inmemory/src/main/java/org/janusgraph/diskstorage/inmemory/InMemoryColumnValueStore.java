@@ -25,6 +25,7 @@ import org.janusgraph.diskstorage.util.StaticArrayEntry;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
@@ -146,48 +147,56 @@ class InMemoryColumnValueStore {
     private Lock getLock(StoreTransaction txh) {
         Boolean txOn = txh.getConfiguration().getCustomOption(STORAGE_TRANSACTIONAL);
         if (null != txOn && txOn) {
-            ReentrantLock result = lock;
-            if (result == null) {
-                synchronized (this) {
-                    result = lock;
-                    if (result == null) {
-                        lock = result = new ReentrantLock();
-                    }
+            return getLock();
+        } else return NoLock.INSTANCE;
+    }
+
+    private Lock getLock() {
+        ReentrantLock result = lock;
+        if (result == null) {
+            synchronized (this) {
+                result = lock;
+                if (result == null) {
+                    lock = result = new ReentrantLock();
                 }
             }
-            return result;
-        } else return NoLock.INSTANCE;
+        }
+        return result;
     }
 
     public int numPages(StoreTransaction txh) {
-        this.lock.lock();
+        Lock lock = getLock();
+        lock.lock();
         try {
             return buffer.numPages();
         } finally {
-            this.lock.unlock();
+            lock.unlock();
         }
     }
 
     public int numEntries(StoreTransaction txh) {
-        this.lock.lock();
+        Lock lock = getLock();
+        lock.lock();
         try {
             return buffer.numEntries();
         } finally {
-            this.lock.unlock();
+            lock.unlock();
         }
     }
 
     public SharedEntryBufferFragmentationReport createFragmentationReport(StoreTransaction txh) {
-        this.lock.lock();
+        Lock lock = getLock();
+        lock.lock();
         try {
             return buffer.createFragmentationReport(getMaxPageSize());
         } finally {
-            this.lock.unlock();
+            lock.unlock();
         }
     }
 
     public void quickDefragment(StoreTransaction txh) {
-        this.lock.lock();
+        Lock lock = getLock();
+        lock.lock();
         try {
             buffer.quickDefragment(getMaxPageSize());
         } finally {
@@ -195,9 +204,18 @@ class InMemoryColumnValueStore {
         }
     }
 
+    /**
+     * Writes the pages of this store to the given stream. Adjacent pages which are not full are merged beforehand
+     * whenever the fragmentation report shows that this reduces the number of pages, so that the snapshot and any
+     * store restored from it are compacted.
+     */
     public void dumpTo(DataOutputStream out) throws IOException {
-        this.lock.lock();
+        Lock lock = getLock();
+        lock.lock();
         try {
+            if (buffer.createFragmentationReport(getMaxPageSize()).getCompressableChunksCount() > 0) {
+                buffer.quickDefragment(getMaxPageSize());
+            }
             buffer.dumpTo(out);
         } finally {
             lock.unlock();
@@ -212,4 +230,12 @@ class InMemoryColumnValueStore {
         return store;
     }
 
+    public static InMemoryColumnValueStore readFrom(ByteBuffer in) {
+        InMemoryColumnValueStore store = new InMemoryColumnValueStore();
+
+        store.buffer = BufferPageUtils.readFrom(in);
+
+        return store;
+    }
+
 }
@@ -43,6 +43,8 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -88,6 +90,11 @@ public class InMemoryKeyColumnValueStore implements KeyColumnValueStore {
     private static final int READ_BUFFER_SIZE = 1024 * 1024 * 8;
     private static final int WRITE_BUFFER_SIZE = READ_BUFFER_SIZE;
 
+    /**
+     * File name suffix of the uncompressed chunks of a dumped store
+     */
+    public static final String UNCOMPRESSED_CHUNK_SUFFIX = ".raw";
+
     private static final Logger log = LoggerFactory.getLogger(InMemoryKeyColumnValueStore.class);
 
     private final String name;
@@ -275,6 +282,15 @@ public class InMemoryKeyColumnValueStore implements KeyColumnValueStore {
     }
 
     public void dumpTo(Path storePath, ForkJoinPool parallelOperationsExecutor) {
+        dumpTo(storePath, USE_COMPRESSION, parallelOperationsExecutor);
+    }
+
+    /**
+     * Writes the contents of this store to chunk files in the given directory. Uncompressed chunks are named with
+     * {@link #UNCOMPRESSED_CHUNK_SUFFIX} and are memory-mapped by {@link #readFrom(Path, String, ForkJoinPool)}, which
+     * loads them considerably faster than compressed chunks at the cost of larger files.
+     */
+    public void dumpTo(Path storePath, boolean compress, ForkJoinPool parallelOperationsExecutor) {
         if (kcv.size() < 1)
             return;
 
@@ -286,21 +302,21 @@ public class InMemoryKeyColumnValueStore implements KeyColumnValueStore {
 
         IntStream.range(0, chunks.size()).mapToObj(i ->
         {
-            Path filePath = Paths.get(storePath.toString(), getName() + "_" + i);
+            Path filePath = Paths.get(storePath.toString(), getName() + "_" + i + (compress ? "" : UNCOMPRESSED_CHUNK_SUFFIX));
 
-            return parallelOperationsExecutor.submit(() -> dumpChunk(filePath, chunks.get(i)));
+            return parallelOperationsExecutor.submit(() -> dumpChunk(filePath, chunks.get(i), compress));
         }).collect(Collectors.toList()) //collecting here to make sure all tasks are submitted eagerly
             .stream().map(ForkJoinTask::join).collect(Collectors.toList());
     }
 
-    private void dumpChunk(Path filePath, List<Map.Entry<StaticBuffer, InMemoryColumnValueStore>> chunk) {
+    private void dumpChunk(Path filePath, List<Map.Entry<StaticBuffer, InMemoryColumnValueStore>> chunk, boolean compress) {
         if (log.isDebugEnabled()) {
             log.debug("number of column stores in chunk " + filePath + ": " + chunk.size() + " " + Thread.currentThread().getName());
         }
         try (OutputStream rawStream = Files.newOutputStream(filePath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
              BufferedOutputStream bufferedStream = new BufferedOutputStream(rawStream, WRITE_BUFFER_SIZE);
-             OutputStream compressedStream = USE_COMPRESSION ? compressedOutputStream(bufferedStream) : null;
-             DataOutputStream out = new DataOutputStream(USE_COMPRESSION ? compressedStream : bufferedStream)) {
+             OutputStream compressedStream = compress ? compressedOutputStream(bufferedStream) : null;
+             DataOutputStream out = new DataOutputStream(compress ? compressedStream : bufferedStream)) {
             //write number of kcvs
             out.writeInt(chunk.size());
 
@@ -325,7 +341,8 @@ public class InMemoryKeyColumnValueStore implements KeyColumnValueStore {
     public static InMemoryKeyColumnValueStore readFrom(Path storePath, String name, ForkJoinPool parallelOperationsExecutor) throws IOException {
         InMemoryKeyColumnValueStore store = new InMemoryKeyColumnValueStore(name);
 
-        Files.list(storePath).map(p -> parallelOperationsExecutor.submit(() -> readChunkFrom(p, store)))
+        Files.list(storePath).map(p -> parallelOperationsExecutor.submit(() ->
+            p.getFileName().toString().endsWith(UNCOMPRESSED_CHUNK_SUFFIX) ? readMappedChunkFrom(p, store) : readChunkFrom(p, store)))
             .collect(Collectors.toList()).stream() //force it to submit all tasks
             .map(ForkJoinTask::join).collect(Collectors.toList());
 
@@ -365,6 +382,32 @@ public class InMemoryKeyColumnValueStore implements KeyColumnValueStore {
         }
     }
 
+    private static int readMappedChunkFrom(Path filePath, InMemoryKeyColumnValueStore store) {
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                //a single mapping cannot exceed 2GB, so fall back to streaming the chunk
+                return readChunkFrom(filePath, store);
+            }
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int numKcvs = in.getInt();
+
+            if (log.isDebugEnabled()) {
+                log.debug("number of column stores in mapped chunk " + filePath + ": " + numKcvs + " " + Thread.currentThread().getName());
+            }
+
+            for (int i = 0; i < numKcvs; i++) {
+                byte[] keyData = new byte[in.getInt()];
+                in.get(keyData);
+
+                //NOTE: here we know that kcv is a concurrent map so safe to put in parallel from different chunks
+                store.kcv.put(StaticArrayBuffer.of(keyData), InMemoryColumnValueStore.readFrom(in));
+            }
+
+            return numKcvs;
+        } catch (Exception ex) {
+            throw new RuntimeException("Problem while reading chunk " + filePath + " of store " + store.getName(), ex);
+        }
+    }
 
     private static class RowIterator implements KeyIterator {
         private final Iterator<Map.Entry<StaticBuffer, InMemoryColumnValueStore>> rows;
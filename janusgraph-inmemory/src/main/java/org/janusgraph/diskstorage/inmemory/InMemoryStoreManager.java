@@ -15,11 +15,15 @@
 package org.janusgraph.diskstorage.inmemory;
 
 import com.google.common.base.Preconditions;
+import org.apache.commons.io.FileUtils;
 import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.BaseTransactionConfig;
+import org.janusgraph.diskstorage.PermanentBackendException;
 import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.StoreMetaData;
 import org.janusgraph.diskstorage.common.AbstractStoreTransaction;
+import org.janusgraph.diskstorage.configuration.ConfigNamespace;
+import org.janusgraph.diskstorage.configuration.ConfigOption;
 import org.janusgraph.diskstorage.configuration.Configuration;
 import org.janusgraph.diskstorage.keycolumnvalue.KCVMutation;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
@@ -29,30 +33,55 @@ import org.janusgraph.diskstorage.keycolumnvalue.StandardStoreFeatures;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreFeatures;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.janusgraph.graphdb.configuration.PreInitializeConfigOptions;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * In-memory backend storage engine.
- *
+ * <p>
+ * If {@link #SNAPSHOT_DIRECTORY} is configured, the stores are restored from the snapshot in that directory when they
+ * are opened, and a new snapshot of all stores replaces it when the storage manager is closed.
  */
-
+@PreInitializeConfigOptions
 public class InMemoryStoreManager implements KeyColumnValueStoreManager {
 
+    public static final ConfigNamespace INMEMORY_NS =
+        new ConfigNamespace(GraphDatabaseConfiguration.STORAGE_NS, "inmemory", "In-memory storage backend options");
+
+    public static final ConfigOption<String> SNAPSHOT_DIRECTORY =
+        new ConfigOption<>(INMEMORY_NS, "snapshot-directory",
+            "Directory holding a snapshot of the in-memory stores. If set, each store is restored from the snapshot when " +
+            "it is opened, and the snapshot is replaced by the contents of all stores when the storage backend is closed.",
+            ConfigOption.Type.LOCAL, String.class);
+
+    public static final ConfigOption<Boolean> SNAPSHOT_COMPRESSION =
+        new ConfigOption<>(INMEMORY_NS, "snapshot-compression",
+            "Whether to compress the snapshot written when the storage backend is closed. Uncompressed snapshots take " +
+            "more disk space but are restored through memory-mapped files, which is considerably faster.",
+            ConfigOption.Type.LOCAL, false);
+
     private ConcurrentHashMap<String, InMemoryKeyColumnValueStore> stores;
 
     private final StoreFeatures features;
 
+    private final Path snapshotDirectory;
+
+    private final boolean snapshotCompression;
+
     public InMemoryStoreManager() {
         this(Configuration.EMPTY);
     }
@@ -61,11 +90,19 @@ public class InMemoryStoreManager implements KeyColumnValueStoreManager {
 
         stores = new ConcurrentHashMap<>();
 
+        if (configuration.has(SNAPSHOT_DIRECTORY)) {
+            snapshotDirectory = Paths.get(configuration.get(SNAPSHOT_DIRECTORY)).toAbsolutePath();
+            snapshotCompression = configuration.get(SNAPSHOT_COMPRESSION);
+        } else {
+            snapshotDirectory = null;
+            snapshotCompression = false;
+        }
+
         features = new StandardStoreFeatures.Builder()
             .orderedScan(true)
             .unorderedScan(true)
             .keyOrdered(true)
-            .persists(false)
+            .persists(snapshotDirectory != null)
             .optimisticLocking(true)
             .keyConsistent(GraphDatabaseConfiguration.buildGraphConfiguration())
             .build();
@@ -78,14 +115,35 @@ public class InMemoryStoreManager implements KeyColumnValueStoreManager {
 
     @Override
     public void close() throws BackendException {
-        for (InMemoryKeyColumnValueStore store : stores.values()) {
-            store.close();
+        try {
+            if (snapshotDirectory != null) {
+                try {
+                    replaceSnapshot();
+                } catch (IOException | RuntimeException e) {
+                    throw new PermanentBackendException("Could not write snapshot to " + snapshotDirectory, e);
+                }
+            }
+        } finally {
+            for (InMemoryKeyColumnValueStore store : stores.values()) {
+                store.close();
+            }
+            stores.clear();
         }
-        stores.clear();
     }
 
     @Override
     public void clearStorage() throws BackendException {
+        clearStores();
+        if (snapshotDirectory != null) {
+            try {
+                FileUtils.deleteDirectory(snapshotDirectory.toFile());
+            } catch (IOException e) {
+                throw new PermanentBackendException("Could not delete snapshot " + snapshotDirectory, e);
+            }
+        }
+    }
+
+    private void clearStores() {
         for (InMemoryKeyColumnValueStore store : stores.values()) {
             store.clear();
         }
@@ -94,7 +152,12 @@ public class InMemoryStoreManager implements KeyColumnValueStoreManager {
 
     @Override
     public boolean exists() throws BackendException {
-        return !stores.isEmpty();
+        if (!stores.isEmpty()) return true;
+        try {
+            return !getSnapshotStores().isEmpty();
+        } catch (IOException e) {
+            throw new PermanentBackendException("Could not read snapshot " + snapshotDirectory, e);
+        }
     }
 
     @Override
@@ -104,14 +167,30 @@ public class InMemoryStoreManager implements KeyColumnValueStoreManager {
 
     @Override
     public KeyColumnValueStore openDatabase(final String name, StoreMetaData.Container metaData) throws BackendException {
-        if (!stores.containsKey(name)) {
-            stores.putIfAbsent(name, new InMemoryKeyColumnValueStore(name));
+        final KeyColumnValueStore store;
+        try {
+            store = stores.computeIfAbsent(name, this::openStore);
+        } catch (UncheckedIOException e) {
+            throw new PermanentBackendException("Could not restore store " + name + " from snapshot " + snapshotDirectory, e);
         }
-        KeyColumnValueStore store = stores.get(name);
         Preconditions.checkNotNull(store);
         return store;
     }
 
+    private InMemoryKeyColumnValueStore openStore(String name) {
+        if (snapshotDirectory != null) {
+            final Path storePath = snapshotDirectory.resolve(name);
+            if (Files.isDirectory(storePath)) {
+                try {
+                    return InMemoryKeyColumnValueStore.readFrom(storePath, name, ForkJoinPool.commonPool());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        return new InMemoryKeyColumnValueStore(name);
+    }
+
     @Override
     public void mutateMany(Map<String, Map<StaticBuffer, KCVMutation>> mutations, StoreTransaction txh) throws BackendException {
         for (Map.Entry<String, Map<StaticBuffer, KCVMutation>> storeMut : mutations.entrySet()) {
@@ -134,12 +213,20 @@ public class InMemoryStoreManager implements KeyColumnValueStoreManager {
     }
 
     public void makeSnapshot(File targetSnapshotDirectory, ForkJoinPool parallelOperationsExecutor) throws IOException {
+        makeSnapshot(targetSnapshotDirectory, true, parallelOperationsExecutor);
+    }
+
+    /**
+     * Writes the contents of all stores to the given directory, which must not exist yet. Uncompressed snapshots
+     * are larger, but are restored through memory-mapped files.
+     */
+    public void makeSnapshot(File targetSnapshotDirectory, boolean compress, ForkJoinPool parallelOperationsExecutor) throws IOException {
         Files.createDirectory(Paths.get(targetSnapshotDirectory.getAbsolutePath()));
 
         stores.entrySet().stream().map(e -> parallelOperationsExecutor.submit(() ->
         {
             try {
-                dumpStore(e.getKey(), e.getValue(), targetSnapshotDirectory.getAbsolutePath(), parallelOperationsExecutor);
+                dumpStore(e.getKey(), e.getValue(), targetSnapshotDirectory.getAbsolutePath(), compress, parallelOperationsExecutor);
             } catch (Exception ex) {
                 throw new RuntimeException(ex);
             }
@@ -147,12 +234,45 @@ public class InMemoryStoreManager implements KeyColumnValueStoreManager {
             .map(ForkJoinTask::join).collect(Collectors.toList());
     }
 
-    private void dumpStore(String storeName, InMemoryKeyColumnValueStore store, String rootPath, ForkJoinPool parallelOperationsExecutor) throws IOException {
+    private void dumpStore(String storeName, InMemoryKeyColumnValueStore store, String rootPath, boolean compress, ForkJoinPool parallelOperationsExecutor) throws IOException {
         Path filePath = Paths.get(rootPath, storeName);
 
         Files.createDirectory(filePath);
 
-        store.dumpTo(filePath, parallelOperationsExecutor);
+        store.dumpTo(filePath, compress, parallelOperationsExecutor);
+    }
+
+    /**
+     * Replaces the configured snapshot with a snapshot of the open stores. Stores of the previous snapshot which
+     * have not been opened are carried over unchanged.
+     */
+    private void replaceSnapshot() throws IOException {
+        final Path newSnapshot = snapshotDirectory.resolveSibling(snapshotDirectory.getFileName() + ".new");
+        final Path oldSnapshot = snapshotDirectory.resolveSibling(snapshotDirectory.getFileName() + ".old");
+        FileUtils.deleteDirectory(newSnapshot.toFile());
+        FileUtils.deleteDirectory(oldSnapshot.toFile());
+
+        makeSnapshot(newSnapshot.toFile(), snapshotCompression, ForkJoinPool.commonPool());
+        for (Path storePath : getSnapshotStores()) {
+            if (!stores.containsKey(storePath.getFileName().toString())) {
+                Files.move(storePath, newSnapshot.resolve(storePath.getFileName()));
+            }
+        }
+
+        if (Files.exists(snapshotDirectory)) {
+            Files.move(snapshotDirectory, oldSnapshot);
+        }
+        Files.move(newSnapshot, snapshotDirectory);
+        FileUtils.deleteDirectory(oldSnapshot.toFile());
+    }
+
+    private List<Path> getSnapshotStores() throws IOException {
+        if (snapshotDirectory == null || !Files.isDirectory(snapshotDirectory)) {
+            return Collections.emptyList();
+        }
+        try (Stream<Path> paths = Files.list(snapshotDirectory)) {
+            return paths.filter(Files::isDirectory).collect(Collectors.toList());
+        }
     }
 
     public void restoreFromSnapshot(File sourceSnapshotDirectory, boolean rollbackIfFailed, ForkJoinPool parallelOperationsExecutor) throws IOException, BackendException {
@@ -160,7 +280,7 @@ public class InMemoryStoreManager implements KeyColumnValueStoreManager {
         if (!rollbackIfFailed) {
             //NOTE: if rollbackIfFailed is false, we clear current contents of stores before loading, thus freeing up memory to load new data,
             //but we lose the ability to go back to old data if load failed
-            clearStorage();
+            clearStores();
         }
 
         ConcurrentHashMap<String, InMemoryKeyColumnValueStore> newStores = rollbackIfFailed ? new ConcurrentHashMap<>(stores.size()) : stores;
@@ -180,7 +300,7 @@ public class InMemoryStoreManager implements KeyColumnValueStoreManager {
             //NOTE: if rollbackIfFailed is true, we clear current contents of stores only AFTER successful loading,
             // thus having the option to get back to old data if load failed, but we then require 2x memory to hold both old and new data
             // so the risk of OOM increases
-            clearStorage();
+            clearStores();
             stores = newStores;
         }
     }
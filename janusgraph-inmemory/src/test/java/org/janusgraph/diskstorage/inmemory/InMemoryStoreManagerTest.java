@@ -19,15 +19,20 @@ import org.apache.commons.lang3.SystemUtils;
 import org.janusgraph.diskstorage.Entry;
 import org.janusgraph.diskstorage.EntryList;
 import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
 import org.janusgraph.diskstorage.keycolumnvalue.KCVMutation;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
 import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
 import org.janusgraph.diskstorage.util.StandardBaseTransactionConfig;
 import org.janusgraph.diskstorage.util.time.TimestampProviders;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -38,6 +43,8 @@ import java.util.concurrent.ForkJoinPool;
 import static org.janusgraph.diskstorage.inmemory.BufferPageTest.makeEntry;
 import static org.janusgraph.diskstorage.inmemory.BufferPageTest.makeStaticBuffer;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class InMemoryStoreManagerTest
 {
@@ -102,6 +109,7 @@ public class InMemoryStoreManagerTest
         assertEquals(additions2.size(), result2.get(makeStaticBuffer("row1")).size());
         assertEquals(0, result2.get(makeStaticBuffer("row2")).size());
 
+        for (boolean compress : new boolean[] {true, false})
         for (boolean rollbackIfFailed : new boolean[] {true, false})
         {
             File testSnapshotDir = new File(SystemUtils.JAVA_IO_TMPDIR, Long.toString(System.currentTimeMillis()));
@@ -109,7 +117,7 @@ public class InMemoryStoreManagerTest
 
             try
             {
-                imsm.makeSnapshot(testSnapshotDir, ForkJoinPool.commonPool());
+                imsm.makeSnapshot(testSnapshotDir, compress, ForkJoinPool.commonPool());
 
                 imsm.clearStorage(); //to make the fact that the previous contents were cleared visible
 
@@ -143,4 +151,46 @@ public class InMemoryStoreManagerTest
 
         imsm.close();
     }
+
+    @Test
+    public void testConfiguredSnapshotDirectory(@TempDir Path tempDir) throws Exception
+    {
+        Path snapshotDir = tempDir.resolve("snapshot");
+        ModifiableConfiguration config = GraphDatabaseConfiguration.buildGraphConfiguration();
+        config.set(InMemoryStoreManager.SNAPSHOT_DIRECTORY, snapshotDir.toString());
+
+        InMemoryStoreManager imsm = new InMemoryStoreManager(config);
+        assertTrue(imsm.getFeatures().supportsPersistence());
+        assertFalse(imsm.exists());
+
+        KeyColumnValueStore kcvs1 = imsm.openDatabase("testStore1");
+        imsm.openDatabase("testStore2");
+        StoreTransaction txh = imsm.beginTransaction(StandardBaseTransactionConfig.of(TimestampProviders.MICRO, imsm.getFeatures().getKeyConsistentTxConfig()));
+        List<Entry> additions = Arrays.asList(makeEntry("01col1", "val1"), makeEntry("02col2", "val2"));
+        kcvs1.mutate(makeStaticBuffer("row1"), additions, Collections.emptyList(), txh);
+        KeySliceQuery query = new KeySliceQuery(makeStaticBuffer("row1"),
+                makeStaticBuffer(InMemoryColumnValueStoreTest.COL_START),
+                makeStaticBuffer(InMemoryColumnValueStoreTest.VERY_END));
+        EntryList result = kcvs1.getSlice(query, txh);
+        imsm.close();
+
+        assertTrue(Files.isDirectory(snapshotDir.resolve("testStore1")));
+        assertTrue(Files.isDirectory(snapshotDir.resolve("testStore2")));
+
+        //stores which are not opened before closing are carried over into the new snapshot
+        imsm = new InMemoryStoreManager(config);
+        assertTrue(imsm.exists());
+        imsm.openDatabase("testStore2");
+        imsm.close();
+
+        imsm = new InMemoryStoreManager(config);
+        kcvs1 = imsm.openDatabase("testStore1");
+        txh = imsm.beginTransaction(StandardBaseTransactionConfig.of(TimestampProviders.MICRO, imsm.getFeatures().getKeyConsistentTxConfig()));
+        assertEquals(result, kcvs1.getSlice(query, txh));
+
+        imsm.clearStorage();
+        assertFalse(imsm.exists());
+        assertFalse(Files.exists(snapshotDir));
+        imsm.close();
+    }
 }
@@ -0,0 +1,38 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.inmemory;
+
+import org.janusgraph.diskstorage.configuration.BasicConfiguration;
+import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.configuration.WriteConfiguration;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.COMPUTER_OFF_HEAP_VERTEX_MEMORY;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.COMPUTER_VERTEX_MEMORY_SPILL_THRESHOLD;
+
+/**
+ * Runs the OLAP tests with the off-heap vertex memory, spilling most of its pages to memory-mapped files.
+ */
+public class InMemoryOffHeapOLAPTest extends InMemoryOLAPTest {
+
+    @Override
+    public WriteConfiguration getConfiguration() {
+        ModifiableConfiguration config = new ModifiableConfiguration(GraphDatabaseConfiguration.ROOT_NS,
+            super.getConfiguration(), BasicConfiguration.Restriction.NONE);
+        config.set(COMPUTER_OFF_HEAP_VERTEX_MEMORY, true);
+        config.set(COMPUTER_VERTEX_MEMORY_SPILL_THRESHOLD, 4L << 20);
+        return config.getConfiguration();
+    }
+}
@@ -17,6 +17,7 @@ package org.janusgraph.diskstorage.lucene;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.lucene.analysis.Analyzer;
@@ -34,9 +35,7 @@ import org.apache.lucene.document.SortedDocValuesField;
 import org.apache.lucene.document.StoredField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
-import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexNotFoundException;
-import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.IndexableField;
@@ -55,6 +54,7 @@ import org.apache.lucene.search.NormsFieldExistsQuery;
 import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.RegexpQuery;
+import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.TermQuery;
@@ -83,6 +83,8 @@ import org.janusgraph.diskstorage.BaseTransactionConfig;
 import org.janusgraph.diskstorage.BaseTransactionConfigurable;
 import org.janusgraph.diskstorage.PermanentBackendException;
 import org.janusgraph.diskstorage.TemporaryBackendException;
+import org.janusgraph.diskstorage.configuration.ConfigNamespace;
+import org.janusgraph.diskstorage.configuration.ConfigOption;
 import org.janusgraph.diskstorage.configuration.Configuration;
 import org.janusgraph.diskstorage.indexing.IndexEntry;
 import org.janusgraph.diskstorage.indexing.IndexFeatures;
@@ -92,6 +94,7 @@ import org.janusgraph.diskstorage.indexing.IndexQuery;
 import org.janusgraph.diskstorage.indexing.KeyInformation;
 import org.janusgraph.diskstorage.indexing.RawQuery;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.janusgraph.graphdb.configuration.PreInitializeConfigOptions;
 import org.janusgraph.graphdb.database.serialize.AttributeUtils;
 import org.janusgraph.graphdb.internal.Order;
 import org.janusgraph.graphdb.query.JanusGraphPredicate;
@@ -101,7 +104,6 @@ import org.janusgraph.graphdb.query.condition.Not;
 import org.janusgraph.graphdb.query.condition.Or;
 import org.janusgraph.graphdb.query.condition.PredicateCondition;
 import org.janusgraph.graphdb.types.ParameterType;
-import org.janusgraph.util.system.IOUtils;
 import org.locationtech.spatial4j.context.SpatialContext;
 import org.locationtech.spatial4j.shape.Shape;
 import org.slf4j.Logger;
@@ -113,6 +115,7 @@ import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
@@ -126,18 +129,44 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.INDEX_NS;
+
 /**
  * @author Matthias Broecheler (me@matthiasb.com)
  */
 
+@PreInitializeConfigOptions
 public class LuceneIndex implements IndexProvider {
     private static final Logger log = LoggerFactory.getLogger(LuceneIndex.class);
 
+    public static final ConfigNamespace LUCENE_NS =
+            new ConfigNamespace(INDEX_NS, "lucene", "Lucene index configuration");
+
+    public static final ConfigOption<Duration> REFRESH_INTERVAL =
+            new ConfigOption<>(LUCENE_NS, "refresh-interval",
+            "Interval in which the searchers shared by all queries are refreshed in the background. " +
+            "When zero, a searcher is refreshed whenever a transaction starts to query a store that has changed, " +
+            "so that each transaction sees all changes committed before its first query.",
+            ConfigOption.Type.MASKABLE, Duration.ZERO);
+
+    public static final ConfigOption<Boolean> GROUP_COMMIT =
+            new ConfigOption<>(LUCENE_NS, "group-commit",
+            "Whether concurrent transactions share their Lucene commits. When enabled, the changes of a transaction " +
+            "are applied while holding the index writer lock, but the commit and its fsync happen outside of it and " +
+            "cover the changes of all transactions applied in the meantime. Otherwise, each mutated store is " +
+            "committed while holding the writer lock.",
+            ConfigOption.Type.MASKABLE, false);
+
     static final String DOCID = "_____elementid";
     private static final String STRING_SUFFIX = "_____s";
     private static final String GEOID = "_____geo";
@@ -167,9 +196,26 @@ public class LuceneIndex implements IndexProvider {
 
     private static final Map<Geo, SpatialOperation> SPATIAL_PREDICATES = spatialPredicates();
 
-    private final Map<String, IndexWriter> writers = new HashMap<>(4);
+    private final Map<String, IndexWriter> writers = new ConcurrentHashMap<>(4);
     private final ReentrantLock writerLock = new ReentrantLock();
 
+    /**
+     * Searchers shared by all transactions. Stores with a writer use near-real-time searchers on top of that writer,
+     * other stores use searchers on the last commit of their directory.
+     */
+    private final Map<String, SearcherManager> searcherManagers = new ConcurrentHashMap<>(4);
+    // held for reading while using a searcher manager and for writing while replacing and closing one
+    private final ReadWriteLock searcherLock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService searcherRefresher;
+
+    private final boolean groupCommit;
+    private final Object commitMonitor = new Object();
+    // number of mutations applied to the writers, only incremented while holding the writer lock
+    private volatile long appliedMutations = 0;
+    // number of mutations covered by a completed group commit, guarded by commitMonitor
+    private long committedMutations = 0;
+    private boolean committing = false;
+
     private final Map<String, SpatialStrategy> spatial = new ConcurrentHashMap<>(12);
     private final SpatialContext ctx = Geoshape.getSpatialContext();
 
@@ -188,6 +234,19 @@ public class LuceneIndex implements IndexProvider {
         }
         basePath = directory.getAbsolutePath();
         log.debug("Configured Lucene to use base directory [{}]", basePath);
+
+        groupCommit = config.get(GROUP_COMMIT);
+        final Duration refreshInterval = config.get(REFRESH_INTERVAL);
+        if (refreshInterval.isZero()) {
+            searcherRefresher = null;
+        } else {
+            searcherRefresher = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("LuceneIndex-refresher-%d")
+                .build());
+            searcherRefresher.scheduleWithFixedDelay(this::refreshSearchers,
+                refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
     }
 
     private Directory getStoreDirectory(String store) throws BackendException {
@@ -205,6 +264,10 @@ public class LuceneIndex implements IndexProvider {
         }
     }
 
+    /**
+     * Returns the writer of the given store, creating it if needed. Creating a writer also replaces the searchers
+     * of the store with near-real-time searchers on top of the writer.
+     */
     private IndexWriter getWriter(String store, KeyInformation.IndexRetriever informations) throws BackendException {
         Preconditions.checkArgument(writerLock.isHeldByCurrentThread());
         IndexWriter writer = writers.get(store);
@@ -214,6 +277,14 @@ public class LuceneIndex implements IndexProvider {
             iwc.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
             try {
                 writer = new IndexWriter(getStoreDirectory(store), iwc);
+                final SearcherManager searcherManager = new SearcherManager(writer, true, true, null);
+                searcherLock.writeLock().lock();
+                try {
+                    final SearcherManager previous = searcherManagers.put(store, searcherManager);
+                    if (previous != null) previous.close();
+                } finally {
+                    searcherLock.writeLock().unlock();
+                }
                 writers.put(store, writer);
             } catch (final IOException e) {
                 throw new PermanentBackendException("Could not create writer", e);
@@ -222,6 +293,44 @@ public class LuceneIndex implements IndexProvider {
         return writer;
     }
 
+    /**
+     * Returns the searchers of the given store, or null if the store does not yet have an index. The caller must hold
+     * the read lock of {@link #searcherLock} while using the returned searcher manager.
+     */
+    private SearcherManager getSearcherManager(String store) throws BackendException {
+        SearcherManager searcherManager = searcherManagers.get(store);
+        if (searcherManager != null) return searcherManager;
+        synchronized (searcherManagers) {
+            searcherManager = searcherManagers.get(store);
+            if (searcherManager == null) {
+                try {
+                    searcherManager = new SearcherManager(getStoreDirectory(store), null);
+                } catch (final IndexNotFoundException e) {
+                    return null;
+                } catch (final IOException e) {
+                    throw new PermanentBackendException("Could not open index reader on store: " + store, e);
+                }
+                searcherManagers.put(store, searcherManager);
+            }
+            return searcherManager;
+        }
+    }
+
+    private void refreshSearchers() {
+        searcherLock.readLock().lock();
+        try {
+            for (final Map.Entry<String, SearcherManager> searcherManager : searcherManagers.entrySet()) {
+                try {
+                    searcherManager.getValue().maybeRefresh();
+                } catch (final IOException | RuntimeException e) {
+                    log.warn("Could not refresh searcher on store: {}", searcherManager.getKey(), e);
+                }
+            }
+        } finally {
+            searcherLock.readLock().unlock();
+        }
+    }
+
     private SpatialStrategy getSpatialStrategy(String key, KeyInformation ki) {
         SpatialStrategy strategy = spatial.get(key);
         final Mapping mapping = Mapping.getMapping(ki);
@@ -269,26 +378,67 @@ public class LuceneIndex implements IndexProvider {
     @Override
     public void mutate(Map<String, Map<String, IndexMutation>> mutations, KeyInformation.IndexRetriever information, BaseTransaction tx) throws BackendException {
         final Transaction ltx = (Transaction) tx;
+        final long mutation;
         writerLock.lock();
         try {
             for (final Map.Entry<String, Map<String, IndexMutation>> stores : mutations.entrySet()) {
                 mutateStores(stores, information);
             }
+            mutation = ++appliedMutations;
             ltx.postCommit();
         } catch (final IOException e) {
             throw new TemporaryBackendException("Could not update Lucene index", e);
         } finally {
             writerLock.unlock();
         }
+        if (groupCommit) awaitGroupCommit(mutation);
+    }
+
+    /**
+     * Waits until the given mutation has been committed. If no commit is in progress, the calling thread commits all
+     * writers itself, which covers all mutations applied so far. Otherwise it waits for the running commit and, if that
+     * commit started before the mutation was applied, takes over the next one.
+     */
+    private void awaitGroupCommit(long mutation) throws BackendException {
+        final long commitUpTo;
+        synchronized (commitMonitor) {
+            while (committedMutations < mutation && committing) {
+                try {
+                    commitMonitor.wait();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new TemporaryBackendException("Interrupted while waiting for Lucene commit", e);
+                }
+            }
+            if (committedMutations >= mutation) return;
+            committing = true;
+            commitUpTo = appliedMutations;
+        }
+        boolean committed = false;
+        try {
+            for (final IndexWriter writer : writers.values()) {
+                if (writer.hasUncommittedChanges()) writer.commit();
+            }
+            committed = true;
+        } catch (final IOException e) {
+            throw new TemporaryBackendException("Could not commit Lucene index", e);
+        } finally {
+            synchronized (commitMonitor) {
+                if (committed) committedMutations = Math.max(committedMutations, commitUpTo);
+                committing = false;
+                commitMonitor.notifyAll();
+            }
+        }
     }
 
     private void mutateStores(Map.Entry<String, Map<String, IndexMutation>> stores, KeyInformation.IndexRetriever information) throws IOException, BackendException {
-        IndexReader reader = null;
+        final String storeName = stores.getKey();
+        final IndexWriter writer = getWriter(storeName, information);
+        final SearcherManager searcherManager = searcherManagers.get(storeName);
+        // documents are updated based on their current content, so the searcher must see all previous mutations
+        searcherManager.maybeRefreshBlocking();
+        final IndexSearcher searcher = searcherManager.acquire();
         try {
-            final String storeName = stores.getKey();
-            final IndexWriter writer = getWriter(storeName, information);
-            reader = DirectoryReader.open(writer, true, true);
-            final IndexSearcher searcher = new IndexSearcher(reader);
             final KeyInformation.StoreRetriever storeRetriever = information.get(storeName);
             for (final Map.Entry<String, IndexMutation> entry : stores.getValue().entrySet()) {
                 final String documentId = entry.getKey();
@@ -320,9 +470,9 @@ public class LuceneIndex implements IndexProvider {
                 //write the old document to the index with the modifications
                 writer.updateDocument(new Term(DOCID, documentId), doc);
             }
-            writer.commit();
+            if (!groupCommit) writer.commit();
         } finally {
-            IOUtils.closeQuietly(reader);
+            searcherManager.release(searcher);
         }
     }
 
@@ -331,13 +481,13 @@ public class LuceneIndex implements IndexProvider {
         writerLock.lock();
         try {
             for (final Map.Entry<String, Map<String, List<IndexEntry>>> stores : documents.entrySet()) {
-                IndexReader reader = null;
+                final String store = stores.getKey();
+                final IndexWriter writer = getWriter(store, information);
+                final KeyInformation.StoreRetriever storeRetriever = information.get(store);
+                final SearcherManager searcherManager = searcherManagers.get(store);
+                searcherManager.maybeRefreshBlocking();
+                final IndexSearcher searcher = searcherManager.acquire();
                 try {
-                    final String store = stores.getKey();
-                    final IndexWriter writer = getWriter(store, information);
-                    final KeyInformation.StoreRetriever storeRetriever = information.get(store);
-                    reader = DirectoryReader.open(writer, true, true);
-                    final IndexSearcher searcher = new IndexSearcher(reader);
 
                     for (final Map.Entry<String, List<IndexEntry>> entry : stores.getValue().entrySet()) {
                         final String docID = entry.getKey();
@@ -360,7 +510,7 @@ public class LuceneIndex implements IndexProvider {
                     }
                     writer.commit();
                 } finally {
-                    IOUtils.closeQuietly(reader);
+                    searcherManager.release(searcher);
                 }
             }
             tx.commit();
@@ -1008,6 +1158,15 @@ public class LuceneIndex implements IndexProvider {
 
     @Override
     public void close() throws BackendException {
+        if (searcherRefresher != null) searcherRefresher.shutdownNow();
+        searcherLock.writeLock().lock();
+        try {
+            for (final SearcherManager searcherManager : searcherManagers.values()) searcherManager.close();
+        } catch (final IOException e) {
+            throw new PermanentBackendException("Could not close searchers", e);
+        } finally {
+            searcherLock.writeLock().unlock();
+        }
         try {
             for (final IndexWriter w : writers.values()) w.close();
         } catch (final IOException e) {
@@ -1068,31 +1227,36 @@ public class LuceneIndex implements IndexProvider {
         private final BaseTransactionConfig config;
         private final Set<String> updatedStores = Sets.newHashSet();
         private final Map<String, IndexSearcher> searchers = new HashMap<>(4);
+        // the searcher managers to release the acquired searchers to
+        private final Map<IndexSearcher, SearcherManager> acquiredSearchers = new HashMap<>(4);
 
         private Transaction(BaseTransactionConfig config) {
             this.config = config;
         }
 
         private synchronized IndexSearcher getSearcher(String store) throws BackendException {
-            IndexSearcher searcher = searchers.get(store);
-            if (searcher == null) {
-                final IndexReader reader;
-                try {
-                    reader = DirectoryReader.open(getStoreDirectory(store));
-                    searcher = new IndexSearcher(reader);
-                } catch (final IndexNotFoundException e) {
-                    searcher = null;
-                } catch (final IOException e) {
-                    throw new PermanentBackendException("Could not open index reader on store: " + store, e);
+            if (searchers.containsKey(store)) return searchers.get(store);
+            IndexSearcher searcher = null;
+            // a concurrently created writer must not close the searcher manager before the searcher is acquired
+            searcherLock.readLock().lock();
+            try {
+                final SearcherManager searcherManager = getSearcherManager(store);
+                if (searcherManager != null) {
+                    if (searcherRefresher == null) searcherManager.maybeRefreshBlocking();
+                    searcher = searcherManager.acquire();
+                    acquiredSearchers.put(searcher, searcherManager);
                 }
-                searchers.put(store, searcher);
+            } catch (final IOException e) {
+                throw new PermanentBackendException("Could not open index reader on store: " + store, e);
+            } finally {
+                searcherLock.readLock().unlock();
             }
+            searchers.put(store, searcher);
             return searcher;
         }
 
         public void postCommit() throws BackendException {
             close();
-            searchers.clear();
         }
 
         @Override
@@ -1105,13 +1269,16 @@ public class LuceneIndex implements IndexProvider {
             close();
         }
 
-        private void close() throws BackendException {
+        private synchronized void close() throws BackendException {
             try {
-                for (final IndexSearcher searcher : searchers.values()) {
-                    if (searcher != null) searcher.getIndexReader().close();
+                for (final Map.Entry<IndexSearcher, SearcherManager> searcher : acquiredSearchers.entrySet()) {
+                    searcher.getValue().release(searcher.getKey());
                 }
             } catch (final IOException e) {
                 throw new PermanentBackendException("Could not close searcher", e);
+            } finally {
+                acquiredSearchers.clear();
+                searchers.clear();
             }
         }
 
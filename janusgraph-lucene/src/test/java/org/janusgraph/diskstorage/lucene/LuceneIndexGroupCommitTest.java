@@ -0,0 +1,80 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.lucene;
+
+import org.janusgraph.StorageSetup;
+import org.janusgraph.core.attribute.Cmp;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.configuration.Configuration;
+import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.indexing.IndexProvider;
+import org.janusgraph.diskstorage.indexing.IndexQuery;
+import org.janusgraph.diskstorage.indexing.IndexTransaction;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.janusgraph.graphdb.query.condition.PredicateCondition;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the index provider tests against a {@link LuceneIndex} which shares commits between concurrent transactions.
+ */
+public class LuceneIndexGroupCommitTest extends LuceneIndexTest {
+
+    @Override
+    public IndexProvider openIndex() throws BackendException {
+        return new LuceneIndex(getGroupCommitConfig());
+    }
+
+    private static Configuration getGroupCommitConfig() {
+        final String index = "lucene";
+        final ModifiableConfiguration config = GraphDatabaseConfiguration.buildGraphConfiguration();
+        config.set(GraphDatabaseConfiguration.INDEX_DIRECTORY, StorageSetup.getHomeDir("lucene"), index);
+        config.set(LuceneIndex.GROUP_COMMIT, true, index);
+        return config.restrictTo(index);
+    }
+
+    @Test
+    public void testConcurrentMutationsAreCommitted() throws Exception {
+        final int numTransactions = 32;
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<?>> futures = new ArrayList<>(numTransactions);
+            for (int i = 0; i < numTransactions; i++) {
+                final int docId = i;
+                futures.add(executor.submit(() -> {
+                    final IndexTransaction itx = openTx();
+                    itx.add("vertex", "doc" + docId, TIME, (long) docId, true);
+                    itx.commit();
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) future.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        // all changes must have been committed before the transactions returned
+        clopen();
+        assertEquals(numTransactions, tx.queryStream(new IndexQuery("vertex",
+            PredicateCondition.of(TIME, Cmp.GREATER_THAN_EQUAL, 0L))).count());
+    }
+}
@@ -23,15 +23,22 @@ import org.janusgraph.core.attribute.Text;
 import org.janusgraph.core.schema.Mapping;
 import org.janusgraph.core.schema.Parameter;
 import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.BaseTransactionConfig;
 import org.janusgraph.diskstorage.configuration.Configuration;
 import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
 import org.janusgraph.diskstorage.indexing.IndexProvider;
 import org.janusgraph.diskstorage.indexing.IndexProviderTest;
+import org.janusgraph.diskstorage.indexing.IndexQuery;
+import org.janusgraph.diskstorage.indexing.IndexTransaction;
+import org.janusgraph.diskstorage.util.StandardBaseTransactionConfig;
+import org.janusgraph.diskstorage.util.time.TimestampProviders;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.janusgraph.graphdb.query.condition.PredicateCondition;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.Date;
 import java.util.UUID;
 
@@ -145,4 +152,34 @@ public class LuceneIndexTest extends IndexProviderTest {
         String expected = "field" + REPLACEMENT_CHAR + "name" + REPLACEMENT_CHAR + "with" + REPLACEMENT_CHAR + "spaces";
         assertEquals(expected, index.mapKey2Field("field name with spaces", null));
     }
+
+    @Test
+    public void testSearchersAreRefreshedInBackground() throws Exception {
+        final String name = "lucene";
+        final ModifiableConfiguration config = GraphDatabaseConfiguration.buildGraphConfiguration();
+        config.set(GraphDatabaseConfiguration.INDEX_DIRECTORY, StorageSetup.getHomeDir("lucene-refresh"), name);
+        config.set(LuceneIndex.REFRESH_INTERVAL, Duration.ofMillis(50), name);
+        final LuceneIndex refreshingIndex = new LuceneIndex(config.restrictTo(name));
+        try {
+            refreshingIndex.clearStorage();
+            final BaseTransactionConfig txConfig = StandardBaseTransactionConfig.of(TimestampProviders.MILLI);
+            final IndexQuery query = new IndexQuery("vertex", PredicateCondition.of(TIME, Cmp.EQUAL, 1001L));
+
+            IndexTransaction itx = new IndexTransaction(refreshingIndex, indexRetriever, txConfig, Duration.ofMillis(2000L));
+            assertEquals(0, itx.queryStream(query).count());
+            itx.add("vertex", "doc1", TIME, 1001L, true);
+            itx.commit();
+
+            long count = 0;
+            for (int i = 0; i < 200 && count == 0; i++) {
+                Thread.sleep(50);
+                itx = new IndexTransaction(refreshingIndex, indexRetriever, txConfig, Duration.ofMillis(2000L));
+                count = itx.queryStream(query).count();
+                itx.commit();
+            }
+            assertEquals(1, count);
+        } finally {
+            refreshingIndex.close();
+        }
+    }
 }
@@ -49,6 +49,14 @@ public class JanusGraphContextHandler {
         return JanusGraphContext.newBuilder().setGraphName(graphName).build();
     }
 
+    public JanusGraph getGraphByContext(JanusGraphContext context) {
+        Graph graph = graphManager.getGraph(context.getGraphName());
+        if (!(graph instanceof JanusGraph)) {
+            return null;
+        }
+        return (JanusGraph) graph;
+    }
+
     public SchemaManagerProvider getSchemaManagerProviderByContext(JanusGraphContext context) {
         Graph graph = graphManager.getGraph(context.getGraphName());
         if (!(graph instanceof JanusGraph)) {
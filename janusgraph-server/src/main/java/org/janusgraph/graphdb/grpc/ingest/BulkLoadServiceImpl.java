@@ -0,0 +1,122 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.grpc.ingest;
+
+import io.grpc.Status;
+import io.grpc.StatusException;
+import io.grpc.stub.StreamObserver;
+import org.janusgraph.core.JanusGraph;
+import org.janusgraph.graphdb.grpc.JanusGraphContextHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Accepts a stream of vertices and edges and writes them in batch loading transactions. The first
+ * request of a stream selects the graph and the load options, every following request only contributes
+ * elements. gRPC delivers the requests of one call sequentially, so a {@link BulkLoader} is never
+ * accessed concurrently.
+ */
+public class BulkLoadServiceImpl extends BulkLoadServiceGrpc.BulkLoadServiceImplBase {
+    private static final Logger log = LoggerFactory.getLogger(BulkLoadServiceImpl.class);
+
+    private final JanusGraphContextHandler contextHandler;
+    private final int defaultTransactionSize;
+
+    public BulkLoadServiceImpl(JanusGraphContextHandler contextHandler, int defaultTransactionSize) {
+        this.contextHandler = contextHandler;
+        this.defaultTransactionSize = defaultTransactionSize;
+    }
+
+    @Override
+    public StreamObserver<BulkLoadRequest> bulkLoad(StreamObserver<BulkLoadResponse> responseObserver) {
+        return new StreamObserver<BulkLoadRequest>() {
+            private BulkLoader loader = null;
+            private boolean failed = false;
+
+            @Override
+            public void onNext(BulkLoadRequest request) {
+                if (failed) return;
+                try {
+                    if (loader == null) {
+                        loader = createLoader(request);
+                    }
+                    BulkLoadResponse ack = loader.load(request);
+                    if (ack != null) {
+                        responseObserver.onNext(ack);
+                    }
+                } catch (StatusException e) {
+                    fail(e);
+                } catch (RuntimeException e) {
+                    log.warn("Bulk load failed", e);
+                    fail(Status.INTERNAL.withDescription(e.getMessage()).withCause(e).asException());
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.debug("Bulk load stream was cancelled by the client", t);
+                failed = true;
+                if (loader != null) {
+                    loader.rollback();
+                }
+            }
+
+            @Override
+            public void onCompleted() {
+                if (failed) return;
+                try {
+                    if (loader == null) {
+                        throw Status.INVALID_ARGUMENT.withDescription("stream did not contain any request").asException();
+                    }
+                    responseObserver.onNext(loader.finish());
+                    responseObserver.onCompleted();
+                } catch (StatusException e) {
+                    fail(e);
+                } catch (RuntimeException e) {
+                    log.warn("Bulk load failed on final commit", e);
+                    fail(Status.INTERNAL.withDescription(e.getMessage()).withCause(e).asException());
+                }
+            }
+
+            private void fail(StatusException e) {
+                failed = true;
+                if (loader != null) {
+                    loader.rollback();
+                }
+                responseObserver.onError(e);
+            }
+        };
+    }
+
+    private BulkLoader createLoader(BulkLoadRequest request) throws StatusException {
+        if (!request.hasContext()) {
+            throw Status.INVALID_ARGUMENT.withDescription("context is required").asException();
+        }
+        JanusGraph graph = contextHandler.getGraphByContext(request.getContext());
+        if (graph == null) {
+            throw Status.INVALID_ARGUMENT
+                .withDescription("a graph was not found with the provided context").asException();
+        }
+        BulkLoadOptions options = request.getOptions();
+        if (options.getTransactionSize() < 0 || options.getAckInterval() < 0) {
+            throw Status.INVALID_ARGUMENT
+                .withDescription("transaction_size and ack_interval must not be negative").asException();
+        }
+        int transactionSize = options.getTransactionSize() > 0 ? options.getTransactionSize() : defaultTransactionSize;
+        int ackInterval = Math.max(1, options.getAckInterval());
+        String externalIdKey = options.getExternalIdPropertyKey().isEmpty() ? null : options.getExternalIdPropertyKey();
+        return new BulkLoader(graph, transactionSize, ackInterval, externalIdKey);
+    }
+}
@@ -0,0 +1,215 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.grpc.ingest;
+
+import com.carrotsearch.hppc.ObjectLongHashMap;
+import io.grpc.Status;
+import io.grpc.StatusException;
+import org.janusgraph.core.JanusGraph;
+import org.janusgraph.core.JanusGraphEdge;
+import org.janusgraph.core.JanusGraphElement;
+import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.core.JanusGraphVertex;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the elements of one bulk load stream. Elements are added to a batch loading transaction which is
+ * committed once it holds {@code transactionSize} elements. Vertices are remembered by their external id
+ * so that edges of later requests and transactions can refer to them without a lookup. The counts reported
+ * in acks only include elements of committed transactions.
+ */
+class BulkLoader {
+
+    private final JanusGraph graph;
+    private final int transactionSize;
+    private final int ackInterval;
+    private final String externalIdKey;
+    private final long startTime;
+
+    private final Map<String, JanusGraphVertex> uncommittedVertices = new HashMap<>();
+    private final ObjectLongHashMap<String> committedVertexIds = new ObjectLongHashMap<>();
+
+    private JanusGraphTransaction tx = null;
+    private int elementsInTransaction = 0;
+    private int verticesInTransaction = 0;
+    private long verticesLoaded = 0;
+    private long edgesLoaded = 0;
+    private long transactionsCommitted = 0;
+
+    BulkLoader(JanusGraph graph, int transactionSize, int ackInterval, String externalIdKey) {
+        this.graph = graph;
+        this.transactionSize = transactionSize;
+        this.ackInterval = ackInterval;
+        this.externalIdKey = externalIdKey;
+        this.startTime = System.nanoTime();
+    }
+
+    /**
+     * Adds the elements of the request and returns an ack if enough transactions were committed since the
+     * last one, otherwise {@code null}.
+     */
+    BulkLoadResponse load(BulkLoadRequest request) throws StatusException {
+        long committedBefore = transactionsCommitted;
+        for (BulkVertex vertex : request.getVerticesList()) {
+            addVertex(vertex);
+            verticesInTransaction++;
+            elementAdded();
+        }
+        for (BulkEdge edge : request.getEdgesList()) {
+            addEdge(edge);
+            elementAdded();
+        }
+        if (committedBefore / ackInterval != transactionsCommitted / ackInterval) {
+            return buildResponse(false);
+        }
+        return null;
+    }
+
+    BulkLoadResponse finish() {
+        commit();
+        return buildResponse(true);
+    }
+
+    void rollback() {
+        if (tx != null && tx.isOpen()) {
+            tx.rollback();
+        }
+        tx = null;
+        uncommittedVertices.clear();
+        elementsInTransaction = 0;
+        verticesInTransaction = 0;
+    }
+
+    private JanusGraphTransaction getTx() {
+        if (tx == null) {
+            tx = graph.buildTransaction().enableBatchLoading().start();
+        }
+        return tx;
+    }
+
+    private void elementAdded() {
+        if (++elementsInTransaction >= transactionSize) {
+            commit();
+        }
+    }
+
+    private void commit() {
+        if (tx == null) return;
+        tx.commit();
+        tx = null;
+        for (Map.Entry<String, JanusGraphVertex> entry : uncommittedVertices.entrySet()) {
+            committedVertexIds.put(entry.getKey(), entry.getValue().longId());
+        }
+        uncommittedVertices.clear();
+        verticesLoaded += verticesInTransaction;
+        edgesLoaded += elementsInTransaction - verticesInTransaction;
+        elementsInTransaction = 0;
+        verticesInTransaction = 0;
+        transactionsCommitted++;
+    }
+
+    private void addVertex(BulkVertex vertex) throws StatusException {
+        String externalId = vertex.getExternalId();
+        if (externalId.isEmpty()) {
+            throw Status.INVALID_ARGUMENT.withDescription("external_id is required").asException();
+        }
+        if (uncommittedVertices.containsKey(externalId) || committedVertexIds.containsKey(externalId)) {
+            throw Status.ALREADY_EXISTS
+                .withDescription("vertex with external_id was already loaded: " + externalId).asException();
+        }
+        JanusGraphVertex v = vertex.getLabel().isEmpty() ? getTx().addVertex() : getTx().addVertex(vertex.getLabel());
+        if (externalIdKey != null) {
+            v.property(externalIdKey, externalId);
+        }
+        setProperties(v, vertex.getPropertiesList());
+        uncommittedVertices.put(externalId, v);
+    }
+
+    private void addEdge(BulkEdge edge) throws StatusException {
+        if (edge.getLabel().isEmpty()) {
+            throw Status.INVALID_ARGUMENT.withDescription("edge label is required").asException();
+        }
+        JanusGraphVertex outVertex = getVertex(edge.getOutVertexExternalId());
+        JanusGraphVertex inVertex = getVertex(edge.getInVertexExternalId());
+        JanusGraphEdge e = outVertex.addEdge(edge.getLabel(), inVertex);
+        setProperties(e, edge.getPropertiesList());
+    }
+
+    private JanusGraphVertex getVertex(String externalId) throws StatusException {
+        JanusGraphVertex vertex = uncommittedVertices.get(externalId);
+        if (vertex != null) return vertex;
+        if (committedVertexIds.containsKey(externalId)) {
+            return getTx().getVertex(committedVertexIds.get(externalId));
+        }
+        if (externalIdKey != null && !externalId.isEmpty()) {
+            Iterator<JanusGraphVertex> vertices = getTx().query().has(externalIdKey, externalId).vertices().iterator();
+            if (vertices.hasNext()) {
+                vertex = vertices.next();
+                committedVertexIds.put(externalId, vertex.longId());
+                return vertex;
+            }
+        }
+        throw Status.NOT_FOUND.withDescription("No vertex found with external_id: " + externalId).asException();
+    }
+
+    private static void setProperties(JanusGraphElement element, List<PropertyValue> properties) throws StatusException {
+        for (PropertyValue property : properties) {
+            if (property.getKey().isEmpty()) {
+                throw Status.INVALID_ARGUMENT.withDescription("property key is required").asException();
+            }
+            element.property(property.getKey(), convertPropertyValue(property));
+        }
+    }
+
+    private static Object convertPropertyValue(PropertyValue property) throws StatusException {
+        switch (property.getValueCase()) {
+            case STRING_VALUE:
+                return property.getStringValue();
+            case LONG_VALUE:
+                return property.getLongValue();
+            case INT_VALUE:
+                return property.getIntValue();
+            case DOUBLE_VALUE:
+                return property.getDoubleValue();
+            case FLOAT_VALUE:
+                return property.getFloatValue();
+            case BOOLEAN_VALUE:
+                return property.getBooleanValue();
+            case BYTES_VALUE:
+                return property.getBytesValue().toByteArray();
+            case VALUE_NOT_SET:
+            default:
+                throw Status.INVALID_ARGUMENT
+                    .withDescription("No value set for property: " + property.getKey()).asException();
+        }
+    }
+
+    private BulkLoadResponse buildResponse(boolean completed) {
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+        long elements = verticesLoaded + edgesLoaded;
+        return BulkLoadResponse.newBuilder()
+            .setVerticesLoaded(verticesLoaded)
+            .setEdgesLoaded(edgesLoaded)
+            .setTransactionsCommitted(transactionsCommitted)
+            .setElapsedMillis(elapsedMillis)
+            .setElementsPerSecond(elapsedMillis > 0 ? elements * 1000.0 / elapsedMillis : elements)
+            .setCompleted(completed)
+            .build();
+    }
+}
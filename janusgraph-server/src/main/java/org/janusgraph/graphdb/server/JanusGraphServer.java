@@ -22,6 +22,7 @@ import org.apache.tinkerpop.gremlin.server.GremlinServer;
 import org.apache.tinkerpop.gremlin.server.util.ServerGremlinExecutor;
 import org.janusgraph.graphdb.grpc.JanusGraphContextHandler;
 import org.janusgraph.graphdb.grpc.JanusGraphManagerServiceImpl;
+import org.janusgraph.graphdb.grpc.ingest.BulkLoadServiceImpl;
 import org.janusgraph.graphdb.grpc.schema.SchemaManagerImpl;
 import org.janusgraph.graphdb.management.JanusGraphManager;
 import org.slf4j.Logger;
@@ -71,6 +72,8 @@ public class JanusGraphServer {
             .forPort(janusGraphSettings.getGrpcServer().getPort())
             .addService(new JanusGraphManagerServiceImpl(janusGraphContextHandler))
             .addService(new SchemaManagerImpl(janusGraphContextHandler))
+            .addService(new BulkLoadServiceImpl(janusGraphContextHandler,
+                janusGraphSettings.getGrpcServer().getBulkLoadTransactionSize()))
             .build();
     }
 
@@ -54,6 +54,7 @@ public class JanusGraphSettings extends Settings {
     public static class GrpcServerSettings {
         private boolean enabled = false;
         private int port = 10182;
+        private int bulkLoadTransactionSize = 10000;
 
         public int getPort() {
             return port;
@@ -63,6 +64,14 @@ public class JanusGraphSettings extends Settings {
             this.port = port;
         }
 
+        public int getBulkLoadTransactionSize() {
+            return bulkLoadTransactionSize;
+        }
+
+        public void setBulkLoadTransactionSize(int bulkLoadTransactionSize) {
+            this.bulkLoadTransactionSize = bulkLoadTransactionSize;
+        }
+
         public boolean isEnabled() {
             return enabled;
         }
@@ -26,6 +26,7 @@ import org.janusgraph.core.VertexLabel;
 import org.janusgraph.core.schema.EdgeLabelMaker;
 import org.janusgraph.core.schema.JanusGraphManagement;
 import org.janusgraph.core.schema.VertexLabelMaker;
+import org.janusgraph.graphdb.grpc.ingest.BulkLoadServiceImpl;
 import org.janusgraph.graphdb.grpc.schema.SchemaManagerImpl;
 import org.janusgraph.graphdb.grpc.schema.util.GrpcUtils;
 import org.janusgraph.graphdb.grpc.types.EdgeLabel;
@@ -93,6 +94,7 @@ public abstract class JanusGraphGrpcServerBaseTest {
             .directExecutor()
             .addService(new JanusGraphManagerServiceImpl(contextHandler))
             .addService(new SchemaManagerImpl(contextHandler))
+            .addService(new BulkLoadServiceImpl(contextHandler, 10000))
             .build().start();
         return new Pair<>(server, serverName);
     }
@@ -0,0 +1,143 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.grpc.ingest;
+
+import io.grpc.Status;
+import io.grpc.internal.testing.StreamRecorder;
+import io.grpc.stub.StreamObserver;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.janusgraph.core.JanusGraph;
+import org.janusgraph.graphdb.grpc.JanusGraphGrpcServerBaseTest;
+import org.janusgraph.graphdb.grpc.types.JanusGraphContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BulkLoadServiceImplTest extends JanusGraphGrpcServerBaseTest {
+
+    private static final JanusGraphContext CONTEXT = JanusGraphContext.newBuilder().setGraphName("graph").build();
+
+    private static BulkVertex vertex(String externalId, String name) {
+        return BulkVertex.newBuilder()
+            .setExternalId(externalId)
+            .setLabel("person")
+            .addProperties(PropertyValue.newBuilder().setKey("name").setStringValue(name))
+            .build();
+    }
+
+    private static BulkEdge edge(String outVertex, String inVertex) {
+        return BulkEdge.newBuilder()
+            .setLabel("knows")
+            .setOutVertexExternalId(outVertex)
+            .setInVertexExternalId(inVertex)
+            .addProperties(PropertyValue.newBuilder().setKey("weight").setDoubleValue(0.5))
+            .build();
+    }
+
+    @Test
+    public void testBulkLoadCommitsInTransactionBatches() throws Exception {
+        BulkLoadServiceGrpc.BulkLoadServiceStub stub = BulkLoadServiceGrpc.newStub(managedChannel);
+        StreamRecorder<BulkLoadResponse> recorder = StreamRecorder.create();
+        StreamObserver<BulkLoadRequest> requests = stub.bulkLoad(recorder);
+
+        requests.onNext(BulkLoadRequest.newBuilder()
+            .setContext(CONTEXT)
+            .setOptions(BulkLoadOptions.newBuilder().setTransactionSize(2))
+            .addVertices(vertex("a", "alice"))
+            .addVertices(vertex("b", "bob"))
+            .addVertices(vertex("c", "carol"))
+            .build());
+        requests.onNext(BulkLoadRequest.newBuilder()
+            .addEdges(edge("a", "b"))
+            .addEdges(edge("b", "c"))
+            .build());
+        requests.onCompleted();
+
+        assertTrue(recorder.awaitCompletion(10, TimeUnit.SECONDS));
+        List<BulkLoadResponse> responses = recorder.getValues();
+        assertEquals(2, responses.get(0).getVerticesLoaded());
+        assertEquals(0, responses.get(0).getEdgesLoaded());
+        assertEquals(3, responses.get(1).getVerticesLoaded());
+        assertEquals(1, responses.get(1).getEdgesLoaded());
+        BulkLoadResponse last = responses.get(responses.size() - 1);
+        assertTrue(last.getCompleted());
+        assertEquals(3, last.getVerticesLoaded());
+        assertEquals(2, last.getEdgesLoaded());
+        assertEquals(3, last.getTransactionsCommitted());
+        assertEquals(3, responses.size());
+
+        GraphTraversalSource g = ((JanusGraph) graphManager.getGraph("graph")).traversal();
+        assertEquals(3L, g.V().hasLabel("person").count().next());
+        assertEquals("carol", g.V().has("name", "alice").out("knows").out("knows").values("name").next());
+    }
+
+    @Test
+    public void testBulkLoadResolvesVerticesByExternalIdProperty() throws Exception {
+        JanusGraph graph = (JanusGraph) graphManager.getGraph("graph");
+        graph.addVertex("person").property("extId", "existing");
+        graph.tx().commit();
+
+        BulkLoadServiceGrpc.BulkLoadServiceStub stub = BulkLoadServiceGrpc.newStub(managedChannel);
+        StreamRecorder<BulkLoadResponse> recorder = StreamRecorder.create();
+        StreamObserver<BulkLoadRequest> requests = stub.bulkLoad(recorder);
+        requests.onNext(BulkLoadRequest.newBuilder()
+            .setContext(CONTEXT)
+            .setOptions(BulkLoadOptions.newBuilder().setExternalIdPropertyKey("extId"))
+            .addVertices(vertex("new", "nina"))
+            .addEdges(edge("new", "existing"))
+            .build());
+        requests.onCompleted();
+
+        assertTrue(recorder.awaitCompletion(10, TimeUnit.SECONDS));
+        assertEquals(1L, graph.traversal().V().has("extId", "new").out("knows").has("extId", "existing").count().next());
+    }
+
+    @Test
+    public void testBulkLoadContextIsNull() throws Exception {
+        BulkLoadServiceGrpc.BulkLoadServiceStub stub = BulkLoadServiceGrpc.newStub(managedChannel);
+        StreamRecorder<BulkLoadResponse> recorder = StreamRecorder.create();
+        StreamObserver<BulkLoadRequest> requests = stub.bulkLoad(recorder);
+
+        requests.onNext(BulkLoadRequest.newBuilder().addVertices(vertex("a", "alice")).build());
+        requests.onCompleted();
+
+        assertTrue(recorder.awaitCompletion(10, TimeUnit.SECONDS));
+        assertNotNull(recorder.getError());
+        assertEquals(Status.INVALID_ARGUMENT.getCode(), Status.fromThrowable(recorder.getError()).getCode());
+    }
+
+    @Test
+    public void testBulkLoadUnknownEdgeVertex() throws Exception {
+        BulkLoadServiceGrpc.BulkLoadServiceStub stub = BulkLoadServiceGrpc.newStub(managedChannel);
+        StreamRecorder<BulkLoadResponse> recorder = StreamRecorder.create();
+        StreamObserver<BulkLoadRequest> requests = stub.bulkLoad(recorder);
+
+        requests.onNext(BulkLoadRequest.newBuilder()
+            .setContext(CONTEXT)
+            .addVertices(vertex("a", "alice"))
+            .addEdges(edge("a", "unknown"))
+            .build());
+        requests.onCompleted();
+
+        assertTrue(recorder.awaitCompletion(10, TimeUnit.SECONDS));
+        assertEquals(Status.NOT_FOUND.getCode(), Status.fromThrowable(recorder.getError()).getCode());
+        assertEquals(0L, ((JanusGraph) graphManager.getGraph("graph")).traversal().V().hasLabel("person").count().next());
+    }
+}
@@ -0,0 +1,221 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage;
+
+import org.janusgraph.diskstorage.indexing.IndexTransaction;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreFeatures;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.keycolumnvalue.cache.CacheTransaction;
+import org.janusgraph.diskstorage.keycolumnvalue.cache.KCVSCache;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.EntryArrayList;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.graphdb.query.Query;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BackendTransactionTest {
+
+    private final ExecutorService threadPool = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void shutdown() {
+        threadPool.shutdownNow();
+    }
+
+    @Test
+    public void testIndexTransactionsAreCommittedConcurrently() throws Exception {
+        CountDownLatch commitsStarted = new CountDownLatch(2);
+        IndexTransaction first = mockIndexTransaction(commitsStarted);
+        IndexTransaction second = mockIndexTransaction(commitsStarted);
+
+        Map<String, Throwable> failures = buildTransaction(threadPool, first, second).commitIndexes();
+
+        assertTrue(failures.isEmpty(), failures.toString());
+        verify(first).commit();
+        verify(second).commit();
+    }
+
+    @Test
+    public void testIndexCommitFailuresAreCollected() throws Exception {
+        BackendException failure = new TemporaryBackendException("index unavailable");
+        IndexTransaction failing = mock(IndexTransaction.class);
+        doThrow(failure).when(failing).commit();
+        IndexTransaction succeeding = mock(IndexTransaction.class);
+
+        Map<String, Throwable> failures = buildTransaction(threadPool, failing, succeeding).commitIndexes();
+
+        assertEquals(1, failures.size());
+        assertSame(failure, failures.get("index0"));
+        verify(succeeding).commit();
+    }
+
+    @Test
+    public void testCommitRethrowsIndexFailure() throws Exception {
+        BackendException failure = new TemporaryBackendException("index unavailable");
+        IndexTransaction failing = mock(IndexTransaction.class);
+        doThrow(failure).when(failing).commit();
+        IndexTransaction succeeding = mock(IndexTransaction.class);
+
+        BackendTransaction tx = buildTransaction(null, succeeding, failing);
+
+        assertSame(failure, assertThrows(BackendException.class, tx::commit));
+        verify(succeeding).commit();
+    }
+
+    @Test
+    public void testIndexQueriesAreExecutedConcurrently() throws Exception {
+        CountDownLatch queriesStarted = new CountDownLatch(3);
+        KCVSCache indexStore = mock(KCVSCache.class);
+        when(indexStore.getSlice(any(KeySliceQuery.class), any(StoreTransaction.class))).thenAnswer(invocation -> {
+            queriesStarted.countDown();
+            // Only completes if all index queries are executed at the same time
+            assertTrue(queriesStarted.await(10, TimeUnit.SECONDS), "Index queries were executed serially");
+            return entries(invocation.<KeySliceQuery>getArgument(0));
+        });
+        List<KeySliceQuery> queries = indexQueries(1, 2, 3);
+
+        List<EntryList> results = buildIndexQueryTransaction(threadPool, false, indexStore).indexQuery(queries, Query.NO_LIMIT);
+
+        assertEquals(Arrays.asList(entries(queries.get(0)), entries(queries.get(1)), entries(queries.get(2))), results);
+    }
+
+    @Test
+    public void testConcurrentIndexQueriesRespectLimit() throws Exception {
+        KCVSCache indexStore = mock(KCVSCache.class);
+        when(indexStore.getSlice(any(KeySliceQuery.class), any(StoreTransaction.class)))
+            .thenAnswer(invocation -> entries(invocation.<KeySliceQuery>getArgument(0)));
+        List<KeySliceQuery> queries = indexQueries(2, 2, 2);
+        ExecutorService singleThread = Executors.newSingleThreadExecutor();
+
+        List<EntryList> results;
+        try {
+            results = buildIndexQueryTransaction(singleThread, false, indexStore).indexQuery(queries, 3);
+        } finally {
+            singleThread.shutdownNow();
+        }
+
+        assertEquals(2, results.size());
+        assertEquals(entries(queries.get(0)), results.get(0));
+        assertEquals(entries(queries.get(1)).subList(0, 1), results.get(1));
+        // the last query is not needed since the preceding queries already reached the limit
+        verify(indexStore, times(2)).getSlice(any(KeySliceQuery.class), any(StoreTransaction.class));
+    }
+
+    @Test
+    public void testIndexQueriesUseMultiKeyRead() throws Exception {
+        KCVSCache indexStore = mock(KCVSCache.class);
+        List<KeySliceQuery> queries = indexQueries(1, 2, 3);
+        Map<StaticBuffer, EntryList> storeResults = new HashMap<>();
+        queries.forEach(q -> storeResults.put(q.getKey(), entries(q)));
+        when(indexStore.getSlice(anyList(), any(SliceQuery.class), any(StoreTransaction.class))).thenReturn(storeResults);
+
+        List<EntryList> results = buildIndexQueryTransaction(threadPool, true, indexStore).indexQuery(queries, 4);
+
+        assertEquals(Arrays.asList(entries(queries.get(0)), entries(queries.get(1)), entries(queries.get(2)).subList(0, 1)), results);
+        verify(indexStore).getSlice(anyList(), any(SliceQuery.class), any(StoreTransaction.class));
+        verify(indexStore, never()).getSlice(any(KeySliceQuery.class), any(StoreTransaction.class));
+    }
+
+    @Test
+    public void testMultiKeyReadWithMissingKeys() throws Exception {
+        KCVSCache indexStore = mock(KCVSCache.class);
+        List<KeySliceQuery> queries = indexQueries(1, 0, 2);
+        // the store omits the key without any entries
+        Map<StaticBuffer, EntryList> storeResults = new HashMap<>();
+        storeResults.put(queries.get(0).getKey(), entries(queries.get(0)));
+        storeResults.put(queries.get(2).getKey(), entries(queries.get(2)));
+        when(indexStore.getSlice(anyList(), any(SliceQuery.class), any(StoreTransaction.class))).thenReturn(storeResults);
+
+        List<EntryList> results = buildIndexQueryTransaction(threadPool, true, indexStore).indexQuery(queries, Query.NO_LIMIT);
+
+        assertEquals(Arrays.asList(entries(queries.get(0)), EntryList.EMPTY_LIST, entries(queries.get(2))), results);
+    }
+
+    /**
+     * Creates queries whose results have the given sizes, see {@link #entries(KeySliceQuery)}
+     */
+    private static List<KeySliceQuery> indexQueries(int... resultSizes) {
+        List<KeySliceQuery> queries = new ArrayList<>();
+        for (int i = 0; i < resultSizes.length; i++) {
+            queries.add(new KeySliceQuery(BufferUtil.getIntBuffer(new int[]{i, resultSizes[i]}), BufferUtil.zeroBuffer(1), BufferUtil.oneBuffer(1)));
+        }
+        return queries;
+    }
+
+    private static EntryList entries(KeySliceQuery query) {
+        int size = query.getKey().getInt(4);
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            entries.add(StaticArrayEntry.of(BufferUtil.getIntBuffer(i), query.getKey()));
+        }
+        return EntryArrayList.of(entries);
+    }
+
+    private static IndexTransaction mockIndexTransaction(CountDownLatch commitsStarted) throws BackendException {
+        IndexTransaction itx = mock(IndexTransaction.class);
+        doAnswer(invocation -> {
+            commitsStarted.countDown();
+            // Only completes if the other index transaction is committed at the same time
+            assertTrue(commitsStarted.await(10, TimeUnit.SECONDS), "Index transactions were committed serially");
+            return null;
+        }).when(itx).commit();
+        return itx;
+    }
+
+    private static BackendTransaction buildIndexQueryTransaction(ExecutorService threadPool, boolean multiQuery, KCVSCache indexStore) {
+        StoreFeatures features = mock(StoreFeatures.class);
+        when(features.hasMultiQuery()).thenReturn(multiQuery);
+        return new BackendTransaction(mock(CacheTransaction.class), null, features, null, indexStore, null,
+            Duration.ofSeconds(1), Collections.emptyMap(), threadPool);
+    }
+
+    private static BackendTransaction buildTransaction(ExecutorService threadPool, IndexTransaction... indexTransactions) {
+        Map<String, IndexTransaction> indexTx = new HashMap<>();
+        for (int i = 0; i < indexTransactions.length; i++) {
+            indexTx.put("index" + i, indexTransactions[i]);
+        }
+        return new BackendTransaction(mock(CacheTransaction.class), null, null, null, null, null,
+            Duration.ofSeconds(1), indexTx, threadPool);
+    }
+}
@@ -0,0 +1,37 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.cache;
+
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.cache.ExpirationKCVSCache;
+import org.janusgraph.diskstorage.keycolumnvalue.cache.KCVSCache;
+
+import java.time.Duration;
+
+/**
+ * Runs the cache tests with a heap cache too small for the results, so that most of them are served by the
+ * off-heap cache.
+ */
+public class OffHeapExpirationCacheTest extends KCVSCacheTest {
+
+    public static final long HEAP_CACHE_SIZE = 16 * 1024;
+    public static final long OFF_HEAP_CACHE_SIZE = 1024 * 1024;
+
+    @Override
+    public KCVSCache getCache(KeyColumnValueStore store) {
+        return new ExpirationKCVSCache(store, ExpirationCacheTest.METRICS_STRING, Duration.ofDays(1).toMillis(), 0,
+            HEAP_CACHE_SIZE, OFF_HEAP_CACHE_SIZE, null);
+    }
+}
@@ -200,6 +200,29 @@ public class StaticArrayEntryTest {
         }
     }
 
+    @Test
+    public void testEntryListSerialization() {
+        final Map<Integer,Long> entries = generateRandomEntries();
+        for (String getterName : new String[]{"INSTANCE", "SCHEMA_INSTANCE"}) {
+            for (final EntryList anEl : generateEntryListArray(entries, getterName)) {
+                StaticArrayEntryList list = (StaticArrayEntryList) anEl;
+                ByteBuffer buffer = ByteBuffer.allocateDirect(list.getSerializedSize() + 10);
+                buffer.position(5);
+                list.writeTo(buffer);
+                assertEquals(list.getSerializedSize() + 5, buffer.position());
+
+                buffer.position(5);
+                EntryList copy = StaticArrayEntryList.readFrom(buffer);
+                assertEquals(list.getSerializedSize() + 5, buffer.position());
+                assertEquals(entries.size(), copy.size());
+                for (int i = 0; i < copy.size(); i++) {
+                    checkEntry(copy.get(i), entries);
+                    assertEquals(list.get(i).getMetaData(), copy.get(i).getMetaData());
+                }
+            }
+        }
+    }
+
     @Test
     public void testTTLMetadata() {
         WriteBuffer wb = new WriteByteBuffer(128);
@@ -0,0 +1,135 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.cache;
+
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.log.Log;
+import org.janusgraph.diskstorage.log.kcvs.KCVSMessage;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CacheInvalidationLoggerTest {
+
+    private static final long CACHE_SIZE = 1024 * 1024;
+    private static final StaticBuffer KEY = BufferUtil.getLongBuffer(1);
+    private static final KeySliceQuery QUERY = new KeySliceQuery(KEY, BufferUtil.zeroBuffer(1), BufferUtil.oneBuffer(1));
+
+    private final StoreTransaction storeTx = mock(StoreTransaction.class);
+    private final KeyColumnValueStoreManager manager = mock(KeyColumnValueStoreManager.class);
+    private final KeyColumnValueStore localStore = mockStore();
+    private final KeyColumnValueStore remoteStore = mockStore();
+    private final ExpirationKCVSCache localCache = new ExpirationKCVSCache(localStore, null, Duration.ofDays(1).toMillis(), 0, CACHE_SIZE);
+    private final ExpirationKCVSCache remoteCache = new ExpirationKCVSCache(remoteStore, null, Duration.ofDays(1).toMillis(), 0, CACHE_SIZE);
+    private final Log localLog = mock(Log.class);
+    private final CacheInvalidationLogger localLogger = new CacheInvalidationLogger(localLog, "local", localCache);
+    private final CacheInvalidationLogger remoteLogger = new CacheInvalidationLogger(mock(Log.class), "remote", remoteCache);
+
+    private static KeyColumnValueStore mockStore() {
+        KeyColumnValueStore store = mock(KeyColumnValueStore.class);
+        when(store.getName()).thenReturn("edgestore");
+        try {
+            when(store.getSlice(any(KeySliceQuery.class), any())).thenReturn(EntryList.EMPTY_LIST);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+        return store;
+    }
+
+    @AfterEach
+    public void shutdown() throws Exception {
+        localCache.close();
+        remoteCache.close();
+    }
+
+    private CacheTransaction buildTransaction(CacheInvalidationLogger logger) {
+        return new CacheTransaction(storeTx, manager, 1024, Duration.ofMillis(100), false, 2, null, 1, logger);
+    }
+
+    private List<StaticBuffer> sentMessages(int expected) {
+        ArgumentCaptor<StaticBuffer> content = ArgumentCaptor.forClass(StaticBuffer.class);
+        verify(localLog, times(expected)).add(content.capture());
+        return content.getAllValues();
+    }
+
+    @Test
+    public void testCommitInvalidatesRemoteCache() throws Exception {
+        remoteCache.getSlice(QUERY, buildTransaction(null));
+        remoteCache.getSlice(QUERY, buildTransaction(null));
+        verify(remoteStore, times(1)).getSlice(any(KeySliceQuery.class), any());
+
+        CacheTransaction tx = buildTransaction(localLogger);
+        localCache.mutateEntries(KEY, Collections.singletonList(StaticArrayEntry.of(BufferUtil.getLongBuffer(2), BufferUtil.getLongBuffer(2))),
+            KCVSCache.NO_DELETIONS, tx);
+        tx.commit();
+
+        StaticBuffer message = sentMessages(1).get(0);
+        remoteLogger.read(new KCVSMessage(message, Instant.now(), "local"));
+        remoteCache.getSlice(QUERY, buildTransaction(null));
+        verify(remoteStore, times(2)).getSlice(any(KeySliceQuery.class), any());
+    }
+
+    @Test
+    public void testOwnMessagesAreIgnored() throws Exception {
+        localLogger.sendInvalidations(Collections.singletonMap(localCache, Collections.singletonList(KEY)));
+        StaticBuffer message = sentMessages(1).get(0);
+
+        remoteCache.getSlice(QUERY, buildTransaction(null));
+        remoteLogger.read(new KCVSMessage(message, Instant.now(), "remote"));
+        remoteCache.getSlice(QUERY, buildTransaction(null));
+        verify(remoteStore, times(1)).getSlice(any(KeySliceQuery.class), any());
+    }
+
+    @Test
+    public void testKeysAreSplitAcrossMessages() {
+        List<StaticBuffer> keys = new ArrayList<>();
+        for (int i = 0; i < 2 * CacheInvalidationLogger.MAX_KEYS_PER_MESSAGE + 1; i++) {
+            keys.add(BufferUtil.getLongBuffer(i));
+        }
+        localLogger.sendInvalidations(Collections.singletonMap(localCache, keys));
+        assertEquals(3, sentMessages(3).size());
+    }
+
+    @Test
+    public void testUnregisteredStoresAreNotPublished() throws Exception {
+        CacheTransaction tx = buildTransaction(localLogger);
+        NoKCVSCache otherStore = new NoKCVSCache(localStore);
+        otherStore.mutateEntries(KEY, Collections.singletonList(StaticArrayEntry.of(BufferUtil.getLongBuffer(2), BufferUtil.getLongBuffer(2))),
+            KCVSCache.NO_DELETIONS, tx);
+        tx.commit();
+        verify(localLog, never()).add(any(StaticBuffer.class));
+    }
+}
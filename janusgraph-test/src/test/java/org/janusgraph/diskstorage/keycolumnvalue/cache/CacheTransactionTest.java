@@ -0,0 +1,115 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.cache;
+
+import org.janusgraph.core.JanusGraphException;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.PermanentBackendException;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CacheTransactionTest {
+
+    private final ExecutorService threadPool = Executors.newFixedThreadPool(4);
+    private final StoreTransaction storeTx = mock(StoreTransaction.class);
+    private final KeyColumnValueStoreManager manager = mock(KeyColumnValueStoreManager.class);
+    private final KCVSCache store;
+
+    public CacheTransactionTest() {
+        KeyColumnValueStore backingStore = mock(KeyColumnValueStore.class);
+        when(backingStore.getName()).thenReturn("edgestore");
+        store = new NoKCVSCache(backingStore);
+    }
+
+    @AfterEach
+    public void shutdown() {
+        threadPool.shutdownNow();
+    }
+
+    private static List<Entry> addition(long column) {
+        return Collections.singletonList(StaticArrayEntry.of(BufferUtil.getLongBuffer(column), BufferUtil.getLongBuffer(column)));
+    }
+
+    private CacheTransaction buildTransaction() {
+        return new CacheTransaction(storeTx, manager, 1, Duration.ofMillis(100), true, 2, threadPool, 2);
+    }
+
+    @Test
+    public void testChunksAreFlushedInBackground() throws Exception {
+        CountDownLatch flushesStarted = new CountDownLatch(2);
+        CountDownLatch releaseFlushes = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            flushesStarted.countDown();
+            releaseFlushes.await();
+            return null;
+        }).when(manager).mutateMany(any(), any());
+
+        CacheTransaction tx = buildTransaction();
+        store.mutateEntries(BufferUtil.getLongBuffer(1), addition(1), KCVSCache.NO_DELETIONS, tx);
+        store.mutateEntries(BufferUtil.getLongBuffer(2), addition(2), KCVSCache.NO_DELETIONS, tx);
+        // both chunks are in flight while the transaction continues
+        assertTrue(flushesStarted.await(10, TimeUnit.SECONDS));
+
+        Future<?> commit = threadPool.submit(() -> {
+            tx.commit();
+            return null;
+        });
+        Thread.sleep(100);
+        assertFalse(commit.isDone());
+        verify(storeTx, never()).commit();
+
+        releaseFlushes.countDown();
+        commit.get(10, TimeUnit.SECONDS);
+        verify(manager, times(2)).mutateMany(any(), any());
+        verify(storeTx).commit();
+    }
+
+    @Test
+    public void testFlushFailureIsRethrownOnCommit() throws Exception {
+        doThrow(new PermanentBackendException("write failed")).when(manager).mutateMany(any(), any());
+
+        CacheTransaction tx = buildTransaction();
+        store.mutateEntries(BufferUtil.getLongBuffer(1), addition(1), KCVSCache.NO_DELETIONS, tx);
+
+        assertThrows(JanusGraphException.class, tx::commit);
+        verify(storeTx, never()).commit();
+    }
+}
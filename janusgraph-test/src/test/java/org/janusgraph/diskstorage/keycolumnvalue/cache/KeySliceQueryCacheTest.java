@@ -0,0 +1,101 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.cache;
+
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class KeySliceQueryCacheTest {
+
+    private static final int ENTRY_WEIGHT = 10_000;
+    // Window of a single result, main cache of 99 results
+    private static final long MAXIMUM_WEIGHT = 100L * ENTRY_WEIGHT;
+
+    private final KeySliceQueryCache cache = new KeySliceQueryCache(MAXIMUM_WEIGHT, TimeUnit.DAYS.toMillis(1), 1,
+        (query, entries) -> ENTRY_WEIGHT);
+
+    @Test
+    public void testInvalidateKeyOnlyRemovesResultsOfKey() throws ExecutionException {
+        load(query(1, 0));
+        load(query(1, 1));
+        load(query(2, 0));
+        // Move the results out of the window into the main cache
+        for (int i = 100; i < 110; i++) load(query(i, 0));
+        load(query(1, 2));
+
+        cache.invalidateKey(key(1));
+
+        assertNull(cache.getIfPresent(query(1, 0)));
+        assertNull(cache.getIfPresent(query(1, 1)));
+        assertNull(cache.getIfPresent(query(1, 2)));
+        assertNotNull(cache.getIfPresent(query(2, 0)));
+        for (int i = 100; i < 110; i++) assertNotNull(cache.getIfPresent(query(i, 0)));
+    }
+
+    @Test
+    public void testScanDoesNotEvictFrequentResults() throws ExecutionException {
+        final int hot = 50;
+        for (int i = 0; i < hot; i++) {
+            for (int j = 0; j < 3; j++) load(query(i, 0));
+        }
+        for (int i = hot; i < 1000; i++) load(query(i, 0));
+
+        for (int i = 0; i < hot; i++) assertNotNull(cache.getIfPresent(query(i, 0)), "Evicted result " + i);
+    }
+
+    @Test
+    public void testRepeatedlyRequestedResultIsAdmitted() throws ExecutionException {
+        for (int i = 0; i < 1000; i++) load(query(i, 0));
+        final KeySliceQuery query = query(5000, 0);
+        load(query);
+        load(query);
+        load(query(5001, 0));
+
+        assertNotNull(cache.getIfPresent(query));
+    }
+
+    @Test
+    public void testPutResultsAreInvalidated() {
+        cache.put(query(1, 0), EntryList.EMPTY_LIST);
+        assertNotNull(cache.getIfPresent(query(1, 0)));
+
+        cache.invalidateKey(key(1));
+        assertNull(cache.getIfPresent(query(1, 0)));
+        assertEquals(0, cache.size());
+    }
+
+    private void load(KeySliceQuery query) throws ExecutionException {
+        cache.get(query, () -> EntryList.EMPTY_LIST);
+    }
+
+    private static KeySliceQuery query(int key, int slice) {
+        return new KeySliceQuery(key(key), BufferUtil.getIntBuffer(slice), BufferUtil.getIntBuffer(slice + 1));
+    }
+
+    private static StaticBuffer key(int key) {
+        // Scatter the keys like vertex ids, the hash codes of consecutive integer buffers collide frequently
+        return BufferUtil.getLongBuffer(key * 0x9E3779B97F4A7C15L);
+    }
+}
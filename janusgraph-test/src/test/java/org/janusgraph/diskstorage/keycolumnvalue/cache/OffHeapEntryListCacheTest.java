@@ -0,0 +1,131 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.cache;
+
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.diskstorage.util.StaticArrayEntryList;
+import org.janusgraph.diskstorage.util.WriteByteBuffer;
+import org.janusgraph.util.stats.MetricManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OffHeapEntryListCacheTest {
+
+    private static final String METRICS_PREFIX = "offheaptest";
+    private static final String METRICS_NAME = "store";
+
+    private final OffHeapEntryListCache cache = new OffHeapEntryListCache(8 * 1024, METRICS_PREFIX, METRICS_NAME);
+
+    @AfterEach
+    public void close() {
+        cache.close();
+    }
+
+    @Test
+    public void testResultsMoveToHeap() {
+        final EntryList entries = entries(10);
+        cache.put(query(1, 0), slice(entries));
+        cache.put(query(1, 1), slice(EntryList.EMPTY_LIST));
+
+        final KeySliceQueryCache.CachedSlice slice = cache.remove(query(1, 0));
+        assertNotNull(slice);
+        assertEquals(entries, slice.entries);
+        assertSame(EntryList.EMPTY_LIST, cache.remove(query(1, 1)).entries);
+        assertNull(cache.remove(query(1, 0)));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInvalidateKey() {
+        cache.put(query(1, 0), slice(entries(2)));
+        cache.put(query(1, 1), slice(entries(2)));
+        cache.put(query(2, 0), slice(entries(2)));
+
+        cache.invalidateKey(BufferUtil.getIntBuffer(1));
+
+        assertNull(cache.remove(query(1, 0)));
+        assertNull(cache.remove(query(1, 1)));
+        assertNotNull(cache.remove(query(2, 0)));
+    }
+
+    @Test
+    public void testInvalidateQuery() {
+        cache.put(query(1, 0), slice(entries(2)));
+        cache.put(query(1, 1), slice(entries(2)));
+
+        cache.invalidate(query(1, 0));
+
+        assertNull(cache.remove(query(1, 0)));
+        assertNotNull(cache.remove(query(1, 1)));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testOldestSlabIsEvicted() {
+        final long evictions = counter(OffHeapEntryListCache.M_EVICTIONS);
+        final long hits = counter(OffHeapEntryListCache.M_HITS);
+        final long misses = counter(OffHeapEntryListCache.M_MISSES);
+        // 8 slabs of 1 KB hold 6 results of 165 bytes each
+        final int results = 100;
+        for (int i = 0; i < results; i++) cache.put(query(i, 0), slice(entries(10)));
+
+        assertTrue(cache.size() <= 48, "Cache holds " + cache.size() + " results");
+        assertEquals(results - cache.size(), counter(OffHeapEntryListCache.M_EVICTIONS) - evictions);
+        assertNull(cache.remove(query(0, 0)));
+        assertEquals(entries(10), cache.remove(query(results - 1, 0)).entries);
+        assertEquals(hits + 1, counter(OffHeapEntryListCache.M_HITS));
+        assertEquals(misses + 1, counter(OffHeapEntryListCache.M_MISSES));
+    }
+
+    @Test
+    public void testExpiredResultsAreNotReturned() {
+        cache.put(query(1, 0), new KeySliceQueryCache.CachedSlice(entries(2), System.nanoTime() - 1));
+        assertNull(cache.remove(query(1, 0)));
+    }
+
+    private static long counter(String name) {
+        return MetricManager.INSTANCE.getCounter(METRICS_PREFIX, METRICS_NAME, OffHeapEntryListCache.M_OFF_HEAP, name).getCount();
+    }
+
+    private static KeySliceQueryCache.CachedSlice slice(EntryList entries) {
+        return new KeySliceQueryCache.CachedSlice(entries, System.nanoTime() + TimeUnit.DAYS.toNanos(1));
+    }
+
+    private static EntryList entries(int size) {
+        final List<Entry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(new StaticArrayEntry(new WriteByteBuffer(8).putInt(i).putInt(i * 7).getStaticBuffer(), 4));
+        }
+        return StaticArrayEntryList.of(entries);
+    }
+
+    private static KeySliceQuery query(int key, int slice) {
+        return new KeySliceQuery(BufferUtil.getIntBuffer(key), BufferUtil.getIntBuffer(slice), BufferUtil.getIntBuffer(slice + 1));
+    }
+}
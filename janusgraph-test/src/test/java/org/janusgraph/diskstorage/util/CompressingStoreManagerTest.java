@@ -0,0 +1,192 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.inmemory.InMemoryStoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVMutation;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.util.time.TimestampProviders;
+import org.janusgraph.util.stats.MetricManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CompressingStoreManagerTest {
+
+    private static final String STORE_NAME = "edgestore";
+    private static final StaticBuffer KEY = BufferUtil.getIntBuffer(1);
+    private static final StaticBuffer COLUMN = BufferUtil.getIntBuffer(2);
+
+    private KeyColumnValueStoreManager rawManager;
+    private CompressingStoreManager manager;
+    private StoreTransaction tx;
+
+    @BeforeEach
+    public void setUp() throws BackendException {
+        rawManager = new InMemoryStoreManager();
+        manager = new CompressingStoreManager(rawManager, new DeflateBackendCompression(null),
+            ImmutableSet.of(STORE_NAME), 16, true);
+        tx = manager.beginTransaction(StandardBaseTransactionConfig.of(TimestampProviders.MICRO));
+    }
+
+    @Test
+    public void testCompressedValuesAreReadable() throws BackendException {
+        StaticBuffer value = repetitiveValue(1024);
+        write(manager, value);
+
+        assertEquals(value, read(manager.openDatabase(STORE_NAME)).getValue());
+        StaticBuffer stored = read(rawManager.openDatabase(STORE_NAME)).getValue();
+        assertTrue(stored.length() < value.length() / 4, "Value was not compressed: " + stored.length());
+    }
+
+    @Test
+    public void testValuesWrittenThroughStoreAreCompressed() throws BackendException {
+        StaticBuffer value = repetitiveValue(1024);
+        KeyColumnValueStore store = manager.openDatabase(STORE_NAME);
+        store.mutate(KEY, Collections.singletonList(StaticArrayEntry.of(COLUMN, value)), KeyColumnValueStore.NO_DELETIONS, tx);
+
+        assertEquals(value, read(store).getValue());
+        assertTrue(read(rawManager.openDatabase(STORE_NAME)).getValue().length() < value.length());
+    }
+
+    @Test
+    public void testUncompressedValuesRemainReadable() throws BackendException {
+        StaticBuffer value = repetitiveValue(1024);
+        write(rawManager, value);
+
+        assertEquals(value, read(manager.openDatabase(STORE_NAME)).getValue());
+    }
+
+    @Test
+    public void testSmallAndIncompressibleValuesAreStoredAsIs() throws BackendException {
+        StaticBuffer small = repetitiveValue(8);
+        write(manager, small);
+        assertEquals(small, read(rawManager.openDatabase(STORE_NAME)).getValue());
+
+        StaticBuffer incompressible = StaticArrayBuffer.of(new byte[]{9, 3, 7, 1, 8, 2, 6, 4, 0, 5, 11, 13, 12, 10, 15, 14, 17});
+        write(manager, incompressible);
+        assertEquals(incompressible, read(rawManager.openDatabase(STORE_NAME)).getValue());
+    }
+
+    @Test
+    public void testValuesStartingWithFormatPrefixAreEscaped() throws BackendException {
+        for (byte format = 0; format < 3; format++) {
+            StaticBuffer marked = StaticArrayBuffer.of(new byte[]{(byte) 0xC7, (byte) 0x5A, format, 0, 0, 0, 5, 1, 2, 3, 4, 5});
+            write(manager, marked);
+            assertEquals(marked, read(manager.openDatabase(STORE_NAME)).getValue());
+            assertEquals(marked.length() + 3, read(rawManager.openDatabase(STORE_NAME)).getValue().length());
+        }
+    }
+
+    @Test
+    public void testLockExpectsStoredValue() throws BackendException {
+        StaticBuffer value = repetitiveValue(1024);
+        KeyColumnValueStore lockingStore = mock(KeyColumnValueStore.class);
+        when(lockingStore.getSlice(any(KeySliceQuery.class), any())).thenReturn(StaticArrayEntryList.of(StaticArrayEntry.of(COLUMN, value)));
+        new CompressingStore(lockingStore, manager).acquireLock(KEY, COLUMN, value, tx);
+        // The value is stored uncompressed, f.e. because it was written with a larger minimum size
+        verify(lockingStore).acquireLock(KEY, COLUMN, value, tx);
+
+        StaticBuffer other = repetitiveValue(512);
+        new CompressingStore(lockingStore, manager).acquireLock(KEY, COLUMN, other, tx);
+        verify(lockingStore).acquireLock(KEY, COLUMN, manager.compress(other), tx);
+    }
+
+    @Test
+    public void testOtherStoresAreNotCompressed() throws BackendException {
+        StaticBuffer value = repetitiveValue(1024);
+        KeyColumnValueStore store = manager.openDatabase("graphindex");
+        store.mutate(KEY, Collections.singletonList(StaticArrayEntry.of(COLUMN, value)), KeyColumnValueStore.NO_DELETIONS, tx);
+
+        assertEquals(value, read(rawManager.openDatabase("graphindex")).getValue());
+    }
+
+    @Test
+    public void testBytesSavedAreCounted() throws BackendException {
+        String prefix = tx.getConfiguration().getGroupName();
+        long saved = MetricManager.INSTANCE.getCounter(prefix, CompressingStoreManager.M_COMPRESSION, STORE_NAME,
+            CompressingStoreManager.M_BYTES_SAVED).getCount();
+        long written = MetricManager.INSTANCE.getCounter(prefix, CompressingStoreManager.M_COMPRESSION, STORE_NAME,
+            CompressingStoreManager.M_BYTES_WRITTEN).getCount();
+
+        write(manager, repetitiveValue(1024));
+
+        long savedNow = MetricManager.INSTANCE.getCounter(prefix, CompressingStoreManager.M_COMPRESSION, STORE_NAME,
+            CompressingStoreManager.M_BYTES_SAVED).getCount();
+        assertEquals(written + 1024, MetricManager.INSTANCE.getCounter(prefix, CompressingStoreManager.M_COMPRESSION,
+            STORE_NAME, CompressingStoreManager.M_BYTES_WRITTEN).getCount());
+        assertTrue(savedNow - saved > 512, "Saved only " + (savedNow - saved) + " bytes");
+    }
+
+    @Test
+    public void testDeflateRejectsInvalidInput() {
+        DeflateBackendCompression compression = new DeflateBackendCompression(null);
+        StaticBuffer value = repetitiveValue(100);
+        StaticBuffer compressed = compression.compress(value);
+        assertEquals(value, compression.decompress(compressed));
+
+        byte[] corrupted = compressed.as(StaticBuffer.ARRAY_FACTORY);
+        corrupted[corrupted.length - 1]++;
+        assertThrows(IllegalArgumentException.class, () -> compression.decompress(StaticArrayBuffer.of(corrupted)));
+        byte[] truncated = Arrays.copyOf(compressed.as(StaticBuffer.ARRAY_FACTORY), compressed.length() - 2);
+        assertThrows(IllegalArgumentException.class, () -> compression.decompress(StaticArrayBuffer.of(truncated)));
+        assertThrows(IllegalArgumentException.class, () -> compression.decompress(BufferUtil.getIntBuffer(5)));
+    }
+
+    @Test
+    public void testEntryListsWithoutCompressedValuesAreNotCopied() {
+        EntryList entries = StaticArrayEntryList.of(StaticArrayEntry.of(COLUMN, repetitiveValue(8)));
+        assertSame(entries, manager.decompress(entries));
+    }
+
+    private void write(KeyColumnValueStoreManager target, StaticBuffer value) throws BackendException {
+        KCVMutation mutation = new KCVMutation(Collections.singletonList(StaticArrayEntry.of(COLUMN, value)),
+            KeyColumnValueStore.NO_DELETIONS);
+        target.openDatabase(STORE_NAME);
+        target.mutateMany(ImmutableMap.of(STORE_NAME, ImmutableMap.of(KEY, mutation)), tx);
+    }
+
+    private Entry read(KeyColumnValueStore store) throws BackendException {
+        EntryList entries = store.getSlice(new KeySliceQuery(KEY, BufferUtil.zeroBuffer(4), BufferUtil.oneBuffer(4)), tx);
+        assertEquals(1, entries.size());
+        return entries.get(0);
+    }
+
+    private static StaticBuffer repetitiveValue(int length) {
+        byte[] value = new byte[length];
+        for (int i = 0; i < length; i++) value[i] = (byte) ('a' + i % 7);
+        return StaticArrayBuffer.of(value);
+    }
+}
@@ -66,8 +66,20 @@ public class IDPoolTest {
         testIDPoolWith(partitionID -> new StandardIDPool(idAuthority, partitionID, partitionID, Integer.MAX_VALUE, Duration.ofMillis(2000), 0.2), 10, 20, 100000);
     }
 
+    @Test
+    public void testStandardIDPoolWithThreadLeases() throws InterruptedException {
+        final MockIDAuthority idAuthority = new MockIDAuthority(200);
+        testIDPoolWith(partitionID -> new StandardIDPool(idAuthority, partitionID, partitionID, Integer.MAX_VALUE, Duration.ofMillis(2000), 0.2, 16), 10, 20, 100000, false);
+    }
+
     private void testIDPoolWith(IDPoolFactory poolFactory, final int numPartitions,
                                        final int numThreads, final int attemptsPerThread) throws InterruptedException {
+        testIDPoolWith(poolFactory, numPartitions, numThreads, attemptsPerThread, true);
+    }
+
+    private void testIDPoolWith(IDPoolFactory poolFactory, final int numPartitions,
+                                       final int numThreads, final int attemptsPerThread,
+                                       final boolean consecutiveIds) throws InterruptedException {
         final Random random = new Random();
         final IntSet[] ids = new IntSet[numPartitions];
         final StandardIDPool[] idPools = new StandardIDPool[numPartitions];
@@ -96,6 +108,8 @@ public class IDPoolTest {
         }
         for (int i = 0; i < numThreads; i++) threads[i].join();
         for (final StandardIDPool idPool : idPools) idPool.close();
+        //Ids leased by a thread but not used leave gaps
+        if (!consecutiveIds) return;
         //Verify consecutive id assignment
         for (int i = 0; i < ids.length; i++) {
             IntSet set = ids[i];
@@ -199,6 +213,22 @@ public class IDPoolTest {
         }
     }
 
+    @Test
+    public void testPoolExhaustionWithThreadLeases() {
+        MockIDAuthority idAuthority = new MockIDAuthority(200);
+        int idUpper = 10000;
+        StandardIDPool pool = new StandardIDPool(idAuthority, 0, 1, idUpper, Duration.ofMillis(2000), 0.2, 64);
+        for (int i = 1; i < idUpper * 2; i++) {
+            try {
+                long id = pool.nextID();
+                assertTrue(id < idUpper);
+            } catch (IDPoolExhaustedException e) {
+                assertEquals(idUpper, i);
+                break;
+            }
+        }
+    }
+
     @Test
     public void testPoolExhaustion2() {
         int idUpper = 10000;
@@ -0,0 +1,82 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.idmanagement;
+
+import org.janusgraph.graphdb.database.idassigner.StandardIDPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of {@link StandardIDPool#nextID()} when many threads assign ids from the same pool,
+ * with and without thread-leased id ranges.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StandardIDPoolBenchmark {
+    @Param({"1", "16", "256"})
+    int leaseSize;
+
+    StandardIDPool pool;
+
+    // A fresh pool per iteration keeps the mock authority from running out of ids
+    @Setup(Level.Iteration)
+    public void setUp() {
+        pool = new StandardIDPool(new MockIDAuthority(100000), 0, 0, Long.MAX_VALUE,
+            Duration.ofMinutes(1), 0.3, leaseSize);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Benchmark
+    public long nextID() {
+        return pool.nextID();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(StandardIDPoolBenchmark.class.getSimpleName())
+            .warmupIterations(5)
+            .warmupTime(TimeValue.seconds(1))
+            .measurementIterations(10)
+            .measurementTime(TimeValue.seconds(1))
+            .build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,91 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.query;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LimitAdjustingIteratorTest {
+
+    private static final List<Integer> DATA = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+
+    private static List<Integer> drain(Iterator<Integer> iterator) {
+        List<Integer> result = new ArrayList<>();
+        iterator.forEachRemaining(result::add);
+        return result;
+    }
+
+    @Test
+    public void testReExecution() {
+        List<Integer> reads = new ArrayList<>();
+        LimitAdjustingIterator<Integer> iterator = new LimitAdjustingIterator<Integer>(50, 10) {
+            @Override
+            public Iterator<Integer> getNewIterator(int newLimit) {
+                reads.add(newLimit);
+                return DATA.subList(0, newLimit).iterator();
+            }
+        };
+
+        assertEquals(DATA.subList(0, 50), drain(iterator));
+        assertEquals(Arrays.asList(10, 20, 40, 50), reads);
+    }
+
+    @Test
+    public void testContinuation() {
+        List<Integer> reads = new ArrayList<>();
+        LimitAdjustingIterator<Integer> iterator = new LimitAdjustingIterator<Integer>(50, 10) {
+            @Override
+            public Iterator<Integer> getNewIterator(int newLimit) {
+                reads.add(newLimit);
+                return DATA.subList(0, newLimit).iterator();
+            }
+
+            @Override
+            public Iterator<Integer> getContinuationIterator(Integer lastElement, int limit) {
+                reads.add(limit);
+                return DATA.subList(lastElement + 1, lastElement + 1 + limit).iterator();
+            }
+        };
+
+        assertEquals(DATA.subList(0, 50), drain(iterator));
+        // every element is read exactly once
+        assertEquals(Arrays.asList(10, 10, 20, 10), reads);
+    }
+
+    @Test
+    public void testContinuationExhausted() {
+        LimitAdjustingIterator<Integer> iterator = new LimitAdjustingIterator<Integer>(Integer.MAX_VALUE - 1, 40) {
+            @Override
+            public Iterator<Integer> getNewIterator(int newLimit) {
+                return DATA.subList(0, Math.min(newLimit, DATA.size())).iterator();
+            }
+
+            @Override
+            public Iterator<Integer> getContinuationIterator(Integer lastElement, int limit) {
+                return DATA.subList(lastElement + 1, Math.min(lastElement + 1 + limit, DATA.size())).iterator();
+            }
+        };
+
+        assertEquals(DATA, drain(iterator));
+    }
+}
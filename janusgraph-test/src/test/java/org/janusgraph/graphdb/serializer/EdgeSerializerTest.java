@@ -18,10 +18,23 @@ import org.janusgraph.StorageSetup;
 import org.janusgraph.core.JanusGraphEdge;
 import org.janusgraph.core.JanusGraphVertex;
 import org.janusgraph.core.Multiplicity;
+import org.janusgraph.core.PropertyKey;
 import org.janusgraph.core.schema.JanusGraphManagement;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.graphdb.database.EdgeSerializer;
 import org.janusgraph.graphdb.database.StandardJanusGraph;
+import org.janusgraph.graphdb.internal.InternalRelation;
+import org.janusgraph.graphdb.relations.LazyRelationCache;
+import org.janusgraph.graphdb.relations.RelationCache;
+import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
+import org.janusgraph.graphdb.types.StandardEdgeLabelMaker;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 /**
  * @author Matthias Broecheler (me@matthiasb.com)
  */
@@ -46,4 +59,42 @@ public class EdgeSerializerTest {
 
     }
 
+    @Test
+    public void testLazyPropertyDecoding() {
+        StandardJanusGraph graph = (StandardJanusGraph) StorageSetup.getInMemoryGraph();
+        JanusGraphManagement management = graph.openManagement();
+        PropertyKey time = management.makePropertyKey("time").dataType(Integer.class).make();
+        PropertyKey weight = management.makePropertyKey("weight").dataType(Double.class).make();
+        management.makePropertyKey("name").dataType(String.class).make();
+        ((StandardEdgeLabelMaker) management.makeEdgeLabel("knows")).sortKey(time).signature(weight).make();
+        management.commit();
+
+        StandardJanusGraphTx tx = (StandardJanusGraphTx) graph.newTransaction();
+        JanusGraphVertex v1 = tx.addVertex(), v2 = tx.addVertex();
+        InternalRelation edge = (InternalRelation) v1.addEdge("knows", v2, "time", 5, "weight", 0.5, "name", "bob");
+        EdgeSerializer serializer = graph.getEdgeSerializer();
+        Entry entry = serializer.writeRelation(edge, 0, tx);
+
+        RelationCache eager = serializer.parseRelation(entry, false, tx);
+        RelationCache lazy = serializer.readRelationLazily(entry, tx);
+        assertEquals(eager.relationId, lazy.relationId);
+        assertEquals(eager.getOtherVertexId(), lazy.getOtherVertexId());
+
+        assertEquals(5, (int) lazy.get(tx.getPropertyKey("time").longId()));
+        // the decoding progress is kept on the entry and shared by later reads
+        RelationCache shared = entry.getCache();
+        assertTrue(shared instanceof LazyRelationCache);
+        RelationCache reread = serializer.readRelationLazily(entry, tx);
+        assertEquals(0.5, reread.get(tx.getPropertyKey("weight").longId()), 0.0);
+        assertSame(shared, entry.getCache());
+        assertEquals("bob", lazy.get(tx.getPropertyKey("name").longId()));
+        assertEquals(eager.numProperties(), lazy.numProperties());
+        // once all properties are decoded, a regular cache replaces the lazy one on the entry
+        assertFalse(entry.getCache() instanceof LazyRelationCache);
+        assertEquals(3, entry.getCache().numProperties());
+
+        tx.rollback();
+        graph.close();
+    }
+
 }
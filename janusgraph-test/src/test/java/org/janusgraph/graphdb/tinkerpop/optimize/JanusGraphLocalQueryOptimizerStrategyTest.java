@@ -35,6 +35,7 @@ import static org.apache.tinkerpop.gremlin.process.traversal.Order.asc;
 import static org.apache.tinkerpop.gremlin.process.traversal.Order.desc;
 import static org.janusgraph.graphdb.JanusGraphBaseTest.option;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.BATCH_PROPERTY_PREFETCHING;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.MULTIQUERY_BATCH_SIZE;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.USE_MULTIQUERY;
 import static org.janusgraph.testutil.JanusGraphAssert.assertCount;
 import static org.janusgraph.testutil.JanusGraphAssert.assertNumStep;
@@ -177,4 +178,31 @@ public class JanusGraphLocalQueryOptimizerStrategyTest extends OptimizerStrategy
         assertCount(superV * numV, t);
         assertTrue(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIQUERY_ANNOTATION));
     }
+
+    @Test
+    public void testMultiQueryWithBatchSize() {
+        // a batch size which neither divides the number of super vertices nor the number of adjacent vertices
+        clopen(option(USE_MULTIQUERY), true, option(MULTIQUERY_BATCH_SIZE), 3);
+        makeSampleGraph();
+
+        Traversal t = g.V(sv[0]).outE().inV().union(__.inE("knows").has("weight", 0),__.inE("knows").has("weight", 1),__.inE("knows").has("weight", 2)).profile("~metrics");
+        assertNumStep(numV * 6, 2, (GraphTraversal)t, UnionStep.class, JanusGraphVertexStep.class);
+        assertTrue(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIQUERY_ANNOTATION));
+
+        t = g.V(vs[0],vs[1],vs[2],vs[3],vs[4]).optional(__.inE("knows").has("weight", 0)).profile("~metrics");
+        assertNumStep(14, 1, (GraphTraversal)t, OptionalStep.class);
+        assertTrue(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIQUERY_ANNOTATION));
+
+        assertNumStep(superV * (numV / 5), 2, g.V().has("id", sid).outE("knows").has("weight", 1), JanusGraphStep.class, JanusGraphVertexStep.class);
+        assertNumStep(superV * numV, 2, g.V().has("id", sid).out("knows"), JanusGraphStep.class, JanusGraphVertexStep.class);
+        assertNumStep(superV * numV, 2, g.V().has("id", sid).values("names"), JanusGraphStep.class, JanusGraphPropertiesStep.class);
+
+        t = g.V().has("id", sid).local(__.outE("knows").has("weight", P.between(1, 3)).order().by("weight", desc).limit(10)).profile("~metrics");
+        assertCount(superV * 10, t);
+        assertTrue(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIQUERY_ANNOTATION));
+
+        t = g.V().has("id", sid).values("names").profile("~metrics");
+        assertCount(superV * numV, t);
+        assertTrue(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIQUERY_ANNOTATION));
+    }
 }
@@ -27,6 +27,7 @@ import org.janusgraph.graphdb.database.serialize.Serializer;
 import org.janusgraph.graphdb.idmanagement.IDManager;
 import org.janusgraph.graphdb.query.index.IndexSelectionStrategy;
 import org.janusgraph.graphdb.query.index.ThresholdBasedIndexSelectionStrategy;
+import org.janusgraph.graphdb.transaction.vertexcache.VertexCacheType;
 import org.junit.jupiter.api.Test;
 
 import static org.easymock.EasyMock.expect;
@@ -82,6 +83,7 @@ public class StandardJanusGraphTxTest extends EasyMockSupport {
         expect(txConfig.hasVerifyExternalVertexExistence()).andReturn(false);
         expect(txConfig.hasVerifyInternalVertexExistence()).andReturn(false);
         expect(txConfig.getVertexCacheSize()).andReturn(6);
+        expect(txConfig.getVertexCacheType()).andReturn(VertexCacheType.GUAVA);
         expect(txConfig.isReadOnly()).andReturn(true);
         expect(txConfig.getDirtyVertexSize()).andReturn(2);
         expect(txConfig.getIndexCacheWeight()).andReturn(2L);
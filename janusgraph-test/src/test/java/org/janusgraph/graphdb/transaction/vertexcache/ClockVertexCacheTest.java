@@ -0,0 +1,135 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.transaction.vertexcache;
+
+import org.janusgraph.core.JanusGraph;
+import org.janusgraph.core.JanusGraphFactory;
+import org.janusgraph.graphdb.internal.ElementLifeCycle;
+import org.janusgraph.graphdb.internal.InternalVertex;
+import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
+import org.janusgraph.graphdb.vertices.StandardVertex;
+import org.janusgraph.util.datastructures.Retriever;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ClockVertexCacheTest {
+
+    private static final byte MODIFIED = 4;
+
+    private JanusGraph graph;
+    private StandardJanusGraphTx tx;
+    private final Map<Long, InternalVertex> vertices = new HashMap<>();
+    private int retrievals;
+
+    private final Retriever<Long, InternalVertex> retriever = id -> {
+        retrievals++;
+        return vertices.computeIfAbsent(id, i -> new StandardVertex(tx, i, ElementLifeCycle.Loaded));
+    };
+
+    @BeforeEach
+    public void setUp() {
+        graph = JanusGraphFactory.build().set("storage.backend", "inmemory").open();
+        tx = (StandardJanusGraphTx) graph.newTransaction();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        tx.rollback();
+        graph.close();
+    }
+
+    @Test
+    public void testRetrievedVerticesAreCached() {
+        final ClockVertexCache cache = new ClockVertexCache(10, 2);
+        assertFalse(cache.contains(1));
+
+        final InternalVertex vertex = cache.get(1, retriever);
+        assertEquals(1, vertex.longId());
+        assertTrue(cache.contains(1));
+        assertSame(vertex, cache.get(1, retriever));
+        assertEquals(1, retrievals);
+    }
+
+    @Test
+    public void testReferencedVerticesSurviveEviction() {
+        final ClockVertexCache cache = new ClockVertexCache(100, 2);
+        final InternalVertex hot = cache.get(1, retriever);
+        for (long id = 2; id <= 1000; id++) {
+            cache.get(id, retriever);
+            assertSame(hot, cache.get(1, retriever));
+        }
+        assertEquals(100, cache.size());
+        assertEquals(1000, retrievals);
+        assertFalse(cache.contains(2));
+        assertTrue(cache.contains(1000));
+    }
+
+    @Test
+    public void testModifiedVerticesAreRetainedOnEviction() {
+        final ClockVertexCache cache = new ClockVertexCache(16, 2);
+        final InternalVertex modified = new StandardVertex(tx, 1, MODIFIED);
+        cache.add(modified, 1);
+        final InternalVertex added = new StandardVertex(tx, 2, ElementLifeCycle.New);
+        cache.add(added, 2);
+        for (long id = 3; id <= 100; id++) cache.get(id, retriever);
+
+        assertEquals(16, cache.size());
+        assertTrue(cache.contains(1));
+        assertSame(modified, cache.get(1, retriever));
+        assertSame(added, cache.get(2, retriever));
+        assertEquals(Collections.singletonList(added), cache.getAllNew());
+
+        cache.close();
+        assertFalse(cache.contains(1));
+        assertTrue(cache.getAllNew().isEmpty());
+    }
+
+    @Test
+    public void testZeroSizeCacheRetrievesEveryVertex() {
+        final ClockVertexCache cache = new ClockVertexCache(0, 2);
+        cache.get(1, retriever);
+        cache.get(1, retriever);
+        assertFalse(cache.contains(1));
+        assertEquals(2, retrievals);
+    }
+
+    @Test
+    public void testCachedVerticesMatchTheirIds() {
+        final ClockVertexCache cache = new ClockVertexCache(500, 2);
+        final Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            // Skewed ids, so that some vertices are referenced again before they get evicted
+            final long id = (long) Math.exp(random.nextDouble() * Math.log(5000)) * 4;
+            assertEquals(id, cache.get(id, retriever).longId());
+        }
+        assertEquals(500, cache.size());
+        int cached = 0;
+        for (long id : vertices.keySet()) {
+            if (cache.contains(id)) cached++;
+        }
+        assertEquals(500, cached);
+    }
+}
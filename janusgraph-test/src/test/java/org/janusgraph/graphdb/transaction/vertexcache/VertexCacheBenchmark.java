@@ -0,0 +1,123 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.transaction.vertexcache;
+
+import org.janusgraph.core.JanusGraphFactory;
+import org.janusgraph.graphdb.database.StandardJanusGraph;
+import org.janusgraph.graphdb.internal.ElementLifeCycle;
+import org.janusgraph.graphdb.internal.InternalVertex;
+import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
+import org.janusgraph.graphdb.vertices.CacheVertex;
+import org.janusgraph.util.datastructures.Retriever;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link VertexCache} implementations on a skewed sequence of vertex lookups, where the hot vertices
+ * fit into the cache but the whole set of accessed vertices does not.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class VertexCacheBenchmark {
+    private static final int VERTICES = 100000;
+    private static final int LOOKUPS = 1 << 16;
+
+    @Param({"guava", "clock"})
+    String cacheType;
+
+    @Param({"1000", "20000"})
+    int cacheSize;
+
+    StandardJanusGraph graph;
+    StandardJanusGraphTx tx;
+    InternalVertex[] vertices;
+    long[] lookups;
+    Retriever<Long, InternalVertex> retriever;
+    VertexCache cache;
+
+    @Setup
+    public void setUp() {
+        graph = (StandardJanusGraph) JanusGraphFactory.build().set("storage.backend", "inmemory").open();
+        tx = (StandardJanusGraphTx) graph.newTransaction();
+        vertices = new InternalVertex[VERTICES];
+        for (int i = 0; i < VERTICES; i++) {
+            vertices[i] = new CacheVertex(tx, id(i), ElementLifeCycle.Loaded);
+        }
+        retriever = id -> vertices[(int) (id >>> 8)];
+        final Random random = new Random(42);
+        lookups = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookups[i] = id((int) Math.exp(random.nextDouble() * Math.log(VERTICES)));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void createCache() {
+        cache = VertexCacheType.parse(cacheType).create(cacheSize, 1, 32);
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeCache() {
+        cache.close();
+    }
+
+    @TearDown
+    public void tearDown() {
+        tx.rollback();
+        graph.close();
+    }
+
+    @Benchmark
+    public void get(Blackhole blackhole) {
+        for (long id : lookups) {
+            blackhole.consume(cache.get(id, retriever));
+        }
+    }
+
+    private static long id(int i) {
+        return ((long) i << 8) | 4;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(VertexCacheBenchmark.class.getSimpleName())
+            .warmupIterations(5)
+            .warmupTime(TimeValue.seconds(1))
+            .measurementIterations(10)
+            .measurementTime(TimeValue.seconds(1))
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,110 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.vertices;
+
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SliceQueryCacheTest {
+
+    private final SliceQueryCache cache = new SliceQueryCache();
+
+    @Test
+    public void testUnlimitedQueriesSubsumeContainedSlices() {
+        cache.put(query(10, 20), EntryList.EMPTY_LIST);
+        cache.put(query(30, 50), EntryList.EMPTY_LIST);
+        cache.put(query(35, 40), EntryList.EMPTY_LIST);
+
+        assertSame(EntryList.EMPTY_LIST, cache.get(query(35, 40)));
+        assertEquals(query(10, 20), cache.getSuperResultSet(query(12, 20)).getKey());
+        assertEquals(query(30, 50), cache.getSuperResultSet(query(36, 38)).getKey());
+        assertEquals(query(30, 50), cache.getSuperResultSet(query(30, 40).setLimit(5)).getKey());
+        assertNull(cache.getSuperResultSet(query(15, 35)));
+        assertNull(cache.getSuperResultSet(query(5, 15)));
+
+        // The new query contains both indexed ones
+        cache.put(query(0, 60), EntryList.EMPTY_LIST);
+        assertEquals(query(0, 60), cache.getSuperResultSet(query(15, 35)).getKey());
+        assertEquals(4, cache.size());
+    }
+
+    @Test
+    public void testLimitedQueriesSubsumeQueriesWithSameStart() {
+        cache.put(query(10, 20).setLimit(10), EntryList.EMPTY_LIST);
+        cache.put(query(10, 30).setLimit(5), EntryList.EMPTY_LIST);
+
+        assertEquals(query(10, 20).setLimit(10), cache.getSuperResultSet(query(10, 15).setLimit(8)).getKey());
+        assertEquals(query(10, 30).setLimit(5), cache.getSuperResultSet(query(10, 25).setLimit(5)).getKey());
+        assertNull(cache.getSuperResultSet(query(10, 25).setLimit(6)));
+        assertNull(cache.getSuperResultSet(query(11, 15).setLimit(1)));
+        assertNull(cache.getSuperResultSet(query(10, 15)));
+
+        cache.put(query(10, 40).setLimit(20), EntryList.EMPTY_LIST);
+        assertEquals(query(10, 40).setLimit(20), cache.getSuperResultSet(query(10, 25).setLimit(6)).getKey());
+    }
+
+    @Test
+    public void testClear() {
+        cache.put(query(10, 20), EntryList.EMPTY_LIST);
+        cache.put(query(10, 20).setLimit(1), EntryList.EMPTY_LIST);
+        cache.put(query(10, 30), null);
+        assertEquals(2, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNull(cache.get(query(10, 20)));
+        assertNull(cache.getSuperResultSet(query(12, 15)));
+    }
+
+    @Test
+    public void testSubsumingQueriesAreFound() {
+        final Random random = new Random(42);
+        final List<SliceQuery> cached = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            final SliceQuery query = randomQuery(random);
+            cache.put(query, EntryList.EMPTY_LIST);
+            cached.add(query);
+            for (int j = 0; j < 20; j++) {
+                final SliceQuery probe = randomQuery(random);
+                final Map.Entry<SliceQuery, EntryList> superset = cache.getSuperResultSet(probe);
+                final boolean subsumed = cached.stream().anyMatch(q -> q.subsumes(probe));
+                assertEquals(subsumed, superset != null, "Probe " + probe + " after " + cached);
+                if (superset != null) assertTrue(superset.getKey().subsumes(probe));
+            }
+        }
+    }
+
+    private static SliceQuery randomQuery(Random random) {
+        final int start = random.nextInt(100);
+        final SliceQuery query = query(start, start + 1 + random.nextInt(20));
+        return random.nextBoolean() ? query : query.setLimit(1 + random.nextInt(10));
+    }
+
+    private static SliceQuery query(int start, int end) {
+        return new SliceQuery(BufferUtil.getIntBuffer(start), BufferUtil.getIntBuffer(end));
+    }
+}